@@ -0,0 +1,258 @@
+/**
+ *
+ */
+package de.upb.t2t.control.sqlite;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.sqlite.SQLiteConfig;
+
+/**
+ * <p>
+ * A fixed-size pool of read-only connections to an SQLite database in WAL journal mode, in which
+ * readers neither block each other nor the writer. Connections are opened lazily up to the pool's
+ * size. Should all of them be in use, callers wait for the next one to be released.
+ * </p>
+ * <p>
+ * Auto-commit is disabled on every connection, so that several queries of one caller see one and
+ * the same snapshot. {@link #release(StatementCache)} always ends the transaction, so that no
+ * snapshot outlives the read it was taken for and the WAL file can be checkpointed.
+ * </p>
+ * <p>
+ * Once the pool has been closed, callers waiting for a connection give up and connections
+ * released late are closed rather than handed back.
+ * </p>
+ * <p>
+ * Each connection is handed out along with its {@link StatementCache}, so that the statements
+ * prepared on it are reused by every caller it is handed to.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see SQLiteBridgeDesktop
+ */
+class ReadConnectionPool {
+
+	/* Static Variables */
+	/** The time {@link #close()} waits for connections in use in seconds. */
+	private static final int CLOSE_TIMEOUT = 10;
+	/** The interval at which waiting callers check whether the pool has been closed in ms. */
+	private static final int WAIT_INTERVAL = 100;
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The pool's logger object. */
+	private final Logger logger;
+	/** The JDBC URL of the database. */
+	private final String url;
+	/** The maximum number of connections. */
+	private final int size;
+	/** The size of each connection's page cache in KiB. */
+	private final int cacheSize;
+	/** The number of bytes of the database each connection may map into memory. */
+	private final long mmapSize;
+	/** The connections that are currently not in use. */
+	private final BlockingQueue<StatementCache> idle;
+	/** The number of connections opened so far. */
+	private final AtomicInteger opened;
+	/** The number of connections handed out so far. */
+	private final AtomicLong acquisitions;
+	/** The number of times a caller had to wait for a connection. */
+	private final AtomicLong waits;
+	/** The number of prepared statements reused, shared by all connections. */
+	private final AtomicLong statementHits;
+	/** The number of statements prepared, shared by all connections. */
+	private final AtomicLong statementMisses;
+	/** Indicates whether or not the pool has been closed. */
+	private volatile boolean closed;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link ReadConnectionPool} class.
+	 *
+	 * @param url
+	 *            the JDBC URL of the database.
+	 * @param size
+	 *            the maximum number of connections; must be positive.
+	 * @param cacheSize
+	 *            the size of each connection's page cache in KiB.
+	 * @param mmapSize
+	 *            the number of bytes of the database each connection may map into memory;
+	 *            <code>0</code> to disable memory-mapped I/O.
+	 * @param statementHits
+	 *            the counter to increment whenever a prepared statement is reused.
+	 * @param statementMisses
+	 *            the counter to increment whenever a statement has to be prepared.
+	 */
+	ReadConnectionPool(String url, int size, int cacheSize, long mmapSize, AtomicLong statementHits,
+			AtomicLong statementMisses) {
+		logger = Logger.getLogger(getClass().getName());
+		this.url = url;
+		this.size = size;
+		this.cacheSize = cacheSize;
+		this.mmapSize = mmapSize;
+		this.statementHits = statementHits;
+		this.statementMisses = statementMisses;
+		idle = new LinkedBlockingQueue<StatementCache>();
+		opened = new AtomicInteger();
+		acquisitions = new AtomicLong();
+		waits = new AtomicLong();
+	}
+
+	/* Object Methods */
+	/**
+	 * Hands out an idle connection, opens a new one or waits for one to be released, in that
+	 * order. Each connection must be handed back by means of {@link #release(StatementCache)}.
+	 *
+	 * @return a read-only connection along with its prepared statements.
+	 * @throws SQLException
+	 *             if the pool has been closed, even while waiting, a new connection cannot be
+	 *             opened or the calling thread is interrupted while waiting.
+	 */
+	StatementCache acquire() throws SQLException {
+		if (closed) {
+			throw new SQLException("The database has been closed!");
+		}
+		acquisitions.incrementAndGet();
+
+		StatementCache result = idle.poll();
+		if (result != null) {
+			return result;
+		}
+		if (opened.incrementAndGet() <= size) {
+			try {
+				return open();
+			} catch (SQLException | RuntimeException e) {
+				opened.decrementAndGet();
+				throw e;
+			}
+		}
+		opened.decrementAndGet();
+
+		// Wait for a connection to be released, but give up as soon as the pool is closed.
+		waits.incrementAndGet();
+		try {
+			while (true) {
+				result = idle.poll(WAIT_INTERVAL, TimeUnit.MILLISECONDS);
+				if (closed) {
+					if (result != null) {
+						discard(result);
+					}
+					throw new SQLException("The database has been closed!");
+				}
+				if (result != null) {
+					return result;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a database connection!", e);
+		}
+	}
+
+	/**
+	 * Ends the read transaction of the given connection and hands it back to the pool, or closes
+	 * it if the pool has been closed in the meantime.
+	 *
+	 * @param conn
+	 *            a connection obtained from {@link #acquire()}.
+	 */
+	void release(StatementCache conn) {
+		try {
+			conn.getConnection().rollback();
+		} catch (SQLException e) {
+			logger.log(Level.WARNING, "Unable to end read transaction! Discarding the connection.", e);
+			discard(conn);
+			return;
+		}
+		idle.offer(conn);
+
+		// close() may have stopped waiting already, so close the connection unless it has taken it.
+		if (closed && idle.remove(conn)) {
+			discard(conn);
+		}
+	}
+
+	/**
+	 * Closes all connections. Connections still in use are closed as soon as they are released;
+	 * the method waits for them for no longer than {@link #CLOSE_TIMEOUT} seconds, though.
+	 */
+	void close() {
+		closed = true;
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CLOSE_TIMEOUT);
+		try {
+			while (opened.get() > 0) {
+				StatementCache conn = idle.poll(WAIT_INTERVAL, TimeUnit.MILLISECONDS);
+				if (conn != null) {
+					discard(conn);
+				} else if (System.nanoTime() - deadline > 0) {
+					logger.warning("Gave up waiting for " + opened.get() + " database connection(s) in use.");
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Opens a new read-only connection and applies the pool's pragmas.
+	 *
+	 * @return the new connection along with an empty statement cache.
+	 * @throws SQLException
+	 *             if the connection cannot be opened.
+	 */
+	private StatementCache open() throws SQLException {
+		SQLiteConfig config = new SQLiteConfig();
+		config.setReadOnly(true);
+		Connection conn = DriverManager.getConnection(url, config.toProperties());
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("PRAGMA cache_size = -" + cacheSize + ";");
+			stmt.execute("PRAGMA mmap_size = " + mmapSize + ";");
+		}
+		conn.setAutoCommit(false);
+		logger.fine("Opened read connection " + opened.get() + "/" + size + ".");
+		return new StatementCache(conn, statementHits, statementMisses);
+	}
+
+	/**
+	 * Closes the given connection and its statements, which are not to be handed out again.
+	 *
+	 * @param conn
+	 *            the connection to close.
+	 */
+	private void discard(StatementCache conn) {
+		opened.decrementAndGet();
+		try {
+			conn.close();
+		} catch (SQLException e) {
+			logger.log(Level.FINE, "Unable to close read connection.", e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Read connection pool (" + opened.get() + "/" + size + " connections): " + acquisitions.get()
+				+ " acquisitions, " + waits.get() + " waits";
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #size} attribute.
+	 *
+	 * @return the maximum number of connections.
+	 */
+	int getSize() {
+		return size;
+	}
+}
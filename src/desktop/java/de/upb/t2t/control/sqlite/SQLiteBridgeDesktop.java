@@ -1,5 +1,6 @@
 package de.upb.t2t.control.sqlite;
 
+import java.io.File;
 import java.net.URISyntaxException;
 import java.sql.Connection;
 import java.sql.DriverManager;
@@ -8,14 +9,22 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import config.ConfigProvider;
 import de.upb.t2t.control.database.AbstractSQLiteBridge;
+import de.upb.t2t.control.database.LexiconVisitor;
 import de.upb.t2t.model.CurrencyCharacter;
-import de.upb.t2t.model.DatabaseEntry;
 import de.upb.t2t.model.PunctuationCharacter;
 import de.upb.t2t.model.TranscriptionItem;
 import de.upb.t2t.model.TranscriptionType;
@@ -23,7 +32,29 @@ import de.upb.t2t.model.Variety;
 import de.upb.t2t.model.WordClass;
 
 /**
+ * <p>
  * An implementation of the {@link AbstractSQLiteBridge} class on a desktop operating system.
+ * </p>
+ * <p>
+ * The database is run in WAL journal mode. All reads are answered from a
+ * {@link ReadConnectionPool}, each of them inside a short transaction of its own, so that readers
+ * neither wait for one another nor for the writer. All changes go through a single writer
+ * connection serialised by the bridge's {@link #lock}. Reads that are part of a change use the
+ * writer connection as well, so that they see the change's uncommitted rows. The size of the pool
+ * and the page cache and memory-mapping pragmas can be tuned by means of
+ * {@link #configure(int, int, long)}.
+ * </p>
+ * <p>
+ * Every connection keeps the statements prepared on it in a {@link StatementCache}, so that each
+ * query and update is parsed and planned only once per connection. All values are bound as
+ * parameters rather than concatenated into the SQL.
+ * </p>
+ * <p>
+ * The schema is brought up to date by a {@link SchemaMigrator} whenever the database is opened.
+ * Both lemmas and transcription items are indexed and unique, so that a lemma is resolved by a
+ * single indexed join regardless of the size of the lexicon and duplicates are rejected by the
+ * database itself.
+ * </p>
  *
  * @author Michel May (michel-may@gmx.de
  *
@@ -36,16 +67,104 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	 * {@link PreparedStatement} objects throughout this class.
 	 */
 	private static final String QUERY_LEMMA = "SELECT * FROM lemmas WHERE `lemma` = ?";
+	/** Fetches the lemma of the given ID. */
+	private static final String QUERY_LEMMA_BY_ID = "SELECT `lemma` FROM lemmas WHERE `id` = ?";
+	/** Fetches all lemmas. */
+	private static final String QUERY_ALL_LEMMAS = "SELECT `lemma` FROM lemmas";
+	/** Fetches the transcription item of the given ID. */
+	private static final String QUERY_ITEM = "SELECT * FROM transItems WHERE `transID` = ?";
+	/** Fetches the ID of the row inserted last on the same connection. */
+	private static final String QUERY_LAST_ID = "SELECT last_insert_rowid()";
+	/** Stores a new lemma. */
+	private static final String INSERT_LEMMA = "INSERT INTO lemmas (`lemma`) VALUES (?)";
+	/** Stores a new lemma unless it is stored already. */
+	private static final String INSERT_LEMMA_IF_ABSENT = "INSERT OR IGNORE INTO lemmas (`lemma`) VALUES (?)";
+	/** Stores a new transcription item of the given lemma unless an identical one is stored already. */
+	private static final String INSERT_ITEM_IF_ABSENT = "INSERT OR IGNORE INTO transItems (`id`, `transcription`, `transType`, `wordClassID`, `varietyID`) "
+			+ "SELECT `id`, ?, ?, ?, ? FROM lemmas WHERE `lemma` = ?";
+	/** Stores a new transcription item. */
+	private static final String INSERT_ITEM = "INSERT INTO transItems (`id`, `transcription`, `transType`, `wordClassID`, `varietyID`) VALUES (?, ?, ?, ?, ?)";
+	/** Renames the lemma of the given ID. */
+	private static final String UPDATE_LEMMA = "UPDATE lemmas SET `lemma` = ? WHERE `id` = ?";
+	/** Changes the transcription item of the given ID. */
+	private static final String UPDATE_ITEM = "UPDATE transItems SET `transcription` = ?, `transType` = ?, `wordClassID` = ?, `varietyID` = ? WHERE `transID` = ?";
+	/** Removes the lemma of the given ID. */
+	private static final String DELETE_LEMMA = "DELETE FROM lemmas WHERE `id` = ?";
+	/** Removes all transcription items of the given lemma ID. */
+	private static final String DELETE_ITEMS = "DELETE FROM transItems WHERE `id` = ?";
+	/** Removes the transcription item of the given ID. */
+	private static final String DELETE_ITEM = "DELETE FROM transItems WHERE `transID` = ?";
+	/**
+	 * The beginning of the set-based query used by {@link #lookUpTranscriptionItems(Collection)}.
+	 * It has to be completed with one parameter per lemma and a closing bracket.
+	 */
+	private static final String QUERY_LEMMAS_JOINED = "SELECT l.`id`, l.`lemma`, t.`transID`, t.`transcription`, t.`transType`, t.`wordClassID`, t.`varietyID` "
+			+ "FROM lemmas l JOIN transItems t ON t.`id` = l.`id` WHERE l.`lemma` IN (";
+	/** Resolves a single lemma by joining the lemmas and the transItems tables. */
+	private static final String QUERY_LEMMA_JOINED = "SELECT l.`id`, l.`lemma`, t.`transID`, t.`transcription`, t.`transType`, t.`wordClassID`, t.`varietyID` "
+			+ "FROM lemmas l JOIN transItems t ON t.`id` = l.`id` WHERE l.`lemma` = ? ORDER BY t.`transID`";
+	/** Reads all lemmas along with their items in order to build the in-memory lexicon. */
+	private static final String QUERY_ALL_LEMMAS_JOINED = "SELECT l.`id`, l.`lemma`, t.`transID`, t.`transcription`, t.`transType`, t.`wordClassID`, t.`varietyID` "
+			+ "FROM lemmas l JOIN transItems t ON t.`id` = l.`id` ORDER BY l.`id`, t.`transID`";
+	/**
+	 * Reads all lemmas along with their items for {@link #visitLexicon(LexiconVisitor)}. The order
+	 * is the one of the lemmas_lemma and transItems_entry indexes, so that SQLite walks them
+	 * without sorting anything.
+	 */
+	private static final String QUERY_LEXICON = "SELECT l.`lemma`, t.`transID`, t.`transcription`, t.`transType`, t.`wordClassID`, t.`varietyID` "
+			+ "FROM lemmas l JOIN transItems t ON t.`id` = l.`id` "
+			+ "ORDER BY l.`lemma`, t.`wordClassID`, t.`varietyID`, t.`transcription`";
+	/**
+	 * The maximum number of lemmas per execution of {@link #QUERY_LEMMAS_JOINED}. SQLite does not
+	 * accept more than 999 parameters per statement by default.
+	 */
+	private static final int MAX_LEMMAS_PER_QUERY = 999;
+	/** The error code of an SQLException thrown due to a constraint violation. */
+	private static final int SQLITE_CONSTRAINT = 19;
+	/** The size of each connection's page cache in KiB by default. */
+	public static final int DEFAULT_CACHE_SIZE = 8192;
+	/** The number of bytes of the database each connection may map into memory by default. */
+	public static final long DEFAULT_MMAP_SIZE = 64L * 1024 * 1024;
 
 	/* Static Methods */
+	/**
+	 * Completes the {@link #QUERY_LEMMAS_JOINED} for the given number of lemmas.
+	 *
+	 * @param parameters
+	 *            the number of lemmas per execution; at most {@link #MAX_LEMMAS_PER_QUERY}.
+	 * @return the query's SQL.
+	 */
+	private static String getLemmasJoinedQuery(int parameters) {
+		StringBuilder sql = new StringBuilder(QUERY_LEMMAS_JOINED);
+		for (int i = 0; i < parameters; i++) {
+			sql.append(i == 0 ? "?" : ", ?");
+		}
+		return sql.append(") ORDER BY l.`id`, t.`transID`").toString();
+	}
+
 
 	/* Object Variables */
 	/** The bridge's logger object. */
 	private Logger logger;
-	/** The bridge's connection object. */
-	private Connection conn;
-	/** The bridge's lock object. */
+	/**
+	 * The bridge's only connection allowed to write, along with its prepared statements; also used
+	 * by reads that are part of a change.
+	 */
+	private StatementCache writer;
+	/** The connections answering all other reads; <code>null</code> while the database is closed. */
+	private volatile ReadConnectionPool readers;
+	/** The bridge's lock object, serialising all changes and access to the {@link #writer}. */
 	private ReentrantLock lock;
+	/** The maximum number of read connections. */
+	private int readerCount;
+	/** The size of each connection's page cache in KiB. */
+	private int cacheSize;
+	/** The number of bytes of the database each connection may map into memory. */
+	private long mmapSize;
+	/** The number of prepared statements reused by any connection. */
+	private AtomicLong statementHits;
+	/** The number of statements prepared by any connection. */
+	private AtomicLong statementMisses;
 
 	/* Constructors */
 	/**
@@ -54,6 +173,11 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	public SQLiteBridgeDesktop() {
 		logger = Logger.getLogger(getClass().getName());
 		lock = new ReentrantLock(true);
+		readerCount = Runtime.getRuntime().availableProcessors();
+		cacheSize = DEFAULT_CACHE_SIZE;
+		mmapSize = DEFAULT_MMAP_SIZE;
+		statementHits = new AtomicLong();
+		statementMisses = new AtomicLong();
 		try {
 			openDatabase();
 		} catch (ClassNotFoundException | SQLException | URISyntaxException e) {
@@ -63,17 +187,20 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 
 	/* Object Methods */
 	/**
-	 * The first thing this method does is setting the {@link #conn} variable to <code>null</code>
+	 * The first thing this method does is setting the {@link #writer} variable to <code>null</code>
 	 * to make sure no faulty remnant of an earlier connection, potentially causing conflicts, is
-	 * left. The method then proceeds to initialise the {@link #conn} variable with the help of the
-	 * JDBC {@link DriverManager}. Should this operation fail, the corresponding exception is thrown
-	 * and the variable remains <code>null</code>
+	 * left. The method then proceeds to initialise the {@link #writer} variable with the help of the
+	 * JDBC {@link DriverManager}, switches the database to WAL journal mode, applies any missing
+	 * migrations by means of a {@link SchemaMigrator} and creates a new {@link ReadConnectionPool}.
+	 * Should this operation fail, the corresponding exception is thrown and the variable remains
+	 * <code>null</code>
 	 *
 	 * @throws ClassNotFoundException
 	 *             if the JDBC driver class could not be loaded.
 	 * @throws SQLException
 	 *             if the connection could not be established for some other reason (e.g. the
-	 *             <code>.db</code> is missing or inaccessible).
+	 *             <code>.db</code> is missing or inaccessible) or the database could not be
+	 *             migrated.
 	 * @throws URISyntaxException
 	 *             if {@link ConfigProvider#getResourceAsFile(String)} throws one.
 	 */
@@ -81,193 +208,508 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	public void openDatabase() throws ClassNotFoundException, SQLException, URISyntaxException {
 		lock.lock();
 		try {
-			conn = null;
+			writer = null;
 			Class.forName("org.sqlite.JDBC");
-			conn = DriverManager
-					.getConnection("jdbc:sqlite:" + new ConfigProvider().getResourceAsFile("T2T.db").getPath());
-			conn.setAutoCommit(false);
+			String url = "jdbc:sqlite:" + new ConfigProvider().getResourceAsFile("T2T.db").getPath();
+			Connection conn = DriverManager.getConnection(url);
+
+			// The journal mode cannot be changed inside a transaction. The schema has to be up to
+			// date before any read connection is opened.
+			try (Statement stmt = conn.createStatement()) {
+				stmt.execute("PRAGMA journal_mode = WAL;");
+				stmt.execute("PRAGMA synchronous = NORMAL;");
+				stmt.execute("PRAGMA cache_size = -" + cacheSize + ";");
+				stmt.execute("PRAGMA mmap_size = " + mmapSize + ";");
+				conn.setAutoCommit(false);
+				new SchemaMigrator(conn).migrate();
+			} catch (SQLException e) {
+				conn.close();
+				throw e;
+			}
+			writer = new StatementCache(conn, statementHits, statementMisses);
+			readers = new ReadConnectionPool(url, readerCount, cacheSize, mmapSize, statementHits, statementMisses);
 		} finally {
 			lock.unlock();
 		}
 	}
 
 	/**
-	 * Calls {@link Connection#close()} on the {@link #conn} variable and then sets it to
-	 * <code>null</code>.
+	 * Closes the {@link #readers}, waiting for those in use, and then closes the {@link #writer}
+	 * along with its prepared statements and sets it to <code>null</code>. Closing the writer last
+	 * checkpoints the WAL file into the database file and removes it.
 	 *
 	 * @throws SQLException
-	 *             if <code>conn.close()</code> throws one.
+	 *             if <code>writer.close()</code> throws one.
 	 */
 	@Override
 	public void closeDatabase() throws SQLException {
 		lock.lock();
 		try {
-			conn.close();
-			conn = null;
+			ReadConnectionPool pool = readers;
+			logger.info("Closing database. " + pool + ". Prepared statements: " + statementHits.get() + " reused, "
+					+ statementMisses.get() + " prepared. " + getLemmaCache()
+					+ (getLemmaFilter() == null ? "" : ". " + getLemmaFilter()));
+			readers = null;
+			if (pool != null) {
+				pool.close();
+			}
+			writer.close();
+			writer = null;
 		} finally {
 			lock.unlock();
 		}
 	}
 
+	/**
+	 * Sets the number of read connections and the pragmas applied to every connection and reopens
+	 * the database, should it be open, so that they take effect.
+	 *
+	 * @param readerCount
+	 *            the maximum number of read connections; <code>0</code> or less for one per
+	 *            available processor.
+	 * @param cacheSize
+	 *            the size of each connection's page cache in KiB.
+	 * @param mmapSize
+	 *            the number of bytes of the database each connection may map into memory;
+	 *            <code>0</code> to disable memory-mapped I/O.
+	 * @throws Exception
+	 *             if reopening the database fails.
+	 */
+	public void configure(int readerCount, int cacheSize, long mmapSize) throws Exception {
+		lock.lock();
+		try {
+			this.readerCount = readerCount > 0 ? readerCount : Runtime.getRuntime().availableProcessors();
+			this.cacheSize = cacheSize;
+			this.mmapSize = mmapSize;
+			if (writer != null) {
+				closeDatabase();
+				openDatabase();
+			}
+			logger.info("Database configured with " + this.readerCount + " read connections, " + cacheSize
+					+ " KiB page cache and " + mmapSize + " bytes memory-mapped I/O per connection.");
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Runs the given read-only operation on a connection of the {@link #readers} inside a
+	 * transaction of its own. The transaction is ended as soon as the operation returns.
+	 *
+	 * @param operation
+	 *            the operation to run.
+	 * @return the operation's result.
+	 * @throws SQLException
+	 *             if the database is closed or the operation throws one.
+	 */
+	private <T> T read(ReadOperation<T> operation) throws SQLException {
+		ReadConnectionPool pool = readers;
+		if (pool == null) {
+			throw new SQLException("The database has been closed!");
+		}
+		StatementCache statements = pool.acquire();
+		try {
+			return operation.run(statements);
+		} finally {
+			pool.release(statements);
+		}
+	}
+
 	@Override
-	public DatabaseEntry queryDatabase(String lemma) throws SQLException {
+	protected List<TranscriptionItem> lookUpTranscriptionItems(String lemma) throws SQLException {
+		return read((StatementCache statements) -> lookUpTranscriptionItems(statements, lemma));
+	}
 
-		lock.lock();
+	/**
+	 * Queries the given connection for all transcription items of the given lemma by means of a
+	 * single join.
+	 *
+	 * @param statements
+	 *            the connection to query along with its prepared statements.
+	 * @param lemma
+	 *            the lemma to look up.
+	 * @return a list of the lemma's items in the order they are stored in; empty if there are
+	 *         none.
+	 * @throws SQLException
+	 *             if the query fails.
+	 */
+	private List<TranscriptionItem> lookUpTranscriptionItems(StatementCache statements, String lemma)
+			throws SQLException {
 
-		// Don't (!) put the ResultSet into the try-with-resource statement as we must first prepare
-		// the lemma string.
-		try (Statement stmt = conn.createStatement(); PreparedStatement prepStmt = conn.prepareStatement(QUERY_LEMMA)) {
+		// Prepare the lemma string.
+		lemma = lemma.toLowerCase();
+		Map<String, List<TranscriptionItem>> result = new HashMap<String, List<TranscriptionItem>>(2);
 
-			lemma = lemma.toLowerCase();
-			prepStmt.setString(1, lemma);
-			ResultSet rs = prepStmt.executeQuery();
-			DatabaseEntry entry = new DatabaseEntry(lemma);
+		PreparedStatement prepStmt = statements.prepare(QUERY_LEMMA_JOINED);
+		prepStmt.setString(1, lemma);
+		try (ResultSet rs = prepStmt.executeQuery()) {
+			readJoinedItems(rs, result, new HashMap<String, Integer>(2));
+		}
 
-			// Is there no database entry for the given lemma?
-			if (!rs.next()) {
-				logger.info("Could not find entry for lemma \"" + lemma + "\"");
-				return entry;
+		// Is there no database entry for the given lemma?
+		if (!result.containsKey(lemma)) {
+			logger.fine("Could not find entry for lemma \"" + lemma + "\"");
+			return new ArrayList<TranscriptionItem>();
+		}
+		return result.get(lemma);
+	}
+
+	/**
+	 * Resolves all of the given lemmas by joining the lemmas and the transItems tables, needing
+	 * only a single execution per {@link #MAX_LEMMAS_PER_QUERY} lemmas. Should a lemma be stored
+	 * more than once, only the items of its first ID are returned, just like
+	 * {@link #lookUpTranscriptionItems(String)} does. The number of parameters of each execution
+	 * is rounded up to the next power of two, the surplus ones repeating the chunk's last lemma, so
+	 * that no more than eleven different statements have to be prepared.
+	 */
+	@Override
+	protected Map<String, List<TranscriptionItem>> lookUpTranscriptionItems(Collection<String> lemmas)
+			throws SQLException {
+
+		Map<String, List<TranscriptionItem>> result = new HashMap<String, List<TranscriptionItem>>();
+		Map<String, Integer> lemmaIDs = new HashMap<String, Integer>();
+		Iterator<String> iterator = lemmas.iterator();
+
+		return read((StatementCache statements) -> {
+			while (iterator.hasNext()) {
+
+				// Fill the next chunk of lemmas.
+				List<String> chunk = new ArrayList<String>(Math.min(lemmas.size(), MAX_LEMMAS_PER_QUERY));
+				while (iterator.hasNext() && chunk.size() < MAX_LEMMAS_PER_QUERY) {
+					chunk.add(iterator.next().toLowerCase());
+				}
+				int parameters = 1;
+				while (parameters < chunk.size()) {
+					parameters <<= 1;
+				}
+				parameters = Math.min(parameters, MAX_LEMMAS_PER_QUERY);
+
+				PreparedStatement prepStmt = statements.prepare(getLemmasJoinedQuery(parameters));
+				for (int i = 0; i < parameters; i++) {
+					prepStmt.setString(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+				}
+				try (ResultSet rs = prepStmt.executeQuery()) {
+					readJoinedItems(rs, result, lemmaIDs);
+				}
+
+				// Any lemma not contained in the result set is unknown.
+				for (String lemma : chunk) {
+					if (!result.containsKey(lemma)) {
+						logger.fine("Could not find entry for lemma \"" + lemma + "\"");
+						result.put(lemma, new ArrayList<TranscriptionItem>());
+					}
+				}
 			}
+			return result;
+		});
+	}
 
-			// Prepare the required variables.
-			int id = rs.getInt("id"), transID;
-			String phoneticString;
-			TranscriptionType transType;
-			WordClass wordClass;
-			Variety variety;
+	@Override
+	protected Map<String, List<TranscriptionItem>> lookUpAllTranscriptionItems() throws SQLException {
+		return read((StatementCache statements) -> {
+			Map<String, List<TranscriptionItem>> result = new HashMap<String, List<TranscriptionItem>>();
+			try (ResultSet rs = statements.prepare(QUERY_ALL_LEMMAS_JOINED).executeQuery()) {
+				readJoinedItems(rs, result, new HashMap<String, Integer>());
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * Parses the rows of a join of the lemmas and the transItems tables, ordered by the lemmas' IDs,
+	 * into {@link TranscriptionItem} objects. Should a lemma be stored more than once, only the
+	 * items of its first ID are kept.
+	 *
+	 * @param rs
+	 *            the result set to read.
+	 * @param result
+	 *            the map to add the items to.
+	 * @param lemmaIDs
+	 *            the first ID encountered for each lemma.
+	 * @throws SQLException
+	 *             if the result set throws one.
+	 */
+	private void readJoinedItems(ResultSet rs, Map<String, List<TranscriptionItem>> result,
+			Map<String, Integer> lemmaIDs) throws SQLException {
+		while (rs.next()) {
+			String lemma = rs.getString("lemma");
+			int id = rs.getInt("id");
+			Integer firstID = lemmaIDs.get(lemma);
+			if (firstID == null) {
+				lemmaIDs.put(lemma, id);
+				result.put(lemma, new ArrayList<TranscriptionItem>());
+			} else if (firstID != id) {
+				continue;
+			}
+			result.get(lemma).add(new TranscriptionItem(rs.getInt("transID"), lemma, rs.getString("transcription"),
+					TranscriptionType.getTranscriptionType(rs.getInt("transType")),
+					WordClass.getWordClass(rs.getInt("wordClassID")), Variety.getVariety(rs.getInt("varietyID"))));
+		}
+	}
 
-			// Query the database.
-			rs = stmt.executeQuery("SELECT * FROM transItems WHERE `id` = '" + id + "';");
+	@Override
+	protected Collection<String> lookUpAllLemmas() throws SQLException {
+		return read((StatementCache statements) -> {
+			List<String> result = new ArrayList<String>();
+			try (ResultSet rs = statements.prepare(QUERY_ALL_LEMMAS).executeQuery()) {
+				while (rs.next()) {
+					result.add(rs.getString("lemma").toLowerCase());
+				}
+				return result;
+			}
+		});
+	}
 
-			// Parse all responses into a DatabaseEntry object.
+	@Override
+	public long visitLexicon(LexiconVisitor visitor) throws Exception {
+		ReadConnectionPool pool = readers;
+		if (pool == null) {
+			throw new SQLException("The database has been closed!");
+		}
+		StatementCache statements = pool.acquire();
+		try (ResultSet rs = statements.prepare(QUERY_LEXICON).executeQuery()) {
+			long result = 0;
+			String lemma = null;
+			List<TranscriptionItem> items = new ArrayList<TranscriptionItem>();
 			while (rs.next()) {
-				transID = rs.getInt("transID");
-				phoneticString = rs.getString("transcription");
-				transType = TranscriptionType.getTranscriptionType(rs.getInt("transType"));
-				wordClass = WordClass.getWordClass(rs.getInt("wordClassID"));
-				variety = Variety.getVariety(rs.getInt("varietyID"));
-
-				// Add a new TranscriptionItem instance to the list.
-				entry.addTranscriptionItem(
-						new TranscriptionItem(transID, lemma, phoneticString, transType, wordClass, variety));
+				String next = rs.getString("lemma");
+				if (!next.equals(lemma)) {
+					if (lemma != null) {
+						visitor.visitLemma(lemma, items);
+						result++;
+					}
+					lemma = next;
+					items.clear();
+				}
+				items.add(new TranscriptionItem(rs.getInt("transID"), lemma, rs.getString("transcription"),
+						TranscriptionType.getTranscriptionType(rs.getInt("transType")),
+						WordClass.getWordClass(rs.getInt("wordClassID")), Variety.getVariety(rs.getInt("varietyID"))));
 			}
-			rs.close();
+			if (lemma != null) {
+				visitor.visitLemma(lemma, items);
+				result++;
+			}
+			return result;
+		} finally {
+			pool.release(statements);
+		}
+	}
 
-			return entry;
+	/**
+	 * Derives the stamp from the size and modification time of the database file. As changes only
+	 * reach it once they have been checkpointed, the WAL file is checkpointed and truncated first.
+	 * The WAL file itself is not part of the stamp, as SQLite recreates it whenever the database
+	 * is opened. Only should the checkpoint be blocked by a reader, its size and modification time
+	 * are added, so that the stamp rather changes too often than not at all.
+	 *
+	 * @throws URISyntaxException
+	 *             if {@link ConfigProvider#getResourceAsFile(String)} throws one.
+	 * @throws SQLException
+	 *             if the database is closed or cannot be checkpointed.
+	 */
+	@Override
+	protected long getDatabaseStamp() throws URISyntaxException, SQLException {
+		boolean checkpointed;
+		lock.lock();
+		try {
+			if (writer == null) {
+				throw new SQLException("The database has been closed!");
+			}
+			try (Statement stmt = writer.getConnection().createStatement();
+					ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(TRUNCATE)")) {
+				checkpointed = rs.next() && rs.getInt(1) == 0;
+			}
 		} finally {
 			lock.unlock();
 		}
+
+		File file = new ConfigProvider().getResourceAsFile("T2T.db");
+		long stamp = 31 * file.lastModified() + file.length();
+		if (checkpointed) {
+			return stamp;
+		}
+		logger.fine("Unable to checkpoint the database. Adding the WAL file to its stamp.");
+		File wal = new File(file.getPath() + "-wal");
+		return 31 * (31 * stamp + wal.lastModified()) + wal.length();
 	}
 
 	@Override
 	public TranscriptionItem queryTranscriptionItem(int transID) throws SQLException {
-		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
-			ResultSet rs = stmt.executeQuery("SELECT * FROM transItems WHERE `transID` = '" + transID + "';");
+		return read((StatementCache statements) -> queryTranscriptionItem(statements, transID));
+	}
+
+	/**
+	 * Queries the given connection for the transcription item whose ID matches the given one.
+	 *
+	 * @param statements
+	 *            the connection to query along with its prepared statements.
+	 * @param transID
+	 *            the transcription item's ID.
+	 * @return the corresponding {@link TranscriptionItem} object.
+	 * @throws SQLException
+	 *             if there is no such item or the query fails.
+	 */
+	private TranscriptionItem queryTranscriptionItem(StatementCache statements, int transID) throws SQLException {
+
+		String transcription;
+		TranscriptionType transType;
+		WordClass wordClass;
+		Variety variety;
+		int lemmaID;
+
+		PreparedStatement prepStmt = statements.prepare(QUERY_ITEM);
+		prepStmt.setInt(1, transID);
+		try (ResultSet rs = prepStmt.executeQuery()) {
 
 			// No entry in the database for the given transID?
 			if (!rs.next()) {
-				rs.close();
 				throw new SQLException("Unable to retrieve transcription item by id: " + transID);
 			}
 
 			// Parse the info into a new TranscriptionItem object.
-			String transcription = rs.getString("transcription");
-			TranscriptionType transType = TranscriptionType.getTranscriptionType(rs.getInt("transType"));
-			WordClass wordClass = WordClass.getWordClass(rs.getInt("wordClassID"));
-			Variety variety = Variety.getVariety(rs.getInt("varietyID"));
-			int lemmaID = rs.getInt("id");
-			rs = stmt.executeQuery("SELECT * FROM lemmas WHERE `id` = '" + lemmaID + "'");
-
-			// No corresponding lemma stored for some reason?
-			if (!rs.next()) {
-				throw new SQLException("Unable to retrieve lemma for transcription item by id: " + lemmaID);
-			}
-
-			String lemma = rs.getString("lemma");
-			rs.close();
+			transcription = rs.getString("transcription");
+			transType = TranscriptionType.getTranscriptionType(rs.getInt("transType"));
+			wordClass = WordClass.getWordClass(rs.getInt("wordClassID"));
+			variety = Variety.getVariety(rs.getInt("varietyID"));
+			lemmaID = rs.getInt("id");
+		}
 
-			return new TranscriptionItem(transID, lemma, transcription, transType, wordClass, variety);
+		String lemma = getLemma(statements, lemmaID);
 
-		} finally {
-			lock.unlock();
+		// No corresponding lemma stored for some reason?
+		if (lemma == null) {
+			throw new SQLException("Unable to retrieve lemma for transcription item by id: " + lemmaID);
 		}
+
+		return new TranscriptionItem(transID, lemma, transcription, transType, wordClass, variety);
 	}
 
+	/**
+	 * Duplicates are detected by the unique index on the transcription items rather than by
+	 * querying for them first. Should the item be rejected, the lemma is not stored either.
+	 */
 	@Override
 	public TranscriptionItem addTranscription(String lemma, WordClass wordClass, Variety variety,
 			TranscriptionType transType, String transcription) throws IllegalArgumentException, SQLException {
 
 		lock.lock();
-		try (Statement stmt = conn.createStatement();) {
+		try {
 
 			// Prepare the lemma string.
 			lemma = lemma.toLowerCase();
-
-			// Create a new prepared statement.
-			PreparedStatement prepStmt = conn.prepareStatement(QUERY_LEMMA);
-			prepStmt.setString(1, lemma);
-
-			ResultSet rs = prepStmt.executeQuery();
-			int lemmaID;
+			int lemmaID = getLemmaID(writer, lemma);
 
 			// No corresponding lemma in database yet?
-			if (!rs.next()) {
-				prepStmt.close();
-				prepStmt = conn.prepareStatement("INSERT INTO lemmas (`lemma`) VALUES (?);");
+			if (lemmaID == -1) {
+				PreparedStatement prepStmt = writer.prepare(INSERT_LEMMA);
 				prepStmt.setString(1, lemma);
 				prepStmt.executeUpdate();
-				prepStmt.close();
-				prepStmt = conn.prepareStatement(QUERY_LEMMA);
-				prepStmt.setString(1, lemma);
-				rs = prepStmt.executeQuery();
+				lemmaID = getLastInsertedID();
 			}
 
-			lemmaID = rs.getInt("id");
-
-			// Check for an existent entry. However, we don't need to check for transType here (as
-			// it would make no sense).
-			String queryString = "SELECT * FROM transItems WHERE `id` = '" + lemmaID + "' AND `transcription` = '"
-					+ transcription + "' AND `wordClassID` = '" + wordClass.getID() + "' AND `varietyID` = '"
-					+ variety.getID() + "';";
-			rs = stmt.executeQuery(queryString);
-
-			// Already in database?
-			if (rs.next()) {
-				logger.warning("Entry already exists in database!\nlemma ID: " + lemmaID + ", word class: " + wordClass
-						+ ", variety: " + variety + ", transcription: /" + transcription + "/");
-				throw new IllegalArgumentException("Duplicate entries are not allowed!");
+			// Insert the item into the database. However, the transType is no part of the unique
+			// index (as it would make no sense).
+			PreparedStatement insert = writer.prepare(INSERT_ITEM);
+			insert.setInt(1, lemmaID);
+			insert.setString(2, transcription);
+			insert.setInt(3, transType.getID());
+			insert.setInt(4, wordClass.getID());
+			insert.setInt(5, variety.getID());
+			try {
+				insert.executeUpdate();
+			} catch (SQLException e) {
+
+				// Already in database?
+				if (e.getErrorCode() == SQLITE_CONSTRAINT) {
+					rollback();
+					logger.warning("Entry already exists in database!\nlemma ID: " + lemmaID + ", word class: "
+							+ wordClass + ", variety: " + variety + ", transcription: /" + transcription + "/");
+					throw new IllegalArgumentException("Duplicate entries are not allowed!");
+				}
+				throw e;
 			}
 
-			// Insert the item into the database.
-			stmt.executeUpdate(
-					"INSERT INTO transItems (`id`, `transcription`, `transType`, `wordClassID`, `varietyID`) VALUES ('"
-							+ lemmaID + "', '" + transcription + "', '" + transType.getID() + "', '" + wordClass.getID()
-							+ "', '" + variety.getID() + "'); ");
+			// Return the newly inserted item, especially with regard to its ID.
+			TranscriptionItem result = new TranscriptionItem(getLastInsertedID(), lemma, transcription, transType,
+					wordClass, variety);
 
-			// Retrieve the newly inserted item and return it, especially with
-			// regard to its ID.
-			rs = stmt.executeQuery(queryString);
-			if (!rs.next()) {
-				throw new SQLException("Exception while retrieving newly inserted transcription item! It seems the item"
-						+ "was stored in the databse, but did not match its query for some reason.\nlemma ID: "
-						+ lemmaID + ", word class: " + wordClass + ", variety: " + variety + ", transcription: /"
-						+ transcription + "/");
-			}
+			writer.getConnection().commit();
+			onLemmaChanged(lemma);
 
-			// Parse all responses into a new TranscriptionItem object.
-			int transID = rs.getInt("transID");
-			transcription = rs.getString("transcription");
-			transType = TranscriptionType.getTranscriptionType(rs.getInt("transType"));
-			wordClass = WordClass.getWordClass(rs.getInt("wordClassID"));
-			variety = Variety.getVariety(rs.getInt("varietyID"));
-			TranscriptionItem result = new TranscriptionItem(transID, lemma, transcription, transType, wordClass,
-					variety);
+			return result;
+		} catch (SQLException e) {
+			rollback();
+			throw e;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * A convenience function to obtain the ID of the row inserted last by the {@link #writer}.
+	 *
+	 * @return the row's ID.
+	 * @throws SQLException
+	 *             if the query fails.
+	 */
+	private int getLastInsertedID() throws SQLException {
+		try (ResultSet rs = writer.prepare(QUERY_LAST_ID).executeQuery()) {
+			rs.next();
+			return rs.getInt(1);
+		}
+	}
 
-			rs.close();
-			conn.commit();
+	/**
+	 * Discards all uncommitted changes of the {@link #writer}, e.g. after one of them has violated
+	 * a constraint. Any exception is logged rather than thrown, so as not to hide the original one.
+	 */
+	private void rollback() {
+		try {
+			writer.getConnection().rollback();
+		} catch (SQLException e) {
+			logger.log(Level.WARNING, "Unable to roll back changes!", e);
+		}
+	}
+
+	/**
+	 * The lemmas and items are inserted by one batch each. Both leave it to the unique indexes to
+	 * skip whatever is stored already, so that no item needs to be looked up first.
+	 */
+	@Override
+	public int addTranscriptions(Collection<TranscriptionItem> items) throws SQLException {
+		lock.lock();
+		try {
+			Set<String> lemmas = new HashSet<String>();
+			PreparedStatement prepStmt = writer.prepare(INSERT_LEMMA_IF_ABSENT);
+			for (TranscriptionItem item : items) {
+				String lemma = item.getLemma().toLowerCase();
+				if (lemmas.add(lemma)) {
+					prepStmt.setString(1, lemma);
+					prepStmt.addBatch();
+				}
+			}
+			prepStmt.executeBatch();
+
+			prepStmt = writer.prepare(INSERT_ITEM_IF_ABSENT);
+			for (TranscriptionItem item : items) {
+				prepStmt.setString(1, item.getPhoneticString());
+				prepStmt.setInt(2, item.getTransType().getID());
+				prepStmt.setInt(3, item.getWordClass().getID());
+				prepStmt.setInt(4, item.getVariety().getID());
+				prepStmt.setString(5, item.getLemma().toLowerCase());
+				prepStmt.addBatch();
+			}
+			int result = 0;
+			for (int count : prepStmt.executeBatch()) {
+				result += Math.max(0, count);
+			}
 
+			writer.getConnection().commit();
+			logger.fine("Added " + result + " of " + items.size() + " transcription items.");
 			return result;
+		} catch (SQLException e) {
+			rollback();
+			throw e;
 		} finally {
 			lock.unlock();
 		}
@@ -276,11 +718,25 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	@Override
 	public void updateLemma(int lemmaID, String lemma) throws SQLException {
 		lock.lock();
-		try (PreparedStatement preStmt = conn
-				.prepareStatement("UPDATE lemma SET `lemma` = ? WHERE `id` = '" + lemmaID + "';")) {
+		try {
+			String oldLemma = getLemma(writer, lemmaID);
 			lemma = lemma.toLowerCase();
-			preStmt.setString(1, lemma);
-			conn.commit();
+			PreparedStatement prepStmt = writer.prepare(UPDATE_LEMMA);
+			prepStmt.setString(1, lemma);
+			prepStmt.setInt(2, lemmaID);
+			prepStmt.executeUpdate();
+			writer.getConnection().commit();
+
+			// Both the old and the new lemma have changed.
+			if (oldLemma != null) {
+				onLemmaChanged(oldLemma);
+			}
+			onLemmaChanged(lemma);
+		} catch (SQLException e) {
+
+			// The new lemma might be stored already.
+			rollback();
+			throw e;
 		} finally {
 			lock.unlock();
 		}
@@ -290,12 +746,23 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	public TranscriptionItem updateTranscription(int transID, WordClass wordClass, Variety variety,
 			TranscriptionType transType, String transcription) throws SQLException {
 		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
-			stmt.executeUpdate("UPDATE transItems SET `transcription` =  '" + transcription + "', `transType` = '"
-					+ transType.getID() + "', `wordClassID` = '" + wordClass.getID() + "', `varietyID` = '"
-					+ variety.getID() + "' WHERE `transID` = '" + transID + "';");
-			conn.commit();
-			return queryTranscriptionItem(transID);
+		try {
+			PreparedStatement prepStmt = writer.prepare(UPDATE_ITEM);
+			prepStmt.setString(1, transcription);
+			prepStmt.setInt(2, transType.getID());
+			prepStmt.setInt(3, wordClass.getID());
+			prepStmt.setInt(4, variety.getID());
+			prepStmt.setInt(5, transID);
+			prepStmt.executeUpdate();
+			writer.getConnection().commit();
+			TranscriptionItem result = queryTranscriptionItem(writer, transID);
+			onLemmaChanged(result.getLemma());
+			return result;
+		} catch (SQLException e) {
+
+			// The changed item might be stored already.
+			rollback();
+			throw e;
 		} finally {
 			lock.unlock();
 		}
@@ -305,12 +772,25 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	public void deleteLemma(int lemmaID) throws SQLException {
 
 		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
+		try {
 			logger.info("Deleting lemma and all its corresponding entries: " + lemmaID + " ...");
 
-			stmt.executeUpdate("DELETE FROM lemmas WHERE `id`='" + lemmaID + "';"
-					+ "DELETE FROM transItems WHERE `id`='" + lemmaID + "';");
-			conn.commit();
+			String lemma = getLemma(writer, lemmaID);
+			PreparedStatement prepStmt = writer.prepare(DELETE_LEMMA);
+			prepStmt.setInt(1, lemmaID);
+			prepStmt.executeUpdate();
+			prepStmt = writer.prepare(DELETE_ITEMS);
+			prepStmt.setInt(1, lemmaID);
+			prepStmt.executeUpdate();
+			writer.getConnection().commit();
+			if (lemma != null) {
+				onLemmaChanged(lemma);
+			}
+		} catch (SQLException e) {
+
+			// Do not leave the lemma without its items for the next change to commit.
+			rollback();
+			throw e;
 		} finally {
 			lock.unlock();
 		}
@@ -320,7 +800,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	public void deleteLemma(String lemma) throws Exception {
 		lock.lock();
 		try {
-			deleteLemma(getLemmaID(lemma));
+			deleteLemma(getLemmaID(writer, lemma));
 		} finally {
 			lock.unlock();
 		}
@@ -329,18 +809,24 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	@Override
 	public void deleteTranscription(TranscriptionItem item) throws SQLException, Exception {
 		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
+		try {
 			logger.info("Deleting transcription item: " + item + "...");
 
-			int transID = item.getId();
-			stmt.executeUpdate("DELETE FROM transItems WHERE `transID`='" + transID + "';");
+			PreparedStatement prepStmt = writer.prepare(DELETE_ITEM);
+			prepStmt.setInt(1, item.getId());
+			prepStmt.executeUpdate();
 
-			// Was this the last transcription item? In that case, remove the lemma as well.
-			if (queryDatabase(item.getLemma()).isEmpty()) {
+			// Was this the last transcription item? In that case, remove the lemma as well. Bypass
+			// the cache and the readers, as they do not know about the deletion yet.
+			if (lookUpTranscriptionItems(writer, item.getLemma()).isEmpty()) {
 				deleteLemma(item.getLemma());
 			}
 
-			conn.commit();
+			writer.getConnection().commit();
+			onLemmaChanged(item.getLemma());
+		} catch (SQLException e) {
+			rollback();
+			throw e;
 		} finally {
 			lock.unlock();
 		}
@@ -350,7 +836,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	public void deleteTranscription(int transID) throws Exception {
 		lock.lock();
 		try {
-			TranscriptionItem item = queryTranscriptionItem(transID);
+			TranscriptionItem item = queryTranscriptionItem(writer, transID);
 			if (item != null) {
 				deleteTranscription(item);
 			}
@@ -369,7 +855,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	@SuppressWarnings("unused")
 	private void createTables() throws SQLException {
 		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
+		try (Statement stmt = writer.getConnection().createStatement()) {
 			logger.info("Creating SQL tables ...");
 
 			String sql = "CREATE TABLE lemma (id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, lemma TEXT NOT NULL); "
@@ -377,7 +863,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 					+ "CREATE TABLE wordClasses (wordClassID INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, wordClass TEXT NOT NULL, abbreviation TEXT NOT NULL, contentWord INTEGER);"
 					+ "CREATE TABLE varieties (varietyID INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, variety TEXT NOT NULL, abbreviation TEXT NOT NULL);";
 			stmt.executeUpdate(sql);
-			conn.commit();
+			writer.getConnection().commit();
 		} finally {
 			lock.unlock();
 		}
@@ -394,7 +880,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	@SuppressWarnings("unused")
 	private void initWordClasses() throws SQLException {
 		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
+		try (Statement stmt = writer.getConnection().createStatement()) {
 			logger.info("Initialising word class table ...");
 
 			if (0 < 1) {
@@ -403,7 +889,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 			}
 
 			stmt.executeUpdate(AbstractSQLiteBridge.CMD_INIT_WORD_CLASSES);
-			conn.commit();
+			writer.getConnection().commit();
 		} finally {
 			lock.unlock();
 		}
@@ -420,7 +906,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	@SuppressWarnings("unused")
 	private void initVarieties() throws SQLException {
 		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
+		try (Statement stmt = writer.getConnection().createStatement()) {
 			logger.info("Initialising varieties ... ");
 
 			if (0 < 1) {
@@ -429,7 +915,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 			}
 
 			stmt.executeUpdate(AbstractSQLiteBridge.CMD_INIT_VARIETIES);
-			conn.commit();
+			writer.getConnection().commit();
 
 		} finally {
 			lock.unlock();
@@ -447,7 +933,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	@SuppressWarnings("unused")
 	private void initPunctChars() throws SQLException {
 		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
+		try (Statement stmt = writer.getConnection().createStatement()) {
 			logger.info("Initialising punctuation characters ... ");
 
 			if (0 < 1) {
@@ -456,7 +942,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 			}
 
 			stmt.executeUpdate(AbstractSQLiteBridge.CMD_INIT_PUNCTUATION_CHARS);
-			conn.commit();
+			writer.getConnection().commit();
 
 		} finally {
 			lock.unlock();
@@ -474,7 +960,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	@SuppressWarnings("unused")
 	private void initCurrencyChars() throws SQLException {
 		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
+		try (Statement stmt = writer.getConnection().createStatement()) {
 			logger.info("Initialising currency characters ... ");
 
 			if (0 < 1) {
@@ -483,7 +969,7 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 			}
 
 			stmt.executeUpdate(AbstractSQLiteBridge.CMD_INIT_CURRENCY_CHARS);
-			conn.commit();
+			writer.getConnection().commit();
 
 		} finally {
 			lock.unlock();
@@ -494,151 +980,207 @@ public class SQLiteBridgeDesktop extends AbstractSQLiteBridge {
 	@Override
 	public Variety[] getVarieties() throws SQLException {
 
-		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
+		return read((StatementCache statements) -> {
+			try (ResultSet rs = statements.prepare("SELECT * FROM varieties").executeQuery()) {
 
-			logger.info("Parsing varieties ...");
+				logger.info("Parsing varieties ...");
 
-			ArrayList<Variety> tempList = new ArrayList<Variety>();
+				ArrayList<Variety> tempList = new ArrayList<Variety>();
 
-			ResultSet rs = stmt.executeQuery("SELECT * FROM varieties");
-			while (rs.next()) {
-				tempList.add(
-						new Variety(rs.getInt("varietyID"), rs.getString("variety"), rs.getString("abbreviation")));
-			}
-			stmt.close();
-			rs.close();
-
-			String logString = "";
-			Variety[] result = new Variety[tempList.size()];
-			for (int i = 0; i < result.length; i++) {
-				result[i] = tempList.get(i);
-				logString += "\n\t" + result[i];
-			}
+				while (rs.next()) {
+					tempList.add(
+							new Variety(rs.getInt("varietyID"), rs.getString("variety"), rs.getString("abbreviation")));
+				}
 
-			logger.info("The following varieties have been parsed:" + logString);
+				String logString = "";
+				Variety[] result = new Variety[tempList.size()];
+				for (int i = 0; i < result.length; i++) {
+					result[i] = tempList.get(i);
+					logString += "\n\t" + result[i];
+				}
 
-			return result;
-		} finally {
-			lock.unlock();
-		}
+				logger.info("The following varieties have been parsed:" + logString);
+
+				return result;
+			}
+		});
 	}
 
 	@Override
 	public WordClass[] getWordClasses() throws SQLException {
 
-		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
-			logger.info("Parsing word classes ...");
+		return read((StatementCache statements) -> {
+			try (ResultSet rs = statements.prepare("SELECT * FROM wordClasses").executeQuery()) {
+				logger.info("Parsing word classes ...");
 
-			ArrayList<WordClass> tempList = new ArrayList<WordClass>();
+				ArrayList<WordClass> tempList = new ArrayList<WordClass>();
 
-			ResultSet rs = stmt.executeQuery("SELECT * FROM wordClasses");
-			while (rs.next()) {
-				tempList.add(new WordClass(rs.getInt("wordClassID"), rs.getString("wordClass"),
-						rs.getString("abbreviation"), rs.getBoolean("contentWord")));
-			}
-			stmt.close();
-			rs.close();
-
-			String logString = "";
-			WordClass[] result = new WordClass[tempList.size()];
-			for (int i = 0; i < result.length; i++) {
-				result[i] = tempList.get(i);
-				logString += "\n\t" + result[i];
-			}
+				while (rs.next()) {
+					tempList.add(new WordClass(rs.getInt("wordClassID"), rs.getString("wordClass"),
+							rs.getString("abbreviation"), rs.getBoolean("contentWord")));
+				}
 
-			logger.info("The following word classes have been parsed:" + logString);
+				String logString = "";
+				WordClass[] result = new WordClass[tempList.size()];
+				for (int i = 0; i < result.length; i++) {
+					result[i] = tempList.get(i);
+					logString += "\n\t" + result[i];
+				}
 
-			return result;
-		} finally {
-			lock.unlock();
-		}
+				logger.info("The following word classes have been parsed:" + logString);
+
+				return result;
+			}
+		});
 	}
 
 	@Override
 	public PunctuationCharacter[] getPunctuationCharacters() throws SQLException {
-		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
-			logger.info("Parsing punctuation characters ...");
+		return read((StatementCache statements) -> {
+			try (ResultSet rs = statements.prepare("SELECT * FROM punctChars").executeQuery()) {
+				logger.info("Parsing punctuation characters ...");
 
-			ArrayList<PunctuationCharacter> tempList = new ArrayList<PunctuationCharacter>();
+				ArrayList<PunctuationCharacter> tempList = new ArrayList<PunctuationCharacter>();
 
-			ResultSet rs = stmt.executeQuery("SELECT * FROM punctChars");
-			while (rs.next()) {
-				tempList.add(new PunctuationCharacter(rs.getString("punctChar"), rs.getInt("delimiterMode")));
-			}
-			stmt.close();
-			rs.close();
-
-			String logString = "";
-			PunctuationCharacter[] result = new PunctuationCharacter[tempList.size()];
-			for (int i = 0; i < result.length; i++) {
-				result[i] = tempList.get(i);
-				logString += "\n\t" + result[i];
-			}
+				while (rs.next()) {
+					tempList.add(new PunctuationCharacter(rs.getString("punctChar"), rs.getInt("delimiterMode")));
+				}
 
-			logger.info("The following punctuation characters have been parsed:" + logString);
+				String logString = "";
+				PunctuationCharacter[] result = new PunctuationCharacter[tempList.size()];
+				for (int i = 0; i < result.length; i++) {
+					result[i] = tempList.get(i);
+					logString += "\n\t" + result[i];
+				}
 
-			return result;
-		} finally {
-			lock.unlock();
-		}
+				logger.info("The following punctuation characters have been parsed:" + logString);
+
+				return result;
+			}
+		});
 	}
 
 	@Override
 	public CurrencyCharacter[] getCurrencyCharacters() throws SQLException {
-		lock.lock();
-		try (Statement stmt = conn.createStatement()) {
-			logger.info("Parsing currency characters ...");
+		return read((StatementCache statements) -> {
+			try (ResultSet rs = statements.prepare("SELECT * FROM currencyChars").executeQuery()) {
+				logger.info("Parsing currency characters ...");
 
-			ArrayList<CurrencyCharacter> tempList = new ArrayList<CurrencyCharacter>();
+				ArrayList<CurrencyCharacter> tempList = new ArrayList<CurrencyCharacter>();
 
-			ResultSet rs = stmt.executeQuery("SELECT * FROM currencyChars");
-			while (rs.next()) {
-				tempList.add(new CurrencyCharacter(rs.getString("currencyChar"), rs.getString("singular"),
-						rs.getString("plural")));
-			}
-			stmt.close();
-			rs.close();
-
-			String logString = "";
-			CurrencyCharacter[] result = new CurrencyCharacter[tempList.size()];
-			for (int i = 0; i < result.length; i++) {
-				result[i] = tempList.get(i);
-				logString += "\n\t" + result[i];
-			}
+				while (rs.next()) {
+					tempList.add(new CurrencyCharacter(rs.getString("currencyChar"), rs.getString("singular"),
+							rs.getString("plural")));
+				}
 
-			logger.info("The following currency characters have been parsed:" + logString);
+				String logString = "";
+				CurrencyCharacter[] result = new CurrencyCharacter[tempList.size()];
+				for (int i = 0; i < result.length; i++) {
+					result[i] = tempList.get(i);
+					logString += "\n\t" + result[i];
+				}
 
-			return result;
-		} finally {
-			lock.unlock();
+				logger.info("The following currency characters have been parsed:" + logString);
+
+				return result;
+			}
+		});
+	}
+
+	/**
+	 * A convenience function to obtain the lemma stored for the given ID.
+	 *
+	 * @param statements
+	 *            the connection to query along with its prepared statements.
+	 * @param lemmaID
+	 *            the lemma's ID.
+	 * @return the corresponding lemma; <code>null</code> if there is none.
+	 * @throws SQLException
+	 *             if the query fails.
+	 */
+	private String getLemma(StatementCache statements, int lemmaID) throws SQLException {
+		PreparedStatement prepStmt = statements.prepare(QUERY_LEMMA_BY_ID);
+		prepStmt.setInt(1, lemmaID);
+		try (ResultSet rs = prepStmt.executeQuery()) {
+			return rs.next() ? rs.getString("lemma") : null;
 		}
 	}
 
 	@Override
 	protected int getLemmaID(String lemma) throws SQLException {
+		return read((StatementCache statements) -> getLemmaID(statements, lemma));
+	}
 
-		lock.lock();
+	/**
+	 * Queries the given connection for the ID of the given lemma.
+	 *
+	 * @param statements
+	 *            the connection to query along with its prepared statements.
+	 * @param lemma
+	 *            the lemma whose ID to fetch.
+	 * @return the lemma's corresponding ID; <code>-1</code> if there is none.
+	 * @throws SQLException
+	 *             if the query fails.
+	 */
+	private int getLemmaID(StatementCache statements, String lemma) throws SQLException {
 
 		logger.info("Retrieving id for lemma: \"" + lemma + "\" ...");
 
-		try (PreparedStatement prepStmt = conn.prepareStatement(QUERY_LEMMA)) {
+		// Prepare the lemma string.
+		lemma = lemma.toLowerCase();
 
-			// Prepare the lemma string.
-			lemma = lemma.toLowerCase();
-
-			prepStmt.setString(1, lemma);
+		PreparedStatement prepStmt = statements.prepare(QUERY_LEMMA);
+		prepStmt.setString(1, lemma);
 
-			ResultSet rs = prepStmt.executeQuery();
+		try (ResultSet rs = prepStmt.executeQuery()) {
 			if (!rs.next()) {
 				logger.info("No such lemma stored in database!");
 				return -1;
 			}
 			return (rs.getInt("id"));
-		} finally {
-			lock.unlock();
 		}
 	}
+
+	/**
+	 * A getter for the number of prepared statements that have been reused by any connection
+	 * since the bridge has been created.
+	 *
+	 * @return the number of statement cache hits.
+	 */
+	public long getStatementCacheHitCount() {
+		return statementHits.get();
+	}
+
+	/**
+	 * A getter for the number of statements any connection had to prepare since the bridge has
+	 * been created.
+	 *
+	 * @return the number of statement cache misses.
+	 */
+	public long getStatementCacheMissCount() {
+		return statementMisses.get();
+	}
+
+	/* Sub-Classes */
+	/**
+	 * A read-only operation run by {@link SQLiteBridgeDesktop#read(ReadOperation)}.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 *
+	 * @param <T>
+	 *            the type of the operation's result.
+	 */
+	private interface ReadOperation<T> {
+
+		/**
+		 * Runs the operation.
+		 *
+		 * @param statements
+		 *            the read-only connection to query along with its prepared statements.
+		 * @return the operation's result.
+		 * @throws SQLException
+		 *             if a query fails.
+		 */
+		public T run(StatementCache statements) throws SQLException;
+	}
 }
@@ -0,0 +1,183 @@
+/**
+ *
+ */
+package de.upb.t2t.control.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * Brings the schema of a database up to date. Every change of the schema is a {@link Migration}
+ * of its own with a version number one higher than its predecessor's. The version a database is
+ * at is recorded in its <code>schema_version</code> table, along with the time each migration has
+ * been applied. Migrations are applied in order, each inside a transaction of its own, so that an
+ * interrupted migration leaves the database at the last version completed.
+ * </p>
+ * <p>
+ * Once any migration has been applied, the query planner's statistics are rebuilt by means of
+ * <code>ANALYZE</code>, so that it picks the new indexes.
+ * </p>
+ * <p>
+ * New migrations are appended to {@link #MIGRATIONS}. Migrations that have been shipped must never
+ * be changed, as databases already at their version would not pick up the change.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see SQLiteBridgeDesktop#openDatabase()
+ */
+class SchemaMigrator {
+
+	/* Static Variables */
+	/** Creates the table recording the migrations applied. */
+	private static final String CREATE_VERSION_TABLE = "CREATE TABLE IF NOT EXISTS schema_version "
+			+ "(version INTEGER PRIMARY KEY NOT NULL, description TEXT NOT NULL, applied INTEGER NOT NULL)";
+	/** Fetches the version the database is at. */
+	private static final String QUERY_VERSION = "SELECT MAX(`version`) FROM schema_version";
+	/** Records a migration as applied. */
+	private static final String INSERT_VERSION = "INSERT INTO schema_version (`version`, `description`, `applied`) VALUES (?, ?, ?)";
+	/** All migrations in the order they are to be applied. */
+	private static final Migration[] MIGRATIONS = {
+
+			// The tables as they have been shipped without any version.
+			new Migration(1, "Create the tables",
+					"CREATE TABLE IF NOT EXISTS lemmas (id INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, lemma TEXT NOT NULL)",
+					"CREATE TABLE IF NOT EXISTS transItems (transID INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, id INTEGER NOT NULL, transcription TEXT NOT NULL, transType INTEGER, wordClassID INTEGER NOT NULL, varietyID INTEGER NOT NULL)",
+					"CREATE TABLE IF NOT EXISTS wordClasses (wordClassID INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, wordClass TEXT NOT NULL, abbreviation TEXT NOT NULL, contentWord INTEGER)",
+					"CREATE TABLE IF NOT EXISTS varieties (varietyID INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, variety TEXT NOT NULL, abbreviation TEXT NOT NULL)",
+					"CREATE TABLE IF NOT EXISTS punctChars (punctChar TEXT PRIMARY KEY NOT NULL, delimiterMode INTEGER, comment TEXT)",
+					"CREATE TABLE IF NOT EXISTS currencyChars (currencyChar TEXT PRIMARY KEY NOT NULL, singular TEXT NOT NULL, plural TEXT NOT NULL)"),
+
+			// Lemmas stored more than once keep their first ID, which takes over the items of all
+			// others. Identical items are merged into the first one as well. The index on the lemmas
+			// also covers their IDs, which are SQLite's row IDs. The one on the items serves both
+			// the lookup of a lemma's items and the detection of duplicates.
+			new Migration(2, "Merge duplicates and index lemmas and transcription items",
+					"UPDATE transItems SET `id` = (SELECT MIN(d.`id`) FROM lemmas d WHERE d.`lemma` = "
+							+ "(SELECT l.`lemma` FROM lemmas l WHERE l.`id` = transItems.`id`)) "
+							+ "WHERE `id` IN (SELECT `id` FROM lemmas) AND `id` NOT IN (SELECT MIN(`id`) FROM lemmas GROUP BY `lemma`)",
+					"DELETE FROM lemmas WHERE `id` NOT IN (SELECT MIN(`id`) FROM lemmas GROUP BY `lemma`)",
+					"DELETE FROM transItems WHERE `transID` NOT IN "
+							+ "(SELECT MIN(`transID`) FROM transItems GROUP BY `id`, `wordClassID`, `varietyID`, `transcription`)",
+					"CREATE UNIQUE INDEX lemmas_lemma ON lemmas (`lemma`)",
+					"CREATE UNIQUE INDEX transItems_entry ON transItems (`id`, `wordClassID`, `varietyID`, `transcription`)") };
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The migrator's logger object. */
+	private final Logger logger;
+	/** The connection to migrate the database of. Auto-commit must be disabled. */
+	private final Connection conn;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link SchemaMigrator} class.
+	 *
+	 * @param conn
+	 *            the connection to migrate the database of. Auto-commit must be disabled.
+	 */
+	SchemaMigrator(Connection conn) {
+		logger = Logger.getLogger(getClass().getName());
+		this.conn = conn;
+	}
+
+	/* Object Methods */
+	/**
+	 * Applies all migrations the database is missing.
+	 *
+	 * @return the number of migrations applied.
+	 * @throws SQLException
+	 *             if a migration fails. The database is left at the version of the last migration
+	 *             completed.
+	 */
+	int migrate() throws SQLException {
+
+		int version;
+		try (Statement stmt = conn.createStatement()) {
+			stmt.executeUpdate(CREATE_VERSION_TABLE);
+			try (ResultSet rs = stmt.executeQuery(QUERY_VERSION)) {
+				version = rs.next() ? rs.getInt(1) : 0;
+			}
+			conn.commit();
+		}
+
+		int applied = 0;
+		for (Migration migration : MIGRATIONS) {
+			if (migration.version <= version) {
+				continue;
+			}
+			logger.info("Migrating database to version " + migration.version + ": " + migration.description + " ...");
+			try (Statement stmt = conn.createStatement();
+					PreparedStatement prepStmt = conn.prepareStatement(INSERT_VERSION)) {
+				for (String sql : migration.statements) {
+					stmt.executeUpdate(sql);
+				}
+				prepStmt.setInt(1, migration.version);
+				prepStmt.setString(2, migration.description);
+				prepStmt.setLong(3, System.currentTimeMillis());
+				prepStmt.executeUpdate();
+				conn.commit();
+			} catch (SQLException e) {
+				conn.rollback();
+				throw new SQLException("Unable to migrate database to version " + migration.version + "!", e);
+			}
+			applied++;
+		}
+
+		if (applied > 0) {
+			try (Statement stmt = conn.createStatement()) {
+				stmt.executeUpdate("ANALYZE");
+				conn.commit();
+			}
+			logger.info("Database migrated from version " + version + " to " + getLatestVersion() + ".");
+		}
+		return applied;
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the version of the last migration known.
+	 *
+	 * @return the version a database is at once it has been migrated.
+	 */
+	static int getLatestVersion() {
+		return MIGRATIONS[MIGRATIONS.length - 1].version;
+	}
+
+	/* Sub-Classes */
+	/**
+	 * A single change of the schema, made up of one or more SQL statements.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class Migration {
+
+		/** The version the database is at once the migration has been applied. */
+		private final int version;
+		/** A short description of the change. */
+		private final String description;
+		/** The statements to execute in the given order. */
+		private final String[] statements;
+
+		/**
+		 * Constructor for the {@link Migration} class.
+		 *
+		 * @param version
+		 *            the version the database is at once the migration has been applied.
+		 * @param description
+		 *            a short description of the change.
+		 * @param statements
+		 *            the statements to execute in the given order.
+		 */
+		private Migration(int version, String description, String... statements) {
+			this.version = version;
+			this.description = description;
+			this.statements = statements;
+		}
+	}
+}
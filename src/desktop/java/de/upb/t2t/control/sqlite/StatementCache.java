@@ -0,0 +1,144 @@
+/**
+ *
+ */
+package de.upb.t2t.control.sqlite;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * A connection along with the {@link PreparedStatement} objects prepared on it so far, keyed by
+ * their SQL. Each statement is parsed and planned by SQLite only once and then reused with new
+ * parameters for as long as it stays in the cache. The least recently used statement is closed
+ * as soon as more than {@link #CAPACITY} different ones have been prepared.
+ * </p>
+ * <p>
+ * Just like the connection itself, the cache must only be used by one thread at a time. Callers
+ * must neither close the statements handed out, nor keep them beyond their use of the connection,
+ * but should close each {@link java.sql.ResultSet} obtained from them, so that the statement can
+ * be executed again.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see SQLiteBridgeDesktop
+ * @see ReadConnectionPool
+ */
+class StatementCache {
+
+	/* Static Variables */
+	/** The maximum number of statements kept per connection. */
+	static final int CAPACITY = 32;
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The cache's logger object. */
+	private final Logger logger;
+	/** The connection the statements are prepared on. */
+	private final Connection conn;
+	/** The prepared statements in the order of their last use, mapped to by their SQL. */
+	private final LinkedHashMap<String, PreparedStatement> statements;
+	/** The number of statements that have been reused, shared with other caches. */
+	private final AtomicLong hits;
+	/** The number of statements that had to be prepared, shared with other caches. */
+	private final AtomicLong misses;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link StatementCache} class.
+	 *
+	 * @param conn
+	 *            the connection to prepare the statements on.
+	 * @param hits
+	 *            the counter to increment whenever a statement is reused.
+	 * @param misses
+	 *            the counter to increment whenever a statement has to be prepared.
+	 */
+	StatementCache(Connection conn, AtomicLong hits, AtomicLong misses) {
+		logger = Logger.getLogger(getClass().getName());
+		this.conn = conn;
+		this.hits = hits;
+		this.misses = misses;
+		statements = new LinkedHashMap<String, PreparedStatement>(CAPACITY * 4 / 3 + 1, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+				if (size() <= CAPACITY) {
+					return false;
+				}
+				close(eldest.getValue());
+				return true;
+			}
+		};
+	}
+
+	/* Object Methods */
+	/**
+	 * Hands out the statement prepared for the given SQL, preparing it first if necessary.
+	 *
+	 * @param sql
+	 *            the statement's SQL, with a <code>?</code> for each parameter.
+	 * @return the prepared statement. Its parameters still hold the values of its last execution.
+	 * @throws SQLException
+	 *             if the statement cannot be prepared.
+	 */
+	PreparedStatement prepare(String sql) throws SQLException {
+		PreparedStatement result = statements.get(sql);
+		if (result != null) {
+			hits.incrementAndGet();
+			return result;
+		}
+		misses.incrementAndGet();
+		result = conn.prepareStatement(sql);
+		statements.put(sql, result);
+		return result;
+	}
+
+	/**
+	 * Closes all statements and then the connection.
+	 *
+	 * @throws SQLException
+	 *             if the connection cannot be closed.
+	 */
+	void close() throws SQLException {
+		for (Iterator<PreparedStatement> iterator = statements.values().iterator(); iterator.hasNext();) {
+			close(iterator.next());
+			iterator.remove();
+		}
+		conn.close();
+	}
+
+	/**
+	 * Closes the given statement, logging rather than throwing any exception.
+	 *
+	 * @param stmt
+	 *            the statement to close.
+	 */
+	private void close(PreparedStatement stmt) {
+		try {
+			stmt.close();
+		} catch (SQLException e) {
+			logger.log(Level.FINE, "Unable to close prepared statement.", e);
+		}
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #conn} attribute.
+	 *
+	 * @return the connection the statements are prepared on.
+	 */
+	Connection getConnection() {
+		return conn;
+	}
+}
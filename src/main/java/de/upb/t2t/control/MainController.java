@@ -1,5 +1,6 @@
 package de.upb.t2t.control;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -12,8 +13,10 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import config.ConfigProvider;
+import de.upb.t2t.control.database.AbstractSQLiteBridge;
 import de.upb.t2t.control.gui.settings.SettingsStage;
 import de.upb.t2t.control.gui.transcriber.MainTranscriptionPane;
+import de.upb.t2t.control.scheduling.JobScheduler;
 import de.upb.t2t.control.sqlite.SQLiteBridgeDesktop;
 import de.upb.t2t.model.CurrencyCharacter;
 import de.upb.t2t.model.LoginCredentials;
@@ -106,6 +109,12 @@ public class MainController {
 	 * @see #closeProgramme()
 	 */
 	private boolean terminating;
+	/**
+	 * Indicates whether the application has been initialised without GUI.
+	 *
+	 * @see #initHeadless()
+	 */
+	private boolean headless;
 	/** The application's default properties. */
 	private Properties defaultProperties;
 	/** The application's user-shaped properties. */
@@ -162,20 +171,7 @@ public class MainController {
 		// ///////////////////// //
 		// CONFIGS & LAUNCH ARGS //
 		// ///////////////////// //
-		try (InputStream defaultIn = new ConfigProvider().getResourceAsStream("default");
-				InputStream appIn = new ConfigProvider().getResourceAsStream("application")) {
-
-			// Default Properties
-			defaultProperties = new Properties();
-			defaultProperties.load(defaultIn);
-
-			// Application Properties
-			appProperties = new Properties(defaultProperties);
-			appProperties.load(appIn);
-
-		} catch (URISyntaxException e) {
-			logger.log(Level.SEVERE, "Exception while loading application properties!", e);
-		}
+		loadProperties();
 
 		// Process whatever command line parameter may be given.
 		Map<String, String> namedArgs = args.getNamed();
@@ -184,11 +180,7 @@ public class MainController {
 		// ///////////// //
 		// CLASS LOADING //
 		// ///////////// //
-		// Prepare the URLs for all classes that we want to load on startup.
-		Class.forName(Variety.class.getName());
-		Class.forName(WordClass.class.getName());
-		Class.forName(CurrencyCharacter.class.getName());
-		Class.forName(PunctuationCharacter.class.getName());
+		loadReferenceData(true);
 
 		// //////// //
 		// MAIN GUI //
@@ -231,6 +223,131 @@ public class MainController {
 		primaryStage.show();
 	}
 
+	/**
+	 * Initialises the application without any graphical user interface, e.g. in order to use it
+	 * as a filter inside a shell pipeline. Only the properties, the reference tables and the
+	 * database bridge are loaded; the JavaFx toolkit is never started. Properties changed during
+	 * a headless run are not saved.
+	 *
+	 * @throws IOException
+	 *             if the application property files could not be read.
+	 * @throws ClassNotFoundException
+	 *             if the classes to be initialised on startup could not be loaded.
+	 */
+	public synchronized void initHeadless() throws IOException, ClassNotFoundException {
+		initHeadless(true);
+	}
+
+	/**
+	 * Initialises the application without any graphical user interface, just like
+	 * {@link #initHeadless()}, but possibly without the lemma filter and the lexicon, which tools
+	 * that only walk through the database, e.g. the export, do not need.
+	 *
+	 * @param lexicon
+	 *            whether to load the lemma filter and the lexicon.
+	 * @throws IOException
+	 *             if the application property files could not be read.
+	 * @throws ClassNotFoundException
+	 *             if the classes to be initialised on startup could not be loaded.
+	 */
+	public synchronized void initHeadless(boolean lexicon) throws IOException, ClassNotFoundException {
+
+		if (initialised) {
+			throw new IllegalStateException("The application has already been initialised!");
+		}
+
+		logger.info("Initialising application without GUI ...");
+		initialised = true;
+		terminating = false;
+		headless = true;
+
+		loadProperties();
+		loginCredentials = new LoginCredentials(null, null);
+		loadReferenceData(lexicon);
+	}
+
+	/**
+	 * Loads the {@link #defaultProperties} and the {@link #appProperties}.
+	 *
+	 * @throws IOException
+	 *             if the application property files could not be read.
+	 */
+	private void loadProperties() throws IOException {
+		try (InputStream defaultIn = new ConfigProvider().getResourceAsStream("default");
+				InputStream appIn = new ConfigProvider().getResourceAsStream("application")) {
+
+			// Default Properties
+			defaultProperties = new Properties();
+			defaultProperties.load(defaultIn);
+
+			// Application Properties. Without any, e.g. on the first start, the defaults apply.
+			appProperties = new Properties(defaultProperties);
+			if (appIn != null) {
+				appProperties.load(appIn);
+			} else {
+				logger.info("No application properties found. Using the defaults ...");
+			}
+
+		} catch (URISyntaxException e) {
+			logger.log(Level.SEVERE, "Exception while loading application properties!", e);
+		}
+	}
+
+	/**
+	 * Configures the database connections and loads the reference tables, i.e. {@link Variety},
+	 * {@link WordClass}, {@link CurrencyCharacter} and {@link PunctuationCharacter}, as well as the
+	 * lemma filter and the lexicon of the database bridge.
+	 *
+	 * @param lexicon
+	 *            whether to load the lemma filter and the lexicon.
+	 * @throws ClassNotFoundException
+	 *             if the classes to be initialised on startup could not be loaded.
+	 */
+	private void loadReferenceData(boolean lexicon) throws ClassNotFoundException {
+
+		// Size the pool of read connections and their caches before anything is read.
+		AbstractSQLiteBridge bridge = AbstractSQLiteBridge.getInstance();
+		if (bridge instanceof SQLiteBridgeDesktop) {
+			try {
+				((SQLiteBridgeDesktop) bridge).configure(
+						Integer.parseInt(appProperties.getProperty("database.readers")),
+						Integer.parseInt(appProperties.getProperty("database.cache_size")),
+						Long.parseLong(appProperties.getProperty("database.mmap_size")));
+			} catch (Exception e) {
+				logger.log(Level.WARNING, "Unable to configure the database connections!", e);
+			}
+		}
+
+		// Prepare the URLs for all classes that we want to load on startup.
+		Class.forName(Variety.class.getName());
+		Class.forName(WordClass.class.getName());
+		Class.forName(CurrencyCharacter.class.getName());
+		Class.forName(PunctuationCharacter.class.getName());
+		if (!lexicon) {
+			return;
+		}
+
+		// Keep unknown lemmas away from the database, should it have to be queried after all.
+		try {
+			AbstractSQLiteBridge.getInstance().loadLemmaFilter();
+		} catch (Exception e) {
+			logger.log(Level.WARNING, "Unable to load the lemma filter!", e);
+		}
+
+		// Keep the whole lexicon in memory so that transcribing never has to query the database.
+		// If several instances share a host, they may map one and the same lexicon file instead.
+		try {
+			if (appProperties.getProperty("database.lexicon.mapped").equals("1")) {
+				File dbFile = new ConfigProvider().getResourceAsFile("T2T.db");
+				AbstractSQLiteBridge.getInstance().loadMappedLexicon(new File(dbFile.getParentFile(), "T2T.lex"));
+			} else {
+				AbstractSQLiteBridge.getInstance().loadLexicon();
+			}
+		} catch (Exception e) {
+			logger.log(Level.WARNING, "Unable to load the lexicon! Falling back to querying the database.", e);
+		}
+	}
+
 	/**
 	 * Closes the application cleanly.
 	 */
@@ -246,14 +363,14 @@ public class MainController {
 
 		logger.info("Closing application ...");
 
-		// Write the application properties.
-		try (FileOutputStream appOut = new FileOutputStream(new ConfigProvider().getResourceAsFile("application"))) {
-			logger.fine("Saving properties ...");
-			appProperties.store(appOut, "");
-		} catch (IOException | URISyntaxException e) {
-			logger.log(Level.WARNING, "Unable to write application properties!", e);
+		// Write the application properties, unless we are running without GUI.
+		if (!headless) {
+			saveProperties();
 		}
 
+		// Stop all jobs before the database is closed beneath them.
+		JobScheduler.getInstance().shutdown();
+
 		// Close the SQLiteHandler.
 		try {
 			SQLiteBridgeDesktop.getInstance().closeDatabase();
@@ -263,7 +380,21 @@ public class MainController {
 			logger.log(Level.WARNING, "Exception while terminating SQLiteHandler!", e);
 		}
 
-		Platform.exit();
+		if (!headless) {
+			Platform.exit();
+		}
+	}
+
+	/**
+	 * Writes the {@link #appProperties} to their file.
+	 */
+	private void saveProperties() {
+		try (FileOutputStream appOut = new FileOutputStream(new ConfigProvider().getResourceAsFile("application"))) {
+			logger.fine("Saving properties ...");
+			appProperties.store(appOut, "");
+		} catch (IOException | URISyntaxException e) {
+			logger.log(Level.WARNING, "Unable to write application properties!", e);
+		}
 	}
 
 	/**
@@ -0,0 +1,133 @@
+/**
+ *
+ */
+package de.upb.t2t.control.database;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.upb.t2t.model.DatabaseEntry;
+import de.upb.t2t.model.TranscriptionItem;
+
+/**
+ * <p>
+ * An immutable snapshot of all lemmas and their transcription items. Once created, a lexicon never
+ * changes, so it may be read by any number of threads without locking. Edits are applied by
+ * creating a new version of the lexicon (see {@link #withLemma(String, List)}), which the
+ * {@link AbstractSQLiteBridge} then swaps in atomically. Anyone still holding an older version
+ * simply keeps reading it.
+ * </p>
+ * <p>
+ * The items held by a lexicon are shared between all of its versions and must therefore never be
+ * handed out directly. {@link #lookUp(String)} and {@link #lookUp(Collection)} always return new
+ * {@link DatabaseEntry} objects holding copies.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see HeapLexicon
+ * @see AbstractSQLiteBridge#getLexicon()
+ */
+public abstract class AbstractLexicon {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The lexicon's version, incremented with each edit or reload. */
+	private final long version;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link AbstractLexicon} class.
+	 *
+	 * @param version
+	 *            the lexicon's version.
+	 */
+	protected AbstractLexicon(long version) {
+		this.version = version;
+	}
+
+	/* Object Methods */
+	/**
+	 * Returns the transcription items of the given lemma as stored in this lexicon. The returned
+	 * list and its items must not be modified.
+	 *
+	 * @param lemma
+	 *            the lemma in lower case.
+	 * @return the lemma's items in the order they are stored in; empty if the lemma is unknown.
+	 */
+	public abstract List<TranscriptionItem> getTranscriptionItems(String lemma);
+
+	/**
+	 * Creates the next version of this lexicon in which the given lemma's items have been replaced.
+	 * This lexicon itself remains unchanged.
+	 *
+	 * @param lemma
+	 *            the lemma in lower case.
+	 * @param items
+	 *            the lemma's new items; an empty list removes the lemma.
+	 * @return the new lexicon.
+	 */
+	public abstract AbstractLexicon withLemma(String lemma, List<TranscriptionItem> items);
+
+	/**
+	 * A getter for the number of lemmas inside this lexicon.
+	 *
+	 * @return the number of lemmas having at least one transcription item.
+	 */
+	public abstract int size();
+
+	/**
+	 * Looks up the given lemma and wraps copies of its items into a new {@link DatabaseEntry}. In
+	 * the event that the lemma is unknown, the returned entry will be empty, but not
+	 * <code>null</code>.
+	 *
+	 * @param lemma
+	 *            the lemma to look up.
+	 * @return the corresponding <code>DatabaseEntry</code> object.
+	 */
+	public DatabaseEntry lookUp(String lemma) {
+		lemma = lemma.toLowerCase();
+		DatabaseEntry entry = new DatabaseEntry(lemma);
+		for (TranscriptionItem item : getTranscriptionItems(lemma)) {
+			entry.addTranscriptionItem(new TranscriptionItem(item));
+		}
+		return entry;
+	}
+
+	/**
+	 * Looks up all of the given lemmas. Since the lexicon is immutable, all entries are guaranteed
+	 * to stem from the very same version.
+	 *
+	 * @param lemmas
+	 *            the lemmas to look up.
+	 * @return a map of the given lemmas, exactly as given, to their corresponding
+	 *         <code>DatabaseEntry</code> objects.
+	 * @see #lookUp(String)
+	 */
+	public Map<String, DatabaseEntry> lookUp(Collection<String> lemmas) {
+		Map<String, DatabaseEntry> result = new HashMap<String, DatabaseEntry>();
+		for (String lemma : lemmas) {
+			result.put(lemma, lookUp(lemma));
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " (version " + version + ", " + size() + " lemmas)";
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #version} attribute.
+	 *
+	 * @return the lexicon's version.
+	 */
+	public long getVersion() {
+		return version;
+	}
+}
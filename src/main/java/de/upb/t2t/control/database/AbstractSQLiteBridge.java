@@ -1,5 +1,18 @@
 package de.upb.t2t.control.database;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import de.upb.t2t.control.sqlite.SQLiteBridgeDesktop;
@@ -28,9 +41,22 @@ import de.upb.t2t.model.WordClass;
  * With their help, the SQLite database may be re-initialised and some of the tables filled with
  * default values.
  * </p>
+ * <p>
+ * Once {@link #loadLexicon()} or {@link #loadMappedLexicon(File)} has been called, lemma lookups
+ * are answered from an immutable {@link AbstractLexicon} without ever touching the database. Until
+ * then, or should the lexicon be unavailable, they are answered from a bounded {@link LookupCache}
+ * whenever possible, while a {@link LemmaFilter} keeps definitely unknown lemmas away from the
+ * database. Implementations must therefore call {@link #onLemmaChanged(String)} after committing
+ * any change to a lemma's transcription items, which writes the change through to a new lexicon
+ * version, while a replaced database file is announced via {@link #onDatabaseReloaded()}. Both are
+ * passed on to all registered {@link LexiconListener}s. Whenever several lemmas are needed at once,
+ * e.g. all words of a sentence, prefer {@link #queryDatabase(Collection)}, which resolves all of
+ * them with as few database round trips as possible.
+ * </p>
  *
  * @author Michel May (michel-may@gmx.de)
  * @see #queryDatabase(String)
+ * @see #queryDatabase(Collection)
  * @see #addTranscription(String, WordClass, Variety, TranscriptionType, String)
  * @see DatabaseEntry
  * @see TranscriptionItem
@@ -99,12 +125,37 @@ public abstract class AbstractSQLiteBridge {
 			+ "INSERT INTO currencyChars (`currencyChar`, `singular`, `plural`) VALUES ('€', 'euro', 'euros');"
 			+ "INSERT INTO currencyChars (`currencyChar`, `singular`, `plural`) VALUES ('£', 'pound', 'pounds');";
 
+	/** The maximum number of lemmas held by the {@link #lemmaCache}. */
+	private static final int LEMMA_CACHE_CAPACITY = 4096;
+
 	/* Static Methods */
 	public static AbstractSQLiteBridge getInstance() {
 		return instance;
 	}
 
 	/* Object Variables */
+	/**
+	 * Caches the transcription items of the most frequently looked up lemmas. The cached lists are
+	 * unmodifiable and their items are never handed out directly.
+	 */
+	private final LookupCache<String, List<TranscriptionItem>> lemmaCache;
+	/**
+	 * The current version of the in-memory lexicon; <code>null</code> as long as it has not been
+	 * loaded.
+	 */
+	private final AtomicReference<AbstractLexicon> lexicon;
+	/**
+	 * The file of the {@link MappedLexicon}; <code>null</code> if the lexicon is kept on the
+	 * heap.
+	 */
+	private volatile File mappedLexiconFile;
+	/**
+	 * Tells lemmas that are definitely unknown, so that the database does not have to be queried
+	 * for them; <code>null</code> as long as it has not been loaded.
+	 */
+	private volatile LemmaFilter lemmaFilter;
+	/** The listeners to notify whenever the lexicon changes. */
+	private final List<LexiconListener> lexiconListeners;
 
 	/* Constructors */
 	/**
@@ -113,6 +164,9 @@ public abstract class AbstractSQLiteBridge {
 	 */
 	protected AbstractSQLiteBridge() {
 		super();
+		lemmaCache = new LookupCache<String, List<TranscriptionItem>>(LEMMA_CACHE_CAPACITY);
+		lexicon = new AtomicReference<AbstractLexicon>();
+		lexiconListeners = new CopyOnWriteArrayList<LexiconListener>();
 	}
 
 	/* Object Methods */
@@ -135,14 +189,401 @@ public abstract class AbstractSQLiteBridge {
 	/**
 	 * Queries the SQLite file for the given lemma and converts any information into a
 	 * <code>DatabaseEntry</code> object. In the event that no entry inside the database matches the
-	 * query, the returned database entry will be empty, but not <code>null</code>.
+	 * query, the returned database entry will be empty, but not <code>null</code>. The lookup is
+	 * answered from the {@link #lexicon} or, should it not have been loaded, from the
+	 * {@link #lemmaCache} if possible. Either way, the returned entry and its items are new
+	 * instances, so that selecting an item never affects any other entry.
 	 *
 	 * @param lemma
 	 *            the lemma to look up
 	 * @return the corresponding <code>DatabaseEntry</code> object.
 	 * @throws Exception
+	 *             if {@link #lookUpTranscriptionItems(String)} throws one.
+	 */
+	public DatabaseEntry queryDatabase(String lemma) throws Exception {
+
+		AbstractLexicon current = lexicon.get();
+		if (current != null) {
+			return current.lookUp(lemma);
+		}
+
+		lemma = lemma.toLowerCase();
+		List<TranscriptionItem> items = lemmaCache.get(lemma);
+		if (items == null) {
+
+			// Don't bother the database with lemmas that are definitely unknown.
+			LemmaFilter filter = lemmaFilter;
+			if (filter != null && !filter.mightContain(lemma)) {
+				return new DatabaseEntry(lemma);
+			}
+
+			long generation = lemmaCache.getGeneration();
+			items = Collections.unmodifiableList(lookUpTranscriptionItems(lemma));
+			lemmaCache.put(lemma, items, generation);
+			if (filter != null && items.isEmpty()) {
+				filter.recordFalsePositive();
+			}
+		}
+		return newDatabaseEntry(lemma, items);
+	}
+
+	/**
+	 * <p>
+	 * Resolves all of the given lemmas at once. If the {@link #lexicon} has been loaded, all
+	 * lemmas are resolved from one and the same version of it, so that a transcription in progress
+	 * is never affected by concurrent edits. Otherwise, lemmas found inside the {@link #lemmaCache}
+	 * are answered from there, while all remaining ones are handed to
+	 * {@link #lookUpTranscriptionItems(Collection)} in a single call, so that e.g. a whole
+	 * paragraph costs no more than one or two database round trips instead of one per word.
+	 * </p>
+	 * <p>
+	 * The returned map holds a new {@link DatabaseEntry} for each of the given lemmas, using the
+	 * lemmas exactly as given as its keys. Just like with {@link #queryDatabase(String)}, the
+	 * entries of lemmas that could not be found are empty, but not <code>null</code>.
+	 * </p>
+	 *
+	 * @param lemmas
+	 *            the lemmas to look up; duplicates are resolved only once.
+	 * @return a map of the given lemmas to their corresponding <code>DatabaseEntry</code> objects.
+	 * @throws Exception
+	 *             if {@link #lookUpTranscriptionItems(Collection)} throws one.
+	 */
+	public Map<String, DatabaseEntry> queryDatabase(Collection<String> lemmas) throws Exception {
+
+		AbstractLexicon current = lexicon.get();
+		if (current != null) {
+			return current.lookUp(lemmas);
+		}
+
+		// Serve whatever we can from the cache and collect the rest.
+		Map<String, List<TranscriptionItem>> found = new HashMap<String, List<TranscriptionItem>>();
+		Set<String> missing = new LinkedHashSet<String>();
+		for (String lemma : lemmas) {
+			String key = lemma.toLowerCase();
+			if (found.containsKey(key) || missing.contains(key)) {
+				continue;
+			}
+			List<TranscriptionItem> items = lemmaCache.get(key);
+			if (items == null) {
+				missing.add(key);
+			} else {
+				found.put(key, items);
+			}
+		}
+
+		// Sort out all lemmas that are definitely unknown.
+		LemmaFilter filter = lemmaFilter;
+		if (filter != null) {
+			for (Iterator<String> iterator = missing.iterator(); iterator.hasNext();) {
+				String key = iterator.next();
+				if (!filter.mightContain(key)) {
+					iterator.remove();
+					found.put(key, Collections.<TranscriptionItem> emptyList());
+				}
+			}
+		}
+
+		// Resolve all remaining misses at once.
+		if (!missing.isEmpty()) {
+			long generation = lemmaCache.getGeneration();
+			Map<String, List<TranscriptionItem>> loaded = lookUpTranscriptionItems(missing);
+			for (String key : missing) {
+				List<TranscriptionItem> items = loaded.get(key);
+				items = items == null ? Collections.<TranscriptionItem> emptyList() : Collections.unmodifiableList(items);
+				lemmaCache.put(key, items, generation);
+				found.put(key, items);
+				if (filter != null && items.isEmpty()) {
+					filter.recordFalsePositive();
+				}
+			}
+		}
+
+		Map<String, DatabaseEntry> result = new HashMap<String, DatabaseEntry>();
+		for (String lemma : lemmas) {
+			String key = lemma.toLowerCase();
+			result.put(lemma, newDatabaseEntry(key, found.get(key)));
+		}
+		return result;
+	}
+
+	/**
+	 * Wraps copies of the given items into a new {@link DatabaseEntry}, so that selecting an item
+	 * never affects the {@link #lemmaCache} or any other entry.
+	 *
+	 * @param lemma
+	 *            the entry's lemma.
+	 * @param items
+	 *            the lemma's items.
+	 * @return the new <code>DatabaseEntry</code>.
+	 */
+	private DatabaseEntry newDatabaseEntry(String lemma, List<TranscriptionItem> items) {
+		DatabaseEntry entry = new DatabaseEntry(lemma);
+		for (TranscriptionItem item : items) {
+			entry.addTranscriptionItem(new TranscriptionItem(item));
+		}
+		return entry;
+	}
+
+	/**
+	 * Queries the SQLite file for all transcription items of the given lemma, bypassing the
+	 * {@link #lemmaCache}.
+	 *
+	 * @param lemma
+	 *            the lemma to look up in lower case.
+	 * @return a list of the lemma's items in the order they are stored in; empty if there are
+	 *         none.
+	 * @throws Exception
+	 */
+	protected abstract List<TranscriptionItem> lookUpTranscriptionItems(String lemma) throws Exception;
+
+	/**
+	 * Queries the SQLite file for the transcription items of all of the given lemmas, bypassing the
+	 * {@link #lemmaCache}. This default implementation simply calls
+	 * {@link #lookUpTranscriptionItems(String)} for each lemma. Implementations should override it
+	 * with a single set-based query.
+	 *
+	 * @param lemmas
+	 *            the distinct lemmas to look up in lower case.
+	 * @return a map of the lemmas to their items in the order they are stored in. Lemmas without
+	 *         any item may either be mapped to an empty list or be missing altogether.
+	 * @throws Exception
+	 */
+	protected Map<String, List<TranscriptionItem>> lookUpTranscriptionItems(Collection<String> lemmas)
+			throws Exception {
+		Map<String, List<TranscriptionItem>> result = new HashMap<String, List<TranscriptionItem>>();
+		for (String lemma : lemmas) {
+			result.put(lemma, lookUpTranscriptionItems(lemma));
+		}
+		return result;
+	}
+
+	/**
+	 * Queries the SQLite file for the transcription items of all lemmas at once in order to build
+	 * the {@link #lexicon}.
+	 *
+	 * @return a map of all lemmas in lower case to their items in the order they are stored in.
+	 * @throws Exception
+	 */
+	protected abstract Map<String, List<TranscriptionItem>> lookUpAllTranscriptionItems() throws Exception;
+
+	/**
+	 * Queries the SQLite file for all lemmas in order to build the {@link #lemmaFilter}.
+	 *
+	 * @return all lemmas in lower case.
+	 * @throws Exception
+	 */
+	protected abstract Collection<String> lookUpAllLemmas() throws Exception;
+
+	/**
+	 * Walks through all lemmas of the local database along with their transcription items by
+	 * means of a single forward-only cursor, handing one lemma at a time to the given visitor.
+	 * Neither the caches nor the lexicon are involved, and no more than a single lemma's items are
+	 * held in memory at a time. The walk sees the database as it was when the walk started, even
+	 * if it is changed meanwhile.
+	 *
+	 * @param visitor
+	 *            the visitor to hand the lemmas to.
+	 * @return the number of lemmas visited.
+	 * @throws Exception
+	 *             if the database cannot be read or the visitor throws one.
+	 */
+	public abstract long visitLexicon(LexiconVisitor visitor) throws Exception;
+
+	/**
+	 * Builds a new {@link LemmaFilter} over all lemmas of the database and puts it in front of
+	 * every database lookup. It is rebuilt by {@link #onDatabaseReloaded()} and kept up to date by
+	 * {@link #onLemmaChanged(String)}.
+	 *
+	 * @return the new filter.
+	 * @throws Exception
+	 *             if {@link #lookUpAllLemmas()} throws one.
+	 */
+	public LemmaFilter loadLemmaFilter() throws Exception {
+		LemmaFilter result = LemmaFilter.of(lookUpAllLemmas());
+		lemmaFilter = result;
+		Logger.getLogger(getClass().getName()).info("Loaded " + result + ".");
+		return result;
+	}
+
+	/**
+	 * Reads all lemmas from the database into a new {@link HeapLexicon} and swaps it in as the
+	 * current {@link #lexicon}. From then on, no lookup will touch the database anymore. Lookups
+	 * in progress keep reading whichever version they started with.
+	 *
+	 * @return the new lexicon.
+	 * @throws Exception
+	 *             if {@link #lookUpAllTranscriptionItems()} throws one.
+	 */
+	public AbstractLexicon loadLexicon() throws Exception {
+
+		// Should an edit have been written through while reading, read again so it is not lost.
+		AbstractLexicon current, result;
+		do {
+			current = lexicon.get();
+			result = new HeapLexicon(current == null ? 1 : current.getVersion() + 1, lookUpAllTranscriptionItems());
+		} while (!lexicon.compareAndSet(current, result));
+		mappedLexiconFile = null;
+		Logger.getLogger(getClass().getName()).info("Loaded " + result + ".");
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * Maps the given lexicon file into memory and swaps it in as the current {@link #lexicon}.
+	 * Should the file be missing, invalid or stale, i.e. compiled from another version of the
+	 * database as told by {@link #getDatabaseStamp()}, it is compiled from the database first.
+	 * The file is also recompiled whenever {@link #onDatabaseReloaded()} is called.
+	 * </p>
+	 * <p>
+	 * Compared to {@link #loadLexicon()}, this saves memory and start-up time whenever several
+	 * JVMs share the same host, as they all map the very same file.
+	 * </p>
+	 *
+	 * @param file
+	 *            the lexicon file.
+	 * @return the new lexicon.
+	 * @throws Exception
+	 *             if the file could neither be mapped nor compiled.
+	 * @see MappedLexicon
+	 */
+	public AbstractLexicon loadMappedLexicon(File file) throws Exception {
+
+		Logger logger = Logger.getLogger(getClass().getName());
+		AbstractLexicon current, result;
+		do {
+			current = lexicon.get();
+			long version = current == null ? 1 : current.getVersion() + 1;
+			long stamp = getDatabaseStamp();
+			try {
+				result = MappedLexicon.open(file, stamp, version);
+			} catch (IOException e) {
+				logger.info("Compiling lexicon file " + file + " (" + e.getMessage() + ") ...");
+				MappedLexicon.compile(lookUpAllTranscriptionItems(), stamp, file);
+				result = MappedLexicon.open(file, stamp, version);
+			}
+		} while (!lexicon.compareAndSet(current, result));
+		mappedLexiconFile = file;
+		logger.info("Loaded " + result + ".");
+		return result;
+	}
+
+	/**
+	 * Returns a number identifying the current state of the database file, e.g. derived from its
+	 * size and modification time. It is stored inside {@link MappedLexicon} files to tell whether
+	 * they are stale.
+	 *
+	 * @return the database's current stamp.
+	 * @throws Exception
+	 */
+	protected abstract long getDatabaseStamp() throws Exception;
+
+	/**
+	 * Must be called by implementations after the transcription items of the given lemma have been
+	 * changed and while still holding whatever lock serialises the changes. The lemma is added to
+	 * the {@link #lemmaFilter}, its cache entry is invalidated and its items are written through to
+	 * a new version of the {@link #lexicon}. Should the items not be readable, the lexicon is
+	 * discarded, so that lookups fall back to the database rather than returning stale items.
+	 * Finally, all {@link LexiconListener}s are notified.
+	 *
+	 * @param lemma
+	 *            the lemma that has been changed.
+	 */
+	protected void onLemmaChanged(String lemma) {
+		lemma = lemma.toLowerCase();
+		LemmaFilter filter = lemmaFilter;
+		if (filter != null) {
+			filter.add(lemma);
+		}
+		lemmaCache.invalidate(lemma);
+		if (lexicon.get() != null) {
+			try {
+				List<TranscriptionItem> items = lookUpTranscriptionItems(lemma);
+				AbstractLexicon current;
+				do {
+					current = lexicon.get();
+				} while (current != null && !lexicon.compareAndSet(current, current.withLemma(lemma, items)));
+			} catch (Exception e) {
+				Logger.getLogger(getClass().getName()).log(Level.WARNING,
+						"Unable to update the lexicon for lemma \"" + lemma + "\"! Discarding it.", e);
+				lexicon.set(null);
+			}
+		}
+		fireLexiconChanged(lemma);
+	}
+
+	/**
+	 * Must be called after the database file has been replaced, e.g. by the
+	 * <code>OnlineHandler</code>. All cached lookups are discarded and, should they have been
+	 * loaded before, the {@link #lemmaFilter} is rebuilt and a fresh {@link #lexicon} is swapped
+	 * in. A {@link MappedLexicon} is recompiled for that purpose. Finally, all
+	 * {@link LexiconListener}s are notified.
+	 */
+	public void onDatabaseReloaded() {
+		Logger logger = Logger.getLogger(getClass().getName());
+		logger.info("Database reloaded. " + lemmaCache);
+		lemmaCache.invalidateAll();
+		if (lemmaFilter != null) {
+			try {
+				loadLemmaFilter();
+			} catch (Exception e) {
+				logger.log(Level.SEVERE, "Unable to rebuild the lemma filter! Querying the database for all lemmas.", e);
+				lemmaFilter = null;
+			}
+		}
+		if (lexicon.get() != null) {
+			try {
+				File file = mappedLexiconFile;
+				if (file == null) {
+					loadLexicon();
+				} else {
+					loadMappedLexicon(file);
+				}
+			} catch (Exception e) {
+				logger.log(Level.SEVERE, "Unable to reload the lexicon! Falling back to querying the database.", e);
+				lexicon.set(null);
+			}
+		}
+		fireLexiconChanged(null);
+	}
+
+	/**
+	 * Notifies all {@link LexiconListener}s of a change. Exceptions thrown by a listener are
+	 * logged, so that they neither affect the other listeners nor the change itself.
+	 *
+	 * @param lemma
+	 *            the lemma that has been changed; <code>null</code> if the whole database has been
+	 *            reloaded.
+	 */
+	private void fireLexiconChanged(String lemma) {
+		for (LexiconListener listener : lexiconListeners) {
+			try {
+				listener.onLexiconChanged(lemma);
+			} catch (RuntimeException e) {
+				Logger.getLogger(getClass().getName()).log(Level.WARNING, "Exception in lexicon listener!", e);
+			}
+		}
+	}
+
+	/**
+	 * Registers a listener to be notified whenever the transcription items of a lemma change or
+	 * the database is reloaded.
+	 *
+	 * @param listener
+	 *            the listener to add.
+	 */
+	public void addLexiconListener(LexiconListener listener) {
+		lexiconListeners.add(listener);
+	}
+
+	/**
+	 * Removes a listener previously registered by {@link #addLexiconListener(LexiconListener)}.
+	 *
+	 * @param listener
+	 *            the listener to remove.
 	 */
-	public abstract DatabaseEntry queryDatabase(String lemma) throws Exception;
+	public void removeLexiconListener(LexiconListener listener) {
+		lexiconListeners.remove(listener);
+	}
 
 	/**
 	 * Queries the local database for the transcription item whose ID matches the given one.
@@ -174,6 +615,22 @@ public abstract class AbstractSQLiteBridge {
 	public abstract TranscriptionItem addTranscription(String lemma, WordClass wordClass, Variety variety,
 			TranscriptionType transType, String transcription) throws Exception;
 
+	/**
+	 * Adds all of the given transcription items to the local database inside a single
+	 * transaction, storing their lemmas as necessary. Items that are stored already, as well as
+	 * repetitions among the given ones, are skipped rather than rejected. Unlike
+	 * {@link #addTranscription(String, WordClass, Variety, TranscriptionType, String)}, this does
+	 * not update any cache or the lexicon. Callers must call {@link #onDatabaseReloaded()} once
+	 * they are done adding items, which makes all of them visible at once.
+	 *
+	 * @param items
+	 *            the items to add. Their IDs are ignored.
+	 * @return the number of items that have actually been added.
+	 * @throws Exception
+	 *             if the items cannot be added, in which case none of them has been.
+	 */
+	public abstract int addTranscriptions(Collection<TranscriptionItem> items) throws Exception;
+
 	/**
 	 * Updates the <code>String</code> of a lemma with the given ID inside the local database.
 	 *
@@ -246,6 +703,34 @@ public abstract class AbstractSQLiteBridge {
 	public abstract void deleteTranscription(TranscriptionItem item) throws Exception;
 
 	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #lemmaCache}, e.g. to read its statistics.
+	 *
+	 * @return the bridge's lemma cache.
+	 */
+	public LookupCache<String, List<TranscriptionItem>> getLemmaCache() {
+		return lemmaCache;
+	}
+
+	/**
+	 * A getter for the {@link #lemmaFilter}, e.g. to read its statistics.
+	 *
+	 * @return the bridge's lemma filter; <code>null</code> if it has not been loaded.
+	 */
+	public LemmaFilter getLemmaFilter() {
+		return lemmaFilter;
+	}
+
+	/**
+	 * A getter for the current version of the {@link #lexicon}. Callers that need several lookups
+	 * to be consistent with one another should hold on to the returned version.
+	 *
+	 * @return the current lexicon; <code>null</code> if it has not been loaded.
+	 */
+	public AbstractLexicon getLexicon() {
+		return lexicon.get();
+	}
+
 	/**
 	 * Queries the database for information on the varieties it contains and converts said info into
 	 * an array of {@link Variety} objects. This function should be called, when the
@@ -0,0 +1,548 @@
+/**
+ *
+ */
+package de.upb.t2t.control.database;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import de.upb.t2t.control.Statics;
+import de.upb.t2t.control.gui.UserFeedbackProvider;
+import de.upb.t2t.control.scheduling.CancellationToken;
+import de.upb.t2t.model.ImportReport;
+import de.upb.t2t.model.ImportReport.RejectedRow;
+import de.upb.t2t.model.TranscriptionItem;
+import de.upb.t2t.model.TranscriptionType;
+import de.upb.t2t.model.Variety;
+import de.upb.t2t.model.WordClass;
+
+/**
+ * <p>
+ * Imports whole pronunciation dictionaries into the database. A dictionary is a UTF-8 encoded
+ * text file holding one transcription item per line. Its columns are the lemma, the word class,
+ * the variety, the transcription type and the transcription, separated by commas if the file's
+ * name ends in <code>.csv</code> and by tabs otherwise. CSV fields may be enclosed in double
+ * quotes. Blank lines, lines starting with '#' and a first line of five fields, the first of
+ * which is the column name <code>lemma</code>, are ignored.
+ * </p>
+ * <p>
+ * Word classes and varieties are given by their abbreviation or proper name, transcription types
+ * by their abbreviation, description or ID, an empty type meaning
+ * {@link TranscriptionType#NONE}. Transcriptions may be enclosed in slashes and must not contain
+ * anything but the symbols of {@link Statics#REGEX_BROAD_PHONETIC_SYMBOLS}, just like those
+ * entered by hand. Rows violating any of this are rejected.
+ * </p>
+ * <p>
+ * The file is read in chunks of {@link #getBatchSize()} lines, which are parsed and validated by
+ * a fixed number of worker threads while the calling thread stores the chunks parsed before, in
+ * the order they have been read and each inside a single transaction of its own (see
+ * {@link AbstractSQLiteBridge#addTranscriptions(java.util.Collection)}). Items stored already are
+ * skipped by the database itself. Only a few chunks are held at a time, so that the memory
+ * needed does not depend on the size of the file. Once the import ends, even if it has failed or
+ * been cancelled, all chunks stored so far are made visible by means of
+ * {@link AbstractSQLiteBridge#onDatabaseReloaded()}.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see ImportReport
+ */
+public class DictionaryImporter {
+
+	/* Static Variables */
+	/** The number of lines per chunk by default. */
+	public static final int DEFAULT_BATCH_SIZE = 10000;
+	/** The number of columns of a row. */
+	private static final int COLUMN_COUNT = 5;
+	/** Matches every character that is no phonetic symbol. */
+	private static final Pattern INVALID_SYMBOL = Pattern.compile("[^" + Statics.REGEX_BROAD_PHONETIC_SYMBOLS + "]");
+
+	/* Static Methods */
+	/**
+	 * Looks up the transcription type of the given abbreviation, description or ID.
+	 *
+	 * @param string
+	 *            the type's abbreviation, description or ID; empty for {@link TranscriptionType#NONE}.
+	 * @return the corresponding type.
+	 * @throws NoSuchElementException
+	 *             if there is no such type.
+	 */
+	private static TranscriptionType getTranscriptionType(String string) throws NoSuchElementException {
+		if (string.isEmpty()) {
+			return TranscriptionType.NONE;
+		}
+		for (TranscriptionType type : TranscriptionType.values()) {
+			if (type.getAbbreviation().equalsIgnoreCase(string) || type.getDescription().equalsIgnoreCase(string)
+					|| String.valueOf(type.getID()).equals(string)) {
+				return type;
+			}
+		}
+		throw new NoSuchElementException(string);
+	}
+
+	/**
+	 * Splits a line into its fields. Fields separated by commas may be enclosed in double quotes,
+	 * in which case they may contain commas and quotes, the latter escaped by doubling them.
+	 *
+	 * @param line
+	 *            the line to split.
+	 * @param separator
+	 *            the field separator.
+	 * @return the fields in the order they appear.
+	 */
+	private static List<String> split(String line, char separator) {
+		List<String> result = new ArrayList<String>(COLUMN_COUNT);
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (separator == ',' && c == '"') {
+				if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else {
+					quoted = !quoted;
+				}
+			} else if (c == separator && !quoted) {
+				result.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		result.add(field.toString());
+		return result;
+	}
+
+	/**
+	 * Tells whether the given line is a header, i.e. has {@link #COLUMN_COUNT} fields, the first
+	 * of which is the column name <code>lemma</code>.
+	 *
+	 * @param line
+	 *            the line to check.
+	 * @param separator
+	 *            the field separator.
+	 * @return <code>true</code> if the line is a header.
+	 */
+	private static boolean isHeader(String line, char separator) {
+		List<String> fields = split(line, separator);
+		return fields.size() == COLUMN_COUNT && fields.get(0).trim().equalsIgnoreCase("lemma");
+	}
+
+	/* Object Variables */
+	/** The {@link Logger} instance associated with this class. */
+	private final Logger logger;
+	/** The bridge to store the items with. */
+	private final AbstractSQLiteBridge bridge;
+	/** The number of threads parsing chunks at the same time. */
+	private final int threadCount;
+	/** The number of lines per chunk and thus per transaction. */
+	private final int batchSize;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link DictionaryImporter} class.
+	 *
+	 * @param threadCount
+	 *            the number of threads parsing chunks at the same time; <code>0</code> or less to
+	 *            use one thread per available processor.
+	 * @param batchSize
+	 *            the number of lines per chunk and thus per transaction; <code>0</code> or less for
+	 *            {@link #DEFAULT_BATCH_SIZE}.
+	 */
+	public DictionaryImporter(int threadCount, int batchSize) {
+		this(AbstractSQLiteBridge.getInstance(), threadCount, batchSize);
+	}
+
+	/**
+	 * Constructor for the {@link DictionaryImporter} class.
+	 *
+	 * @param bridge
+	 *            the bridge to store the items with.
+	 * @param threadCount
+	 *            the number of threads parsing chunks at the same time; <code>0</code> or less to
+	 *            use one thread per available processor.
+	 * @param batchSize
+	 *            the number of lines per chunk and thus per transaction; <code>0</code> or less for
+	 *            {@link #DEFAULT_BATCH_SIZE}.
+	 */
+	public DictionaryImporter(AbstractSQLiteBridge bridge, int threadCount, int batchSize) {
+		logger = Logger.getLogger(getClass().getName());
+		this.bridge = bridge;
+		this.threadCount = threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors();
+		this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+	}
+
+	/* Object Methods */
+	/**
+	 * Imports the given dictionary. The method blocks until the whole file has been processed.
+	 *
+	 * @param file
+	 *            the dictionary to import.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the report of the import.
+	 * @throws CancellationException
+	 *             if the token has been cancelled. The chunks stored so far remain stored.
+	 * @throws IOException
+	 *             if the file cannot be read.
+	 * @throws Exception
+	 *             if a chunk cannot be stored. The chunks stored before remain stored.
+	 */
+	public ImportReport importFile(Path file, UserFeedbackProvider feedback, CancellationToken token)
+			throws CancellationException, IOException, Exception {
+
+		long start = System.currentTimeMillis();
+		char separator = file.getFileName().toString().toLowerCase().endsWith(".csv") ? ',' : '\t';
+		long size = Math.max(1, Files.size(file));
+		logger.info("Importing " + file + " (" + size + " bytes) in chunks of " + batchSize + " lines on "
+				+ threadCount + " threads ...");
+
+		ExecutorService workers = Executors.newFixedThreadPool(threadCount, (Runnable runnable) -> {
+			Thread thread = new Thread(runnable, "Dictionary Import Worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Deque<Future<Chunk>> pending = new ArrayDeque<Future<Chunk>>();
+		List<RejectedRow> rejectedRows = new ArrayList<RejectedRow>();
+		long[] counts = new long[3];
+		try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+				BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+
+			long lineNumber = 0;
+			String line;
+			List<String> lines = new ArrayList<String>(batchSize);
+			long firstLineNumber = 1;
+			while ((line = reader.readLine()) != null) {
+				lineNumber++;
+				if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+					line = line.substring(1);
+				}
+				if (lineNumber == 1 && isHeader(line, separator)) {
+					line = "";
+				}
+				lines.add(line);
+				if (lines.size() == batchSize) {
+					submit(workers, pending, lines, firstLineNumber, separator);
+					lines = new ArrayList<String>(batchSize);
+					firstLineNumber = lineNumber + 1;
+
+					// Store the oldest chunk as soon as enough are waiting, so that the memory
+					// needed stays bounded.
+					if (pending.size() > threadCount) {
+						store(pending.removeFirst(), rejectedRows, counts, token);
+						if (feedback != null) {
+							feedback.progressFeedback(Math.min(1, ((double) in.getCount()) / size),
+									"Imported " + counts[1] + " of " + counts[0] + " rows ...");
+						}
+					}
+				}
+			}
+			if (!lines.isEmpty()) {
+				submit(workers, pending, lines, firstLineNumber, separator);
+			}
+			while (!pending.isEmpty()) {
+				store(pending.removeFirst(), rejectedRows, counts, token);
+			}
+			if (feedback != null) {
+				feedback.progressFeedback(1, "Imported " + counts[1] + " of " + counts[0] + " rows.");
+			}
+
+			ImportReport report = new ImportReport(counts[0], counts[1], counts[2], rejectedRows,
+					System.currentTimeMillis() - start);
+			logger.info(report.toString());
+			return report;
+
+		} finally {
+			workers.shutdownNow();
+			if (counts[1] > 0) {
+				bridge.onDatabaseReloaded();
+			}
+		}
+	}
+
+	/**
+	 * Hands the given lines to the workers for parsing.
+	 *
+	 * @param workers
+	 *            the workers to parse the lines.
+	 * @param pending
+	 *            the chunks parsed or being parsed, to append the new one to.
+	 * @param lines
+	 *            the lines of the chunk.
+	 * @param firstLineNumber
+	 *            the line number of the chunk's first line.
+	 * @param separator
+	 *            the field separator.
+	 */
+	private void submit(ExecutorService workers, Deque<Future<Chunk>> pending, List<String> lines,
+			long firstLineNumber, char separator) {
+		pending.addLast(workers.submit(() -> parse(lines, firstLineNumber, separator)));
+	}
+
+	/**
+	 * Waits for the given chunk to be parsed and stores its items.
+	 *
+	 * @param future
+	 *            the chunk being parsed.
+	 * @param rejectedRows
+	 *            the list to add the chunk's rejected rows to.
+	 * @param counts
+	 *            the number of rows read, imported and skipped as duplicates so far, to add the
+	 *            chunk's numbers to.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @throws CancellationException
+	 *             if the token has been cancelled or the calling thread is interrupted.
+	 * @throws Exception
+	 *             if the chunk cannot be stored.
+	 */
+	private void store(Future<Chunk> future, List<RejectedRow> rejectedRows, long[] counts, CancellationToken token)
+			throws CancellationException, Exception {
+
+		if (token != null) {
+			token.throwIfCancelled();
+		}
+		Chunk chunk;
+		try {
+			chunk = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Interrupted while waiting for the import workers.");
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Unexpected exception in import worker!", e.getCause());
+		}
+
+		int imported = chunk.items.isEmpty() ? 0 : bridge.addTranscriptions(chunk.items);
+		rejectedRows.addAll(chunk.rejectedRows);
+		counts[0] += chunk.rowCount;
+		counts[1] += imported;
+		counts[2] += chunk.items.size() - imported;
+	}
+
+	/**
+	 * Parses and validates the given lines. Runs on a worker thread.
+	 *
+	 * @param lines
+	 *            the lines to parse.
+	 * @param firstLineNumber
+	 *            the line number of the first line.
+	 * @param separator
+	 *            the field separator.
+	 * @return the parsed chunk.
+	 */
+	private Chunk parse(List<String> lines, long firstLineNumber, char separator) {
+
+		Chunk result = new Chunk(lines.size());
+		for (int i = 0; i < lines.size(); i++) {
+			String line = lines.get(i);
+			String trimmed = line.trim();
+			if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+				continue;
+			}
+			result.rowCount++;
+			long lineNumber = firstLineNumber + i;
+
+			List<String> fields = split(line, separator);
+			if (fields.size() != COLUMN_COUNT) {
+				result.reject(lineNumber, "Expected " + COLUMN_COUNT + " columns, but found " + fields.size() + ".",
+						line);
+				continue;
+			}
+			for (int j = 0; j < fields.size(); j++) {
+				fields.set(j, fields.get(j).trim());
+			}
+
+			String lemma = fields.get(0);
+			if (lemma.isEmpty()) {
+				result.reject(lineNumber, "The lemma is empty.", line);
+				continue;
+			}
+			WordClass wordClass;
+			Variety variety;
+			TranscriptionType transType;
+			try {
+				wordClass = WordClass.getWordClass(fields.get(1));
+			} catch (NoSuchElementException e) {
+				result.reject(lineNumber, "Unknown word class \"" + fields.get(1) + "\".", line);
+				continue;
+			}
+			try {
+				variety = Variety.getVariety(fields.get(2));
+			} catch (NoSuchElementException e) {
+				result.reject(lineNumber, "Unknown variety \"" + fields.get(2) + "\".", line);
+				continue;
+			}
+			try {
+				transType = getTranscriptionType(fields.get(3));
+			} catch (NoSuchElementException e) {
+				result.reject(lineNumber, "Unknown transcription type \"" + fields.get(3) + "\".", line);
+				continue;
+			}
+
+			// Validate the transcription just like the AddTranscriptionPane does.
+			String transcription = fields.get(4);
+			if (transcription.length() > 1 && transcription.startsWith("/") && transcription.endsWith("/")) {
+				transcription = transcription.substring(1, transcription.length() - 1).trim();
+			}
+			if (transcription.isEmpty()) {
+				result.reject(lineNumber, "The transcription is empty.", line);
+				continue;
+			}
+			Matcher matcher = INVALID_SYMBOL.matcher(transcription);
+			if (matcher.find()) {
+				Set<String> invalid = new LinkedHashSet<String>();
+				do {
+					invalid.add("\"" + matcher.group() + "\"");
+				} while (matcher.find());
+				result.reject(lineNumber, "Invalid characters in transcription: " + String.join(", ", invalid) + ".",
+						line);
+				continue;
+			}
+
+			result.items.add(new TranscriptionItem(-1, lemma.toLowerCase(), transcription, transType, wordClass, variety));
+		}
+		if (!result.rejectedRows.isEmpty()) {
+			logger.fine("Rejected " + result.rejectedRows.size() + " of " + result.rowCount
+					+ " rows starting at line " + firstLineNumber + ".");
+		}
+		return result;
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #threadCount} attribute.
+	 *
+	 * @return the number of threads parsing chunks at the same time.
+	 */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/**
+	 * A getter for the {@link #batchSize} attribute.
+	 *
+	 * @return the number of lines per chunk and thus per transaction.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	/* Sub-Classes */
+	/**
+	 * The outcome of parsing a chunk of lines.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class Chunk {
+
+		/** The items of all valid rows. */
+		private final List<TranscriptionItem> items;
+		/** The rows that have been rejected. */
+		private final List<RejectedRow> rejectedRows;
+		/** The number of rows, excluding blank lines and comments. */
+		private int rowCount;
+
+		/**
+		 * Constructor for the {@link Chunk} class.
+		 *
+		 * @param lineCount
+		 *            the number of lines of the chunk.
+		 */
+		private Chunk(int lineCount) {
+			items = new ArrayList<TranscriptionItem>(lineCount);
+			rejectedRows = new ArrayList<RejectedRow>();
+		}
+
+		/**
+		 * Records a row as rejected.
+		 *
+		 * @param lineNumber
+		 *            the row's line number.
+		 * @param reason
+		 *            the reason the row has been rejected.
+		 * @param line
+		 *            the row as read from the file.
+		 */
+		private void reject(long lineNumber, String reason, String line) {
+			rejectedRows.add(new RejectedRow(lineNumber, reason, line));
+		}
+	}
+
+	/**
+	 * An input stream counting the bytes read from it, so that the progress can be told.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class CountingInputStream extends FilterInputStream {
+
+		/** The number of bytes read so far. */
+		private long count;
+
+		/**
+		 * Constructor for the {@link CountingInputStream} class.
+		 *
+		 * @param in
+		 *            the stream to read from.
+		 */
+		private CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int result = super.read();
+			if (result != -1) {
+				count++;
+			}
+			return result;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int result = super.read(b, off, len);
+			if (result > 0) {
+				count += result;
+			}
+			return result;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long result = super.skip(n);
+			count += result;
+			return result;
+		}
+
+		/**
+		 * A getter for the {@link #count} attribute.
+		 *
+		 * @return the number of bytes read so far.
+		 */
+		private long getCount() {
+			return count;
+		}
+	}
+}
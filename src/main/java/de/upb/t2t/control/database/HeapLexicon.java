@@ -0,0 +1,99 @@
+/**
+ *
+ */
+package de.upb.t2t.control.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.upb.t2t.model.TranscriptionItem;
+
+/**
+ * An {@link AbstractLexicon} holding all lemmas inside a plain <code>HashMap</code> on the heap.
+ * New versions are created by copying the map, which is cheap for a dictionary the size of
+ * <code>T2T.db</code> and only happens when the database is edited.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ */
+public class HeapLexicon extends AbstractLexicon {
+
+	/* Static Variables */
+
+	/* Static Methods */
+	/**
+	 * Copies the given map, dropping all lemmas without any item.
+	 *
+	 * @param items
+	 *            the map to copy.
+	 * @return a map holding unmodifiable copies of all non-empty lists.
+	 */
+	private static Map<String, List<TranscriptionItem>> copyOf(Map<String, List<TranscriptionItem>> items) {
+		Map<String, List<TranscriptionItem>> copy = new HashMap<String, List<TranscriptionItem>>(items.size() * 2);
+		for (Map.Entry<String, List<TranscriptionItem>> entry : items.entrySet()) {
+			if (!entry.getValue().isEmpty()) {
+				copy.put(entry.getKey(),
+						Collections.unmodifiableList(new ArrayList<TranscriptionItem>(entry.getValue())));
+			}
+		}
+		return copy;
+	}
+
+	/* Object Variables */
+	/** All lemmas in lower case mapped to their unmodifiable lists of items. */
+	private final Map<String, List<TranscriptionItem>> items;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link HeapLexicon} class.
+	 *
+	 * @param version
+	 *            the lexicon's version.
+	 * @param items
+	 *            all lemmas in lower case mapped to their items. The map is copied, so that the
+	 *            caller may not modify the lexicon afterwards.
+	 */
+	public HeapLexicon(long version, Map<String, List<TranscriptionItem>> items) {
+		this(copyOf(items), version);
+	}
+
+	/**
+	 * Constructor for the {@link HeapLexicon} class taking ownership of the given map, which must
+	 * therefore not be modified any further.
+	 *
+	 * @param items
+	 *            all lemmas in lower case mapped to their unmodifiable, non-empty lists of items.
+	 * @param version
+	 *            the lexicon's version.
+	 */
+	private HeapLexicon(Map<String, List<TranscriptionItem>> items, long version) {
+		super(version);
+		this.items = items;
+	}
+
+	/* Object Methods */
+	@Override
+	public List<TranscriptionItem> getTranscriptionItems(String lemma) {
+		List<TranscriptionItem> result = items.get(lemma);
+		return result == null ? Collections.<TranscriptionItem> emptyList() : result;
+	}
+
+	@Override
+	public HeapLexicon withLemma(String lemma, List<TranscriptionItem> newItems) {
+		// Only the map is copied. All other lists are shared with this version.
+		Map<String, List<TranscriptionItem>> copy = new HashMap<String, List<TranscriptionItem>>(items);
+		if (newItems.isEmpty()) {
+			copy.remove(lemma);
+		} else {
+			copy.put(lemma, Collections.unmodifiableList(new ArrayList<TranscriptionItem>(newItems)));
+		}
+		return new HeapLexicon(copy, getVersion() + 1);
+	}
+
+	@Override
+	public int size() {
+		return items.size();
+	}
+}
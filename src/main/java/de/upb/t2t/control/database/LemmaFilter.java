@@ -0,0 +1,236 @@
+/**
+ *
+ */
+package de.upb.t2t.control.database;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A Bloom filter over all lemmas known to the database. If {@link #mightContain(String)} returns
+ * <code>false</code>, the lemma is definitely unknown and the database does not have to be queried
+ * at all. This is especially worthwhile for proper names and typos, which make up a considerable
+ * share of all lookups in real documents and which would otherwise cost a full query each. Should
+ * it return <code>true</code>, the lemma is known with a probability of at least
+ * <code>1 - </code>{@link #getExpectedFalsePositiveProbability()}.
+ * </p>
+ * <p>
+ * Lemmas can be added at any time, but never removed. Deleting a lemma from the database merely
+ * leads to another false positive until the filter is rebuilt. All methods may be called
+ * concurrently without any locking.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see AbstractSQLiteBridge#loadLemmaFilter()
+ */
+public class LemmaFilter {
+
+	/* Static Variables */
+	/** The false positive probability the filter is sized for. */
+	public static final double DEFAULT_FALSE_POSITIVE_PROBABILITY = 0.01;
+	/** The minimum number of lemmas the filter is sized for. */
+	private static final int MIN_EXPECTED_LEMMAS = 1024;
+
+	/* Static Methods */
+	/**
+	 * Creates a new filter holding the given lemmas. It is sized for twice their number, so that
+	 * lemmas added later on do not increase the false positive probability too much.
+	 *
+	 * @param lemmas
+	 *            the lemmas to add.
+	 * @return the new filter.
+	 */
+	public static LemmaFilter of(Collection<String> lemmas) {
+		LemmaFilter result = new LemmaFilter(Math.max(MIN_EXPECTED_LEMMAS, 2 * lemmas.size()),
+				DEFAULT_FALSE_POSITIVE_PROBABILITY);
+		for (String lemma : lemmas) {
+			result.add(lemma);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes a 64 bit FNV-1a hash of the given lemma, followed by a final mix so that all bits
+	 * are affected by every character.
+	 *
+	 * @param lemma
+	 *            the lemma to hash.
+	 * @return the lemma's hash.
+	 */
+	private static long hash(String lemma) {
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < lemma.length(); i++) {
+			h ^= lemma.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	/* Object Variables */
+	/** The filter's bits. */
+	private final AtomicLongArray bits;
+	/** The number of bits. */
+	private final long bitCount;
+	/** The number of bits set per lemma. */
+	private final int hashCount;
+	/** The number of lemmas added so far. */
+	private final AtomicLong insertions;
+	/** The number of lookups the filter has answered negatively. */
+	private final AtomicLong negatives;
+	/** The number of lookups that passed the filter, but turned out to be unknown. */
+	private final AtomicLong falsePositives;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link LemmaFilter} class.
+	 *
+	 * @param expectedLemmas
+	 *            the number of lemmas the filter is sized for; must be positive.
+	 * @param falsePositiveProbability
+	 *            the desired false positive probability at the expected number of lemmas; must
+	 *            be in the interval of (0, 1).
+	 * @throws IllegalArgumentException
+	 *             if any of the parameters is out of range.
+	 */
+	public LemmaFilter(int expectedLemmas, double falsePositiveProbability) throws IllegalArgumentException {
+		if (expectedLemmas <= 0) {
+			throw new IllegalArgumentException("The expected number of lemmas must be positive!");
+		}
+		if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+			throw new IllegalArgumentException("The false positive probability must be in the interval of (0, 1)!");
+		}
+
+		// m = -n ln(p) / ln(2)^2 and k = m / n ln(2), rounded up to whole longs.
+		long m = (long) Math.ceil(-expectedLemmas * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+		bits = new AtomicLongArray((int) ((m + 63) / 64));
+		bitCount = 64L * bits.length();
+		hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedLemmas * Math.log(2)));
+		insertions = new AtomicLong();
+		negatives = new AtomicLong();
+		falsePositives = new AtomicLong();
+	}
+
+	/* Object Methods */
+	/**
+	 * Adds the given lemma to the filter.
+	 *
+	 * @param lemma
+	 *            the lemma in lower case.
+	 */
+	public void add(String lemma) {
+		long h = hash(lemma);
+		int h1 = (int) h, h2 = (int) (h >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+			int word = (int) (index >>> 6);
+			long mask = 1L << index;
+			long value;
+			do {
+				value = bits.get(word);
+				if ((value & mask) != 0) {
+					break;
+				}
+			} while (!bits.compareAndSet(word, value, value | mask));
+		}
+		insertions.incrementAndGet();
+	}
+
+	/**
+	 * Checks whether the given lemma might be known. A negative answer is counted as such.
+	 *
+	 * @param lemma
+	 *            the lemma in lower case.
+	 * @return <code>false</code> if the lemma is definitely unknown; <code>true</code> if it
+	 *         probably is known.
+	 */
+	public boolean mightContain(String lemma) {
+		long h = hash(lemma);
+		int h1 = (int) h, h2 = (int) (h >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			long index = ((h1 + (long) i * h2) & Long.MAX_VALUE) % bitCount;
+			if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+				negatives.incrementAndGet();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Must be called whenever a lemma has passed the filter, but turned out to be unknown after
+	 * all.
+	 */
+	public void recordFalsePositive() {
+		falsePositives.incrementAndGet();
+	}
+
+	@Override
+	public String toString() {
+		return "Lemma filter (" + insertions.get() + " lemmas, " + getMemoryUsage() + " bytes, " + hashCount
+				+ " hashes): " + negatives.get() + " definite misses, " + falsePositives.get()
+				+ " false positives, expected FPP " + String.format("%.3f%%", 100 * getExpectedFalsePositiveProbability())
+				+ ", observed FPP " + String.format("%.3f%%", 100 * getObservedFalsePositiveRate());
+	}
+
+	/* Getters and Setters */
+	/**
+	 * Computes the probability of a false positive, given the number of lemmas added so far.
+	 *
+	 * @return the expected false positive probability, i.e.
+	 *         <code>(1 - e^(-k * n / m))^k</code>.
+	 */
+	public double getExpectedFalsePositiveProbability() {
+		return Math.pow(1 - Math.exp(-hashCount * (double) insertions.get() / bitCount), hashCount);
+	}
+
+	/**
+	 * Computes the share of unknown lemmas that passed the filter nonetheless.
+	 *
+	 * @return the observed false positive rate; 0 if no unknown lemma has been looked up yet.
+	 */
+	public double getObservedFalsePositiveRate() {
+		long fp = falsePositives.get(), unknown = fp + negatives.get();
+		return unknown == 0 ? 0 : (double) fp / unknown;
+	}
+
+	/**
+	 * A getter for the memory occupied by the filter's bits.
+	 *
+	 * @return the size of the bit array in bytes.
+	 */
+	public long getMemoryUsage() {
+		return bitCount / 8;
+	}
+
+	/**
+	 * A getter for the {@link #insertions} attribute.
+	 *
+	 * @return the number of lemmas added so far.
+	 */
+	public long getInsertionCount() {
+		return insertions.get();
+	}
+
+	/**
+	 * A getter for the {@link #negatives} attribute.
+	 *
+	 * @return the number of lookups answered without querying the database.
+	 */
+	public long getNegativeCount() {
+		return negatives.get();
+	}
+
+	/**
+	 * A getter for the {@link #falsePositives} attribute.
+	 *
+	 * @return the number of lookups that passed the filter, but turned out to be unknown.
+	 */
+	public long getFalsePositiveCount() {
+		return falsePositives.get();
+	}
+}
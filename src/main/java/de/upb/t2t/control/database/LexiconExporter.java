@@ -0,0 +1,431 @@
+/**
+ *
+ */
+package de.upb.t2t.control.database;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Logger;
+
+import de.upb.t2t.control.scheduling.CancellationToken;
+import de.upb.t2t.control.service.Json;
+import de.upb.t2t.model.TranscriptionItem;
+import de.upb.t2t.model.TranscriptionType;
+import de.upb.t2t.model.Variety;
+import de.upb.t2t.model.WordClass;
+
+/**
+ * <p>
+ * Exports the whole lexicon of the database in one of the {@link Format}s. The lemmas are read by
+ * means of {@link AbstractSQLiteBridge#visitLexicon(LexiconVisitor)} and written through a single
+ * buffer of {@link #BUFFER_SIZE} bytes as soon as they have been read, so that the memory needed
+ * does not depend on the size of the lexicon.
+ * </p>
+ * <p>
+ * The TSV format is the one read by the {@link DictionaryImporter}, so that an export can be
+ * imported into another database. Tabs and line breaks within a field, which the format cannot
+ * express, are replaced by spaces.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see Format
+ */
+public class LexiconExporter {
+
+	/* Static Variables */
+	/** The size of the buffer in front of the channel in bytes. */
+	public static final int BUFFER_SIZE = 1 << 16;
+	/** The first bytes of every export in the {@link Format#BINARY} format. */
+	private static final byte[] BINARY_MAGIC = { 'T', '2', 'T', 'L' };
+	/** The version of the {@link Format#BINARY} format written. */
+	private static final int BINARY_VERSION = 1;
+
+	/* Static Methods */
+	/**
+	 * Makes the given field fit into a TSV row by replacing all tabs and line breaks by spaces.
+	 *
+	 * @param field
+	 *            the field to write.
+	 * @return the field without any tabs or line breaks.
+	 */
+	private static String toTsvField(String field) {
+		return field.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+	}
+
+	/* Object Variables */
+	/** The {@link Logger} instance associated with this class. */
+	private final Logger logger;
+	/** The bridge to read the lexicon with. */
+	private final AbstractSQLiteBridge bridge;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link LexiconExporter} class, reading the lexicon with the
+	 * {@link AbstractSQLiteBridge#getInstance()}.
+	 */
+	public LexiconExporter() {
+		this(AbstractSQLiteBridge.getInstance());
+	}
+
+	/**
+	 * Constructor for the {@link LexiconExporter} class.
+	 *
+	 * @param bridge
+	 *            the bridge to read the lexicon with.
+	 */
+	public LexiconExporter(AbstractSQLiteBridge bridge) {
+		logger = Logger.getLogger(getClass().getName());
+		this.bridge = bridge;
+	}
+
+	/* Object Methods */
+	/**
+	 * Exports the lexicon to the given file, replacing it if it exists.
+	 *
+	 * @param file
+	 *            the file to write to.
+	 * @param format
+	 *            the format to write.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the number of lemmas exported.
+	 * @throws CancellationException
+	 *             if the token has been cancelled. The file is left incomplete.
+	 * @throws IOException
+	 *             if the file cannot be written.
+	 * @throws Exception
+	 *             if the database cannot be read.
+	 */
+	public long exportFile(Path file, Format format, CancellationToken token)
+			throws CancellationException, IOException, Exception {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			return export(channel, format, token);
+		}
+	}
+
+	/**
+	 * Exports the lexicon to the given channel. The channel is not closed.
+	 *
+	 * @param channel
+	 *            the channel to write to.
+	 * @param format
+	 *            the format to write.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the number of lemmas exported.
+	 * @throws CancellationException
+	 *             if the token has been cancelled. The export is left incomplete.
+	 * @throws IOException
+	 *             if the channel cannot be written to.
+	 * @throws Exception
+	 *             if the database cannot be read.
+	 */
+	public long export(WritableByteChannel channel, Format format, CancellationToken token)
+			throws CancellationException, IOException, Exception {
+
+		long start = System.currentTimeMillis();
+		logger.info("Exporting lexicon as " + format + " ...");
+		ChannelWriter out = new ChannelWriter(channel);
+		long[] itemCount = new long[1];
+		long result;
+
+		switch (format) {
+		case TSV:
+			out.write("lemma\twordClass\tvariety\ttype\ttranscription\n");
+			result = bridge.visitLexicon((String lemma, List<TranscriptionItem> items) -> {
+				if (token != null) {
+					token.throwIfCancelled();
+				}
+				String prefix = toTsvField(lemma) + "\t";
+				for (TranscriptionItem item : items) {
+					out.write(prefix + item.getWordClass().getAbbreviation() + "\t"
+							+ item.getVariety().getAbbreviation() + "\t" + item.getTransType().getAbbreviation()
+							+ "\t" + toTsvField(item.getPhoneticString()) + "\n");
+				}
+				itemCount[0] += items.size();
+			});
+			break;
+
+		case JSON_LINES:
+			result = bridge.visitLexicon((String lemma, List<TranscriptionItem> items) -> {
+				if (token != null) {
+					token.throwIfCancelled();
+				}
+				Json.Writer writer = new Json.Writer().beginObject().name("lemma").value(lemma).name("items")
+						.beginArray();
+				for (TranscriptionItem item : items) {
+					writer.beginObject().name("wordClass").value(item.getWordClass().getAbbreviation())
+							.name("variety").value(item.getVariety().getAbbreviation()).name("type")
+							.value(item.getTransType().getAbbreviation()).name("transcription")
+							.value(item.getPhoneticString()).endObject();
+				}
+				out.write(writer.endArray().endObject().toString() + "\n");
+				itemCount[0] += items.size();
+			});
+			break;
+
+		case BINARY:
+			// The header resolves the IDs used by the records.
+			out.write(BINARY_MAGIC);
+			out.writeVarInt(BINARY_VERSION);
+			WordClass[] wordClasses = WordClass.values();
+			out.writeVarInt(wordClasses.length);
+			for (WordClass wordClass : wordClasses) {
+				out.writeVarInt(wordClass.getID());
+				out.writeString(wordClass.getAbbreviation());
+				out.writeString(wordClass.getProperName());
+			}
+			Variety[] varieties = Variety.values();
+			out.writeVarInt(varieties.length);
+			for (Variety variety : varieties) {
+				out.writeVarInt(variety.getID());
+				out.writeString(variety.getAbbreviation());
+				out.writeString(variety.getProperName());
+			}
+			TranscriptionType[] types = TranscriptionType.values();
+			out.writeVarInt(types.length);
+			for (TranscriptionType type : types) {
+				out.writeVarInt(type.getID());
+				out.writeString(type.getAbbreviation());
+				out.writeString(type.getDescription());
+			}
+
+			result = bridge.visitLexicon((String lemma, List<TranscriptionItem> items) -> {
+				if (token != null) {
+					token.throwIfCancelled();
+				}
+				out.writeString(lemma);
+				out.writeVarInt(items.size());
+				for (TranscriptionItem item : items) {
+					out.writeVarInt(item.getWordClass().getID());
+					out.writeVarInt(item.getVariety().getID());
+					out.writeVarInt(item.getTransType().getID());
+					out.writeString(item.getPhoneticString());
+				}
+				itemCount[0] += items.size();
+			});
+
+			// Lemmas are never empty, so an empty one marks the end.
+			out.writeString("");
+			break;
+
+		default:
+			throw new IllegalArgumentException("Unsupported format: " + format);
+		}
+		out.flush();
+
+		logger.info("Exported " + result + " lemmas with " + itemCount[0] + " transcription items ("
+				+ out.getByteCount() + " bytes) in " + (System.currentTimeMillis() - start) + " ms.");
+		return result;
+	}
+
+	/* Getters and Setters */
+
+	/* Sub-Classes */
+	/**
+	 * <p>
+	 * The formats the lexicon can be exported in:
+	 * </p>
+	 * <ul>
+	 * <li>{@link #TSV}: a header line followed by one line per transcription item, holding the
+	 * lemma, the abbreviations of the word class, the variety and the transcription type and the
+	 * transcription, separated by tabs.</li>
+	 * <li>{@link #JSON_LINES}: one JSON object per lemma and line, holding the lemma and an array of
+	 * its items, each an object with the members <code>wordClass</code>, <code>variety</code>,
+	 * <code>type</code> and <code>transcription</code>.</li>
+	 * <li>{@link #BINARY}: the bytes <code>T2TL</code> and the format's version, followed by the
+	 * word classes, varieties and transcription types, each a count followed by that many triples
+	 * of ID, abbreviation and name. Then follows one record per lemma, holding the lemma, the
+	 * number of its items and the word class ID, variety ID, transcription type ID and
+	 * transcription of each item. An empty lemma ends the records. Numbers are unsigned LEB128
+	 * variable-length integers, strings the number of their UTF-8 bytes followed by those.</li>
+	 * </ul>
+	 * <p>
+	 * All text is encoded in UTF-8 and all lines end in a single line feed.
+	 * </p>
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	public enum Format {
+
+		TSV("tsv"), JSON_LINES("jsonl"), BINARY("t2tl");
+
+		/**
+		 * Looks up the format of the given name or file extension, ignoring the case.
+		 *
+		 * @param string
+		 *            the format's name, e.g. <code>json_lines</code>, or its file extension, e.g.
+		 *            <code>jsonl</code>.
+		 * @return the corresponding format.
+		 * @throws IllegalArgumentException
+		 *             if there is no such format.
+		 */
+		public static Format getFormat(String string) throws IllegalArgumentException {
+			for (Format format : values()) {
+				if (format.name().equalsIgnoreCase(string) || format.extension.equalsIgnoreCase(string)) {
+					return format;
+				}
+			}
+			throw new IllegalArgumentException("Unknown export format: \"" + string + "\"");
+		}
+
+		/** The format's usual file extension, without the dot. */
+		private final String extension;
+
+		/**
+		 * Constructor for the {@link Format} enum.
+		 *
+		 * @param extension
+		 *            the format's usual file extension, without the dot.
+		 */
+		private Format(String extension) {
+			this.extension = extension;
+		}
+
+		/**
+		 * A getter for the {@link #extension} attribute.
+		 *
+		 * @return the format's usual file extension, without the dot.
+		 */
+		public String getExtension() {
+			return extension;
+		}
+	}
+
+	/**
+	 * Writes bytes, text and numbers to a channel through a buffer, which is written to the
+	 * channel whenever it is full.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class ChannelWriter {
+
+		/** The channel to write to. */
+		private final WritableByteChannel channel;
+		/** The buffer holding the bytes not written to the channel yet. */
+		private final ByteBuffer buffer;
+		/** The number of bytes written to the channel so far. */
+		private long byteCount;
+
+		/**
+		 * Constructor for the {@link ChannelWriter} class.
+		 *
+		 * @param channel
+		 *            the channel to write to.
+		 */
+		private ChannelWriter(WritableByteChannel channel) {
+			this.channel = channel;
+			buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+		}
+
+		/**
+		 * Writes the given text in UTF-8.
+		 *
+		 * @param text
+		 *            the text to write.
+		 * @throws IOException
+		 *             if the channel cannot be written to.
+		 */
+		private void write(String text) throws IOException {
+			write(text.getBytes(StandardCharsets.UTF_8));
+		}
+
+		/**
+		 * Writes the given bytes.
+		 *
+		 * @param bytes
+		 *            the bytes to write.
+		 * @throws IOException
+		 *             if the channel cannot be written to.
+		 */
+		private void write(byte[] bytes) throws IOException {
+			if (bytes.length > buffer.remaining()) {
+				flush();
+				if (bytes.length > buffer.capacity()) {
+					drain(ByteBuffer.wrap(bytes));
+					return;
+				}
+			}
+			buffer.put(bytes);
+		}
+
+		/**
+		 * Writes the given string as the number of its UTF-8 bytes followed by those.
+		 *
+		 * @param string
+		 *            the string to write.
+		 * @throws IOException
+		 *             if the channel cannot be written to.
+		 */
+		private void writeString(String string) throws IOException {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length);
+			write(bytes);
+		}
+
+		/**
+		 * Writes the given number as an unsigned LEB128 variable-length integer, i.e. seven bits
+		 * per byte, starting with the lowest, the highest bit of each byte telling whether another
+		 * one follows.
+		 *
+		 * @param value
+		 *            the number to write; must not be negative.
+		 * @throws IOException
+		 *             if the channel cannot be written to.
+		 */
+		private void writeVarInt(int value) throws IOException {
+			if (buffer.remaining() < 5) {
+				flush();
+			}
+			while ((value & ~0x7F) != 0) {
+				buffer.put((byte) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			buffer.put((byte) value);
+		}
+
+		/**
+		 * Writes all buffered bytes to the channel.
+		 *
+		 * @throws IOException
+		 *             if the channel cannot be written to.
+		 */
+		private void flush() throws IOException {
+			buffer.flip();
+			drain(buffer);
+			buffer.clear();
+		}
+
+		/**
+		 * Writes the given buffer's remaining bytes to the channel, which may take more than a
+		 * single call in case of non-blocking channels.
+		 *
+		 * @param bytes
+		 *            the bytes to write.
+		 * @throws IOException
+		 *             if the channel cannot be written to.
+		 */
+		private void drain(ByteBuffer bytes) throws IOException {
+			while (bytes.hasRemaining()) {
+				byteCount += channel.write(bytes);
+			}
+		}
+
+		/**
+		 * A getter for the {@link #byteCount} attribute.
+		 *
+		 * @return the number of bytes written to the channel so far.
+		 */
+		private long getByteCount() {
+			return byteCount;
+		}
+	}
+}
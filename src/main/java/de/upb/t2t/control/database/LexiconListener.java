@@ -0,0 +1,25 @@
+/**
+ *
+ */
+package de.upb.t2t.control.database;
+
+/**
+ * An interface for consumers that keep anything derived from the lexicon, e.g. cached
+ * transcriptions, and therefore need to know whenever it changes.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see AbstractSQLiteBridge#addLexiconListener(LexiconListener)
+ */
+public interface LexiconListener {
+
+	/**
+	 * Called whenever the transcription items of a lemma have been changed or the database has
+	 * been reloaded. Listeners are called on the thread applying the change, possibly while it
+	 * still holds the bridge's lock, and should therefore return quickly.
+	 *
+	 * @param lemma
+	 *            the lemma in lower case that has been changed; <code>null</code> if the whole
+	 *            database has been reloaded.
+	 */
+	public void onLexiconChanged(String lemma);
+}
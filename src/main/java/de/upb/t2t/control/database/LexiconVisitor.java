@@ -0,0 +1,32 @@
+/**
+ *
+ */
+package de.upb.t2t.control.database;
+
+import java.util.List;
+
+import de.upb.t2t.model.TranscriptionItem;
+
+/**
+ * An interface for consumers that walk through the whole lexicon one lemma at a time, e.g. in
+ * order to export it, without the lexicon ever being held in memory as a whole.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see AbstractSQLiteBridge#visitLexicon(LexiconVisitor)
+ */
+public interface LexiconVisitor {
+
+	/**
+	 * Called once per lemma, in the lemmas' alphabetical order.
+	 *
+	 * @param lemma
+	 *            the lemma in lower case.
+	 * @param items
+	 *            the lemma's transcription items, ordered by word class, variety and
+	 *            transcription. The list is only valid until the method returns.
+	 * @throws Exception
+	 *             to abort the walk, in which case the exception is passed on to the caller of
+	 *             {@link AbstractSQLiteBridge#visitLexicon(LexiconVisitor)}.
+	 */
+	public void visitLemma(String lemma, List<TranscriptionItem> items) throws Exception;
+}
@@ -0,0 +1,534 @@
+/**
+ *
+ */
+package de.upb.t2t.control.database;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>
+ * A size-bounded cache employing the W-TinyLFU eviction policy. New entries are admitted to a
+ * small LRU window (roughly 1% of the capacity). Entries falling out of that window have to
+ * compete with the least recently used entry of the main space for admission: whichever of the two
+ * has been requested more frequently according to a {@link FrequencySketch} stays. The main space
+ * itself is a segmented LRU consisting of a probation segment and a protected segment (80% of the
+ * main space) to which entries are promoted once they are requested a second time. This way, one
+ * hit wonders such as typos or rare names cannot flush frequently used entries like "the", "a" or
+ * "of" from the cache.
+ * </p>
+ * <p>
+ * In order not to cache stale values, callers loading a value after a miss should fetch the
+ * {@link #getGeneration()} before loading and pass it to {@link #put(Object, Object, long)}. The
+ * value is then discarded if there has been any invalidation in the meantime.
+ * </p>
+ * <p>
+ * All methods are guarded by a single lock, as they only consist of a few map operations.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @param <K>
+ *            the type of the cache's keys.
+ * @param <V>
+ *            the type of the cached values. Values should be immutable as they are shared between
+ *            all callers.
+ */
+public class LookupCache<K, V> {
+
+	/* Static Variables */
+	/** The percentage of the capacity that is reserved for the window segment. */
+	private static final double WINDOW_PERCENTAGE = 0.01;
+	/** The percentage of the main space that is reserved for the protected segment. */
+	private static final double PROTECTED_PERCENTAGE = 0.8;
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The maximum number of entries. */
+	private final int capacity;
+	/** The maximum number of entries inside the window segment. */
+	private final int windowCapacity;
+	/** The maximum number of entries inside the protected segment. */
+	private final int protectedCapacity;
+	/** All entries, regardless of their segment. */
+	private final Map<K, Node<V>> data;
+	/** The window segment's keys in LRU order. */
+	private final LinkedHashMap<K, Node<V>> window;
+	/** The probation segment's keys in LRU order. */
+	private final LinkedHashMap<K, Node<V>> probation;
+	/** The protected segment's keys in LRU order. */
+	private final LinkedHashMap<K, Node<V>> protectedSegment;
+	/** The popularity sketch deciding upon admission. */
+	private final FrequencySketch sketch;
+	/** The cache's lock object. */
+	private final ReentrantLock lock;
+	/** Incremented on every invalidation. */
+	private long generation;
+	/** The number of requests that could be answered from the cache. */
+	private long hits;
+	/** The number of requests that could not be answered from the cache. */
+	private long misses;
+	/** The number of entries that have been evicted due to the size bound. */
+	private long evictions;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link LookupCache} class.
+	 *
+	 * @param capacity
+	 *            the maximum number of entries; must be positive.
+	 * @throws IllegalArgumentException
+	 *             if the capacity is not positive.
+	 */
+	public LookupCache(int capacity) throws IllegalArgumentException {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("The cache's capacity must be positive!");
+		}
+		this.capacity = capacity;
+		windowCapacity = Math.max(1, (int) (capacity * WINDOW_PERCENTAGE));
+		protectedCapacity = (int) ((capacity - windowCapacity) * PROTECTED_PERCENTAGE);
+		data = new HashMap<K, Node<V>>();
+		window = new LinkedHashMap<K, Node<V>>(16, 0.75f, true);
+		probation = new LinkedHashMap<K, Node<V>>(16, 0.75f, true);
+		protectedSegment = new LinkedHashMap<K, Node<V>>(16, 0.75f, true);
+		sketch = new FrequencySketch(capacity);
+		lock = new ReentrantLock();
+	}
+
+	/* Object Methods */
+	/**
+	 * Returns the value cached for the given key and records the request.
+	 *
+	 * @param key
+	 *            the key to look up.
+	 * @return the cached value; <code>null</code> if there is none.
+	 */
+	public V get(K key) {
+		lock.lock();
+		try {
+			sketch.increment(key);
+			Node<V> node = data.get(key);
+			if (node == null) {
+				misses++;
+				return null;
+			}
+			hits++;
+
+			switch (node.segment) {
+			case WINDOW:
+				window.get(key);
+				break;
+			case PROBATION:
+				// Requested a second time. Promote the entry to the protected segment.
+				probation.remove(key);
+				node.segment = Segment.PROTECTED;
+				protectedSegment.put(key, node);
+				if (protectedSegment.size() > protectedCapacity) {
+					Map.Entry<K, Node<V>> demoted = removeEldest(protectedSegment);
+					demoted.getValue().segment = Segment.PROBATION;
+					probation.put(demoted.getKey(), demoted.getValue());
+				}
+				break;
+			case PROTECTED:
+				protectedSegment.get(key);
+				break;
+			}
+			return node.value;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Stores the given value unless the cache has been invalidated since the given generation.
+	 *
+	 * @param key
+	 *            the key to store the value for.
+	 * @param value
+	 *            the value to store.
+	 * @param generation
+	 *            the value of {@link #getGeneration()} before the value was loaded.
+	 */
+	public void put(K key, V value, long generation) {
+		lock.lock();
+		try {
+			if (generation != this.generation) {
+				return;
+			}
+
+			Node<V> node = data.get(key);
+			if (node != null) {
+				node.value = value;
+				return;
+			}
+
+			// New entries always start inside the window.
+			node = new Node<V>(value);
+			data.put(key, node);
+			window.put(key, node);
+			if (window.size() <= windowCapacity) {
+				return;
+			}
+
+			// The window's eldest entry becomes a candidate for the main space.
+			Map.Entry<K, Node<V>> candidate = removeEldest(window);
+			candidate.getValue().segment = Segment.PROBATION;
+			probation.put(candidate.getKey(), candidate.getValue());
+			if (data.size() <= capacity) {
+				return;
+			}
+
+			// The cache is full. Let the candidate compete with the main space's victim.
+			LinkedHashMap<K, Node<V>> victimSegment = probation.size() > 1 || protectedSegment.isEmpty() ? probation
+					: protectedSegment;
+			K victim = victimSegment.keySet().iterator().next();
+			if (!victim.equals(candidate.getKey())
+					&& sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+				victimSegment.remove(victim);
+				data.remove(victim);
+			} else {
+				probation.remove(candidate.getKey());
+				data.remove(candidate.getKey());
+			}
+			evictions++;
+
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes the entry of the given key, should there be any.
+	 *
+	 * @param key
+	 *            the key to invalidate.
+	 */
+	public void invalidate(K key) {
+		lock.lock();
+		try {
+			generation++;
+			Node<V> node = data.remove(key);
+			if (node != null) {
+				getSegment(node.segment).remove(key);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes all entries. The statistics are kept.
+	 */
+	public void invalidateAll() {
+		lock.lock();
+		try {
+			generation++;
+			data.clear();
+			window.clear();
+			probation.clear();
+			protectedSegment.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Removes and returns the least recently used entry of the given segment.
+	 *
+	 * @param segment
+	 *            the segment to remove the entry from.
+	 * @return the removed entry.
+	 */
+	private Map.Entry<K, Node<V>> removeEldest(LinkedHashMap<K, Node<V>> segment) {
+		Iterator<Map.Entry<K, Node<V>>> iterator = segment.entrySet().iterator();
+		Map.Entry<K, Node<V>> eldest = iterator.next();
+		iterator.remove();
+		return eldest;
+	}
+
+	@Override
+	public String toString() {
+		lock.lock();
+		try {
+			long requests = hits + misses;
+			return "Cache (" + data.size() + "/" + capacity + " entries): " + hits + " hits, " + misses + " misses, "
+					+ evictions + " evictions, hit rate "
+					+ (requests == 0 ? "n/a" : String.format("%.1f%%", 100.0 * hits / requests));
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the map of the given segment.
+	 *
+	 * @param segment
+	 *            the segment.
+	 * @return the corresponding map.
+	 */
+	private LinkedHashMap<K, Node<V>> getSegment(Segment segment) {
+		switch (segment) {
+		case WINDOW:
+			return window;
+		case PROBATION:
+			return probation;
+		default:
+			return protectedSegment;
+		}
+	}
+
+	/**
+	 * A getter for the {@link #generation} attribute.
+	 *
+	 * @return the current generation.
+	 */
+	public long getGeneration() {
+		lock.lock();
+		try {
+			return generation;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * A getter for the current number of entries.
+	 *
+	 * @return the number of cached entries.
+	 */
+	public int size() {
+		lock.lock();
+		try {
+			return data.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * A getter for the {@link #capacity} attribute.
+	 *
+	 * @return the maximum number of entries.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * A getter for the {@link #hits} attribute.
+	 *
+	 * @return the number of requests answered from the cache.
+	 */
+	public long getHitCount() {
+		lock.lock();
+		try {
+			return hits;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * A getter for the {@link #misses} attribute.
+	 *
+	 * @return the number of requests that could not be answered from the cache.
+	 */
+	public long getMissCount() {
+		lock.lock();
+		try {
+			return misses;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * A getter for the {@link #evictions} attribute.
+	 *
+	 * @return the number of entries evicted due to the size bound.
+	 */
+	public long getEvictionCount() {
+		lock.lock();
+		try {
+			return evictions;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/* Sub-Classes */
+	/**
+	 * The segments an entry may reside in.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static enum Segment {
+		/** The admission window. */
+		WINDOW,
+		/** The main space's segment for entries that have not been requested again yet. */
+		PROBATION,
+		/** The main space's segment for entries that have been requested repeatedly. */
+		PROTECTED;
+	}
+
+	/**
+	 * A cached value along with the segment it currently resides in.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 *
+	 * @param <V>
+	 *            the type of the cached value.
+	 */
+	private static class Node<V> {
+
+		/** The cached value. */
+		private V value;
+		/** The segment the value currently resides in. */
+		private Segment segment;
+
+		/**
+		 * Constructor for the {@link Node} class. New nodes always reside in the window.
+		 *
+		 * @param value
+		 *            the value to cache.
+		 */
+		private Node(V value) {
+			this.value = value;
+			segment = Segment.WINDOW;
+		}
+	}
+
+	/**
+	 * <p>
+	 * A count-min sketch of 4-bit counters estimating how often a key has been requested. Each
+	 * <code>long</code> of the table holds 16 counters and every key is mapped to four counters
+	 * of which the smallest one is used as the estimate. In order to keep the sketch responsive
+	 * to changes in popularity, all counters are halved once the number of increments reaches ten
+	 * times the cache's capacity.
+	 * </p>
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class FrequencySketch {
+
+		/** The seeds of the four hash functions. */
+		private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+				0xcbf29ce484222325L };
+		/** A mask to halve all 16 counters of a <code>long</code> at once. */
+		private static final long RESET_MASK = 0x7777777777777777L;
+
+		/** The counters, 16 per <code>long</code>. */
+		private final long[] table;
+		/** The number of increments after which all counters are halved. */
+		private final int sampleSize;
+		/** The number of increments since the last reset. */
+		private int size;
+
+		/**
+		 * Constructor for the {@link FrequencySketch} class.
+		 *
+		 * @param capacity
+		 *            the capacity of the cache this sketch is used for.
+		 */
+		private FrequencySketch(int capacity) {
+			int length = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+			table = new long[Math.max(8, length)];
+			sampleSize = 10 * Math.max(1, capacity);
+		}
+
+		/**
+		 * Increments the four counters of the given key unless they are saturated.
+		 *
+		 * @param key
+		 *            the key that has been requested.
+		 */
+		private void increment(Object key) {
+			int hash = spread(key.hashCode());
+			boolean added = false;
+			for (int i = 0; i < 4; i++) {
+				int index = indexOf(hash, i);
+				int offset = counterOffset(hash, i);
+				if (((table[index] >>> offset) & 0xfL) < 15) {
+					table[index] += 1L << offset;
+					added = true;
+				}
+			}
+			if (added && ++size >= sampleSize) {
+				reset();
+			}
+		}
+
+		/**
+		 * Estimates how often the given key has been requested.
+		 *
+		 * @param key
+		 *            the key to estimate the frequency of.
+		 * @return the estimated frequency in the interval of [0, 15].
+		 */
+		private int frequency(Object key) {
+			int hash = spread(key.hashCode());
+			int result = 15;
+			for (int i = 0; i < 4; i++) {
+				result = Math.min(result, (int) ((table[indexOf(hash, i)] >>> counterOffset(hash, i)) & 0xfL));
+			}
+			return result;
+		}
+
+		/**
+		 * Halves all counters so that older requests weigh less than recent ones.
+		 */
+		private void reset() {
+			for (int i = 0; i < table.length; i++) {
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+			size /= 2;
+		}
+
+		/**
+		 * Computes the table index of the given hash function.
+		 *
+		 * @param hash
+		 *            the key's spread hash code.
+		 * @param i
+		 *            the index of the hash function.
+		 * @return the table index.
+		 */
+		private int indexOf(int hash, int i) {
+			long h = (hash + SEEDS[i]) * SEEDS[i];
+			h += h >>> 32;
+			return ((int) h) & (table.length - 1);
+		}
+
+		/**
+		 * Computes the bit offset of the counter of the given hash function inside its
+		 * <code>long</code>.
+		 *
+		 * @param hash
+		 *            the key's spread hash code.
+		 * @param i
+		 *            the index of the hash function.
+		 * @return the offset in bits.
+		 */
+		private int counterOffset(int hash, int i) {
+			return (((hash >>> (i << 3)) & 3) << 2) + (i << 4) & 63;
+		}
+
+		/**
+		 * Applies a supplementary hash function to defend against poor quality hash codes.
+		 *
+		 * @param hashCode
+		 *            the key's hash code.
+		 * @return the spread hash code.
+		 */
+		private int spread(int hashCode) {
+			int x = ((hashCode >>> 16) ^ hashCode) * 0x45d9f3b;
+			x = ((x >>> 16) ^ x) * 0x45d9f3b;
+			return (x >>> 16) ^ x;
+		}
+	}
+}
@@ -0,0 +1,366 @@
+/**
+ *
+ */
+package de.upb.t2t.control.database;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import de.upb.t2t.model.TranscriptionItem;
+import de.upb.t2t.model.TranscriptionType;
+import de.upb.t2t.model.Variety;
+import de.upb.t2t.model.WordClass;
+
+/**
+ * <p>
+ * An {@link AbstractLexicon} reading its lemmas from a compact binary file that is mapped into
+ * memory read-only. Lookups are answered by a binary search directly on the mapped bytes, so the
+ * file never has to be parsed and the operating system's page cache shares a single copy of it
+ * between all JVMs running on the same host. The file is compiled from the database by
+ * {@link #compile(Map, long, File)} and laid out as follows (all numbers big-endian):
+ * </p>
+ * <ul>
+ * <li><b>Header</b> ({@value #HEADER_SIZE} bytes): the magic number, the format version, the stamp
+ * of the database file the lexicon has been compiled from, a CRC32 checksum of everything following
+ * the header, the number of lemmas, the number of items and the size of the string arena.</li>
+ * <li><b>Lemma table</b>: one record per lemma, sorted by the lemmas' UTF-8 bytes, holding the
+ * lemma's offset and length inside the arena, the index of its first item and its number of
+ * items.</li>
+ * <li><b>Item table</b>: one record per transcription item, holding its ID, the offset and length
+ * of its phonetic string inside the arena and the codes of its word class, variety and type.</li>
+ * <li><b>Arena</b>: the UTF-8 bytes of all lemmas and phonetic strings.</li>
+ * </ul>
+ * <p>
+ * Since the file is read-only, edits are kept in a small overlay on the heap which takes
+ * precedence over the file. Each edit creates a new overlay, just like {@link HeapLexicon} does.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see AbstractSQLiteBridge#loadMappedLexicon(File)
+ */
+public class MappedLexicon extends AbstractLexicon {
+
+	/* Static Variables */
+	/** Identifies a lexicon file ("T2TL"). */
+	private static final int MAGIC = 0x5432544c;
+	/** The version of the file format. Files of any other version are rejected. */
+	private static final int FORMAT_VERSION = 1;
+	/** The size of the header in bytes. */
+	private static final int HEADER_SIZE = 40;
+	/** The size of a lemma record in bytes. */
+	private static final int LEMMA_RECORD_SIZE = 16;
+	/** The size of an item record in bytes. */
+	private static final int ITEM_RECORD_SIZE = 20;
+	/** Orders <code>byte</code> arrays just like UTF-8 strings are ordered inside the file. */
+	private static final Comparator<byte[]> UNSIGNED_ORDER = (a, b) -> compareUnsigned(a, 0, a.length, b);
+
+	/* Static Methods */
+	/**
+	 * Compiles the given lemmas into a new lexicon file. The file is written to a temporary file
+	 * first, which then replaces the given one, so that other processes never map a half-written
+	 * file.
+	 *
+	 * @param items
+	 *            all lemmas in lower case mapped to their items.
+	 * @param sourceStamp
+	 *            the stamp of the database the items have been read from.
+	 * @param target
+	 *            the file to write.
+	 * @throws IOException
+	 *             if the file could not be written.
+	 */
+	public static void compile(Map<String, List<TranscriptionItem>> items, long sourceStamp, File target)
+			throws IOException {
+
+		// Sort the lemmas by their UTF-8 bytes and fill the arena.
+		List<byte[]> keys = new ArrayList<byte[]>(items.size());
+		Map<byte[], List<TranscriptionItem>> itemsByKey = new HashMap<byte[], List<TranscriptionItem>>();
+		for (Map.Entry<String, List<TranscriptionItem>> entry : items.entrySet()) {
+			if (!entry.getValue().isEmpty()) {
+				byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+				keys.add(key);
+				itemsByKey.put(key, entry.getValue());
+			}
+		}
+		Collections.sort(keys, UNSIGNED_ORDER);
+
+		ByteArrayOutputStream arena = new ByteArrayOutputStream();
+		ByteArrayOutputStream lemmaTable = new ByteArrayOutputStream(keys.size() * LEMMA_RECORD_SIZE);
+		ByteArrayOutputStream itemTable = new ByteArrayOutputStream();
+		ByteBuffer record = ByteBuffer.allocate(Math.max(LEMMA_RECORD_SIZE, ITEM_RECORD_SIZE));
+		int itemCount = 0;
+
+		for (byte[] key : keys) {
+			List<TranscriptionItem> lemmaItems = itemsByKey.get(key);
+			record.clear();
+			record.putInt(arena.size()).putInt(key.length).putInt(itemCount).putInt(lemmaItems.size());
+			lemmaTable.write(record.array(), 0, LEMMA_RECORD_SIZE);
+			arena.write(key);
+
+			for (TranscriptionItem item : lemmaItems) {
+				byte[] phoneticString = item.getPhoneticString().getBytes(StandardCharsets.UTF_8);
+				record.clear();
+				record.putInt(item.getId()).putInt(arena.size()).putInt(phoneticString.length)
+						.putShort((short) item.getWordClass().getID()).putShort((short) item.getVariety().getID())
+						.putInt(item.getTransType().getID());
+				itemTable.write(record.array(), 0, ITEM_RECORD_SIZE);
+				arena.write(phoneticString);
+				itemCount++;
+			}
+		}
+
+		// Compute the checksum of the body and assemble the header.
+		CRC32 crc = new CRC32();
+		crc.update(lemmaTable.toByteArray());
+		crc.update(itemTable.toByteArray());
+		crc.update(arena.toByteArray());
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(sourceStamp).putLong(crc.getValue()).putInt(keys.size())
+				.putInt(itemCount).putInt(arena.size()).putInt(0);
+		header.flip();
+
+		// Write everything to a temporary file and move it in place.
+		File temp = File.createTempFile(target.getName(), ".tmp", target.getAbsoluteFile().getParentFile());
+		try {
+			try (RandomAccessFile file = new RandomAccessFile(temp, "rw"); FileChannel channel = file.getChannel()) {
+				channel.write(new ByteBuffer[] { header, ByteBuffer.wrap(lemmaTable.toByteArray()),
+						ByteBuffer.wrap(itemTable.toByteArray()), ByteBuffer.wrap(arena.toByteArray()) });
+				channel.force(true);
+			}
+			try {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+
+	/**
+	 * Maps the given lexicon file into memory after validating its header and checksum.
+	 *
+	 * @param file
+	 *            the lexicon file.
+	 * @param expectedStamp
+	 *            the stamp of the current database. Files compiled from any other version of the
+	 *            database are rejected as stale.
+	 * @param version
+	 *            the version to assign to the lexicon.
+	 * @return the mapped lexicon.
+	 * @throws IOException
+	 *             if the file could not be read or is invalid, corrupt or stale.
+	 */
+	public static MappedLexicon open(File file, long expectedStamp, long version) throws IOException {
+
+		MappedByteBuffer buffer;
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("Invalid lexicon file size: " + channel.size());
+			}
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+			throw new IOException("Not a lexicon file of format version " + FORMAT_VERSION + "!");
+		}
+		if (buffer.getLong(8) != expectedStamp) {
+			throw new IOException("The lexicon file is stale!");
+		}
+		int lemmaCount = buffer.getInt(24), itemCount = buffer.getInt(28), arenaSize = buffer.getInt(32);
+		long expectedSize = HEADER_SIZE + (long) lemmaCount * LEMMA_RECORD_SIZE + (long) itemCount * ITEM_RECORD_SIZE
+				+ arenaSize;
+		if (lemmaCount < 0 || itemCount < 0 || arenaSize < 0 || expectedSize != buffer.capacity()) {
+			throw new IOException("The lexicon file is truncated!");
+		}
+		ByteBuffer body = buffer.duplicate();
+		body.position(HEADER_SIZE);
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		if (crc.getValue() != buffer.getLong(16)) {
+			throw new IOException("The lexicon file's checksum does not match!");
+		}
+
+		return new MappedLexicon(version, buffer, lemmaCount, itemCount,
+				Collections.<String, List<TranscriptionItem>> emptyMap(), lemmaCount);
+	}
+
+	/**
+	 * Compares a span of the given buffer to the given bytes, treating all bytes as unsigned. For
+	 * UTF-8, this equals comparing the strings code point by code point.
+	 *
+	 * @param buffer
+	 *            the buffer holding the first sequence.
+	 * @param offset
+	 *            the offset of the first sequence.
+	 * @param length
+	 *            the length of the first sequence.
+	 * @param key
+	 *            the second sequence.
+	 * @return a negative number, zero or a positive number if the first sequence is smaller,
+	 *         equal or greater.
+	 */
+	private static int compareUnsigned(ByteBuffer buffer, int offset, int length, byte[] key) {
+		int n = Math.min(length, key.length);
+		for (int i = 0; i < n; i++) {
+			int diff = (buffer.get(offset + i) & 0xff) - (key[i] & 0xff);
+			if (diff != 0) {
+				return diff;
+			}
+		}
+		return length - key.length;
+	}
+
+	/**
+	 * Compares a span of the given array to the given bytes, treating all bytes as unsigned.
+	 *
+	 * @param array
+	 *            the array holding the first sequence.
+	 * @param offset
+	 *            the offset of the first sequence.
+	 * @param length
+	 *            the length of the first sequence.
+	 * @param key
+	 *            the second sequence.
+	 * @return a negative number, zero or a positive number if the first sequence is smaller,
+	 *         equal or greater.
+	 */
+	private static int compareUnsigned(byte[] array, int offset, int length, byte[] key) {
+		return compareUnsigned(ByteBuffer.wrap(array), offset, length, key);
+	}
+
+	/* Object Variables */
+	/** The mapped file. Only absolute getters are used, so it may be shared between threads. */
+	private final ByteBuffer buffer;
+	/** The number of lemmas inside the file. */
+	private final int lemmaCount;
+	/** The offset of the item table. */
+	private final int itemTableOffset;
+	/** The offset of the string arena. */
+	private final int arenaOffset;
+	/** Edited lemmas mapped to their items; an empty list masks a lemma of the file. */
+	private final Map<String, List<TranscriptionItem>> overlay;
+	/** The number of lemmas having at least one item, taking the overlay into account. */
+	private final int size;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link MappedLexicon} class.
+	 *
+	 * @param version
+	 *            the lexicon's version.
+	 * @param buffer
+	 *            the mapped file.
+	 * @param lemmaCount
+	 *            the number of lemmas inside the file.
+	 * @param itemCount
+	 *            the number of items inside the file.
+	 * @param overlay
+	 *            the edited lemmas; must not be modified any further.
+	 * @param size
+	 *            the number of lemmas having at least one item.
+	 */
+	private MappedLexicon(long version, ByteBuffer buffer, int lemmaCount, int itemCount,
+			Map<String, List<TranscriptionItem>> overlay, int size) {
+		super(version);
+		this.buffer = buffer;
+		this.lemmaCount = lemmaCount;
+		itemTableOffset = HEADER_SIZE + lemmaCount * LEMMA_RECORD_SIZE;
+		arenaOffset = itemTableOffset + itemCount * ITEM_RECORD_SIZE;
+		this.overlay = overlay;
+		this.size = size;
+	}
+
+	/* Object Methods */
+	@Override
+	public List<TranscriptionItem> getTranscriptionItems(String lemma) {
+
+		List<TranscriptionItem> edited = overlay.get(lemma);
+		if (edited != null) {
+			return edited;
+		}
+
+		// Binary search the lemma table.
+		byte[] key = lemma.getBytes(StandardCharsets.UTF_8);
+		int low = 0, high = lemmaCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int record = HEADER_SIZE + middle * LEMMA_RECORD_SIZE;
+			int comparison = compareUnsigned(buffer, arenaOffset + buffer.getInt(record), buffer.getInt(record + 4),
+					key);
+			if (comparison < 0) {
+				low = middle + 1;
+			} else if (comparison > 0) {
+				high = middle - 1;
+			} else {
+				return readItems(lemma, buffer.getInt(record + 8), buffer.getInt(record + 12));
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Decodes the given range of the item table.
+	 *
+	 * @param lemma
+	 *            the lemma the items belong to.
+	 * @param first
+	 *            the index of the first item.
+	 * @param count
+	 *            the number of items.
+	 * @return a new list holding the decoded items.
+	 */
+	private List<TranscriptionItem> readItems(String lemma, int first, int count) {
+		List<TranscriptionItem> result = new ArrayList<TranscriptionItem>(count);
+		for (int i = first; i < first + count; i++) {
+			int record = itemTableOffset + i * ITEM_RECORD_SIZE;
+			byte[] phoneticString = new byte[buffer.getInt(record + 8)];
+			int offset = arenaOffset + buffer.getInt(record + 4);
+			for (int j = 0; j < phoneticString.length; j++) {
+				phoneticString[j] = buffer.get(offset + j);
+			}
+			result.add(new TranscriptionItem(buffer.getInt(record), lemma,
+					new String(phoneticString, StandardCharsets.UTF_8),
+					TranscriptionType.getTranscriptionType(buffer.getInt(record + 16)),
+					WordClass.getWordClass(buffer.getShort(record + 12)),
+					Variety.getVariety(buffer.getShort(record + 14))));
+		}
+		return result;
+	}
+
+	@Override
+	public MappedLexicon withLemma(String lemma, List<TranscriptionItem> items) {
+		Map<String, List<TranscriptionItem>> newOverlay = new HashMap<String, List<TranscriptionItem>>(overlay);
+		newOverlay.put(lemma, Collections.unmodifiableList(new ArrayList<TranscriptionItem>(items)));
+		int newSize = size - (getTranscriptionItems(lemma).isEmpty() ? 0 : 1) + (items.isEmpty() ? 0 : 1);
+		int itemCount = (arenaOffset - itemTableOffset) / ITEM_RECORD_SIZE;
+		return new MappedLexicon(getVersion() + 1, buffer, lemmaCount, itemCount, newOverlay, newSize);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return super.toString() + " mapping " + buffer.capacity() + " bytes with " + overlay.size() + " edited lemmas";
+	}
+}
@@ -16,6 +16,12 @@ import de.upb.t2t.model.WordClass;
  * class, they will probably simply function as wrappers of these. However, since e.g. the
  * {@link AddTranscriptionPane} may be used in an online scenario, too, other sub-classes may add
  * further capabilities.
+ * <p>
+ * Since all implementations eventually store their changes through the
+ * {@link AbstractSQLiteBridge}, every edit is written through to a new version of the bridge's
+ * in-memory lexicon right after it has been committed (see
+ * {@link AbstractSQLiteBridge#getLexicon()}). Transcriptions in progress are not affected.
+ * </p>
  *
  * @author Michel May (michel-may@gmx.de)
  * @see AddTranscriptionPane
@@ -339,8 +339,10 @@ public class OnlineHandler extends AbstractDatabaseEditingHandler {
 				dbOut.flush();
 				dbOut.close();
 
-				// Reconnect the bridge to the database file.
+				// Reconnect the bridge to the database file, discard anything cached from the old
+				// one and swap in a fresh lexicon. Until then, lookups keep using the old lexicon.
 				bridge.openDatabase();
+				bridge.onDatabaseReloaded();
 
 			} catch (IOException e) {
 				logger.log(Level.WARNING, "Unable to establish connection to online database!", e);
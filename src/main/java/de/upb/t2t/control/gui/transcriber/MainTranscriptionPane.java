@@ -1,8 +1,10 @@
 package de.upb.t2t.control.gui.transcriber;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -14,10 +16,19 @@ import de.upb.t2t.control.database.editing.LoginDialogue;
 import de.upb.t2t.control.database.editing.OfflineHandler;
 import de.upb.t2t.control.database.editing.OnlineHandler;
 import de.upb.t2t.control.gui.UserFeedbackProvider;
+import de.upb.t2t.control.scheduling.CancellationToken;
+import de.upb.t2t.control.scheduling.JobPriority;
+import de.upb.t2t.control.scheduling.JobScheduler;
+import de.upb.t2t.control.transcription.BatchTranscriber;
+import de.upb.t2t.control.transcription.StreamingTranscriber;
 import de.upb.t2t.gui.fxml.FXMLProvider;
+import de.upb.t2t.model.BatchReport;
 import de.upb.t2t.model.FeedbackMode;
 import de.upb.t2t.model.LoginCredentials;
+import de.upb.t2t.model.Variety;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.beans.value.ObservableValue;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -26,6 +37,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.Menu;
 import javafx.scene.control.ProgressBar;
@@ -37,6 +49,10 @@ import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.FlowPane;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
+import javafx.stage.FileChooser.ExtensionFilter;
+import javafx.util.Duration;
 
 /**
  * The root {@link Node} of the primary's stages {@link Scene}. This pane is most central to the
@@ -54,6 +70,14 @@ import javafx.scene.layout.FlowPane;
 public class MainTranscriptionPane extends BorderPane implements UserFeedbackProvider {
 
 	/* Static Variables */
+	/** The group of the transcription jobs started by the pane, which supersede each other. */
+	private static final String TRANSCRIPTION_JOB_GROUP = "main-transcription";
+	/**
+	 * The time to wait after the last keystroke before a live transcription is started. Short
+	 * enough to appear immediate, but long enough not to transcribe every single letter of a word
+	 * typed at a normal pace.
+	 */
+	private static final Duration LIVE_DELAY = Duration.millis(120);
 
 	/* Static Methods */
 
@@ -78,6 +102,16 @@ public class MainTranscriptionPane extends BorderPane implements UserFeedbackPro
 	 */
 	@FXML
 	private TextArea inputField;
+	/**
+	 * Determines whether or not the input is transcribed while the user is typing.
+	 */
+	@FXML
+	private CheckBox liveCheckBox;
+	/**
+	 * Debounces the keystrokes inside the {@link #inputField} in live mode. Each change restarts it
+	 * and only once it has finished, a live transcription is started.
+	 */
+	private PauseTransition liveDelay;
 	/**
 	 * The field in which the transcriptions are displayed.
 	 */
@@ -105,6 +139,28 @@ public class MainTranscriptionPane extends BorderPane implements UserFeedbackPro
 		fxmlLoader.setRoot(this);
 		fxmlLoader.setController(this);
 		fxmlLoader.load();
+
+		// Prepare the live mode.
+		liveDelay = new PauseTransition(LIVE_DELAY);
+		liveDelay.setOnFinished((ActionEvent event) -> {
+			startTranscription(true);
+		});
+		liveCheckBox.setSelected(Statics.parseBoolean(MainController.getProperty("transcription.live_mode")));
+		liveCheckBox.selectedProperty()
+				.addListener((ObservableValue<? extends Boolean> observable, Boolean oldValue, Boolean newValue) -> {
+					MainController.setProperty("transcription.live_mode", newValue ? "1" : "0");
+					if (newValue) {
+						liveDelay.playFromStart();
+					} else {
+						liveDelay.stop();
+					}
+				});
+		inputField.textProperty()
+				.addListener((ObservableValue<? extends String> observable, String oldValue, String newValue) -> {
+					if (liveCheckBox.isSelected()) {
+						liveDelay.playFromStart();
+					}
+				});
 	}
 
 	/* Object Methods */
@@ -175,7 +231,7 @@ public class MainTranscriptionPane extends BorderPane implements UserFeedbackPro
 	private void onInputReceived(KeyEvent event) {
 		if (event.getCode().equals(KeyCode.ENTER)) {
 			event.consume();
-			startTranscription();
+			startTranscription(false);
 		}
 	}
 
@@ -187,7 +243,7 @@ public class MainTranscriptionPane extends BorderPane implements UserFeedbackPro
 	 */
 	@FXML
 	private void onStartTranscription(ActionEvent event) {
-		startTranscription();
+		startTranscription(false);
 	}
 
 	/**
@@ -203,7 +259,9 @@ public class MainTranscriptionPane extends BorderPane implements UserFeedbackPro
 
 		StringBuilder builder = new StringBuilder();
 		for (Node node : outputField.getChildren()) {
-			if (node instanceof TranscriptionSegment) {
+			if (node instanceof ParagraphBreak) {
+				builder.append("\n");
+			} else if (node instanceof TranscriptionSegment) {
 				for (Node wordbutton : ((TranscriptionSegment) node).getButtonBox().getChildren()) {
 					if (wordbutton instanceof Button) {
 						builder.append(((Button) wordbutton).getText() + " ");
@@ -219,6 +277,98 @@ public class MainTranscriptionPane extends BorderPane implements UserFeedbackPro
 		clipboard.setContent(content);
 	}
 
+	/**
+	 * Lets the user choose a text file and the file to write its transcription to, and then
+	 * transcribes the former by means of a {@link StreamingTranscriber} in the background. Since
+	 * the file is never held in memory as a whole, it may be arbitrarily large. The result is not
+	 * displayed inside the {@link #outputField}.
+	 *
+	 * @param event
+	 *            the <code>ActionEvent</code>.
+	 */
+	@FXML
+	private void transcribeFile(ActionEvent event) {
+
+		FileChooser chooser = new FileChooser();
+		chooser.setTitle("Choose a text file to transcribe");
+		chooser.getExtensionFilters().addAll(new ExtensionFilter("Text Files", "*.txt"),
+				new ExtensionFilter("All Files", "*.*"));
+		File input = chooser.showOpenDialog(getScene().getWindow());
+		if (input == null) {
+			return;
+		}
+		chooser.setTitle("Save the transcription as");
+		chooser.setInitialDirectory(input.getParentFile());
+		chooser.setInitialFileName(input.getName().replaceFirst("(\\.[^.]*)?$", "_transcription.txt"));
+		File output = chooser.showSaveDialog(getScene().getWindow());
+		if (output == null) {
+			return;
+		}
+
+		logger.info("Transcribing file " + input + " to " + output + " ...");
+		JobScheduler.getInstance().submit("File Transcription", JobPriority.BACKGROUND, null,
+				(CancellationToken token) -> {
+					try {
+						long length = new StreamingTranscriber().transcribe(input.toPath(), output.toPath(),
+								Variety.getPreferredVariety(), this, token);
+						generalFeedback(FeedbackMode.SUCCESS,
+								"Transcribed " + length + " characters to " + output.getName() + "!");
+					} catch (CancellationException e) {
+						logger.info("File transcription cancelled.");
+					} catch (Exception e) {
+						generalFeedback(FeedbackMode.ERROR, "Error while transcribing file! :( " + e);
+						logger.log(Level.SEVERE, "Exception while transcribing file!", e);
+					}
+					return null;
+				});
+	}
+
+	/**
+	 * Lets the user choose a directory of text files and the directory to write their
+	 * transcriptions to, and then transcribes the former by means of a {@link BatchTranscriber} in
+	 * the background. Choosing an output directory of an interrupted run resumes said run. The
+	 * number of files transcribed at the same time is read from the
+	 * <code>transcription.batch.threads</code> property.
+	 *
+	 * @param event
+	 *            the <code>ActionEvent</code>.
+	 */
+	@FXML
+	private void transcribeDirectory(ActionEvent event) {
+
+		DirectoryChooser chooser = new DirectoryChooser();
+		chooser.setTitle("Choose a directory of text files to transcribe");
+		File input = chooser.showDialog(getScene().getWindow());
+		if (input == null) {
+			return;
+		}
+		chooser.setTitle("Choose a directory to write the transcriptions to");
+		chooser.setInitialDirectory(input);
+		File output = chooser.showDialog(getScene().getWindow());
+		if (output == null) {
+			return;
+		}
+
+		logger.info("Transcribing directory " + input + " to " + output + " ...");
+		JobScheduler.getInstance().submit("Batch Transcription", JobPriority.BACKGROUND, null,
+				(CancellationToken token) -> {
+					try {
+						int threadCount = Integer.parseInt(MainController.getProperty("transcription.batch.threads"));
+						BatchReport report = new BatchTranscriber(threadCount).transcribe(input.toPath(),
+								output.toPath(), Variety.getPreferredVariety(), this, token);
+						FeedbackMode mode = report.getFailures().isEmpty() ? FeedbackMode.SUCCESS : FeedbackMode.ERROR;
+						generalFeedback(mode, "Transcribed " + report.getResults().size() + " files ("
+								+ report.getFailures().size() + " failed, " + report.getSkippedCount() + " skipped)!");
+					} catch (CancellationException e) {
+						logger.info("Batch transcription cancelled.");
+					} catch (Exception e) {
+						generalFeedback(FeedbackMode.ERROR, "Error while transcribing directory! :( " + e);
+						logger.log(Level.SEVERE, "Exception while transcribing directory!", e);
+					}
+					return null;
+				});
+	}
+
 	/**
 	 * Shows the {@link EditDatabaseDialogue} if the user can provide the required
 	 * {@link LoginCredentials}.
@@ -360,18 +510,34 @@ public class MainTranscriptionPane extends BorderPane implements UserFeedbackPro
 	}
 
 	/**
-	 * A convenience method to start a new transcription inside a seperate {@link Thread}.
+	 * A convenience method to start a new transcription by means of the {@link JobScheduler}. Any
+	 * transcription still in progress is superseded by the new one. Must be called on the JavaFx
+	 * Application Thread.
+	 *
+	 * @param live
+	 *            <code>true</code> if the transcription has been triggered by the user typing;
+	 *            <code>false</code> if it has been explicitly requested.
 	 */
-	private void startTranscription() {
-		new Thread(() -> {
-			try {
-				transcriber.transcribe(inputField.getText().trim());
-				generalFeedback(FeedbackMode.SUCCESS, "Transcription successful!");
-			} catch (Exception e) {
-				generalFeedback(FeedbackMode.ERROR, "Error while transcribing! :( " + e);
-				logger.log(Level.SEVERE, "Exception while transcribing input!", e);
-			}
-		}).start();
+	private void startTranscription(boolean live) {
+		liveDelay.stop();
+		String input = inputField.getText().trim();
+		JobScheduler.getInstance().submit(live ? "Live Transcription" : "Transcription", JobPriority.INTERACTIVE,
+				TRANSCRIPTION_JOB_GROUP, (CancellationToken token) -> {
+					try {
+						if (live) {
+							transcriber.transcribeLive(input, token);
+						} else {
+							transcriber.transcribe(input, token);
+							generalFeedback(FeedbackMode.SUCCESS, "Transcription successful!");
+						}
+					} catch (CancellationException e) {
+						logger.fine("Transcription superseded.");
+					} catch (Exception e) {
+						generalFeedback(FeedbackMode.ERROR, "Error while transcribing! :( " + e);
+						logger.log(Level.SEVERE, "Exception while transcribing input!", e);
+					}
+					return null;
+				});
 	}
 
 	/* Getters and Setters */
@@ -0,0 +1,32 @@
+package de.upb.t2t.control.gui.transcriber;
+
+import javafx.scene.control.Label;
+
+/**
+ * A small {@link Label} marking the beginning of a new paragraph inside the output field. It is
+ * displayed as a pilcrow ('¶') and copied to the clipboard as a line break.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ */
+public class ParagraphBreak extends Label {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link ParagraphBreak} class.
+	 */
+	public ParagraphBreak() {
+		super("¶");
+		getStyleClass().add("paragraphBreak");
+	}
+
+	/* Object Methods */
+
+	/* Getters and Setters */
+}
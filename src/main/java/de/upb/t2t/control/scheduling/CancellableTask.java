@@ -0,0 +1,25 @@
+/**
+ *
+ */
+package de.upb.t2t.control.scheduling;
+
+/**
+ * The work done by a {@link Job}.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see JobScheduler#submit(String, JobPriority, String, CancellableTask)
+ */
+public interface CancellableTask<T> {
+
+	/**
+	 * Does the actual work.
+	 *
+	 * @param token
+	 *            the token to check for cancellation at convenient points.
+	 * @return the result of the work.
+	 * @throws Exception
+	 *             if the work fails. A {@link java.util.concurrent.CancellationException} signals
+	 *             that the work has been cancelled.
+	 */
+	public T run(CancellationToken token) throws Exception;
+}
@@ -0,0 +1,93 @@
+/**
+ *
+ */
+package de.upb.t2t.control.scheduling;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token handed to every {@link Job} by which the job can be asked to stop. Cancellation is
+ * cooperative: the job is expected to call {@link #throwIfCancelled()} at convenient points, e.g.
+ * between two segments of a transcription, and is never interrupted otherwise. A token may also be
+ * given a deadline, after which it counts as cancelled without anyone calling {@link #cancel()}.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see JobScheduler
+ */
+public class CancellationToken {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** Indicates whether or not the job has been asked to stop. */
+	private volatile boolean cancelled;
+	/** The deadline as given by {@link System#nanoTime()}; only valid if {@link #timed}. */
+	private final long deadline;
+	/** Indicates whether or not the token has a {@link #deadline}. */
+	private final boolean timed;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link CancellationToken} class creating a token without deadline.
+	 */
+	public CancellationToken() {
+		deadline = 0;
+		timed = false;
+	}
+
+	/**
+	 * Constructor for the {@link CancellationToken} class creating a token that expires after the
+	 * given time.
+	 *
+	 * @param timeout
+	 *            the time after which the token expires.
+	 * @param unit
+	 *            the unit of the timeout.
+	 */
+	public CancellationToken(long timeout, TimeUnit unit) {
+		deadline = System.nanoTime() + unit.toNanos(timeout);
+		timed = true;
+	}
+
+	/* Object Methods */
+	/**
+	 * Asks the job holding this token to stop as soon as possible.
+	 */
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Throws a {@link CancellationException} if the job has been asked to stop.
+	 *
+	 * @throws CancellationException
+	 *             if {@link #cancel()} has been called or the token has expired.
+	 */
+	public void throwIfCancelled() throws CancellationException {
+		if (isCancelled()) {
+			throw new CancellationException();
+		}
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #cancelled} attribute.
+	 *
+	 * @return <code>true</code> if the job has been asked to stop or the token has expired.
+	 */
+	public boolean isCancelled() {
+		return cancelled || isExpired();
+	}
+
+	/**
+	 * Tells whether or not the token's deadline has passed.
+	 *
+	 * @return <code>true</code> if the token has a deadline and it has passed.
+	 */
+	public boolean isExpired() {
+		return timed && System.nanoTime() - deadline >= 0;
+	}
+}
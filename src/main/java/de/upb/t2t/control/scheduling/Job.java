@@ -0,0 +1,162 @@
+/**
+ *
+ */
+package de.upb.t2t.control.scheduling;
+
+import java.util.concurrent.FutureTask;
+
+/**
+ * <p>
+ * A {@link CancellableTask} that has been submitted to the {@link JobScheduler}. Jobs are ordered
+ * by their {@link JobPriority} first and by the order of their submission second. Use the methods
+ * inherited from {@link FutureTask} to wait for the result. Cancelling a job by means of
+ * {@link #cancel(boolean)} also cancels its {@link CancellationToken}, so that a running job stops
+ * at its next check.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ */
+public class Job<T> extends FutureTask<T> implements Comparable<Job<?>> {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The scheduler running the job. */
+	private final JobScheduler scheduler;
+	/** The job's name for logging purposes. */
+	private final String name;
+	/** The job's priority. */
+	private final JobPriority priority;
+	/** The group of jobs superseding each other; may be <code>null</code>. */
+	private final String group;
+	/** The job's position in the order of submission. */
+	private final long sequence;
+	/** The job's cancellation token. */
+	private final CancellationToken token;
+	/** The point in time of the submission in nanoseconds. */
+	private final long submitted;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link Job} class.
+	 *
+	 * @param scheduler
+	 *            the scheduler running the job.
+	 * @param name
+	 *            the job's name for logging purposes.
+	 * @param priority
+	 *            the job's priority.
+	 * @param group
+	 *            the group of jobs superseding each other; may be <code>null</code>.
+	 * @param sequence
+	 *            the job's position in the order of submission.
+	 * @param task
+	 *            the work to do.
+	 */
+	Job(JobScheduler scheduler, String name, JobPriority priority, String group, long sequence,
+			CancellableTask<T> task) {
+		this(scheduler, name, priority, group, sequence, task, new CancellationToken());
+	}
+
+	/**
+	 * Constructor for the {@link Job} class.
+	 *
+	 * @param scheduler
+	 *            the scheduler running the job.
+	 * @param name
+	 *            the job's name for logging purposes.
+	 * @param priority
+	 *            the job's priority.
+	 * @param group
+	 *            the group of jobs superseding each other; may be <code>null</code>.
+	 * @param sequence
+	 *            the job's position in the order of submission.
+	 * @param task
+	 *            the work to do.
+	 * @param token
+	 *            the token to hand to the task.
+	 */
+	private Job(JobScheduler scheduler, String name, JobPriority priority, String group, long sequence,
+			CancellableTask<T> task, CancellationToken token) {
+		super(() -> task.run(token));
+		this.scheduler = scheduler;
+		this.name = name;
+		this.priority = priority;
+		this.group = group;
+		this.sequence = sequence;
+		this.token = token;
+		submitted = System.nanoTime();
+	}
+
+	/* Object Methods */
+	@Override
+	public void run() {
+		if (isCancelled()) {
+			scheduler.onJobDiscarded(this);
+			return;
+		}
+		long started = System.nanoTime();
+		scheduler.onJobStarted(this, started - submitted);
+		try {
+			super.run();
+		} finally {
+			scheduler.onJobFinished(this, System.nanoTime() - started);
+		}
+	}
+
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		token.cancel();
+		return super.cancel(mayInterruptIfRunning);
+	}
+
+	@Override
+	public int compareTo(Job<?> other) {
+		int result = priority.compareTo(other.priority);
+		return result != 0 ? result : Long.compare(sequence, other.sequence);
+	}
+
+	@Override
+	public String toString() {
+		return name + " #" + sequence + " (" + priority + ")";
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #name} attribute.
+	 *
+	 * @return the job's name.
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * A getter for the {@link #priority} attribute.
+	 *
+	 * @return the job's priority.
+	 */
+	public JobPriority getPriority() {
+		return priority;
+	}
+
+	/**
+	 * A getter for the {@link #group} attribute.
+	 *
+	 * @return the group of jobs superseding each other; <code>null</code> if there is none.
+	 */
+	public String getGroup() {
+		return group;
+	}
+
+	/**
+	 * A getter for the {@link #token} attribute.
+	 *
+	 * @return the job's cancellation token.
+	 */
+	public CancellationToken getToken() {
+		return token;
+	}
+}
@@ -0,0 +1,18 @@
+/**
+ *
+ */
+package de.upb.t2t.control.scheduling;
+
+/**
+ * The priorities of the {@link Job}s run by the {@link JobScheduler}. Whenever a thread becomes
+ * available, queued jobs of a higher priority are started first.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ */
+public enum JobPriority {
+
+	/** Jobs the user is actively waiting for, e.g. the transcription of the input field. */
+	INTERACTIVE,
+	/** Jobs running in the background, e.g. batch transcriptions or database maintenance. */
+	BACKGROUND;
+}
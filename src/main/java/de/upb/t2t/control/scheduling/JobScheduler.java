@@ -0,0 +1,319 @@
+/**
+ *
+ */
+package de.upb.t2t.control.scheduling;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>
+ * The application's central scheduler for all work that must not block the JavaFx Application
+ * Thread. Instead of starting a new {@link Thread} for every transcription, jobs are submitted to
+ * a bounded pool of daemon threads. Queued jobs are started in the order of their
+ * {@link JobPriority}, so that interactive jobs never wait for background ones to be started.
+ * </p>
+ * <p>
+ * Jobs may be given a group. Submitting a job supersedes any job of the same group that is still
+ * queued or running: the older job is cancelled and, should it already be running, stops at the
+ * next check of its {@link CancellationToken}. Thus, hitting ENTER twice in a row does not lead to
+ * two transcriptions racing each other for the output field.
+ * </p>
+ * <p>
+ * The scheduler keeps track of the queue depth and of the time jobs spend waiting and running.
+ * See {@link #toString()} for a summary.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see #submit(String, JobPriority, String, CancellableTask)
+ */
+public class JobScheduler {
+
+	/* Static Variables */
+	/** The number of threads of the application's scheduler. */
+	public static final int DEFAULT_THREAD_COUNT = Math.max(2,
+			Math.min(4, Runtime.getRuntime().availableProcessors()));
+	/** The application's scheduler. */
+	private static final JobScheduler instance = new JobScheduler(DEFAULT_THREAD_COUNT);
+
+	/* Static Methods */
+	/**
+	 * A getter for the application's scheduler {@link #instance}.
+	 *
+	 * @return the application's scheduler.
+	 */
+	public static JobScheduler getInstance() {
+		return instance;
+	}
+
+	/* Object Variables */
+	/** The {@link JobScheduler} instance's {@link Logger} object. */
+	private Logger logger;
+	/** The pool running the jobs. */
+	private final ThreadPoolExecutor executor;
+	/** The number of jobs submitted so far, used to order jobs of the same priority. */
+	private final AtomicLong sequence;
+	/** The most recently submitted job of each group. */
+	private final Map<String, Job<?>> groups;
+	/** The number of jobs that have been run to completion. */
+	private final AtomicLong completed;
+	/** The number of jobs that have been cancelled or superseded. */
+	private final AtomicLong cancelled;
+	/** The number of jobs that have failed. */
+	private final AtomicLong failed;
+	/** The number of jobs that have been started. */
+	private final AtomicLong started;
+	/** The total time jobs have spent in the queue in nanoseconds. */
+	private final AtomicLong totalWaitTime;
+	/** The longest time a job has spent in the queue in nanoseconds. */
+	private final AtomicLong maxWaitTime;
+	/** The total time jobs have spent running in nanoseconds. */
+	private final AtomicLong totalRunTime;
+	/** The longest time a job has spent running in nanoseconds. */
+	private final AtomicLong maxRunTime;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link JobScheduler} class.
+	 *
+	 * @param threadCount
+	 *            the number of threads to run the jobs on; must be positive.
+	 */
+	public JobScheduler(int threadCount) {
+		logger = Logger.getLogger(getClass().getName());
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		ThreadFactory threadFactory = (Runnable runnable) -> {
+			Thread thread = new Thread(runnable, "T2T-Job-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+		executor = new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+				new PriorityBlockingQueue<Runnable>(), threadFactory);
+
+		sequence = new AtomicLong();
+		groups = new ConcurrentHashMap<String, Job<?>>();
+		completed = new AtomicLong();
+		cancelled = new AtomicLong();
+		failed = new AtomicLong();
+		started = new AtomicLong();
+		totalWaitTime = new AtomicLong();
+		maxWaitTime = new AtomicLong();
+		totalRunTime = new AtomicLong();
+		maxRunTime = new AtomicLong();
+	}
+
+	/* Object Methods */
+	/**
+	 * Submits a new job. Should there already be a job of the same group, it will be cancelled.
+	 *
+	 * @param name
+	 *            the job's name for logging purposes.
+	 * @param priority
+	 *            the job's priority.
+	 * @param group
+	 *            the group of jobs superseding each other; <code>null</code> if the job should
+	 *            not supersede any other one.
+	 * @param task
+	 *            the work to do.
+	 * @return the submitted job.
+	 * @throws java.util.concurrent.RejectedExecutionException
+	 *             if the scheduler has already been shut down.
+	 */
+	public <T> Job<T> submit(String name, JobPriority priority, String group, CancellableTask<T> task) {
+
+		Job<T> job = new Job<T>(this, name, priority, group, sequence.incrementAndGet(), task);
+		if (group != null) {
+			Job<?> previous = groups.put(group, job);
+			if (previous != null && !previous.isDone()) {
+				logger.fine("Superseding " + previous + " by " + job + " ...");
+				previous.cancel(false);
+				if (executor.remove(previous)) {
+					onJobDiscarded(previous);
+				}
+			}
+		}
+
+		logger.finer("Submitting " + job + " ...");
+		executor.execute(job);
+		return job;
+	}
+
+	/**
+	 * Cancels all jobs and stops the pool's threads. Running jobs stop at the next check of their
+	 * token.
+	 */
+	public void shutdown() {
+		for (Job<?> job : groups.values()) {
+			job.cancel(false);
+		}
+		for (Runnable runnable : executor.shutdownNow()) {
+			((Job<?>) runnable).cancel(false);
+		}
+		logger.info("Job scheduler shut down: " + this);
+	}
+
+	/**
+	 * Must be called by a job that is about to start running.
+	 *
+	 * @param job
+	 *            the job.
+	 * @param waitTime
+	 *            the time the job has spent in the queue in nanoseconds.
+	 */
+	void onJobStarted(Job<?> job, long waitTime) {
+		started.incrementAndGet();
+		totalWaitTime.addAndGet(waitTime);
+		updateMax(maxWaitTime, waitTime);
+		logger.finer("Starting " + job + " after " + TimeUnit.NANOSECONDS.toMillis(waitTime) + " ms ...");
+	}
+
+	/**
+	 * Must be called by a job that has stopped running, no matter the outcome.
+	 *
+	 * @param job
+	 *            the job.
+	 * @param runTime
+	 *            the time the job has spent running in nanoseconds.
+	 */
+	void onJobFinished(Job<?> job, long runTime) {
+		totalRunTime.addAndGet(runTime);
+		updateMax(maxRunTime, runTime);
+		if (job.getGroup() != null) {
+			groups.remove(job.getGroup(), job);
+		}
+
+		try {
+			job.get();
+			completed.incrementAndGet();
+			logger.finer("Finished " + job + " after " + TimeUnit.NANOSECONDS.toMillis(runTime) + " ms.");
+		} catch (CancellationException e) {
+			cancelled.incrementAndGet();
+			logger.fine("Cancelled " + job + " after " + TimeUnit.NANOSECONDS.toMillis(runTime) + " ms.");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CancellationException) {
+				cancelled.incrementAndGet();
+				logger.fine("Cancelled " + job + " after " + TimeUnit.NANOSECONDS.toMillis(runTime) + " ms.");
+			} else {
+				failed.incrementAndGet();
+				logger.log(Level.WARNING, "Job " + job + " failed!", e.getCause());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Must be called for a job that has been cancelled before it could be started.
+	 *
+	 * @param job
+	 *            the job.
+	 */
+	void onJobDiscarded(Job<?> job) {
+		cancelled.incrementAndGet();
+		if (job.getGroup() != null) {
+			groups.remove(job.getGroup(), job);
+		}
+		logger.fine("Discarded " + job + " before it could be started.");
+	}
+
+	/**
+	 * Raises the given maximum to the given value, should the latter be greater.
+	 *
+	 * @param max
+	 *            the maximum to update.
+	 * @param value
+	 *            the new value.
+	 */
+	private void updateMax(AtomicLong max, long value) {
+		long current;
+		do {
+			current = max.get();
+		} while (value > current && !max.compareAndSet(current, value));
+	}
+
+	@Override
+	public String toString() {
+		return executor.getPoolSize() + " threads, " + getActiveCount() + " active, " + getQueueDepth() + " queued, "
+				+ completed.get() + " completed, " + cancelled.get() + " cancelled, " + failed.get()
+				+ " failed, wait time " + getAverageWaitTime() + " ms avg / "
+				+ TimeUnit.NANOSECONDS.toMillis(maxWaitTime.get()) + " ms max, run time " + getAverageRunTime()
+				+ " ms avg / " + TimeUnit.NANOSECONDS.toMillis(maxRunTime.get()) + " ms max";
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the number of jobs waiting to be started.
+	 *
+	 * @return the current queue depth.
+	 */
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	/**
+	 * A getter for the number of jobs currently running.
+	 *
+	 * @return the approximate number of running jobs.
+	 */
+	public int getActiveCount() {
+		return executor.getActiveCount();
+	}
+
+	/**
+	 * A getter for the average time jobs have spent in the queue.
+	 *
+	 * @return the average wait time in milliseconds; 0 if no job has been started yet.
+	 */
+	public long getAverageWaitTime() {
+		long count = started.get();
+		return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWaitTime.get() / count);
+	}
+
+	/**
+	 * A getter for the average time jobs have spent running.
+	 *
+	 * @return the average run time in milliseconds; 0 if no job has been started yet.
+	 */
+	public long getAverageRunTime() {
+		long count = started.get();
+		return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalRunTime.get() / count);
+	}
+
+	/**
+	 * A getter for the {@link #completed} attribute.
+	 *
+	 * @return the number of jobs that have been run to completion.
+	 */
+	public long getCompletedCount() {
+		return completed.get();
+	}
+
+	/**
+	 * A getter for the {@link #cancelled} attribute.
+	 *
+	 * @return the number of jobs that have been cancelled or superseded.
+	 */
+	public long getCancelledCount() {
+		return cancelled.get();
+	}
+
+	/**
+	 * A getter for the {@link #failed} attribute.
+	 *
+	 * @return the number of jobs that have failed.
+	 */
+	public long getFailedCount() {
+		return failed.get();
+	}
+}
@@ -0,0 +1,417 @@
+/**
+ *
+ */
+package de.upb.t2t.control.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import de.upb.t2t.control.scheduling.CancellableTask;
+import de.upb.t2t.control.scheduling.CancellationToken;
+
+/**
+ * <p>
+ * Guards the transcription pipeline against more load than it can handle, so that latency
+ * degrades gracefully instead of growing without bound. At most {@link #getConcurrency()} tasks
+ * run at the same time and at most {@link #getQueueCapacity()} further ones wait for their turn
+ * in the order of their arrival. Any task beyond that is rejected right away. Each task has a
+ * deadline: should it pass while the task is still waiting, the task is dropped without ever
+ * being started; should it pass while the task is running, the task is cancelled by means of its
+ * {@link CancellationToken}. Either way, an {@link OverloadException} is thrown which tells the
+ * client when to retry.
+ * </p>
+ * <p>
+ * Requests sharing the outcome of an identical task in progress (see {@link ResultCache}) are
+ * not run, but still have to {@link #join(long, Future)} it. At most
+ * {@link #getFollowerCapacity()} of them may wait at the same time, each no longer than its own
+ * deadline, so that the number of threads blocked by the controller is always bounded.
+ * </p>
+ * <p>
+ * The controller keeps track of the queue depth, the number of rejected, expired and timed out
+ * tasks and a {@link LatencyHistogram} of the time tasks spend in the queue.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see TranscriptionService
+ */
+public class AdmissionController {
+
+	/* Static Variables */
+	/** The number of tasks that may wait for their turn by default. */
+	public static final int DEFAULT_QUEUE_CAPACITY = 64;
+	/** The deadline of a task in milliseconds by default. */
+	public static final long DEFAULT_DEADLINE = 5000;
+	/** The maximum number of characters of an input by default. */
+	public static final int DEFAULT_MAX_INPUT_LENGTH = 100000;
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The number of tasks that may run at the same time. */
+	private final int concurrency;
+	/** The number of tasks that may wait for their turn. */
+	private final int queueCapacity;
+	/** The number of requests that may wait for an identical task in progress. */
+	private final int followerCapacity;
+	/** The maximum deadline of a task in milliseconds. */
+	private final long deadline;
+	/** The maximum number of characters of an input. */
+	private final int maxInputLength;
+	/** One permit per task that may be queued or running. */
+	private final Semaphore admitted;
+	/** One permit per task that may be running, handed out in the order of arrival. */
+	private final Semaphore running;
+	/** One permit per request that may wait for an identical task in progress. */
+	private final Semaphore following;
+	/** The number of tasks currently waiting for their turn. */
+	private final AtomicInteger queueDepth;
+	/** The number of tasks that have been admitted. */
+	private final AtomicLong admittedCount;
+	/** The number of tasks that have been rejected as the queue was full. */
+	private final AtomicLong rejected;
+	/** The number of tasks whose deadline passed while they were waiting. */
+	private final AtomicLong expired;
+	/** The number of tasks whose deadline passed while they were running. */
+	private final AtomicLong timedOut;
+	/** The number of requests that have been rejected as too many were waiting for a task. */
+	private final AtomicLong rejectedFollowers;
+	/** The number of requests whose deadline passed while waiting for a task. */
+	private final AtomicLong expiredFollowers;
+	/** The number of inputs that have been refused for exceeding {@link #maxInputLength}. */
+	private final AtomicLong tooLarge;
+	/** The number of tasks that have been started. */
+	private final AtomicLong started;
+	/** The total time tasks have spent running in nanoseconds. */
+	private final AtomicLong totalRunTime;
+	/** The time tasks have spent waiting for their turn. */
+	private final LatencyHistogram queueTime;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link AdmissionController} class.
+	 *
+	 * @param concurrency
+	 *            the number of tasks that may run at the same time; <code>0</code> or less for one
+	 *            per available processor.
+	 * @param queueCapacity
+	 *            the number of tasks that may wait for their turn; <code>0</code> or less to
+	 *            reject every task that cannot be started right away.
+	 * @param deadline
+	 *            the maximum deadline of a task in milliseconds; must be positive.
+	 * @param maxInputLength
+	 *            the maximum number of characters of an input; must be positive.
+	 * @throws IllegalArgumentException
+	 *             if the deadline or the maximum input length is not positive.
+	 */
+	public AdmissionController(int concurrency, int queueCapacity, long deadline, int maxInputLength)
+			throws IllegalArgumentException {
+		if (deadline <= 0 || maxInputLength <= 0) {
+			throw new IllegalArgumentException("The deadline and the maximum input length must be positive!");
+		}
+		this.concurrency = concurrency > 0 ? concurrency : Runtime.getRuntime().availableProcessors();
+		this.queueCapacity = Math.max(0, queueCapacity);
+		this.deadline = deadline;
+		this.maxInputLength = maxInputLength;
+		followerCapacity = this.concurrency + this.queueCapacity;
+		admitted = new Semaphore(this.concurrency + this.queueCapacity);
+		running = new Semaphore(this.concurrency, true);
+		following = new Semaphore(followerCapacity);
+		queueDepth = new AtomicInteger();
+		admittedCount = new AtomicLong();
+		rejected = new AtomicLong();
+		expired = new AtomicLong();
+		timedOut = new AtomicLong();
+		rejectedFollowers = new AtomicLong();
+		expiredFollowers = new AtomicLong();
+		tooLarge = new AtomicLong();
+		started = new AtomicLong();
+		totalRunTime = new AtomicLong();
+		queueTime = new LatencyHistogram();
+	}
+
+	/* Object Methods */
+	/**
+	 * Checks whether the given input may be handed to the pipeline at all.
+	 *
+	 * @param input
+	 *            the input to check.
+	 * @return <code>true</code> if the input does not exceed the maximum input length.
+	 */
+	public boolean accepts(String input) {
+		if (input.length() <= maxInputLength) {
+			return true;
+		}
+		tooLarge.incrementAndGet();
+		return false;
+	}
+
+	/**
+	 * Runs the given task on the calling thread as soon as it is its turn.
+	 *
+	 * @param timeout
+	 *            the task's deadline in milliseconds from now; <code>0</code> or less, or anything
+	 *            beyond the controller's deadline, for the controller's deadline.
+	 * @param task
+	 *            the task to run. It should check the given token at convenient points.
+	 * @return the task's result.
+	 * @throws OverloadException
+	 *             if the queue is full or the deadline passes before the task has finished.
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting for its turn.
+	 * @throws Exception
+	 *             if the task throws one.
+	 */
+	public <T> T execute(long timeout, CancellableTask<T> task) throws OverloadException, InterruptedException,
+			Exception {
+
+		long arrival = System.nanoTime();
+		long timeoutNanos = getTimeoutNanos(timeout);
+		if (!admitted.tryAcquire()) {
+			rejected.incrementAndGet();
+			throw new OverloadException("The service is saturated.", getRetryAfter());
+		}
+		try {
+			admittedCount.incrementAndGet();
+
+			// Wait for a free slot, but not beyond the deadline.
+			boolean acquired = false;
+			queueDepth.incrementAndGet();
+			try {
+				acquired = running.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+			} finally {
+				queueDepth.decrementAndGet();
+				queueTime.record(System.nanoTime() - arrival, !acquired);
+			}
+			if (!acquired) {
+				expired.incrementAndGet();
+				throw new OverloadException("The deadline passed while waiting.", getRetryAfter());
+			}
+
+			long start = System.nanoTime();
+			CancellationToken token = new CancellationToken(timeoutNanos - (start - arrival), TimeUnit.NANOSECONDS);
+			try {
+				started.incrementAndGet();
+				return task.run(token);
+			} catch (CancellationException e) {
+				if (token.isExpired()) {
+					timedOut.incrementAndGet();
+					throw new OverloadException("The deadline passed while transcribing.", getRetryAfter());
+				}
+				throw e;
+			} finally {
+				totalRunTime.addAndGet(System.nanoTime() - start);
+				running.release();
+			}
+		} finally {
+			admitted.release();
+		}
+	}
+
+	/**
+	 * Waits for the outcome of an identical task in progress on behalf of another request, but no
+	 * longer than the request's own deadline.
+	 *
+	 * @param timeout
+	 *            the request's deadline in milliseconds from now; <code>0</code> or less, or
+	 *            anything beyond the controller's deadline, for the controller's deadline.
+	 * @param future
+	 *            the outcome of the task in progress.
+	 * @return the task's result.
+	 * @throws OverloadException
+	 *             if too many requests are waiting already or the deadline passes before the task
+	 *             has finished.
+	 * @throws InterruptedException
+	 *             if the calling thread is interrupted while waiting.
+	 * @throws ExecutionException
+	 *             if the task has thrown an exception.
+	 */
+	public <T> T join(long timeout, Future<T> future) throws OverloadException, InterruptedException,
+			ExecutionException {
+		if (!following.tryAcquire()) {
+			rejectedFollowers.incrementAndGet();
+			throw new OverloadException("The service is saturated.", getRetryAfter());
+		}
+		try {
+			return future.get(getTimeoutNanos(timeout), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			expiredFollowers.incrementAndGet();
+			throw new OverloadException("The deadline passed while waiting.", getRetryAfter());
+		} finally {
+			following.release();
+		}
+	}
+
+	/**
+	 * Computes how much of a request's deadline is left, e.g. for a request that has to start over
+	 * after the identical task it waited for has been turned away on behalf of another request.
+	 *
+	 * @param timeout
+	 *            the request's deadline in milliseconds from its arrival; <code>0</code> or less,
+	 *            or anything beyond the controller's deadline, for the controller's deadline.
+	 * @param arrival
+	 *            the request's arrival as told by {@link System#nanoTime()}.
+	 * @return the time left in milliseconds; at least <code>1</code>.
+	 * @throws OverloadException
+	 *             if the deadline has passed already.
+	 */
+	public long getRemainingTime(long timeout, long arrival) throws OverloadException {
+		long remaining = getTimeoutNanos(timeout) - (System.nanoTime() - arrival);
+		if (remaining <= 0) {
+			expired.incrementAndGet();
+			throw new OverloadException("The deadline passed while waiting.", getRetryAfter());
+		}
+		return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+	}
+
+	/**
+	 * Estimates how long a client should wait before trying again, i.e. how long it takes to work
+	 * off the current queue given the average run time of a task.
+	 *
+	 * @return the time to wait in seconds; at least <code>1</code>.
+	 */
+	public long getRetryAfter() {
+		long count = started.get();
+		long averageRunTime = count == 0 ? 0 : totalRunTime.get() / count;
+		long backlog = (queueDepth.get() + 1) * averageRunTime / concurrency;
+		return Math.max(1, (long) Math.ceil(backlog / 1e9));
+	}
+
+	/**
+	 * Writes the controller's limits and statistics as a JSON object.
+	 *
+	 * @param json
+	 *            the writer to write to.
+	 */
+	public void writeTo(Json.Writer json) {
+		json.beginObject();
+		json.name("concurrency").value(concurrency);
+		json.name("queueCapacity").value(queueCapacity);
+		json.name("deadlineMillis").value(deadline);
+		json.name("maxInputLength").value(maxInputLength);
+		json.name("queueDepth").value(queueDepth.get());
+		json.name("running").value(concurrency - running.availablePermits());
+		json.name("admitted").value(admittedCount.get());
+		json.name("rejected").value(rejected.get());
+		json.name("expired").value(expired.get());
+		json.name("timedOut").value(timedOut.get());
+		json.name("followerCapacity").value(followerCapacity);
+		json.name("followers").value(followerCapacity - following.availablePermits());
+		json.name("rejectedFollowers").value(rejectedFollowers.get());
+		json.name("expiredFollowers").value(expiredFollowers.get());
+		json.name("tooLarge").value(tooLarge.get());
+		json.name("retryAfterSeconds").value(getRetryAfter());
+		json.name("queueTime");
+		queueTime.writeTo(json);
+		json.endObject();
+	}
+
+	/**
+	 * Converts a request's timeout into its deadline.
+	 *
+	 * @param timeout
+	 *            the request's deadline in milliseconds from now; <code>0</code> or less, or
+	 *            anything beyond the controller's deadline, for the controller's deadline.
+	 * @return the deadline in nanoseconds from now.
+	 */
+	private long getTimeoutNanos(long timeout) {
+		return TimeUnit.MILLISECONDS.toNanos(timeout > 0 ? Math.min(timeout, deadline) : deadline);
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #concurrency} attribute.
+	 *
+	 * @return the number of tasks that may run at the same time.
+	 */
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	/**
+	 * A getter for the {@link #queueCapacity} attribute.
+	 *
+	 * @return the number of tasks that may wait for their turn.
+	 */
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * A getter for the {@link #followerCapacity} attribute.
+	 *
+	 * @return the number of requests that may wait for an identical task in progress.
+	 */
+	public int getFollowerCapacity() {
+		return followerCapacity;
+	}
+
+	/**
+	 * A getter for the {@link #maxInputLength} attribute.
+	 *
+	 * @return the maximum number of characters of an input.
+	 */
+	public int getMaxInputLength() {
+		return maxInputLength;
+	}
+
+	/**
+	 * A getter for the number of tasks currently waiting for their turn.
+	 *
+	 * @return the current queue depth.
+	 */
+	public int getQueueDepth() {
+		return queueDepth.get();
+	}
+
+	/**
+	 * A getter for the {@link #rejected} attribute.
+	 *
+	 * @return the number of tasks that have been rejected as the queue was full.
+	 */
+	public long getRejectedCount() {
+		return rejected.get();
+	}
+
+	/* Sub-Classes */
+	/**
+	 * Thrown whenever a task is turned away or dropped due to load.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	public static class OverloadException extends Exception {
+
+		/** The class' serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		/** The time the client should wait before trying again in seconds. */
+		private final long retryAfter;
+
+		/**
+		 * Constructor for the {@link OverloadException} class.
+		 *
+		 * @param message
+		 *            the reason the task has been turned away or dropped.
+		 * @param retryAfter
+		 *            the time the client should wait before trying again in seconds.
+		 */
+		public OverloadException(String message, long retryAfter) {
+			super(message);
+			this.retryAfter = retryAfter;
+		}
+
+		/**
+		 * A getter for the {@link #retryAfter} attribute.
+		 *
+		 * @return the time the client should wait before trying again in seconds.
+		 */
+		public long getRetryAfter() {
+			return retryAfter;
+		}
+	}
+}
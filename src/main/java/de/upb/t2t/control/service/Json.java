@@ -0,0 +1,508 @@
+/**
+ *
+ */
+package de.upb.t2t.control.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * A minimal JSON reader and writer, sufficient for the bodies exchanged by the
+ * {@link TranscriptionService}, so that the service does not depend on any library but the JDK.
+ * </p>
+ * <p>
+ * {@link #parse(String)} maps JSON objects to <code>Map&lt;String, Object&gt;</code>s (keeping
+ * the order of their members), arrays to <code>List&lt;Object&gt;</code>s, strings to
+ * <code>String</code>s, numbers to <code>Double</code>s, <code>true</code> and <code>false</code>
+ * to <code>Boolean</code>s and <code>null</code> to <code>null</code>. The {@link Writer} builds
+ * JSON text by appending names and values to a <code>StringBuilder</code>, inserting commas where
+ * needed.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ */
+public final class Json {
+
+	/* Static Variables */
+	/**
+	 * The maximum nesting depth of objects and arrays, so that deeply nested input is rejected
+	 * rather than overflowing the parsing thread's stack.
+	 */
+	public static final int MAX_DEPTH = 64;
+
+	/* Static Methods */
+	/**
+	 * Parses the given JSON text.
+	 *
+	 * @param text
+	 *            the text to parse.
+	 * @return the parsed value as described by the class' documentation.
+	 * @throws IllegalArgumentException
+	 *             if the text is no valid JSON or nested deeper than {@link #MAX_DEPTH}.
+	 */
+	public static Object parse(String text) throws IllegalArgumentException {
+		Json parser = new Json(text);
+		parser.skipWhitespace();
+		Object result = parser.readValue();
+		parser.skipWhitespace();
+		if (parser.position < text.length()) {
+			throw parser.error("Unexpected trailing characters");
+		}
+		return result;
+	}
+
+	/**
+	 * Appends the given <code>String</code> to the builder as a quoted and escaped JSON string.
+	 *
+	 * @param builder
+	 *            the builder to append to.
+	 * @param string
+	 *            the string to append; <code>null</code> is appended as JSON <code>null</code>.
+	 */
+	public static void appendString(StringBuilder builder, String string) {
+		if (string == null) {
+			builder.append("null");
+			return;
+		}
+		builder.append('"');
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			switch (c) {
+			case '"':
+				builder.append("\\\"");
+				break;
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					builder.append(String.format("\\u%04x", (int) c));
+				} else {
+					builder.append(c);
+				}
+			}
+		}
+		builder.append('"');
+	}
+
+	/* Object Variables */
+	/** The text being parsed. */
+	private final String text;
+	/** The offset of the next character to read. */
+	private int position;
+	/** The number of objects and arrays enclosing the current position. */
+	private int depth;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link Json} class.
+	 *
+	 * @param text
+	 *            the text to parse.
+	 */
+	private Json(String text) {
+		this.text = text;
+	}
+
+	/* Object Methods */
+	/**
+	 * Reads the value starting at the current position.
+	 *
+	 * @return the value.
+	 */
+	private Object readValue() {
+		if (position >= text.length()) {
+			throw error("Unexpected end of input");
+		}
+		char c = text.charAt(position);
+		switch (c) {
+		case '{':
+		case '[':
+			if (depth >= MAX_DEPTH) {
+				throw error("Nesting deeper than " + MAX_DEPTH + " levels");
+			}
+			depth++;
+			Object result = c == '{' ? readObject() : readArray();
+			depth--;
+			return result;
+		case '"':
+			return readString();
+		case 't':
+			return readLiteral("true", Boolean.TRUE);
+		case 'f':
+			return readLiteral("false", Boolean.FALSE);
+		case 'n':
+			return readLiteral("null", null);
+		default:
+			if (c == '-' || (c >= '0' && c <= '9')) {
+				return readNumber();
+			}
+			throw error("Unexpected character '" + c + "'");
+		}
+	}
+
+	/**
+	 * Reads the object starting at the current position.
+	 *
+	 * @return the object's members.
+	 */
+	private Map<String, Object> readObject() {
+		Map<String, Object> result = new LinkedHashMap<String, Object>();
+		position++;
+		skipWhitespace();
+		if (peek() == '}') {
+			position++;
+			return result;
+		}
+		while (true) {
+			skipWhitespace();
+			if (peek() != '"') {
+				throw error("Expected a member name");
+			}
+			String name = readString();
+			skipWhitespace();
+			expect(':');
+			skipWhitespace();
+			result.put(name, readValue());
+			skipWhitespace();
+			if (peek() == ',') {
+				position++;
+			} else {
+				expect('}');
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * Reads the array starting at the current position.
+	 *
+	 * @return the array's elements.
+	 */
+	private List<Object> readArray() {
+		List<Object> result = new ArrayList<Object>();
+		position++;
+		skipWhitespace();
+		if (peek() == ']') {
+			position++;
+			return result;
+		}
+		while (true) {
+			skipWhitespace();
+			result.add(readValue());
+			skipWhitespace();
+			if (peek() == ',') {
+				position++;
+			} else {
+				expect(']');
+				return result;
+			}
+		}
+	}
+
+	/**
+	 * Reads the string starting at the current position, resolving all escape sequences.
+	 *
+	 * @return the string.
+	 */
+	private String readString() {
+		StringBuilder builder = new StringBuilder();
+		position++;
+		while (true) {
+			if (position >= text.length()) {
+				throw error("Unterminated string");
+			}
+			char c = text.charAt(position++);
+			if (c == '"') {
+				return builder.toString();
+			}
+			if (c != '\\') {
+				builder.append(c);
+				continue;
+			}
+			if (position >= text.length()) {
+				throw error("Unterminated escape sequence");
+			}
+			char escaped = text.charAt(position++);
+			switch (escaped) {
+			case '"':
+			case '\\':
+			case '/':
+				builder.append(escaped);
+				break;
+			case 'b':
+				builder.append('\b');
+				break;
+			case 'f':
+				builder.append('\f');
+				break;
+			case 'n':
+				builder.append('\n');
+				break;
+			case 'r':
+				builder.append('\r');
+				break;
+			case 't':
+				builder.append('\t');
+				break;
+			case 'u':
+				if (position + 4 > text.length()) {
+					throw error("Incomplete unicode escape");
+				}
+				try {
+					builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+				} catch (NumberFormatException e) {
+					throw error("Invalid unicode escape");
+				}
+				position += 4;
+				break;
+			default:
+				throw error("Invalid escape sequence '\\" + escaped + "'");
+			}
+		}
+	}
+
+	/**
+	 * Reads the number starting at the current position.
+	 *
+	 * @return the number.
+	 */
+	private Double readNumber() {
+		int start = position;
+		while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+			position++;
+		}
+		try {
+			return Double.valueOf(text.substring(start, position));
+		} catch (NumberFormatException e) {
+			throw error("Invalid number");
+		}
+	}
+
+	/**
+	 * Reads the given literal.
+	 *
+	 * @param literal
+	 *            the literal expected at the current position.
+	 * @param value
+	 *            the value the literal stands for.
+	 * @return the value.
+	 */
+	private Object readLiteral(String literal, Object value) {
+		if (!text.startsWith(literal, position)) {
+			throw error("Invalid literal");
+		}
+		position += literal.length();
+		return value;
+	}
+
+	/**
+	 * Skips any whitespace at the current position.
+	 */
+	private void skipWhitespace() {
+		while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+			position++;
+		}
+	}
+
+	/**
+	 * Returns the character at the current position without consuming it.
+	 *
+	 * @return the character; <code>0</code> at the end of the input.
+	 */
+	private char peek() {
+		return position < text.length() ? text.charAt(position) : 0;
+	}
+
+	/**
+	 * Consumes the given character.
+	 *
+	 * @param c
+	 *            the character expected at the current position.
+	 */
+	private void expect(char c) {
+		if (peek() != c) {
+			throw error("Expected '" + c + "'");
+		}
+		position++;
+	}
+
+	/**
+	 * Creates an exception describing a syntax error at the current position.
+	 *
+	 * @param message
+	 *            the description of the error.
+	 * @return the exception.
+	 */
+	private IllegalArgumentException error(String message) {
+		return new IllegalArgumentException(message + " at position " + position + "!");
+	}
+
+	/* Getters and Setters */
+
+	/* Sub-Classes */
+	/**
+	 * Builds JSON text by appending names and values to a <code>StringBuilder</code>. Commas
+	 * between the members of an object or the elements of an array are inserted automatically.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	public static class Writer {
+
+		/** The builder holding the text written so far. */
+		private final StringBuilder builder;
+		/** Indicates whether or not the next value needs to be preceded by a comma. */
+		private boolean needsComma;
+
+		/**
+		 * Constructor for the {@link Writer} class.
+		 */
+		public Writer() {
+			builder = new StringBuilder();
+		}
+
+		/**
+		 * Opens a new object.
+		 *
+		 * @return this writer.
+		 */
+		public Writer beginObject() {
+			separate();
+			builder.append('{');
+			needsComma = false;
+			return this;
+		}
+
+		/**
+		 * Closes the current object.
+		 *
+		 * @return this writer.
+		 */
+		public Writer endObject() {
+			builder.append('}');
+			needsComma = true;
+			return this;
+		}
+
+		/**
+		 * Opens a new array.
+		 *
+		 * @return this writer.
+		 */
+		public Writer beginArray() {
+			separate();
+			builder.append('[');
+			needsComma = false;
+			return this;
+		}
+
+		/**
+		 * Closes the current array.
+		 *
+		 * @return this writer.
+		 */
+		public Writer endArray() {
+			builder.append(']');
+			needsComma = true;
+			return this;
+		}
+
+		/**
+		 * Writes the name of the next member of the current object.
+		 *
+		 * @param name
+		 *            the member's name.
+		 * @return this writer.
+		 */
+		public Writer name(String name) {
+			separate();
+			appendString(builder, name);
+			builder.append(':');
+			needsComma = false;
+			return this;
+		}
+
+		/**
+		 * Writes a string value.
+		 *
+		 * @param value
+		 *            the value; may be <code>null</code>.
+		 * @return this writer.
+		 */
+		public Writer value(String value) {
+			separate();
+			appendString(builder, value);
+			needsComma = true;
+			return this;
+		}
+
+		/**
+		 * Writes a numeric value.
+		 *
+		 * @param value
+		 *            the value.
+		 * @return this writer.
+		 */
+		public Writer value(long value) {
+			separate();
+			builder.append(value);
+			needsComma = true;
+			return this;
+		}
+
+		/**
+		 * Writes a numeric value.
+		 *
+		 * @param value
+		 *            the value; written as <code>null</code> if it is not finite.
+		 * @return this writer.
+		 */
+		public Writer value(double value) {
+			separate();
+			builder.append(Double.isNaN(value) || Double.isInfinite(value) ? "null" : String.valueOf(value));
+			needsComma = true;
+			return this;
+		}
+
+		/**
+		 * Writes a boolean value.
+		 *
+		 * @param value
+		 *            the value.
+		 * @return this writer.
+		 */
+		public Writer value(boolean value) {
+			separate();
+			builder.append(value);
+			needsComma = true;
+			return this;
+		}
+
+		/**
+		 * Inserts a comma if the next value is not the first one of its object or array.
+		 */
+		private void separate() {
+			if (needsComma) {
+				builder.append(',');
+				needsComma = false;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return builder.toString();
+		}
+	}
+}
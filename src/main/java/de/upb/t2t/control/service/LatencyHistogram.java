@@ -0,0 +1,148 @@
+/**
+ *
+ */
+package de.upb.t2t.control.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free histogram of request latencies. Latencies are counted in fixed buckets growing in a
+ * 1-2-5 progression from 0.1 ms up to 10 s, plus an overflow bucket, so that recording a latency
+ * costs a few atomic increments regardless of the number of requests. Percentiles are estimated
+ * by the upper bound of the bucket they fall into, capped at the highest latency recorded.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see TranscriptionService
+ */
+public class LatencyHistogram {
+
+	/* Static Variables */
+	/** The upper bounds of all buckets but the overflow one in microseconds. */
+	private static final long[] BOUNDS = { 100, 200, 500, 1000, 2000, 5000, 10000, 20000, 50000, 100000, 200000,
+			500000, 1000000, 2000000, 5000000, 10000000 };
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The number of latencies per bucket, the last one being the overflow bucket. */
+	private final AtomicLongArray counts;
+	/** The number of latencies recorded. */
+	private final AtomicLong count;
+	/** The number of recorded requests that failed. */
+	private final AtomicLong errors;
+	/** The sum of all latencies in microseconds. */
+	private final AtomicLong total;
+	/** The highest latency in microseconds. */
+	private final AtomicLong max;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link LatencyHistogram} class.
+	 */
+	public LatencyHistogram() {
+		counts = new AtomicLongArray(BOUNDS.length + 1);
+		count = new AtomicLong();
+		errors = new AtomicLong();
+		total = new AtomicLong();
+		max = new AtomicLong();
+	}
+
+	/* Object Methods */
+	/**
+	 * Records the latency of a request.
+	 *
+	 * @param nanos
+	 *            the latency in nanoseconds.
+	 * @param error
+	 *            whether or not the request failed.
+	 */
+	public void record(long nanos, boolean error) {
+		long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+		int bucket = 0;
+		while (bucket < BOUNDS.length && micros > BOUNDS[bucket]) {
+			bucket++;
+		}
+		counts.incrementAndGet(bucket);
+		count.incrementAndGet();
+		total.addAndGet(micros);
+		if (error) {
+			errors.incrementAndGet();
+		}
+		long current;
+		while ((current = max.get()) < micros && !max.compareAndSet(current, micros)) {
+			// Try again.
+		}
+	}
+
+	/**
+	 * Estimates the given percentile.
+	 *
+	 * @param percentile
+	 *            the percentile between <code>0</code> and <code>100</code>.
+	 * @return the upper bound of the bucket the percentile falls into or the highest latency,
+	 *         whichever is lower, in milliseconds; <code>0</code> if nothing has been recorded
+	 *         yet.
+	 */
+	public double getPercentile(double percentile) {
+		long recorded = count.get();
+		if (recorded == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(recorded * percentile / 100.0);
+		long seen = 0;
+		for (int i = 0; i < BOUNDS.length; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(BOUNDS[i], max.get()) / 1000.0;
+			}
+		}
+		return max.get() / 1000.0;
+	}
+
+	/**
+	 * Writes the histogram as a JSON object holding its count, errors, mean, maximum, 50th, 90th
+	 * and 99th percentile and the counts of all non-empty buckets.
+	 *
+	 * @param json
+	 *            the writer to write to.
+	 */
+	public void writeTo(Json.Writer json) {
+		long recorded = count.get();
+		json.beginObject();
+		json.name("count").value(recorded);
+		json.name("errors").value(errors.get());
+		json.name("meanMillis").value(recorded == 0 ? 0 : total.get() / 1000.0 / recorded);
+		json.name("maxMillis").value(max.get() / 1000.0);
+		json.name("p50Millis").value(getPercentile(50));
+		json.name("p90Millis").value(getPercentile(90));
+		json.name("p99Millis").value(getPercentile(99));
+		json.name("buckets").beginArray();
+		for (int i = 0; i <= BOUNDS.length; i++) {
+			long bucketCount = counts.get(i);
+			if (bucketCount > 0) {
+				json.beginObject();
+				if (i < BOUNDS.length) {
+					json.name("leMillis").value(BOUNDS[i] / 1000.0);
+				} else {
+					json.name("leMillis").value((String) null);
+				}
+				json.name("count").value(bucketCount);
+				json.endObject();
+			}
+		}
+		json.endArray();
+		json.endObject();
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the number of recorded latencies.
+	 *
+	 * @return the number of recorded latencies.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+}
@@ -0,0 +1,308 @@
+/**
+ *
+ */
+package de.upb.t2t.control.service;
+
+import java.text.Normalizer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import de.upb.t2t.control.database.AbstractSQLiteBridge;
+import de.upb.t2t.control.database.LexiconListener;
+import de.upb.t2t.control.database.LookupCache;
+import de.upb.t2t.control.service.AdmissionController.OverloadException;
+import de.upb.t2t.model.Variety;
+
+/**
+ * <p>
+ * Keeps the responses of the {@link TranscriptionService} keyed by their normalised input and
+ * preferred variety (see {@link #normalise(String)}). Completed responses are held by a bounded
+ * {@link LookupCache}, while identical requests arriving during a computation are coalesced: only
+ * the first one computes the response, all others wait for and share its outcome, including
+ * exceptions. How long and how many of them may wait is up to the {@link Joiner} each one gives.
+ * The one exception not shared is an {@link OverloadException}, as it results from the first
+ * request's own deadline or from the load at its arrival: any request waiting for it starts over
+ * instead, either joining another computation or computing the response itself.
+ * </p>
+ * <p>
+ * Since any sentence may contain any lemma, each change of the lexicon reported to
+ * {@link #onLexiconChanged(String)} discards all cached responses. Computations in progress are
+ * neither cached nor joined by requests arriving after the change.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see AbstractSQLiteBridge#addLexiconListener(LexiconListener)
+ */
+public class ResultCache implements LexiconListener {
+
+	/* Static Variables */
+	/** Matches all runs of horizontal whitespace. */
+	private static final Pattern HORIZONTAL_WHITESPACE = Pattern.compile("[\\h]+");
+	/** Matches all line breaks but the plain line feed. */
+	private static final Pattern LINE_BREAK = Pattern.compile("\\r\\n?|[\\u0085\\u2028\\u2029]");
+
+	/* Static Methods */
+	/**
+	 * Normalises the given input, so that inputs differing in nothing but their encoding or
+	 * spacing share one cache entry. The input is brought into Unicode normalisation form C, all
+	 * line breaks are replaced by line feeds, each run of horizontal whitespace is replaced by a
+	 * single space and leading and trailing whitespace is removed. Line feeds are kept, as they
+	 * separate paragraphs.
+	 *
+	 * @param text
+	 *            the input to normalise.
+	 * @return the normalised input.
+	 */
+	public static String normalise(String text) {
+		text = Normalizer.normalize(text, Normalizer.Form.NFC);
+		text = LINE_BREAK.matcher(text).replaceAll("\n");
+		return HORIZONTAL_WHITESPACE.matcher(text).replaceAll(" ").trim();
+	}
+
+	/* Object Variables */
+	/** The completed responses; <code>null</code> if they should not be kept. */
+	private final LookupCache<Key, String> cache;
+	/** The computations in progress, mapped to by their keys. */
+	private final ConcurrentHashMap<Key, CompletableFuture<String>> inFlight;
+	/** The number of requests. */
+	private final AtomicLong requests;
+	/** The number of requests that joined a computation in progress. */
+	private final AtomicLong coalesced;
+	/** The number of responses that have been computed. */
+	private final AtomicLong computations;
+	/** The number of times the cache has been invalidated. */
+	private final AtomicLong invalidations;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link ResultCache} class.
+	 *
+	 * @param capacity
+	 *            the maximum number of responses to keep; <code>0</code> or less to only coalesce
+	 *            identical requests in progress.
+	 */
+	public ResultCache(int capacity) {
+		cache = capacity > 0 ? new LookupCache<Key, String>(capacity) : null;
+		inFlight = new ConcurrentHashMap<Key, CompletableFuture<String>>();
+		requests = new AtomicLong();
+		coalesced = new AtomicLong();
+		computations = new AtomicLong();
+		invalidations = new AtomicLong();
+	}
+
+	/* Object Methods */
+	/**
+	 * Returns the response for the given input and variety. It is answered from the cache if
+	 * possible. Otherwise, it is either computed by the given loader or, should an identical
+	 * request already be in progress, taken from that one.
+	 *
+	 * @param text
+	 *            the input as given by the client.
+	 * @param variety
+	 *            the preferred variety.
+	 * @param loader
+	 *            computes the response from the normalised input.
+	 * @param joiner
+	 *            waits for the identical computation in progress, if there is any.
+	 * @return the response.
+	 * @throws Exception
+	 *             if the loader throws one, either on this thread or on the one this request has
+	 *             been coalesced with, or if the joiner throws one. An {@link OverloadException}
+	 *             thrown by the loader on another thread is never passed on, but makes this request
+	 *             start over.
+	 */
+	public String get(String text, Variety variety, Loader loader, Joiner joiner) throws Exception {
+
+		requests.incrementAndGet();
+		Key key = new Key(normalise(text), variety);
+		CompletableFuture<String> own = new CompletableFuture<String>();
+		while (true) {
+			if (cache != null) {
+				String cached = cache.get(key);
+				if (cached != null) {
+					return cached;
+				}
+			}
+
+			// Join an identical computation in progress, if there is any.
+			CompletableFuture<String> running = inFlight.putIfAbsent(key, own);
+			if (running == null) {
+				break;
+			}
+			coalesced.incrementAndGet();
+			try {
+				return joiner.join(running);
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof OverloadException) {
+					// Turned away on behalf of the first request only, so start over.
+					inFlight.remove(key, running);
+					continue;
+				}
+				if (cause instanceof Exception) {
+					throw (Exception) cause;
+				}
+				throw (Error) cause;
+			}
+		}
+
+		try {
+			computations.incrementAndGet();
+			long generation = cache == null ? 0 : cache.getGeneration();
+			String result = loader.load(key.text, variety);
+			if (cache != null) {
+				cache.put(key, result, generation);
+			}
+			own.complete(result);
+			return result;
+		} catch (Throwable t) {
+			own.completeExceptionally(t);
+			throw t;
+		} finally {
+			inFlight.remove(key, own);
+		}
+	}
+
+	/**
+	 * Discards all cached responses and keeps later requests from joining the computations in
+	 * progress.
+	 */
+	@Override
+	public void onLexiconChanged(String lemma) {
+		invalidations.incrementAndGet();
+		inFlight.clear();
+		if (cache != null) {
+			cache.invalidateAll();
+		}
+	}
+
+	/**
+	 * Writes the cache's statistics as a JSON object, including its hit rate and the rate of
+	 * coalesced requests.
+	 *
+	 * @param json
+	 *            the writer to write to.
+	 */
+	public void writeTo(Json.Writer json) {
+		long requestCount = requests.get();
+		long hits = cache == null ? 0 : cache.getHitCount();
+		json.beginObject();
+		json.name("capacity").value(cache == null ? 0 : cache.getCapacity());
+		json.name("size").value(cache == null ? 0 : cache.size());
+		json.name("requests").value(requestCount);
+		json.name("hits").value(hits);
+		json.name("coalesced").value(coalesced.get());
+		json.name("computations").value(computations.get());
+		json.name("evictions").value(cache == null ? 0 : cache.getEvictionCount());
+		json.name("invalidations").value(invalidations.get());
+		json.name("hitRate").value(requestCount == 0 ? 0 : (double) hits / requestCount);
+		json.name("coalescingRate").value(requestCount == 0 ? 0 : (double) coalesced.get() / requestCount);
+		json.endObject();
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the number of requests that have been answered from the cache.
+	 *
+	 * @return the number of cache hits.
+	 */
+	public long getHitCount() {
+		return cache == null ? 0 : cache.getHitCount();
+	}
+
+	/**
+	 * A getter for the number of requests that joined an identical computation in progress.
+	 *
+	 * @return the number of coalesced requests.
+	 */
+	public long getCoalescedCount() {
+		return coalesced.get();
+	}
+
+	/* Sub-Classes */
+	/**
+	 * Computes a response.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	public interface Loader {
+
+		/**
+		 * Computes the response for the given input.
+		 *
+		 * @param text
+		 *            the normalised input.
+		 * @param variety
+		 *            the preferred variety.
+		 * @return the response.
+		 * @throws Exception
+		 *             if the response cannot be computed.
+		 */
+		public String load(String text, Variety variety) throws Exception;
+	}
+
+	/**
+	 * Waits for the outcome of an identical computation in progress.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	public interface Joiner {
+
+		/**
+		 * Waits for the given computation to finish.
+		 *
+		 * @param running
+		 *            the computation in progress.
+		 * @return the computed response.
+		 * @throws ExecutionException
+		 *             if the computation has thrown an exception.
+		 * @throws Exception
+		 *             if the request must not wait or not any longer.
+		 */
+		public String join(Future<String> running) throws ExecutionException, Exception;
+	}
+
+	/**
+	 * The key of a response, consisting of its normalised input and preferred variety.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class Key {
+
+		/** The normalised input. */
+		private final String text;
+		/** The preferred variety. */
+		private final Variety variety;
+
+		/**
+		 * Constructor for the {@link Key} class.
+		 *
+		 * @param text
+		 *            the normalised input.
+		 * @param variety
+		 *            the preferred variety.
+		 */
+		private Key(String text, Variety variety) {
+			this.text = text;
+			this.variety = variety;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return text.equals(other.text) && (variety == null ? other.variety == null : variety.equals(other.variety));
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * text.hashCode() + (variety == null ? 0 : variety.getAbbreviation().hashCode());
+		}
+	}
+}
@@ -0,0 +1,598 @@
+/**
+ *
+ */
+package de.upb.t2t.control.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import de.upb.t2t.control.database.AbstractSQLiteBridge;
+import de.upb.t2t.control.scheduling.CancellationToken;
+import de.upb.t2t.control.transcription.TranscriptionEngine;
+import de.upb.t2t.model.TranscriptionItem;
+import de.upb.t2t.model.TranscriptionPart;
+import de.upb.t2t.model.TranscriptionResult;
+import de.upb.t2t.model.TranscriptionSentence;
+import de.upb.t2t.model.TranscriptionToken;
+import de.upb.t2t.model.Variety;
+
+/**
+ * <p>
+ * Exposes the transcription pipeline over HTTP by means of the JDK's built-in
+ * <code>com.sun.net.httpserver</code>, so that it can be called from web applications and load
+ * tested locally without any external service. Requests are handled by a fixed pool of worker
+ * threads, all of them sharing a single {@link TranscriptionEngine} and therefore the in-process
+ * lexicon of the {@link AbstractSQLiteBridge}. The following endpoints are provided:
+ * </p>
+ * <ul>
+ * <li><code>POST /transcribe</code>: transcribes the <code>text</code> member of the JSON request
+ * body, preferring the variety given by its optional <code>variety</code> member. The optional
+ * <code>timeout</code> member shortens the request's deadline in milliseconds. The response
+ * holds the phonetic transcription as well as all sentences with their tokens, parts, candidates
+ * and selected items.</li>
+ * <li><code>GET /metrics</code>: a {@link LatencyHistogram} per endpoint and the statistics of the
+ * {@link ResultCache} and of the {@link AdmissionController}.</li>
+ * <li><code>GET /health</code>: a simple liveness check.</li>
+ * </ul>
+ * <p>
+ * As classroom traffic is highly repetitive, transcriptions are served by a {@link ResultCache},
+ * which coalesces identical requests in progress and keeps completed responses until the lexicon
+ * changes. Offsets inside a response therefore refer to the normalised input as returned by
+ * {@link ResultCache#normalise(String)}. Transcriptions that have to be computed pass an
+ * {@link AdmissionController}, which bounds the number of transcriptions running and waiting, as
+ * well as the number of requests waiting for an identical transcription, each for no longer than
+ * its own deadline.
+ * Requests it turns away are answered with <code>503</code> and a <code>Retry-After</code>
+ * header, while inputs exceeding its maximum length are answered with <code>413</code>.
+ * </p>
+ * <p>
+ * Errors are answered with the matching status code and a JSON body holding an
+ * <code>error</code> message.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see Json
+ */
+public class TranscriptionService {
+
+	/* Static Variables */
+	/** The port the service listens on by default. */
+	public static final int DEFAULT_PORT = 8080;
+	/** The number of responses kept by the {@link ResultCache} by default. */
+	public static final int DEFAULT_CACHE_CAPACITY = 1024;
+	/**
+	 * The number of worker threads beyond those the {@link AdmissionController} may block, so that
+	 * requests can be rejected and metrics be served even while it is saturated.
+	 */
+	private static final int SPARE_THREADS = 4;
+	/** The maximum size of a request body in bytes. */
+	public static final int MAX_BODY_SIZE = 1024 * 1024;
+	/** The path of the transcription endpoint. */
+	public static final String TRANSCRIBE_PATH = "/transcribe";
+	/** The path of the metrics endpoint. */
+	public static final String METRICS_PATH = "/metrics";
+	/** The path of the health endpoint. */
+	public static final String HEALTH_PATH = "/health";
+
+	/* Static Methods */
+	/**
+	 * Writes the given item as a JSON object.
+	 *
+	 * @param json
+	 *            the writer to write to.
+	 * @param item
+	 *            the item to write; may be <code>null</code>.
+	 */
+	private static void writeItem(Json.Writer json, TranscriptionItem item) {
+		if (item == null) {
+			json.value((String) null);
+			return;
+		}
+		json.beginObject();
+		json.name("id").value(item.getId());
+		json.name("lemma").value(item.getLemma());
+		json.name("phonetic").value(item.getPhoneticString());
+		json.name("type").value(item.getTransType() == null ? null : item.getTransType().getAbbreviation());
+		json.name("wordClass").value(item.getWordClass() == null ? null : item.getWordClass().getAbbreviation());
+		json.name("variety").value(item.getVariety() == null ? null : item.getVariety().getAbbreviation());
+		json.endObject();
+	}
+
+	/**
+	 * Writes the given result as a JSON object.
+	 *
+	 * @param json
+	 *            the writer to write to.
+	 * @param result
+	 *            the result to write.
+	 * @param variety
+	 *            the variety that has been preferred.
+	 */
+	private static void writeResult(Json.Writer json, TranscriptionResult result, Variety variety) {
+		json.beginObject();
+		json.name("variety").value(variety.getAbbreviation());
+		json.name("transcription").value(result.getPhoneticString());
+		json.name("sentences").beginArray();
+		for (TranscriptionSentence sentence : result.getSentences()) {
+			json.beginObject();
+			json.name("start").value(sentence.getStart());
+			json.name("end").value(sentence.getEnd());
+			json.name("paragraphStart").value(sentence.isParagraphStart());
+			json.name("tokens").beginArray();
+			for (TranscriptionToken token : sentence.getTokens()) {
+				json.beginObject();
+				json.name("type").value(token.getType().name());
+				json.name("start").value(token.getStart());
+				json.name("end").value(token.getEnd());
+				json.name("leading").value(token.getLeading());
+				json.name("text").value(token.getText());
+				json.name("trailing").value(token.getTrailing());
+				json.name("parts").beginArray();
+				for (TranscriptionPart part : token.getParts()) {
+					json.beginObject();
+					json.name("display").value(part.getDisplayString());
+					if (part.isDelimiter()) {
+						json.name("delimiter").value(part.getDelimiter());
+					} else {
+						json.name("lemma").value(part.getLemma());
+						json.name("unknown").value(part.isUnknown());
+						json.name("conflict").value(part.hasConflict());
+						json.name("selected");
+						writeItem(json, part.getSelectedItem());
+						json.name("candidates").beginArray();
+						for (TranscriptionItem candidate : part.getCandidates()) {
+							writeItem(json, candidate);
+						}
+						json.endArray();
+					}
+					json.endObject();
+				}
+				json.endArray();
+				json.endObject();
+			}
+			json.endArray();
+			json.endObject();
+		}
+		json.endArray();
+		json.endObject();
+	}
+
+	/**
+	 * Reads the body of the given exchange.
+	 *
+	 * @param exchange
+	 *            the exchange to read the body of.
+	 * @return the body decoded as UTF-8.
+	 * @throws IOException
+	 *             if reading the body fails.
+	 * @throws RequestException
+	 *             if the body exceeds {@link #MAX_BODY_SIZE}.
+	 */
+	private static String readBody(HttpExchange exchange) throws IOException, RequestException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		try (InputStream in = exchange.getRequestBody()) {
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				body.write(buffer, 0, read);
+				if (body.size() > MAX_BODY_SIZE) {
+					throw new RequestException(413, "The request body exceeds " + MAX_BODY_SIZE + " bytes.");
+				}
+			}
+		}
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Sends the given JSON body with the given status code and closes the exchange.
+	 *
+	 * @param exchange
+	 *            the exchange to respond to.
+	 * @param status
+	 *            the status code.
+	 * @param body
+	 *            the JSON body.
+	 * @throws IOException
+	 *             if writing the response fails.
+	 */
+	private static void send(HttpExchange exchange, int status, String body) throws IOException {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+		exchange.sendResponseHeaders(status, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		}
+	}
+
+	/* Object Variables */
+	/** The {@link Logger} instance associated with this class. */
+	private final Logger logger;
+	/** The engine shared by all workers. */
+	private final TranscriptionEngine engine;
+	/** The port to listen on; <code>0</code> for any free one. */
+	private final int port;
+	/** The number of worker threads. */
+	private final int threadCount;
+	/** Guards the engine against overload. */
+	private final AdmissionController admission;
+	/** The latency histograms of all endpoints, mapped to by the endpoints' paths. */
+	private final Map<String, LatencyHistogram> histograms;
+	/** Coalesces and caches the responses of the {@link #TRANSCRIBE_PATH} endpoint. */
+	private final ResultCache resultCache;
+	/** The HTTP server; <code>null</code> unless the service is running. */
+	private HttpServer server;
+	/** The worker threads handling the requests; <code>null</code> unless the service is running. */
+	private ExecutorService workers;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link TranscriptionService} class keeping up to
+	 * {@link #DEFAULT_CACHE_CAPACITY} responses.
+	 *
+	 * @param engine
+	 *            the engine to share among all workers.
+	 * @param port
+	 *            the port to listen on; <code>0</code> for any free one.
+	 * @param threadCount
+	 *            the number of transcriptions running at the same time; <code>0</code> or less
+	 *            for one per available processor.
+	 */
+	public TranscriptionService(TranscriptionEngine engine, int port, int threadCount) {
+		this(engine, port, threadCount, DEFAULT_CACHE_CAPACITY);
+	}
+
+	/**
+	 * Constructor for the {@link TranscriptionService} class applying the default limits of the
+	 * {@link AdmissionController}.
+	 *
+	 * @param engine
+	 *            the engine to share among all workers.
+	 * @param port
+	 *            the port to listen on; <code>0</code> for any free one.
+	 * @param threadCount
+	 *            the number of transcriptions running at the same time; <code>0</code> or less
+	 *            for one per available processor.
+	 * @param cacheCapacity
+	 *            the maximum number of responses to keep; <code>0</code> or less to only coalesce
+	 *            identical requests in progress.
+	 */
+	public TranscriptionService(TranscriptionEngine engine, int port, int threadCount, int cacheCapacity) {
+		this(engine, port, cacheCapacity, new AdmissionController(threadCount,
+				AdmissionController.DEFAULT_QUEUE_CAPACITY, AdmissionController.DEFAULT_DEADLINE,
+				AdmissionController.DEFAULT_MAX_INPUT_LENGTH));
+	}
+
+	/**
+	 * Constructor for the {@link TranscriptionService} class. The number of worker threads is
+	 * derived from the admission controller's concurrency, queue capacity and follower capacity.
+	 *
+	 * @param engine
+	 *            the engine to share among all workers.
+	 * @param port
+	 *            the port to listen on; <code>0</code> for any free one.
+	 * @param cacheCapacity
+	 *            the maximum number of responses to keep; <code>0</code> or less to only coalesce
+	 *            identical requests in progress.
+	 * @param admission
+	 *            the controller guarding the engine against overload.
+	 */
+	public TranscriptionService(TranscriptionEngine engine, int port, int cacheCapacity,
+			AdmissionController admission) {
+		logger = Logger.getLogger(getClass().getName());
+		this.engine = engine;
+		this.port = port;
+		this.admission = admission;
+		threadCount = admission.getConcurrency() + admission.getQueueCapacity() + admission.getFollowerCapacity()
+				+ SPARE_THREADS;
+		Map<String, LatencyHistogram> histograms = new LinkedHashMap<String, LatencyHistogram>();
+		for (String path : new String[] { TRANSCRIBE_PATH, METRICS_PATH, HEALTH_PATH }) {
+			histograms.put(path, new LatencyHistogram());
+		}
+		this.histograms = Collections.unmodifiableMap(histograms);
+		resultCache = new ResultCache(cacheCapacity);
+	}
+
+	/* Object Methods */
+	/**
+	 * Starts listening for requests.
+	 *
+	 * @throws IOException
+	 *             if the server cannot be bound to the port.
+	 * @throws IllegalStateException
+	 *             if the service is already running.
+	 */
+	public synchronized void start() throws IOException {
+
+		if (server != null) {
+			throw new IllegalStateException("The service is already running!");
+		}
+
+		AtomicInteger threadNumber = new AtomicInteger();
+		workers = Executors.newFixedThreadPool(threadCount, (Runnable runnable) -> {
+			Thread thread = new Thread(runnable, "Transcription Service Worker " + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		server = HttpServer.create(new InetSocketAddress(port), 0);
+		server.setExecutor(workers);
+		register(TRANSCRIBE_PATH, "POST", this::handleTranscribe);
+		register(METRICS_PATH, "GET", this::handleMetrics);
+		register(HEALTH_PATH, "GET", this::handleHealth);
+		AbstractSQLiteBridge.getInstance().addLexiconListener(resultCache);
+		server.start();
+
+		logger.info("Transcription service listening on port " + getPort() + " with " + threadCount + " workers.");
+	}
+
+	/**
+	 * Stops the service, giving the requests in progress the given time to finish.
+	 *
+	 * @param delay
+	 *            the maximum time to wait for the requests in progress in seconds.
+	 */
+	public synchronized void stop(int delay) {
+		if (server == null) {
+			return;
+		}
+		logger.info("Stopping transcription service ...");
+		server.stop(delay);
+		AbstractSQLiteBridge.getInstance().removeLexiconListener(resultCache);
+		workers.shutdown();
+		try {
+			workers.awaitTermination(delay, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		workers.shutdownNow();
+		server = null;
+		workers = null;
+	}
+
+	/**
+	 * Registers the given endpoint under the given path. Each request is timed and recorded by the
+	 * path's {@link LatencyHistogram}, including requests using the wrong method and failing ones.
+	 *
+	 * @param path
+	 *            the endpoint's path.
+	 * @param method
+	 *            the HTTP method the endpoint accepts.
+	 * @param endpoint
+	 *            the endpoint.
+	 */
+	private void register(String path, String method, Endpoint endpoint) {
+		LatencyHistogram histogram = histograms.get(path);
+		server.createContext(path, (HttpExchange exchange) -> {
+			long start = System.nanoTime();
+			int status = 500;
+			try {
+				String body;
+				try {
+					if (!exchange.getRequestMethod().equalsIgnoreCase(method)) {
+						exchange.getResponseHeaders().set("Allow", method);
+						throw new RequestException(405, "Only " + method + " is supported.");
+					}
+					if (!exchange.getRequestURI().getPath().equals(path)) {
+						throw new RequestException(404, "Unknown path: " + exchange.getRequestURI().getPath());
+					}
+					body = endpoint.handle(exchange);
+					status = 200;
+				} catch (AdmissionController.OverloadException e) {
+					status = 503;
+					exchange.getResponseHeaders().set("Retry-After", String.valueOf(e.getRetryAfter()));
+					body = new Json.Writer().beginObject().name("error").value(e.getMessage()).name("retryAfter")
+							.value(e.getRetryAfter()).endObject().toString();
+				} catch (RequestException e) {
+					status = e.status;
+					body = new Json.Writer().beginObject().name("error").value(e.getMessage()).endObject().toString();
+				} catch (Exception e) {
+					logger.log(Level.SEVERE, "Exception while handling " + path + "!", e);
+					body = new Json.Writer().beginObject().name("error").value(e.toString()).endObject().toString();
+				}
+				send(exchange, status, body);
+			} catch (IOException e) {
+				logger.log(Level.FINE, "Unable to respond to " + path + ".", e);
+			} finally {
+				exchange.close();
+				histogram.record(System.nanoTime() - start, status >= 400);
+			}
+		});
+	}
+
+	/**
+	 * Handles a request of the {@link #TRANSCRIBE_PATH} endpoint.
+	 *
+	 * @param exchange
+	 *            the exchange to handle.
+	 * @return the JSON response body.
+	 * @throws RequestException
+	 *             if the request body is invalid.
+	 * @throws AdmissionController.OverloadException
+	 *             if the {@link #admission} controller turns the request away.
+	 * @throws Exception
+	 *             if the engine throws one.
+	 */
+	private String handleTranscribe(HttpExchange exchange) throws RequestException, Exception {
+
+		Object request;
+		try {
+			request = Json.parse(readBody(exchange));
+		} catch (IllegalArgumentException e) {
+			throw new RequestException(400, "Invalid JSON: " + e.getMessage());
+		}
+		if (!(request instanceof Map) || !(((Map<?, ?>) request).get("text") instanceof String)) {
+			throw new RequestException(400, "The request body must be an object with a \"text\" member.");
+		}
+		Map<?, ?> members = (Map<?, ?>) request;
+		String text = (String) members.get("text");
+		if (!admission.accepts(text)) {
+			throw new RequestException(413, "The text exceeds " + admission.getMaxInputLength() + " characters.");
+		}
+		Object timeout = members.get("timeout");
+		if (timeout != null && !(timeout instanceof Double && (Double) timeout > 0)) {
+			throw new RequestException(400, "The \"timeout\" member must be a positive number of milliseconds.");
+		}
+
+		Variety variety;
+		try {
+			Object name = members.get("variety");
+			variety = name instanceof String ? Variety.getVariety((String) name) : Variety.getPreferredVariety();
+		} catch (NoSuchElementException e) {
+			throw new RequestException(400, "Unknown variety: " + members.get("variety"));
+		}
+
+		// A request may have to start over after waiting, so that each attempt only gets what is
+		// left of its deadline.
+		long timeoutMillis = timeout == null ? 0 : ((Double) timeout).longValue();
+		long arrival = System.nanoTime();
+		return resultCache.get(text, variety, (String normalised, Variety preferred) -> {
+			return admission.execute(admission.getRemainingTime(timeoutMillis, arrival), (CancellationToken token) -> {
+				TranscriptionResult result = engine.transcribe(normalised, preferred, null, token);
+				Json.Writer json = new Json.Writer();
+				writeResult(json, result, preferred);
+				return json.toString();
+			});
+		}, (Future<String> running) -> admission.join(admission.getRemainingTime(timeoutMillis, arrival), running));
+	}
+
+	/**
+	 * Handles a request of the {@link #METRICS_PATH} endpoint.
+	 *
+	 * @param exchange
+	 *            the exchange to handle.
+	 * @return the JSON response body.
+	 */
+	private String handleMetrics(HttpExchange exchange) {
+		Json.Writer json = new Json.Writer();
+		json.beginObject();
+		json.name("workers").value(threadCount);
+		json.name("endpoints").beginObject();
+		for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+			json.name(entry.getKey());
+			entry.getValue().writeTo(json);
+		}
+		json.endObject();
+		json.name("resultCache");
+		resultCache.writeTo(json);
+		json.name("admission");
+		admission.writeTo(json);
+		json.endObject();
+		return json.toString();
+	}
+
+	/**
+	 * Handles a request of the {@link #HEALTH_PATH} endpoint.
+	 *
+	 * @param exchange
+	 *            the exchange to handle.
+	 * @return the JSON response body.
+	 */
+	private String handleHealth(HttpExchange exchange) {
+		return new Json.Writer().beginObject().name("status").value("ok").endObject().toString();
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the port the service is listening on.
+	 *
+	 * @return the bound port while the service is running; otherwise the configured one.
+	 */
+	public synchronized int getPort() {
+		return server == null ? port : server.getAddress().getPort();
+	}
+
+	/**
+	 * A getter for the latency histogram of the given endpoint.
+	 *
+	 * @param path
+	 *            the endpoint's path.
+	 * @return the histogram; <code>null</code> if there is no such endpoint.
+	 */
+	public LatencyHistogram getHistogram(String path) {
+		return histograms.get(path);
+	}
+
+	/**
+	 * A getter for the {@link #admission} controller, e.g. to read its statistics.
+	 *
+	 * @return the service's admission controller.
+	 */
+	public AdmissionController getAdmissionController() {
+		return admission;
+	}
+
+	/**
+	 * A getter for the {@link #resultCache}, e.g. to read its statistics.
+	 *
+	 * @return the service's result cache.
+	 */
+	public ResultCache getResultCache() {
+		return resultCache;
+	}
+
+	/* Sub-Classes */
+	/**
+	 * An endpoint of the service.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private interface Endpoint {
+
+		/**
+		 * Handles a request.
+		 *
+		 * @param exchange
+		 *            the exchange to handle.
+		 * @return the JSON response body.
+		 * @throws Exception
+		 *             if the request cannot be handled; a {@link RequestException} determines the
+		 *             status code of the response.
+		 */
+		public String handle(HttpExchange exchange) throws Exception;
+	}
+
+	/**
+	 * Thrown whenever a request cannot be handled due to the client, e.g. because of an invalid
+	 * body.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class RequestException extends Exception {
+
+		/** The class' serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		/** The status code to respond with. */
+		private final int status;
+
+		/**
+		 * Constructor for the {@link RequestException} class.
+		 *
+		 * @param status
+		 *            the status code to respond with.
+		 * @param message
+		 *            the message to respond with.
+		 */
+		private RequestException(int status, String message) {
+			super(message);
+			this.status = status;
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+import de.upb.t2t.model.TranscriptionPart;
+
+/**
+ * <p>
+ * A context rule applied by the {@link PostProcessor} once all lemmas of an input have been
+ * resolved. Each rule names the lemmas it is interested in (see {@link #getLemmas()}) and is only
+ * ever called for parts holding one of these, so that rules do not have to check the lemma
+ * themselves and the cost of the post-processing does not grow with the number of rules.
+ * </p>
+ * <p>
+ * Rules must not hold any state that depends on a particular input, as a single instance is
+ * shared between all transcriptions.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see DeterminerRule
+ * @see StrongFormRule
+ */
+public abstract class AbstractPostProcessingRule {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+
+	/* Constructors */
+
+	/* Object Methods */
+	/**
+	 * A getter for the lemmas this rule applies to.
+	 *
+	 * @return the lemmas in lower case.
+	 */
+	public abstract Collection<String> getLemmas();
+
+	/**
+	 * Applies this rule to the part at the given index.
+	 *
+	 * @param context
+	 *            the context holding all parts of the input.
+	 * @param index
+	 *            the index of the part to process. The part is guaranteed to hold one of the
+	 *            lemmas returned by {@link #getLemmas()}.
+	 * @return the processed part; the very same instance if nothing needs to be changed.
+	 * @throws NoSuchElementException
+	 *             if the rule relies on a word class or variety that is unknown.
+	 */
+	public abstract TranscriptionPart apply(PostProcessingContext context, int index) throws NoSuchElementException;
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + " " + getLemmas();
+	}
+}
@@ -0,0 +1,513 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import de.upb.t2t.control.gui.UserFeedbackProvider;
+import de.upb.t2t.control.scheduling.CancellationToken;
+import de.upb.t2t.model.BatchFileResult;
+import de.upb.t2t.model.BatchReport;
+import de.upb.t2t.model.TranscriptionPart;
+import de.upb.t2t.model.TranscriptionSentence;
+import de.upb.t2t.model.TranscriptionToken;
+import de.upb.t2t.model.Variety;
+
+/**
+ * <p>
+ * Transcribes whole collections of text files, e.g. a directory of teaching material over night.
+ * The files are either all <code>*.txt</code> files inside a directory and its sub-directories or
+ * listed in a manifest, i.e. a text file naming one file per line. Blank lines and lines starting
+ * with '#' are ignored and relative paths are resolved against the manifest's directory.
+ * </p>
+ * <p>
+ * The files are distributed among a fixed number of worker threads, all of them sharing a single
+ * {@link TranscriptionEngine} and therefore the lexicon loaded by the database bridge. Each file
+ * is streamed through a {@link StreamingTranscriber} into a temporary file, which is then moved to
+ * its final location, so that an output file is either complete or absent. The output mirrors the
+ * input's directory structure, each file name being suffixed with {@link #OUTPUT_SUFFIX}. Files a
+ * manifest names outside of its directory keep their path relative to it, each step up being
+ * replaced by a directory named {@link #PARENT_DIRECTORY_NAME}. A file listed twice is only
+ * transcribed once, while a run whose files would share an output file is refused.
+ * </p>
+ * <p>
+ * Every file that has been transcribed successfully is appended to a checkpoint journal inside
+ * the output directory. Should a run crash or be cancelled, the next run on the same output
+ * directory skips all files the journal lists, provided they have not been modified since and
+ * their output still exists. Failed files are not journaled and thus retried. Finally, the run is
+ * summed up in a {@link BatchReport}.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see StreamingTranscriber
+ * @see BatchReport
+ */
+public class BatchTranscriber {
+
+	/* Static Variables */
+	/** The name of the checkpoint journal inside the output directory. */
+	public static final String JOURNAL_FILE_NAME = ".t2t-batch.journal";
+	/** The suffix replacing the extension of each input file's name. */
+	public static final String OUTPUT_SUFFIX = "_transcription.txt";
+	/** The directory name replacing each step up (<code>..</code>) in a file's relative path. */
+	public static final String PARENT_DIRECTORY_NAME = "_parent";
+
+	/* Static Methods */
+	/**
+	 * Determines the output path of the given input file.
+	 *
+	 * @param outputDirectory
+	 *            the directory to write the transcriptions to.
+	 * @param relativePath
+	 *            the input file's path relative to the batch's input.
+	 * @return the path of the file to write the transcription to.
+	 */
+	private static Path getOutputPath(Path outputDirectory, String relativePath) {
+		return outputDirectory.resolve(relativePath.replaceFirst("(\\.[^./\\\\]*)?$", OUTPUT_SUFFIX));
+	}
+
+	/* Object Variables */
+	/** The {@link Logger} instance associated with this class. */
+	private final Logger logger;
+	/** The engine shared by all workers. */
+	private final TranscriptionEngine engine;
+	/** The number of files to transcribe at the same time. */
+	private final int threadCount;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link BatchTranscriber} class. Since the files are already transcribed
+	 * in parallel, the shared engine transcribes each file sequentially.
+	 *
+	 * @param threadCount
+	 *            the number of files to transcribe at the same time; <code>0</code> or less to
+	 *            use one thread per available processor.
+	 */
+	public BatchTranscriber(int threadCount) {
+		this(new TranscriptionEngine(PostProcessor.getDefault(), null), threadCount);
+	}
+
+	/**
+	 * Constructor for the {@link BatchTranscriber} class.
+	 *
+	 * @param engine
+	 *            the engine to share among all workers.
+	 * @param threadCount
+	 *            the number of files to transcribe at the same time; <code>0</code> or less to
+	 *            use one thread per available processor.
+	 */
+	public BatchTranscriber(TranscriptionEngine engine, int threadCount) {
+		logger = Logger.getLogger(getClass().getName());
+		this.engine = engine;
+		this.threadCount = threadCount > 0 ? threadCount : Runtime.getRuntime().availableProcessors();
+	}
+
+	/* Object Methods */
+	/**
+	 * Transcribes all files of the given directory or manifest and writes the transcriptions to
+	 * the given output directory. The method blocks until all files have been processed.
+	 *
+	 * @param input
+	 *            the directory containing the files to transcribe or a manifest listing them.
+	 * @param outputDirectory
+	 *            the directory to write the transcriptions and the checkpoint journal to; created
+	 *            if necessary.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the report of the run.
+	 * @throws CancellationException
+	 *             if the token has been cancelled. The files done so far remain journaled.
+	 * @throws IOException
+	 *             if the input cannot be listed, two different files would share an output file
+	 *             or the journal cannot be read or written.
+	 */
+	public BatchReport transcribe(Path input, Path outputDirectory, Variety preferredVariety,
+			UserFeedbackProvider feedback, CancellationToken token) throws CancellationException, IOException {
+
+		long start = System.currentTimeMillis();
+		Path base = Files.isDirectory(input) ? input : input.toAbsolutePath().getParent();
+		List<Path> files = new ArrayList<Path>();
+		Map<String, Path> filesByRelativePath = new HashMap<String, Path>();
+		for (Path file : listFiles(input)) {
+			String relativePath = relativize(base, file);
+			Path previous = filesByRelativePath.putIfAbsent(relativePath, file);
+			if (previous == null) {
+				files.add(file);
+			} else if (!previous.toAbsolutePath().normalize().equals(file.toAbsolutePath().normalize())) {
+				throw new IOException(previous + " and " + file + " would both be transcribed to " + relativePath
+						+ "!");
+			}
+		}
+		Files.createDirectories(outputDirectory);
+		Journal journal = new Journal(outputDirectory.resolve(JOURNAL_FILE_NAME));
+
+		// Skip whatever a previous run has already done.
+		List<Path> pending = new ArrayList<Path>();
+		for (Path file : files) {
+			String relativePath = relativize(base, file);
+			if (journal.isDone(relativePath, file) && Files.exists(getOutputPath(outputDirectory, relativePath))) {
+				logger.fine("Skipping " + relativePath + " as it has already been transcribed.");
+			} else {
+				pending.add(file);
+			}
+		}
+		int skippedCount = files.size() - pending.size();
+		logger.info("Batch transcription of " + files.size() + " files (" + skippedCount + " already done) on "
+				+ threadCount + " threads ...");
+
+		ExecutorService workers = Executors.newFixedThreadPool(threadCount, (Runnable runnable) -> {
+			Thread thread = new Thread(runnable, "Batch Transcription Worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		AtomicInteger finished = new AtomicInteger();
+		List<Future<BatchFileResult>> futures = new ArrayList<Future<BatchFileResult>>(pending.size());
+		try {
+			for (Path file : pending) {
+				futures.add(workers.submit(() -> {
+					BatchFileResult result = transcribeFile(file, relativize(base, file), outputDirectory,
+							preferredVariety, journal, token);
+					int count = finished.incrementAndGet();
+					if (feedback != null) {
+						feedback.progressFeedback(((double) count) / pending.size(),
+								"Transcribed " + count + " of " + pending.size() + " files ...");
+					}
+					return result;
+				}));
+			}
+
+			List<BatchFileResult> results = new ArrayList<BatchFileResult>(futures.size());
+			for (Future<BatchFileResult> future : futures) {
+				try {
+					results.add(future.get());
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof CancellationException) {
+						throw (CancellationException) e.getCause();
+					}
+					throw new IllegalStateException("Unexpected exception in batch worker!", e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new CancellationException("Interrupted while waiting for the batch workers.");
+				}
+			}
+
+			BatchReport report = new BatchReport(results, skippedCount, System.currentTimeMillis() - start);
+			logger.info(report.toString());
+			return report;
+
+		} finally {
+			workers.shutdownNow();
+			journal.close();
+		}
+	}
+
+	/**
+	 * Lists the files to transcribe, i.e. all <code>*.txt</code> files inside the given directory
+	 * and its sub-directories or the files named by the given manifest. Previous transcriptions,
+	 * i.e. files ending in {@link #OUTPUT_SUFFIX}, are left out of a directory.
+	 *
+	 * @param input
+	 *            the directory or manifest.
+	 * @return the files in a stable order.
+	 * @throws IOException
+	 *             if the directory cannot be walked or the manifest cannot be read.
+	 */
+	public List<Path> listFiles(Path input) throws IOException {
+		if (Files.isDirectory(input)) {
+			try (Stream<Path> stream = Files.walk(input)) {
+				return stream.filter((Path file) -> {
+					String name = file.getFileName().toString().toLowerCase();
+					return Files.isRegularFile(file) && name.endsWith(".txt") && !name.endsWith(OUTPUT_SUFFIX);
+				}).sorted().collect(Collectors.toList());
+			}
+		}
+
+		Path directory = input.toAbsolutePath().getParent();
+		List<Path> result = new ArrayList<Path>();
+		for (String line : Files.readAllLines(input, StandardCharsets.UTF_8)) {
+			line = line.trim();
+			if (!line.isEmpty() && !line.startsWith("#")) {
+				result.add(directory.resolve(line));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Determines the path of the given file relative to the batch's input. Files outside of it, as
+	 * may be named by a manifest, keep their path relative to it as well, but each step up is
+	 * replaced by {@link #PARENT_DIRECTORY_NAME}, so that their output stays inside the output
+	 * directory. Files on another file system root are represented by their path below that root.
+	 *
+	 * @param base
+	 *            the input directory or the manifest's directory.
+	 * @param file
+	 *            the file to determine the relative path of.
+	 * @return the relative path using '/' as separator.
+	 */
+	private String relativize(Path base, Path file) {
+		Path absolute = file.toAbsolutePath().normalize();
+		Path absoluteBase = base.toAbsolutePath().normalize();
+		Path relative = absolute.getRoot().equals(absoluteBase.getRoot()) ? absoluteBase.relativize(absolute)
+				: absolute.getRoot().relativize(absolute);
+		StringBuilder result = new StringBuilder();
+		for (Path name : relative) {
+			if (result.length() > 0) {
+				result.append('/');
+			}
+			result.append(name.toString().equals("..") ? PARENT_DIRECTORY_NAME : name.toString());
+		}
+		return result.toString();
+	}
+
+	/**
+	 * Transcribes a single file into a temporary file next to its output path and moves the former
+	 * to the latter once it is complete. Any error but a cancellation is caught and reported as
+	 * part of the result.
+	 *
+	 * @param file
+	 *            the file to transcribe.
+	 * @param relativePath
+	 *            the file's path relative to the batch's input.
+	 * @param outputDirectory
+	 *            the directory to write the transcriptions to.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param journal
+	 *            the journal to record the file in once it is done.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the file's result.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 */
+	private BatchFileResult transcribeFile(Path file, String relativePath, Path outputDirectory,
+			Variety preferredVariety, Journal journal, CancellationToken token) throws CancellationException {
+
+		long start = System.currentTimeMillis();
+		long[] counts = new long[2];
+		SentenceListener listener = (TranscriptionSentence sentence) -> {
+			for (TranscriptionToken transcriptionToken : sentence.getTokens()) {
+				for (TranscriptionPart part : transcriptionToken.getParts()) {
+					if (!part.isDelimiter()) {
+						counts[0]++;
+						if (part.isUnknown()) {
+							counts[1]++;
+						}
+					}
+				}
+			}
+		};
+
+		Path output = getOutputPath(outputDirectory, relativePath);
+		Path temporary = null;
+		try {
+			Files.createDirectories(output.getParent());
+			temporary = Files.createTempFile(output.getParent(), output.getFileName().toString(), ".tmp");
+			long characterCount;
+			try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+					Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+				characterCount = new StreamingTranscriber(engine, StreamingTranscriber.DEFAULT_BUFFER_SIZE)
+						.transcribe(channel, StandardCharsets.UTF_8, writer, preferredVariety, null, token, listener);
+			}
+			move(temporary, output);
+			temporary = null;
+
+			BatchFileResult result = new BatchFileResult(relativePath, characterCount, counts[0], counts[1],
+					System.currentTimeMillis() - start, null);
+			journal.markDone(relativePath, file);
+			logger.fine("Transcribed " + result);
+			return result;
+
+		} catch (CancellationException e) {
+			throw e;
+		} catch (Exception e) {
+			logger.log(Level.WARNING, "Unable to transcribe " + relativePath + "!", e);
+			return new BatchFileResult(relativePath, 0, 0, 0, System.currentTimeMillis() - start, e.toString());
+		} finally {
+			if (temporary != null) {
+				try {
+					Files.deleteIfExists(temporary);
+				} catch (IOException e) {
+					logger.log(Level.WARNING, "Unable to delete temporary file " + temporary + "!", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Moves the given file to its target, replacing any existing one. The move is atomic unless
+	 * the file system does not support it.
+	 *
+	 * @param source
+	 *            the file to move.
+	 * @param target
+	 *            the file to move it to.
+	 * @throws IOException
+	 *             if the file cannot be moved.
+	 */
+	private void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			logger.fine("Atomic moves are not supported. Replacing " + target + " ...");
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #threadCount} attribute.
+	 *
+	 * @return the number of files to transcribe at the same time.
+	 */
+	public int getThreadCount() {
+		return threadCount;
+	}
+
+	/* Sub-Classes */
+	/**
+	 * The checkpoint journal of a batch run. Each line records a file that has been transcribed
+	 * successfully by its relative path, size and time of last modification, separated by tabs.
+	 * Lines are appended and forced to the disk one at a time, so that a crash may at most cost
+	 * the last, incomplete line. Such a line is terminated before any new entry is appended, so
+	 * that it never corrupts the next entry, and is simply ignored when the journal is read.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class Journal {
+
+		/** The files listed by the journal, mapped to their size and time of last modification. */
+		private final Map<String, String> entries;
+		/** The channel to append new entries to. */
+		private final FileChannel channel;
+
+		/**
+		 * Constructor for the {@link Journal} class. Reads the existing entries, if any, and opens
+		 * the journal for appending.
+		 *
+		 * @param path
+		 *            the journal's path.
+		 * @throws IOException
+		 *             if the journal cannot be read or opened.
+		 */
+		private Journal(Path path) throws IOException {
+			Map<String, String> entries = new HashMap<String, String>();
+			String content = Files.exists(path) ? new String(Files.readAllBytes(path), StandardCharsets.UTF_8) : "";
+			for (String line : content.split("\n")) {
+				String[] fields = line.split("\t");
+				if (fields.length == 3) {
+					entries.put(fields[0], fields[1] + "\t" + fields[2]);
+				}
+			}
+			this.entries = Collections.synchronizedMap(entries);
+			channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+			if (!content.isEmpty() && !content.endsWith("\n")) {
+				write("\n");
+			}
+		}
+
+		/**
+		 * Describes the current state of the given file.
+		 *
+		 * @param file
+		 *            the file to describe.
+		 * @return its size and time of last modification separated by a tab.
+		 * @throws IOException
+		 *             if the file's attributes cannot be read.
+		 */
+		private String describe(Path file) throws IOException {
+			return Files.size(file) + "\t" + Files.getLastModifiedTime(file).toMillis();
+		}
+
+		/**
+		 * Checks whether or not the given file has been transcribed before and not been modified
+		 * since.
+		 *
+		 * @param relativePath
+		 *            the file's path relative to the batch's input.
+		 * @param file
+		 *            the file to check.
+		 * @return <code>true</code> if the file is done.
+		 */
+		private boolean isDone(String relativePath, Path file) {
+			try {
+				return describe(file).equals(entries.get(relativePath));
+			} catch (IOException e) {
+				return false;
+			}
+		}
+
+		/**
+		 * Records the given file as done and forces the entry to the disk.
+		 *
+		 * @param relativePath
+		 *            the file's path relative to the batch's input.
+		 * @param file
+		 *            the file that has been transcribed.
+		 * @throws IOException
+		 *             if the entry cannot be written.
+		 */
+		private synchronized void markDone(String relativePath, Path file) throws IOException {
+			String description = describe(file);
+			write(relativePath + "\t" + description + "\n");
+			entries.put(relativePath, description);
+		}
+
+		/**
+		 * Appends the given text to the journal and forces it to the disk.
+		 *
+		 * @param text
+		 *            the text to append.
+		 * @throws IOException
+		 *             if the text cannot be written.
+		 */
+		private void write(String text) throws IOException {
+			ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(false);
+		}
+
+		/**
+		 * Closes the journal.
+		 *
+		 * @throws IOException
+		 *             if the channel cannot be closed.
+		 */
+		private synchronized void close() throws IOException {
+			channel.close();
+		}
+	}
+}
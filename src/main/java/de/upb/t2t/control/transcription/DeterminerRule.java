@@ -0,0 +1,88 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.NoSuchElementException;
+
+import de.upb.t2t.model.TranscriptionItem;
+import de.upb.t2t.model.TranscriptionPart;
+import de.upb.t2t.model.TranscriptionType;
+import de.upb.t2t.model.WordClass;
+
+/**
+ * <p>
+ * Adjusts the articles "the", "a" and "an" to the sound of the following word, as otherwise
+ * people would have to adjust each and every of them.
+ * </p>
+ * <ul>
+ * <li>"the" is given the weak form ending in /i/ before vowels and the one ending in /ə/
+ * otherwise. Should the following word be unknown, the part is flagged as a conflict, as there is
+ * no way to tell.</li>
+ * <li>"a" before a vowel and "an" before a consonant are flagged as a conflict, as the input is
+ * likely to be misspelt or the following word to be pronounced in an unusual way.</li>
+ * </ul>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ */
+public class DeterminerRule extends AbstractPostProcessingRule {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+
+	/* Constructors */
+
+	/* Object Methods */
+	@Override
+	public Collection<String> getLemmas() {
+		return Arrays.asList("the", "a", "an");
+	}
+
+	@Override
+	public TranscriptionPart apply(PostProcessingContext context, int index) throws NoSuchElementException {
+
+		TranscriptionPart part = context.getPart(index);
+		char next = context.getNextSound(index);
+
+		if (!part.getLemma().equals("the")) {
+			if (next != 0 && PostProcessingContext.isVocalicSound(next) == part.getLemma().equals("a")) {
+				return part.withConflict(true);
+			}
+			return part;
+		}
+
+		// Fetch the possible transcriptions.
+		WordClass determiner = WordClass.getWordClass("det");
+		boolean found = false;
+		for (TranscriptionItem item : part.getCandidates()) {
+			if (item.getWordClass() == determiner && item.getVariety().equals(context.getPreferredVariety())) {
+				found = true;
+				break;
+			}
+		}
+
+		// Can't we select the fitting transcription? Another conflict then ...
+		if (next == 0 || !found) {
+			return part.withConflict(true);
+		}
+
+		/*
+		 * Depending on how the lemma in the following begins, select the appropriate transcription.
+		 * Pre-select the schwa version as default. It could still be that the next transcription
+		 * starts with a vowel, though. Then we'd need to select the intermediate i version.
+		 */
+		String ending = PostProcessingContext.isVocalicSound(next) ? "i" : "ə";
+		for (TranscriptionItem item : part.getCandidates()) {
+			if (item.getWordClass() == determiner && item.getVariety().equals(context.getPreferredVariety())
+					&& item.getTransType().equals(TranscriptionType.WEAK) && item.getPhoneticString().endsWith(ending)) {
+				return part.withSelectedItem(item);
+			}
+		}
+		return part;
+	}
+}
@@ -0,0 +1,366 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.upb.t2t.control.transcription.NumericExpression.Kind;
+
+/**
+ * <p>
+ * Recognizes numeric expressions inside the bodies found by the {@link Tokenizer}. Apart from
+ * plain numbers such as "-12,345.67", these are ordinals ("3rd"), percentages ("50%"), clock times
+ * ("12:30"), dates ("15/08/2016", "15.08.2016", "2016-08-15"), decades ("1990s"), ranges ("2-3")
+ * and fractions ("3/4").
+ * </p>
+ * <p>
+ * Each body is scanned exactly once, breaking it up into runs of digits, the single separator
+ * characters between them and an optional suffix of letters (as in "3rd"). The expression is then
+ * told apart by this shape alone, so that no regular expression has to be compiled or matched.
+ * Bodies that do not fit any of the shapes (e.g. "mp3" or "1,2") are not recognized at all and
+ * should be looked up as they are. Instances reuse their buffers and are therefore not
+ * thread-safe.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see NumeralVerbalizer
+ * @see TranscriptionEngine
+ */
+public final class NumeralRecognizer {
+
+	/* Static Variables */
+	/** The maximum number of digit runs inside a body, e.g. 7 for "1,000,000,000,000,000.5". */
+	private static final int MAX_RUNS = 8;
+	/** The en dash, which may separate the bounds of a range just like a hyphen. */
+	private static final char EN_DASH = '–';
+
+	/* Static Methods */
+	/**
+	 * Determines the suffix the ordinal of the given number is written with, e.g. "st" for 21 and
+	 * "th" for 11.
+	 *
+	 * @param number
+	 *            the number; must not be negative.
+	 * @return the suffix in lower case.
+	 */
+	private static String getOrdinalSuffix(long number) {
+		if (number % 100 >= 11 && number % 100 <= 13) {
+			return "th";
+		}
+		switch ((int) (number % 10)) {
+		case 1:
+			return "st";
+		case 2:
+			return "nd";
+		case 3:
+			return "rd";
+		default:
+			return "th";
+		}
+	}
+
+	/* Object Variables */
+	/** The input holding the bodies to recognize. */
+	private final CharSequence input;
+	/** The offset of each run's first digit. */
+	private final int[] runStart;
+	/** The offset behind each run's last digit. */
+	private final int[] runEnd;
+	/** The separator preceding each run; unused for the first one. */
+	private final char[] separators;
+	/** The number of runs inside the current body. */
+	private int runs;
+	/** The integer part of the most recently parsed number. */
+	private long integerPart;
+	/** The decimal part of the most recently parsed number; empty if there is none. */
+	private String decimalPart;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link NumeralRecognizer} class.
+	 *
+	 * @param input
+	 *            the input holding the bodies to recognize.
+	 */
+	public NumeralRecognizer(CharSequence input) {
+		this.input = input;
+		runStart = new int[MAX_RUNS];
+		runEnd = new int[MAX_RUNS];
+		separators = new char[MAX_RUNS];
+		decimalPart = "";
+	}
+
+	/* Object Methods */
+	/**
+	 * Tries to recognize a numeric expression inside the given body.
+	 *
+	 * @param bodyStart
+	 *            the offset of the body's first character.
+	 * @param bodyEnd
+	 *            the offset behind the body's last character.
+	 * @param segmentEnd
+	 *            the offset behind the segment's last character. A percent sign directly
+	 *            following the body is considered part of the expression.
+	 * @param negative
+	 *            whether or not the body is preceded by a minus. This only affects whether a
+	 *            number might be a year (see
+	 *            {@link NumeralVerbalizer#isPossibleYear(long, String, boolean)}).
+	 * @return the recognized expression; <code>null</code> if the body is not a numeric one.
+	 */
+	public NumericExpression recognize(int bodyStart, int bodyEnd, int segmentEnd, boolean negative) {
+
+		// Break the body up into runs of digits, separators and the suffix.
+		runs = 0;
+		int suffixStart = -1;
+		char pending = 0;
+		for (int i = bodyStart; i < bodyEnd; i++) {
+			char c = input.charAt(i);
+			if (Tokenizer.isDigit(c)) {
+				if (suffixStart >= 0) {
+					return null;
+				}
+				if (runs > 0 && runEnd[runs - 1] == i) {
+					runEnd[runs - 1]++;
+					continue;
+				}
+				if (runs == MAX_RUNS) {
+					return null;
+				}
+				separators[runs] = pending;
+				runStart[runs] = i;
+				runEnd[runs] = i + 1;
+				runs++;
+				pending = 0;
+			} else if (Tokenizer.isWordCharacter(c)) {
+				if (runs == 0) {
+					return null;
+				}
+				if (suffixStart < 0) {
+					if (pending != 0 && pending != '\'') {
+						return null;
+					}
+					suffixStart = i;
+				}
+			} else {
+				if (suffixStart >= 0 || pending != 0) {
+					return null;
+				}
+				pending = c;
+			}
+		}
+		if (runs == 0) {
+			return null;
+		}
+
+		// Ordinals and decades.
+		if (suffixStart >= 0) {
+			return recognizeSuffixed(input.subSequence(suffixStart, bodyEnd).toString().toLowerCase(),
+					pending == '\'', bodyEnd);
+		}
+
+		// Plain numbers and percentages.
+		boolean percent = bodyEnd < segmentEnd && input.charAt(bodyEnd) == '%';
+		List<String> none = new ArrayList<String>(0);
+		if (parseNumber(0, runs)) {
+			if (percent) {
+				List<String> keys = NumeralVerbalizer.verbalize(integerPart, decimalPart);
+				keys.add(NumeralVerbalizer.PERCENT);
+				return new NumericExpression(Kind.PERCENTAGE, keys, none, bodyEnd + 1);
+			}
+			if (NumeralVerbalizer.isPossibleYear(integerPart, decimalPart, negative)) {
+				return new NumericExpression(Kind.NUMBER, NumeralVerbalizer.verbalizeYear((int) integerPart),
+						NumeralVerbalizer.verbalize(integerPart, ""), bodyEnd);
+			}
+			return new NumericExpression(Kind.NUMBER, NumeralVerbalizer.verbalize(integerPart, decimalPart), none,
+					bodyEnd);
+		}
+
+		// Times and fractions.
+		if (runs == 2) {
+			int first = getValue(0), second = getValue(1);
+			switch (separators[1]) {
+			case ':':
+				if (getLength(0) <= 2 && getLength(1) == 2 && first <= 24 && second <= 59) {
+					return new NumericExpression(Kind.TIME, NumeralVerbalizer.verbalizeTime(first, second), none,
+							bodyEnd);
+				}
+				break;
+			case '/':
+				if (first >= 0 && second >= 2) {
+					return new NumericExpression(Kind.FRACTION, NumeralVerbalizer.verbalizeFraction(first, second),
+							none, bodyEnd);
+				}
+				break;
+			}
+		}
+
+		// Dates, either as day, month and year or in ISO format.
+		if (runs == 3 && separators[1] == separators[2]) {
+			int day = -1, month = -1, year = -1;
+			switch (separators[1]) {
+			case '/':
+			case '.':
+				if (getLength(0) <= 2 && getLength(1) <= 2 && getLength(2) == 4) {
+					day = getValue(0);
+					month = getValue(1);
+					year = getValue(2);
+				}
+				break;
+			case '-':
+				if (getLength(0) == 4 && getLength(1) <= 2 && getLength(2) <= 2) {
+					year = getValue(0);
+					month = getValue(1);
+					day = getValue(2);
+				}
+				break;
+			}
+			if (day >= 1 && day <= 31 && month >= 1 && month <= 12 && year > 100) {
+				return new NumericExpression(Kind.DATE, NumeralVerbalizer.verbalizeDate(day, month, year), none,
+						bodyEnd);
+			}
+		}
+
+		// Ranges of two numbers. Should both of them be possible years, they are read as such.
+		for (int i = 1; i < runs; i++) {
+			if (separators[i] == '-' || separators[i] == EN_DASH) {
+				if (!parseNumber(0, i)) {
+					return null;
+				}
+				long lowerInteger = integerPart;
+				String lowerDecimal = decimalPart;
+				if (!parseNumber(i, runs)) {
+					return null;
+				}
+				boolean years = !percent && NumeralVerbalizer.isPossibleYear(lowerInteger, lowerDecimal, negative)
+						&& NumeralVerbalizer.isPossibleYear(integerPart, decimalPart, false);
+
+				List<String> keys = years ? NumeralVerbalizer.verbalizeYear((int) lowerInteger)
+						: NumeralVerbalizer.verbalize(lowerInteger, lowerDecimal);
+				keys.add(NumeralVerbalizer.TO);
+				keys.addAll(years ? NumeralVerbalizer.verbalizeYear((int) integerPart)
+						: NumeralVerbalizer.verbalize(integerPart, decimalPart));
+				if (percent) {
+					keys.add(NumeralVerbalizer.PERCENT);
+				}
+				return new NumericExpression(Kind.RANGE, keys, none, percent ? bodyEnd + 1 : bodyEnd);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Recognizes an ordinal or a decade, i.e. a number followed by a suffix of letters. An
+	 * ordinal's suffix must match the number's last digits, so that e.g. "1th" or "11st" is not
+	 * recognized.
+	 *
+	 * @param suffix
+	 *            the suffix in lower case.
+	 * @param apostrophe
+	 *            whether or not the suffix is preceded by an apostrophe, as in "1990's".
+	 * @param bodyEnd
+	 *            the offset behind the body's last character.
+	 * @return the recognized expression; <code>null</code> if there is none.
+	 */
+	private NumericExpression recognizeSuffixed(String suffix, boolean apostrophe, int bodyEnd) {
+
+		if (!parseNumber(0, runs) || !decimalPart.isEmpty()) {
+			return null;
+		}
+
+		List<String> none = new ArrayList<String>(0);
+		switch (suffix) {
+		case "st":
+		case "nd":
+		case "rd":
+		case "th":
+			if (!apostrophe && suffix.equals(getOrdinalSuffix(integerPart))) {
+				return new NumericExpression(Kind.ORDINAL, NumeralVerbalizer.verbalizeOrdinal(integerPart), none,
+						bodyEnd);
+			}
+			break;
+		case "s":
+			int length = getLength(0);
+			if (runs == 1 && integerPart % 10 == 0
+					&& ((length == 2 && integerPart >= 20) || (length == 4 && integerPart >= 1000))) {
+				return new NumericExpression(Kind.DECADE, NumeralVerbalizer.verbalizeDecade((int) integerPart), none,
+						bodyEnd);
+			}
+			break;
+		}
+		return null;
+	}
+
+	/**
+	 * Parses the given runs as a number into {@link #integerPart} and {@link #decimalPart}. The
+	 * runs must be separated by thousands separators (',') only, optionally followed by a decimal
+	 * point and the decimal part. Thousands separators must be placed properly, i.e. all but the
+	 * first group must hold exactly three digits.
+	 *
+	 * @param from
+	 *            the index of the first run.
+	 * @param to
+	 *            the index behind the last run.
+	 * @return <code>true</code> if the runs form a number that fits into a <code>long</code>.
+	 */
+	private boolean parseNumber(int from, int to) {
+
+		int integerTo = to;
+		if (to - from > 1 && separators[to - 1] == '.') {
+			integerTo = to - 1;
+		}
+		for (int i = from + 1; i < integerTo; i++) {
+			if (separators[i] != ',' || getLength(i) != 3 || (i == from + 1 && getLength(from) > 3)) {
+				return false;
+			}
+		}
+
+		long value = 0;
+		for (int i = from; i < integerTo; i++) {
+			for (int j = runStart[i]; j < runEnd[i]; j++) {
+				int digit = input.charAt(j) - '0';
+				if (value > (Long.MAX_VALUE - digit) / 10) {
+					return false;
+				}
+				value = value * 10 + digit;
+			}
+		}
+
+		integerPart = value;
+		decimalPart = integerTo < to ? input.subSequence(runStart[to - 1], runEnd[to - 1]).toString() : "";
+		return true;
+	}
+
+	/* Getters and Setters */
+	/**
+	 * Returns the number of digits of the given run.
+	 *
+	 * @param run
+	 *            the run's index.
+	 * @return the run's length.
+	 */
+	private int getLength(int run) {
+		return runEnd[run] - runStart[run];
+	}
+
+	/**
+	 * Returns the value of the given run, provided it is small enough to be part of a time, date
+	 * or fraction.
+	 *
+	 * @param run
+	 *            the run's index.
+	 * @return the run's value; -1 if it has more than 9 digits.
+	 */
+	private int getValue(int run) {
+		if (getLength(run) > 9) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = runStart[run]; i < runEnd[run]; i++) {
+			value = value * 10 + input.charAt(i) - '0';
+		}
+		return value;
+	}
+}
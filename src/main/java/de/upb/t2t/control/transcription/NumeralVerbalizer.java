@@ -0,0 +1,419 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * Converts numbers into the sequence of number words they are read as, e.g. 12345.6 into "twelve
+ * thousand three hundred forty five dot six". Besides plain numbers, there are readings for
+ * ordinals, decades, clock times, dates and fractions, which are recognized by the
+ * {@link NumeralRecognizer}. Since the number words are meant to be looked up in
+ * the database, they are called keys in here. The verbalizer is a pure function: it does not
+ * query anything, so the keys of all numbers of an input can be collected first and resolved in
+ * one go. The readings of all numbers below 1000 are precomputed, so a number is verbalized by
+ * concatenating the readings of its groups of three digits.
+ * </p>
+ * <p>
+ * Note that there are two readings for numbers that might represent a year (see
+ * {@link #isPossibleYear(long, String, boolean)}): the common one (e.g. "one thousand eight
+ * hundred") and the year one ("eighteen hundred").
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see TranscriptionEngine
+ */
+public final class NumeralVerbalizer {
+
+	/* Static Variables */
+	/** The keys of the numbers 0 to 19. */
+	private static final String[] BELOW_TWENTY = { "zero", "one", "two", "three", "four", "five", "six", "seven",
+			"eight", "nine", "ten", "eleven", "twelve", "thirteen", "fourteen", "fifteen", "sixteen", "seventeen",
+			"eighteen", "nineteen" };
+	/** The keys of the tens; the first two are unused. */
+	private static final String[] TENS = { "", "", "twenty", "thirty", "forty", "fifty", "sixty", "seventy",
+			"eighty", "ninety" };
+	/** The keys of the digit areas, i.e. of each group of three digits, starting with the ones. */
+	private static final String[] AREAS = { "", "thousand", "million", "billion", "trillion", "quadrillion",
+			"quintillion" };
+	/** The key of the hundreds. */
+	private static final String HUNDRED = "hundred";
+	/** The key of the decimal point. */
+	private static final String DOT = "dot";
+	/** The keys of the months. */
+	private static final String[] MONTHS = { "january", "february", "march", "april", "may", "june", "july",
+			"august", "september", "october", "november", "december" };
+	/** The key of a percent sign. */
+	public static final String PERCENT = "percent";
+	/** The key between the bounds of a range. */
+	public static final String TO = "to";
+	/** The key between the day and the month of a date. */
+	private static final String OF = "of";
+	/** The key of a full hour. */
+	private static final String O_CLOCK = "o'clock";
+	/** The key of a leading zero as in "nine oh five". */
+	private static final String OH = "oh";
+	/** The precomputed readings of the numbers 0 to 999. The reading of 0 is empty. */
+	private static final String[][] BELOW_THOUSAND = new String[1000][];
+	/**
+	 * The keys the verbalizer produces most often, i.e. all number words, their ordinals, the
+	 * months and the connecting words. Plurals as in "nineties" or "thirds" are not included.
+	 */
+	public static final List<String> NUMBER_WORDS;
+
+	static {
+		for (int i = 0; i < BELOW_THOUSAND.length; i++) {
+			List<String> keys = new ArrayList<String>(4);
+			if (i >= 100) {
+				appendTensAndOnes(i / 100, keys);
+				keys.add(HUNDRED);
+			}
+			if (i % 100 != 0) {
+				appendTensAndOnes(i % 100, keys);
+			}
+			BELOW_THOUSAND[i] = keys.toArray(new String[keys.size()]);
+		}
+
+		List<String> words = new ArrayList<String>();
+		words.addAll(Arrays.asList(BELOW_TWENTY));
+		words.addAll(Arrays.asList(TENS).subList(2, TENS.length));
+		words.add(HUNDRED);
+		words.addAll(Arrays.asList(AREAS).subList(1, AREAS.length));
+		words.add(DOT);
+		for (int i = 0, count = words.size(); i < count; i++) {
+			if (!words.get(i).equals(DOT)) {
+				words.add(toOrdinal(words.get(i)));
+			}
+		}
+		words.addAll(Arrays.asList(MONTHS));
+		words.addAll(Arrays.asList(PERCENT, TO, OF, O_CLOCK, OH, "half", "quarter"));
+		NUMBER_WORDS = Collections.unmodifiableList(words);
+	}
+
+	/* Static Methods */
+	/**
+	 * Returns the common reading of the given number. As an example, the integer part 12345 and
+	 * the decimal part "678" lead to "twelve thousand three hundred forty five dot six seven
+	 * eight".
+	 *
+	 * @param integerPart
+	 *            the integer part of the number; must not be negative.
+	 * @param decimalPart
+	 *            the digits following the decimal point; may be empty.
+	 * @return the keys of the reading.
+	 * @throws IllegalArgumentException
+	 *             if the integer part is negative or the decimal part holds anything but digits.
+	 */
+	public static List<String> verbalize(long integerPart, String decimalPart) throws IllegalArgumentException {
+
+		if (integerPart < 0) {
+			throw new IllegalArgumentException("The integer part must not be negative!");
+		}
+
+		List<String> result = new ArrayList<String>();
+		if (integerPart == 0) {
+			result.add(BELOW_TWENTY[0]);
+		} else {
+
+			// Split the number into groups of three digits, starting with the ones.
+			int[] groups = new int[AREAS.length];
+			int count = 0;
+			for (long rest = integerPart; rest > 0; rest /= 1000) {
+				groups[count++] = (int) (rest % 1000);
+			}
+
+			// Read the groups from the highest to the lowest. Empty groups are left out
+			// altogether, as in "1,000,222".
+			for (int area = count - 1; area >= 0; area--) {
+				if (groups[area] != 0) {
+					result.addAll(Arrays.asList(BELOW_THOUSAND[groups[area]]));
+					if (area > 0) {
+						result.add(AREAS[area]);
+					}
+				}
+			}
+		}
+
+		// Read the decimal part digit by digit.
+		if (!decimalPart.isEmpty()) {
+			result.add(DOT);
+			for (int i = 0; i < decimalPart.length(); i++) {
+				char c = decimalPart.charAt(i);
+				if (c < '0' || c > '9') {
+					throw new IllegalArgumentException("Not a digit: " + c);
+				}
+				result.add(BELOW_TWENTY[c - '0']);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the year reading of the given number, e.g. "eighteen hundred" for 1800, "nineteen
+	 * hundred ninety nine" for 1999, "two thousand five" for 2005 or "twenty sixteen" for 2016.
+	 *
+	 * @param year
+	 *            the year; must be in the interval of (100, 10000).
+	 * @return the keys of the reading.
+	 * @throws IllegalArgumentException
+	 *             if the number is out of range.
+	 */
+	public static List<String> verbalizeYear(int year) throws IllegalArgumentException {
+
+		if (year <= 100 || year >= 10000) {
+			throw new IllegalArgumentException("Year must be in the interval of (100, 10000)!");
+		}
+
+		// Years such as 2000 or 2005 are read like common numbers.
+		if (year >= 2000 && year % 1000 < 10) {
+			return verbalize(year, "");
+		}
+
+		List<String> result = new ArrayList<String>();
+		appendTensAndOnes(year / 100, result);
+		if (year % 100 == 0 || year < 2000) {
+			result.add(HUNDRED);
+		} else if (year % 100 < 10) {
+			result.add(OH);
+		}
+		if (year % 100 != 0) {
+			appendTensAndOnes(year % 100, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the reading of the given ordinal number, e.g. "twenty first" for 21 or "one hundred
+	 * twelfth" for 112.
+	 *
+	 * @param num
+	 *            the number; must not be negative.
+	 * @return the keys of the reading.
+	 * @throws IllegalArgumentException
+	 *             if the number is negative.
+	 */
+	public static List<String> verbalizeOrdinal(long num) throws IllegalArgumentException {
+		List<String> result = verbalize(num, "");
+		int last = result.size() - 1;
+		result.set(last, toOrdinal(result.get(last)));
+		return result;
+	}
+
+	/**
+	 * Returns the reading of the given decade, e.g. "nineties" for 90, "nineteen nineties" for 1990
+	 * or "nineteen hundreds" for 1900.
+	 *
+	 * @param decade
+	 *            the decade's first year; either a multiple of ten in the interval of [20, 90] or
+	 *            in the interval of (100, 10000).
+	 * @return the keys of the reading.
+	 * @throws IllegalArgumentException
+	 *             if the number is out of range.
+	 */
+	public static List<String> verbalizeDecade(int decade) throws IllegalArgumentException {
+
+		if (decade % 10 != 0 || decade < 20 || decade == 100 || decade >= 10000) {
+			throw new IllegalArgumentException("Not a decade: " + decade);
+		}
+
+		// Decades such as the 2000s are read like common numbers, all others like "nineteen
+		// nineties" or "nineteen hundreds".
+		List<String> result;
+		if (decade >= 2000 && decade % 1000 == 0) {
+			result = verbalize(decade, "");
+		} else {
+			result = new ArrayList<String>(3);
+			if (decade >= 100) {
+				appendTensAndOnes(decade / 100, result);
+			}
+			if (decade % 100 == 0) {
+				result.add(HUNDRED);
+			} else {
+				appendTensAndOnes(decade % 100, result);
+			}
+		}
+		int last = result.size() - 1;
+		result.set(last, toPlural(result.get(last)));
+		return result;
+	}
+
+	/**
+	 * Returns the reading of the given clock time, e.g. "nine o'clock" for 9:00, "nine oh five" for
+	 * 9:05 or "twelve thirty" for 12:30.
+	 *
+	 * @param hours
+	 *            the hours in the interval of [0, 24].
+	 * @param minutes
+	 *            the minutes in the interval of [0, 59].
+	 * @return the keys of the reading.
+	 * @throws IllegalArgumentException
+	 *             if any of the parameters is out of range.
+	 */
+	public static List<String> verbalizeTime(int hours, int minutes) throws IllegalArgumentException {
+
+		if (hours < 0 || hours > 24 || minutes < 0 || minutes > 59) {
+			throw new IllegalArgumentException("Not a time: " + hours + ":" + minutes);
+		}
+
+		List<String> result = new ArrayList<String>(4);
+		appendTensAndOnes(hours, result);
+		if (minutes == 0) {
+			result.add(O_CLOCK);
+		} else {
+			if (minutes < 10) {
+				result.add(OH);
+			}
+			appendTensAndOnes(minutes, result);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the reading of the given date, e.g. "fifteenth of august twenty sixteen" for the
+	 * 15/08/2016.
+	 *
+	 * @param day
+	 *            the day in the interval of [1, 31].
+	 * @param month
+	 *            the month in the interval of [1, 12].
+	 * @param year
+	 *            the year in the interval of (100, 10000).
+	 * @return the keys of the reading.
+	 * @throws IllegalArgumentException
+	 *             if any of the parameters is out of range.
+	 */
+	public static List<String> verbalizeDate(int day, int month, int year) throws IllegalArgumentException {
+
+		if (day < 1 || day > 31 || month < 1 || month > 12) {
+			throw new IllegalArgumentException("Not a date: " + day + "/" + month + "/" + year);
+		}
+
+		List<String> result = verbalizeOrdinal(day);
+		result.add(OF);
+		result.add(MONTHS[month - 1]);
+		result.addAll(verbalizeYear(year));
+		return result;
+	}
+
+	/**
+	 * Returns the reading of the given fraction, e.g. "one half" for 1/2, "three quarters" for 3/4
+	 * or "two thirds" for 2/3.
+	 *
+	 * @param numerator
+	 *            the numerator; must not be negative.
+	 * @param denominator
+	 *            the denominator; must be 2 at least.
+	 * @return the keys of the reading.
+	 * @throws IllegalArgumentException
+	 *             if any of the parameters is out of range.
+	 */
+	public static List<String> verbalizeFraction(long numerator, long denominator) throws IllegalArgumentException {
+
+		if (denominator < 2) {
+			throw new IllegalArgumentException("The denominator must be 2 at least!");
+		}
+
+		List<String> result = verbalize(numerator, "");
+		List<String> denominatorKeys;
+		if (denominator == 2 || denominator == 4) {
+			denominatorKeys = new ArrayList<String>(1);
+			denominatorKeys.add(denominator == 2 ? "half" : "quarter");
+		} else {
+			denominatorKeys = verbalizeOrdinal(denominator);
+		}
+		if (numerator != 1) {
+			int last = denominatorKeys.size() - 1;
+			String key = denominatorKeys.get(last);
+			denominatorKeys.set(last, key.equals("half") ? "halves" : key + "s");
+		}
+		result.addAll(denominatorKeys);
+		return result;
+	}
+
+	/**
+	 * Evaluates whether the given number might represent a year and should thus be offered with
+	 * both readings. This is the case for positive integers in the interval of (100, 2000).
+	 *
+	 * @param integerPart
+	 *            the integer part of the number.
+	 * @param decimalPart
+	 *            the digits following the decimal point; may be empty.
+	 * @param negative
+	 *            whether or not the number is preceded by a minus.
+	 * @return <code>true</code> if the number might be a year.
+	 */
+	public static boolean isPossibleYear(long integerPart, String decimalPart, boolean negative) {
+		return !negative && decimalPart.isEmpty() && integerPart > 100 && integerPart < 2000;
+	}
+
+	/**
+	 * Appends the keys of a number in the interval of [0, 99]. The tens and the ones are kept
+	 * separate to save items in the database, e.g. "forty five" instead of "forty-five".
+	 *
+	 * @param num
+	 *            the number to append.
+	 * @param keys
+	 *            the list to append the keys to.
+	 */
+	private static void appendTensAndOnes(int num, List<String> keys) {
+		if (num < 20) {
+			keys.add(BELOW_TWENTY[num]);
+			return;
+		}
+		keys.add(TENS[num / 10]);
+		if (num % 10 != 0) {
+			keys.add(BELOW_TWENTY[num % 10]);
+		}
+	}
+
+	/**
+	 * Returns the ordinal of the given number word, e.g. "twelfth" for "twelve".
+	 *
+	 * @param key
+	 *            the number word.
+	 * @return the corresponding ordinal.
+	 */
+	private static String toOrdinal(String key) {
+		switch (key) {
+		case "one":
+			return "first";
+		case "two":
+			return "second";
+		case "three":
+			return "third";
+		case "five":
+			return "fifth";
+		case "eight":
+			return "eighth";
+		case "nine":
+			return "ninth";
+		case "twelve":
+			return "twelfth";
+		}
+		return key.endsWith("y") ? key.substring(0, key.length() - 1) + "ieth" : key + "th";
+	}
+
+	/**
+	 * Returns the plural of the given number word, e.g. "nineties" for "ninety".
+	 *
+	 * @param key
+	 *            the number word.
+	 * @return the corresponding plural.
+	 */
+	private static String toPlural(String key) {
+		return key.endsWith("y") ? key.substring(0, key.length() - 1) + "ies" : key + "s";
+	}
+
+	/* Constructors */
+	/**
+	 * Private constructor, as the class only offers static methods.
+	 */
+	private NumeralVerbalizer() {
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable numeric expression as recognized by the {@link NumeralRecognizer}, e.g. "50%",
+ * "12:30" or "1990s". It holds the keys of the words the expression is read as, which are yet to
+ * be looked up in the database.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see NumeralVerbalizer
+ */
+public final class NumericExpression {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The kind of the expression. */
+	private final Kind kind;
+	/** The keys of the expression's reading. */
+	private final List<String> keys;
+	/** The keys of an alternative reading, e.g. the common one of a year; may be empty. */
+	private final List<String> alternativeKeys;
+	/** The offset behind the expression's last character. */
+	private final int end;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link NumericExpression} class.
+	 *
+	 * @param kind
+	 *            the kind of the expression.
+	 * @param keys
+	 *            the keys of the expression's reading.
+	 * @param alternativeKeys
+	 *            the keys of an alternative reading; may be empty.
+	 * @param end
+	 *            the offset behind the expression's last character. This may lie behind the
+	 *            segment's body, e.g. in case of a percent sign.
+	 */
+	public NumericExpression(Kind kind, List<String> keys, List<String> alternativeKeys, int end) {
+		this.kind = kind;
+		this.keys = Collections.unmodifiableList(new ArrayList<String>(keys));
+		this.alternativeKeys = Collections.unmodifiableList(new ArrayList<String>(alternativeKeys));
+		this.end = end;
+	}
+
+	/* Object Methods */
+	@Override
+	public String toString() {
+		return kind + " " + keys + (alternativeKeys.isEmpty() ? "" : " / " + alternativeKeys);
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #kind} attribute.
+	 *
+	 * @return the kind of the expression.
+	 */
+	public Kind getKind() {
+		return kind;
+	}
+
+	/**
+	 * A getter for the {@link #keys} attribute.
+	 *
+	 * @return an unmodifiable list of the keys of the expression's reading.
+	 */
+	public List<String> getKeys() {
+		return keys;
+	}
+
+	/**
+	 * A getter for the {@link #alternativeKeys} attribute.
+	 *
+	 * @return an unmodifiable list of the keys of the alternative reading; empty if there is none.
+	 */
+	public List<String> getAlternativeKeys() {
+		return alternativeKeys;
+	}
+
+	/**
+	 * A getter for the {@link #end} attribute.
+	 *
+	 * @return the offset behind the expression's last character.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/* Sub-Classes */
+	/**
+	 * The kinds of numeric expressions.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	public static enum Kind {
+		/** A plain number with optional thousands separators and decimal part, e.g. "12,345.6". */
+		NUMBER(true),
+		/** An ordinal number, e.g. "3rd". */
+		ORDINAL(false),
+		/** A number followed by a percent sign, e.g. "50%". */
+		PERCENTAGE(true),
+		/** A clock time, e.g. "12:30". */
+		TIME(false),
+		/** A date, e.g. "15/08/2016", "15.08.2016" or "2016-08-15". */
+		DATE(false),
+		/** A decade, e.g. "1990s" or "90s". */
+		DECADE(false),
+		/** A range of two numbers, e.g. "2-3". */
+		RANGE(false),
+		/** A fraction, e.g. "3/4". */
+		FRACTION(true);
+
+		/** Indicates whether or not a preceding minus belongs to the expression. */
+		private final boolean signed;
+
+		/**
+		 * Constructor for the {@link Kind} enum.
+		 *
+		 * @param signed
+		 *            whether or not a preceding minus belongs to the expression.
+		 */
+		private Kind(boolean signed) {
+			this.signed = signed;
+		}
+
+		/**
+		 * A getter for the {@link #signed} attribute.
+		 *
+		 * @return <code>true</code> if a preceding minus is to be read as part of the expression.
+		 */
+		public boolean isSigned() {
+			return signed;
+		}
+	}
+}
@@ -0,0 +1,203 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.List;
+
+import de.upb.t2t.model.TranscriptionPart;
+import de.upb.t2t.model.TranscriptionToken;
+import de.upb.t2t.model.Variety;
+
+/**
+ * <p>
+ * The parts of all tokens of an input laid out in a single array, as seen by the
+ * {@link AbstractPostProcessingRule}s. Rules may look at any part by its index, regardless of the
+ * token it belongs to, and may thus take the following word into account even if it stems from
+ * another token. The index of the word following each part is computed once in advance, so that
+ * every lookup takes constant time.
+ * </p>
+ * <p>
+ * A context is created by the {@link PostProcessor} for a single input and is not thread-safe.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ */
+public class PostProcessingContext {
+
+	/* Static Variables */
+
+	/* Static Methods */
+	/**
+	 * A convenience function that simply checks whether the given <code>char</code> equals a vowel
+	 * / vocalic sound. This may be important when deciding which transcription to select for
+	 * example for the lemma "the".
+	 *
+	 * @param c
+	 *            the character to evaluate.
+	 * @return <code>true</code> if the given character equals a vowel; <code>false</code>
+	 *         otherwise.
+	 */
+	public static boolean isVocalicSound(char c) {
+
+		switch (c) {
+		case 'a': // diphtongs
+		case 'ɑ':
+		case 'ʌ':
+		case 'æ':
+		case 'ɜ':
+		case 'e':
+		case 'ə':
+		case 'i':
+		case 'ɪ':
+		case 'ɔ':
+		case 'ɒ':
+		case 'u':
+		case 'ʊ':
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/* Object Variables */
+	/** The parts of all tokens in the order of the input. */
+	private final TranscriptionPart[] parts;
+	/** The index of the token each part belongs to. */
+	private final int[] tokenIndices;
+	/** The index of the first word part following each part; -1 if there is none. */
+	private final int[] nextWords;
+	/** The variety to prefer when pre-selecting transcription items. */
+	private final Variety preferredVariety;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link PostProcessingContext} class.
+	 *
+	 * @param tokens
+	 *            the tokens whose parts to lay out.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 */
+	public PostProcessingContext(List<TranscriptionToken> tokens, Variety preferredVariety) {
+		this.preferredVariety = preferredVariety;
+
+		int count = 0;
+		for (TranscriptionToken token : tokens) {
+			count += token.getParts().size();
+		}
+		parts = new TranscriptionPart[count];
+		tokenIndices = new int[count];
+		nextWords = new int[count];
+
+		int index = 0;
+		for (int i = 0; i < tokens.size(); i++) {
+			for (TranscriptionPart part : tokens.get(i).getParts()) {
+				parts[index] = part;
+				tokenIndices[index] = i;
+				index++;
+			}
+		}
+
+		int next = -1;
+		for (int i = count - 1; i >= 0; i--) {
+			nextWords[i] = next;
+			if (!parts[i].isDelimiter()) {
+				next = i;
+			}
+		}
+	}
+
+	/* Object Methods */
+	/**
+	 * Indicates whether or not the part at the given index ends a phrase, i.e. whether it is
+	 * directly followed by a delimiter ('|', '||' or '/').
+	 *
+	 * @param index
+	 *            the index of the part.
+	 * @return <code>true</code> if the next part is a delimiter.
+	 */
+	public boolean isPhraseFinal(int index) {
+		return index + 1 < parts.length && parts[index + 1].isDelimiter();
+	}
+
+	/**
+	 * Returns the first phonetic symbol of the word following the part at the given index.
+	 *
+	 * @param index
+	 *            the index of the part.
+	 * @return the first character of the following word's selected transcription; 0 if there is
+	 *         no following word or if it is unknown.
+	 */
+	public char getNextSound(int index) {
+		TranscriptionPart next = getNextWord(index);
+		if (next == null || next.isUnknown() || next.getSelectedItem().getPhoneticString().isEmpty()) {
+			return 0;
+		}
+		return next.getSelectedItem().getPhoneticString().charAt(0);
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the number of parts.
+	 *
+	 * @return the number of parts of all tokens.
+	 */
+	public int size() {
+		return parts.length;
+	}
+
+	/**
+	 * Returns the part at the given index.
+	 *
+	 * @param index
+	 *            the index of the part.
+	 * @return the part.
+	 */
+	public TranscriptionPart getPart(int index) {
+		return parts[index];
+	}
+
+	/**
+	 * Replaces the part at the given index.
+	 *
+	 * @param index
+	 *            the index of the part.
+	 * @param part
+	 *            the new part.
+	 */
+	void setPart(int index, TranscriptionPart part) {
+		parts[index] = part;
+	}
+
+	/**
+	 * Returns the index of the token the part at the given index belongs to.
+	 *
+	 * @param index
+	 *            the index of the part.
+	 * @return the token's index.
+	 */
+	public int getTokenIndex(int index) {
+		return tokenIndices[index];
+	}
+
+	/**
+	 * Returns the word following the part at the given index, skipping any delimiter.
+	 *
+	 * @param index
+	 *            the index of the part.
+	 * @return the following word part; <code>null</code> if there is none.
+	 */
+	public TranscriptionPart getNextWord(int index) {
+		return nextWords[index] < 0 ? null : parts[nextWords[index]];
+	}
+
+	/**
+	 * A getter for the {@link #preferredVariety} attribute.
+	 *
+	 * @return the variety to prefer when pre-selecting transcription items.
+	 */
+	public Variety getPreferredVariety() {
+		return preferredVariety;
+	}
+}
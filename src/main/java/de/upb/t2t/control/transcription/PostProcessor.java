@@ -0,0 +1,171 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.upb.t2t.control.gui.UserFeedbackProvider;
+import de.upb.t2t.model.TranscriptionPart;
+import de.upb.t2t.model.TranscriptionToken;
+import de.upb.t2t.model.Variety;
+
+/**
+ * <p>
+ * Post processes the tokens of an input by pre-selecting the most likely transcriptions and
+ * flagging potential conflicts. Word class conflicts have already been flagged when the parts were
+ * created, everything else is up to the {@link AbstractPostProcessingRule}s.
+ * </p>
+ * <p>
+ * The rules are compiled into a table mapping each lemma to the rules interested in it. All parts
+ * of an input are then processed in a single pass over a {@link PostProcessingContext}, looking up
+ * the rules of each part's lemma in constant time. Hence, the post-processing takes linear time in
+ * the length of the input, no matter how many rules there are. The post processor is immutable
+ * and may be shared between threads.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see #getDefault()
+ */
+public class PostProcessor {
+
+	/* Static Variables */
+	/** The number of progress reports per input. */
+	private static final int PROGRESS_STEPS = 100;
+
+	/* Static Methods */
+	/**
+	 * Creates a post processor applying the application's default rules, i.e. the
+	 * {@link DeterminerRule} and the {@link StrongFormRule}.
+	 *
+	 * @return the new post processor.
+	 */
+	public static PostProcessor getDefault() {
+		return new PostProcessor(Arrays.asList(new DeterminerRule(), new StrongFormRule()));
+	}
+
+	/* Object Variables */
+	/** The {@link PostProcessor} instance's {@link Logger} object. */
+	private Logger logger;
+	/** The rules in the order they are applied. */
+	private final List<AbstractPostProcessingRule> rules;
+	/** All lemmas mapped to the rules to apply to them. */
+	private final Map<String, AbstractPostProcessingRule[]> rulesByLemma;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link PostProcessor} class.
+	 *
+	 * @param rules
+	 *            the rules to apply. Should several rules apply to the same lemma, they are
+	 *            applied in the given order, each one seeing the result of its predecessor.
+	 */
+	public PostProcessor(Collection<? extends AbstractPostProcessingRule> rules) {
+		logger = Logger.getLogger(getClass().getName());
+		this.rules = Collections.unmodifiableList(new ArrayList<AbstractPostProcessingRule>(rules));
+
+		Map<String, List<AbstractPostProcessingRule>> lists = new HashMap<String, List<AbstractPostProcessingRule>>();
+		for (AbstractPostProcessingRule rule : rules) {
+			for (String lemma : rule.getLemmas()) {
+				List<AbstractPostProcessingRule> list = lists.get(lemma);
+				if (list == null) {
+					list = new ArrayList<AbstractPostProcessingRule>(1);
+					lists.put(lemma, list);
+				}
+				list.add(rule);
+			}
+		}
+		rulesByLemma = new HashMap<String, AbstractPostProcessingRule[]>(lists.size() * 2);
+		for (Map.Entry<String, List<AbstractPostProcessingRule>> entry : lists.entrySet()) {
+			rulesByLemma.put(entry.getKey(),
+					entry.getValue().toArray(new AbstractPostProcessingRule[entry.getValue().size()]));
+		}
+	}
+
+	/* Object Methods */
+	/**
+	 * Post processes the given list of tokens.
+	 *
+	 * @param tokens
+	 *            the list of tokens, including the enclosing delimiters. Tokens that need to be
+	 *            adjusted will be replaced in place.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 */
+	public void process(List<TranscriptionToken> tokens, Variety preferredVariety, UserFeedbackProvider feedback) {
+
+		logger.fine("Doing post-processing ...");
+
+		PostProcessingContext context = new PostProcessingContext(tokens, preferredVariety);
+		int size = context.size();
+		int step = Math.max(1, size / PROGRESS_STEPS);
+		boolean[] changedTokens = new boolean[tokens.size()];
+
+		for (int i = 0; i < size; i++) {
+
+			if (feedback != null && (i + 1) % step == 0) {
+				feedback.progressFeedback(((double) i + 1) / ((double) size),
+						"Doing post-processing " + (i + 1) + " of " + size + " ...");
+			}
+
+			TranscriptionPart part = context.getPart(i);
+			if (part.isDelimiter()) {
+				continue;
+			}
+			AbstractPostProcessingRule[] lemmaRules = rulesByLemma.get(part.getLemma());
+			if (lemmaRules == null) {
+				continue;
+			}
+
+			for (AbstractPostProcessingRule rule : lemmaRules) {
+				try {
+					part = rule.apply(context, i);
+				} catch (NoSuchElementException e) {
+					logger.log(Level.WARNING, "Word class or preferred variety not found while applying " + rule
+							+ " to \"" + part.getLemma() + "\"!", e);
+				}
+			}
+			if (part != context.getPart(i)) {
+				logger.finer("Adjusted \"" + part.getLemma() + "\": " + part);
+				context.setPart(i, part);
+				changedTokens[context.getTokenIndex(i)] = true;
+			}
+		}
+
+		// Write the changed parts back into their tokens.
+		int index = 0;
+		for (int i = 0; i < tokens.size(); i++) {
+			TranscriptionToken token = tokens.get(i);
+			int count = token.getParts().size();
+			if (changedTokens[i]) {
+				List<TranscriptionPart> parts = new ArrayList<TranscriptionPart>(count);
+				for (int j = 0; j < count; j++) {
+					parts.add(context.getPart(index + j));
+				}
+				tokens.set(i, token.withParts(parts));
+			}
+			index += count;
+		}
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #rules} attribute.
+	 *
+	 * @return an unmodifiable list of the rules in the order they are applied.
+	 */
+	public List<AbstractPostProcessingRule> getRules() {
+		return rules;
+	}
+}
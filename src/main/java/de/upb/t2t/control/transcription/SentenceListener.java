@@ -0,0 +1,28 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import de.upb.t2t.model.TranscriptionSentence;
+
+/**
+ * An interface for consumers that wish to process the sentences of a transcription as soon as
+ * they have been transcribed, e.g. in order to display the first sentences of a long input while
+ * the others are still being worked on.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see TranscriptionEngine#transcribe(String, de.upb.t2t.model.Variety,
+ *      de.upb.t2t.control.gui.UserFeedbackProvider, de.upb.t2t.control.scheduling.CancellationToken,
+ *      SentenceListener)
+ */
+public interface SentenceListener {
+
+	/**
+	 * Called whenever a sentence has been transcribed. Sentences are passed in the order of the
+	 * input, all of them on the same thread, which is the one calling the engine.
+	 *
+	 * @param sentence
+	 *            the sentence that has been transcribed.
+	 */
+	public void onSentenceTranscribed(TranscriptionSentence sentence);
+}
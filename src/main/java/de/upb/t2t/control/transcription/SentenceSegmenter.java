@@ -0,0 +1,223 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * Breaks an input into sentences and paragraphs, so that each sentence can be transcribed and
+ * displayed on its own. A sentence ends with a segment whose trailing characters end in '.', '!',
+ * '?' or '…', optionally followed by closing quotation marks or brackets, unless the next segment
+ * starts with a lower case letter. A '.' following a common abbreviation ("Mr.", "e.g.", ...) or a
+ * single capital letter, as in initials, does not end a sentence. Since decimal points are never
+ * followed by whitespace, they are of no concern.
+ * </p>
+ * <p>
+ * A paragraph ends wherever two segments are separated by at least one blank line. The end of a
+ * paragraph always ends the sentence as well, so that headings without any punctuation are
+ * transcribed on their own. Just like the {@link Tokenizer} it is built upon, the segmenter works
+ * like a cursor: call {@link #next()} to advance to the next sentence and use the getters to
+ * retrieve its span. Sentences always start and end at segment boundaries. Instances are not
+ * thread-safe.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see TranscriptionEngine
+ */
+public final class SentenceSegmenter {
+
+	/* Static Variables */
+	/** Lower case abbreviations whose trailing '.' does not end a sentence. */
+	private static final Set<String> ABBREVIATIONS = new HashSet<String>(Arrays.asList("mr", "mrs", "ms", "dr",
+			"prof", "st", "jr", "sr", "vs", "fig", "cf", "ca", "approx", "e.g", "i.e"));
+
+	/* Static Methods */
+	/**
+	 * Checks whether or not the given character may close a sentence after its terminal
+	 * punctuation, e.g. a quotation mark in <code>He said "Hello."</code>.
+	 *
+	 * @param c
+	 *            the character to check.
+	 * @return <code>true</code> if the character is a closing quotation mark or bracket.
+	 */
+	private static boolean isClosingCharacter(char c) {
+		switch (c) {
+		case '"':
+		case '\'':
+		case '”':
+		case '’':
+		case '»':
+		case ')':
+		case ']':
+		case '}':
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Checks whether or not the given character ends a sentence.
+	 *
+	 * @param c
+	 *            the character to check.
+	 * @return <code>true</code> if the character is one of '.', '!', '?' and '…'.
+	 */
+	private static boolean isTerminalCharacter(char c) {
+		switch (c) {
+		case '.':
+		case '!':
+		case '?':
+		case '…':
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/* Object Variables */
+	/** The input to segment. */
+	private final CharSequence input;
+	/** The tokenizer providing the segments. */
+	private final Tokenizer tokenizer;
+	/** The number of sentences that have been returned so far. */
+	private int sentenceCount;
+	/** The offset of the current sentence's first character. */
+	private int sentenceStart;
+	/** The offset behind the current sentence's last character. */
+	private int sentenceEnd;
+	/** Indicates whether or not the current sentence starts a new paragraph. */
+	private boolean paragraphStart;
+	/** Indicates whether or not the next sentence starts a new paragraph. */
+	private boolean nextParagraphStart;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link SentenceSegmenter} class.
+	 *
+	 * @param input
+	 *            the input to segment.
+	 */
+	public SentenceSegmenter(CharSequence input) {
+		this.input = input;
+		tokenizer = new Tokenizer(input);
+	}
+
+	/* Object Methods */
+	/**
+	 * Advances to the next sentence.
+	 *
+	 * @return <code>true</code> if there was another sentence; <code>false</code> if the end of
+	 *         the input has been reached.
+	 */
+	public boolean next() {
+
+		if (!tokenizer.next()) {
+			return false;
+		}
+
+		sentenceCount++;
+		sentenceStart = tokenizer.getSegmentStart();
+		paragraphStart = nextParagraphStart;
+		while (true) {
+
+			// Skip the whitespace behind the segment and look out for blank lines.
+			int end = tokenizer.getSegmentEnd();
+			int next = end, lineBreaks = 0;
+			while (next < input.length() && Tokenizer.isWhitespace(input.charAt(next))) {
+				if (input.charAt(next) == '\n') {
+					lineBreaks++;
+				}
+				next++;
+			}
+
+			nextParagraphStart = lineBreaks > 1;
+			if (next >= input.length() || nextParagraphStart || endsSentence(next)) {
+				sentenceEnd = end;
+				return true;
+			}
+			tokenizer.next();
+		}
+	}
+
+	/**
+	 * Checks whether or not the tokenizer's current segment ends a sentence.
+	 *
+	 * @param next
+	 *            the offset of the next segment's first character.
+	 * @return <code>true</code> if the segment ends a sentence.
+	 */
+	private boolean endsSentence(int next) {
+
+		// Find the terminal punctuation behind any closing quotation marks or brackets. Segments
+		// without any word character, e.g. a free-standing "?", may end a sentence as well.
+		int bodyEnd = tokenizer.hasBody() ? tokenizer.getBodyEnd() : tokenizer.getSegmentStart();
+		int i = tokenizer.getSegmentEnd() - 1;
+		while (i >= bodyEnd && isClosingCharacter(input.charAt(i))) {
+			i--;
+		}
+		if (i < bodyEnd || !isTerminalCharacter(input.charAt(i))) {
+			return false;
+		}
+
+		// Is the '.' part of an abbreviation or of initials?
+		if (input.charAt(i) == '.' && i == bodyEnd && tokenizer.hasBody()) {
+			int bodyStart = tokenizer.getBodyStart();
+			if (bodyEnd - bodyStart == 1) {
+				char c = input.charAt(bodyStart);
+				if (c >= 'A' && c <= 'Z' && c != 'I') {
+					return false;
+				}
+			}
+			if (ABBREVIATIONS.contains(input.subSequence(bodyStart, bodyEnd).toString().toLowerCase())) {
+				return false;
+			}
+		}
+
+		// A sentence does not continue with a lower case letter.
+		char c = input.charAt(next);
+		return !(c >= 'a' && c <= 'z');
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the number of sentences that have been returned so far. Equals the (1-based)
+	 * index of the current sentence.
+	 *
+	 * @return the number of sentences.
+	 */
+	public int getSentenceCount() {
+		return sentenceCount;
+	}
+
+	/**
+	 * A getter for the {@link #sentenceStart} attribute.
+	 *
+	 * @return the offset of the current sentence's first character.
+	 */
+	public int getSentenceStart() {
+		return sentenceStart;
+	}
+
+	/**
+	 * A getter for the {@link #sentenceEnd} attribute.
+	 *
+	 * @return the offset behind the current sentence's last character.
+	 */
+	public int getSentenceEnd() {
+		return sentenceEnd;
+	}
+
+	/**
+	 * A getter for the {@link #paragraphStart} attribute.
+	 *
+	 * @return <code>true</code> if the current sentence is preceded by a blank line.
+	 */
+	public boolean isParagraphStart() {
+		return paragraphStart;
+	}
+}
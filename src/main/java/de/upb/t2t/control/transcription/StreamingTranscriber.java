@@ -0,0 +1,414 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CancellationException;
+import java.util.logging.Logger;
+
+import de.upb.t2t.control.database.AbstractSQLiteBridge;
+import de.upb.t2t.control.gui.UserFeedbackProvider;
+import de.upb.t2t.control.scheduling.CancellationToken;
+import de.upb.t2t.model.TranscriptionResult;
+import de.upb.t2t.model.Variety;
+
+/**
+ * <p>
+ * Transcribes text of arbitrary size, e.g. a whole corpus file, without ever holding more than a
+ * few buffers of it in memory. The input is read from a channel through a byte buffer of fixed
+ * size and decoded into a pending <code>StringBuilder</code>. As soon as said builder holds
+ * {@link #bufferSize} characters, all complete sentences are cut off, transcribed by the
+ * {@link TranscriptionEngine} and their phonetic strings written to the output, while the last,
+ * possibly incomplete sentence is carried over to the next buffer. Sentence boundaries are found
+ * by the {@link SentenceSegmenter}, so that the output equals the phonetic string of the
+ * {@link TranscriptionResult} of the whole input.
+ * </p>
+ * <p>
+ * Only a single sentence longer than {@link #MAX_PENDING_FACTOR} buffers is cut at the last
+ * whitespace instead, as it would otherwise defeat the bounded memory. Its parts are transcribed
+ * as sentences of their own.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see TranscriptionEngine
+ * @see SentenceSegmenter
+ */
+public class StreamingTranscriber {
+
+	/* Static Variables */
+	/** The default number of characters to transcribe at once. */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+	/**
+	 * The number of buffers a single sentence may span before it is cut at the last whitespace
+	 * regardless of the sentence boundaries.
+	 */
+	public static final int MAX_PENDING_FACTOR = 4;
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The {@link Logger} instance associated with this class. */
+	private final Logger logger;
+	/** The engine to transcribe the buffered sentences with. */
+	private final TranscriptionEngine engine;
+	/** The number of characters to transcribe at once. */
+	private final int bufferSize;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link StreamingTranscriber} class, using a new
+	 * {@link TranscriptionEngine} and the {@link #DEFAULT_BUFFER_SIZE}.
+	 */
+	public StreamingTranscriber() {
+		this(new TranscriptionEngine(), DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor for the {@link StreamingTranscriber} class.
+	 *
+	 * @param engine
+	 *            the engine to transcribe the buffered sentences with.
+	 * @param bufferSize
+	 *            the number of characters to transcribe at once.
+	 * @throws IllegalArgumentException
+	 *             if the buffer size is not positive.
+	 */
+	public StreamingTranscriber(TranscriptionEngine engine, int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("The buffer size must be positive: " + bufferSize);
+		}
+		logger = Logger.getLogger(getClass().getName());
+		this.engine = engine;
+		this.bufferSize = bufferSize;
+	}
+
+	/* Object Methods */
+	/**
+	 * Transcribes the given UTF-8 encoded input file and writes its phonetic transcription to the
+	 * given output file, which is created or overwritten.
+	 *
+	 * @param input
+	 *            the file to transcribe.
+	 * @param output
+	 *            the file to write the transcription to.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the number of characters that have been transcribed.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 * @throws IOException
+	 *             if either file cannot be read or written.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	public long transcribe(Path input, Path output, Variety preferredVariety, UserFeedbackProvider feedback,
+			CancellationToken token) throws CancellationException, IOException, Exception {
+		try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ);
+				Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+			return transcribe(channel, StandardCharsets.UTF_8, writer, preferredVariety, feedback, token);
+		}
+	}
+
+	/**
+	 * Transcribes everything that can be read from the given channel and writes the phonetic
+	 * transcription to the given writer as it goes. Neither the channel nor the writer is closed.
+	 * Malformed input is replaced rather than rejected. Should the channel be a
+	 * {@link SeekableByteChannel}, the progress is reported relative to its size.
+	 *
+	 * @param input
+	 *            the channel to read the input from.
+	 * @param charset
+	 *            the charset the input is encoded in.
+	 * @param output
+	 *            the writer to write the transcription to.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the number of characters that have been transcribed.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 * @throws IOException
+	 *             if reading from the channel or writing to the writer fails.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	public long transcribe(ReadableByteChannel input, Charset charset, Writer output, Variety preferredVariety,
+			UserFeedbackProvider feedback, CancellationToken token) throws CancellationException, IOException, Exception {
+		return transcribe(input, charset, output, preferredVariety, feedback, token, null);
+	}
+
+	/**
+	 * Transcribes everything that can be read from the given channel just like
+	 * {@link #transcribe(ReadableByteChannel, Charset, Writer, Variety, UserFeedbackProvider,
+	 * CancellationToken)}, but additionally hands every transcribed sentence to the given listener,
+	 * e.g. in order to gather statistics. Note that the sentences' indices and offsets refer to the
+	 * buffer they have been transcribed in rather than the whole input.
+	 *
+	 * @param input
+	 *            the channel to read the input from.
+	 * @param charset
+	 *            the charset the input is encoded in.
+	 * @param output
+	 *            the writer to write the transcription to.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @param listener
+	 *            the listener to pass the sentences to in order; may be <code>null</code>.
+	 * @return the number of characters that have been transcribed.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 * @throws IOException
+	 *             if reading from the channel or writing to the writer fails.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	public long transcribe(ReadableByteChannel input, Charset charset, Writer output, Variety preferredVariety,
+			UserFeedbackProvider feedback, CancellationToken token, SentenceListener listener)
+			throws CancellationException, IOException, Exception {
+
+		CharsetDecoder decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE)
+				.onUnmappableCharacter(CodingErrorAction.REPLACE);
+		ByteBuffer bytes = ByteBuffer.allocate(bufferSize);
+		CharBuffer chars = CharBuffer.allocate(bufferSize);
+		StringBuilder pending = new StringBuilder(bufferSize * 2);
+		long size = input instanceof SeekableByteChannel ? ((SeekableByteChannel) input).size() : -1;
+		long bytesRead = 0, charsTranscribed = 0;
+		Sink sink = new Sink(output);
+
+		logger.info("Streaming transcription started ...");
+
+		boolean endOfInput = false;
+		while (!endOfInput) {
+			if (token != null) {
+				token.throwIfCancelled();
+			}
+
+			// Fill the byte buffer and decode as much of it as possible. Incomplete multi-byte
+			// sequences remain in the buffer until the next read.
+			int read = input.read(bytes);
+			if (read < 0) {
+				endOfInput = true;
+			} else {
+				bytesRead += read;
+			}
+			bytes.flip();
+			decode(decoder, bytes, chars, pending, endOfInput);
+			bytes.compact();
+			if (endOfInput) {
+				flushDecoder(decoder, chars, pending);
+			}
+
+			// Transcribe the complete sentences once the buffer is full.
+			if (pending.length() >= bufferSize || endOfInput) {
+				int cut = endOfInput ? pending.length() : findCut(pending);
+				if (cut > 0) {
+					sink.write(engine.transcribe(pending.substring(0, cut), preferredVariety, null, token, listener));
+					sink.setParagraphStart(sink.isParagraphStart(pending, cut));
+					pending.delete(0, cut);
+					charsTranscribed += cut;
+					if (feedback != null && size > 0) {
+						feedback.progressFeedback(Math.min(1.0, ((double) bytesRead) / ((double) size)),
+								"Transcribed " + charsTranscribed + " characters ...");
+					}
+				}
+			}
+		}
+		output.flush();
+
+		logger.info("Streaming transcription finished: " + charsTranscribed + " characters.");
+		return charsTranscribed;
+	}
+
+	/**
+	 * Decodes the given bytes and appends the characters to the pending ones.
+	 *
+	 * @param decoder
+	 *            the decoder to use.
+	 * @param bytes
+	 *            the bytes to decode, ready to be read.
+	 * @param chars
+	 *            an empty buffer to decode into.
+	 * @param pending
+	 *            the characters that have not been transcribed yet.
+	 * @param endOfInput
+	 *            whether or not there are no more bytes to come.
+	 */
+	private void decode(CharsetDecoder decoder, ByteBuffer bytes, CharBuffer chars, StringBuilder pending,
+			boolean endOfInput) {
+		CoderResult result;
+		do {
+			result = decoder.decode(bytes, chars, endOfInput);
+			chars.flip();
+			pending.append(chars);
+			chars.clear();
+		} while (result.isOverflow());
+	}
+
+	/**
+	 * Flushes any characters the decoder may still hold at the end of the input.
+	 *
+	 * @param decoder
+	 *            the decoder to flush.
+	 * @param chars
+	 *            an empty buffer to decode into.
+	 * @param pending
+	 *            the characters that have not been transcribed yet.
+	 */
+	private void flushDecoder(CharsetDecoder decoder, CharBuffer chars, StringBuilder pending) {
+		CoderResult result;
+		do {
+			result = decoder.flush(chars);
+			chars.flip();
+			pending.append(chars);
+			chars.clear();
+		} while (result.isOverflow());
+	}
+
+	/**
+	 * Determines the offset up to which the pending characters can be transcribed, i.e. the start
+	 * of the last sentence. The boundaries of all sentences but the last are final, as the
+	 * {@link SentenceSegmenter} has already seen the segment following them. Should there be only
+	 * a single sentence exceeding {@link #MAX_PENDING_FACTOR} buffers, the last whitespace or, if
+	 * there is none, the end of the pending characters is returned instead.
+	 *
+	 * @param pending
+	 *            the characters that have not been transcribed yet.
+	 * @return the offset to cut at; <code>0</code> if nothing can be transcribed yet.
+	 */
+	private int findCut(StringBuilder pending) {
+
+		int lastStart = 0;
+		SentenceSegmenter segmenter = new SentenceSegmenter(pending);
+		while (segmenter.next()) {
+			lastStart = segmenter.getSentenceStart();
+		}
+		if (lastStart > 0 || pending.length() < bufferSize * MAX_PENDING_FACTOR) {
+			return lastStart;
+		}
+
+		logger.warning("No sentence boundary within " + pending.length() + " characters. Cutting at whitespace ...");
+		for (int i = pending.length() - 1; i > 0; i--) {
+			if (Tokenizer.isWhitespace(pending.charAt(i))) {
+				return i + 1;
+			}
+		}
+		return pending.length();
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #bufferSize} attribute.
+	 *
+	 * @return the number of characters to transcribe at once.
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/* Sub-Classes */
+	/**
+	 * Writes the phonetic strings of consecutive parts of the input, separating them just like
+	 * {@link TranscriptionResult#getPhoneticString()} separates sentences: by a line break if the
+	 * next part starts a new paragraph and by a space otherwise.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class Sink {
+
+		/** The writer to write to. */
+		private final Writer writer;
+		/** Indicates whether or not anything has been written yet. */
+		private boolean started;
+		/** Indicates whether or not the next part starts a new paragraph. */
+		private boolean paragraphStart;
+
+		/**
+		 * Constructor for the {@link Sink} class.
+		 *
+		 * @param writer
+		 *            the writer to write to.
+		 */
+		private Sink(Writer writer) {
+			this.writer = writer;
+		}
+
+		/**
+		 * Writes the phonetic string of the given result, if any.
+		 *
+		 * @param result
+		 *            the result to write.
+		 * @throws IOException
+		 *             if the writer throws one.
+		 */
+		private void write(TranscriptionResult result) throws IOException {
+			String phonetic = result.getPhoneticString();
+			if (phonetic.isEmpty()) {
+				return;
+			}
+			if (started) {
+				writer.write(paragraphStart ? '\n' : ' ');
+			}
+			writer.write(phonetic);
+			started = true;
+		}
+
+		/**
+		 * Checks whether or not the part following the given cut starts a new paragraph, i.e.
+		 * whether the whitespace in front of the cut holds a blank line.
+		 *
+		 * @param pending
+		 *            the characters that have not been transcribed yet.
+		 * @param cut
+		 *            the offset the pending characters are cut at.
+		 * @return <code>true</code> if the next part starts a new paragraph.
+		 */
+		private boolean isParagraphStart(CharSequence pending, int cut) {
+			int lineBreaks = 0;
+			for (int i = cut - 1; i >= 0 && Tokenizer.isWhitespace(pending.charAt(i)); i--) {
+				if (pending.charAt(i) == '\n') {
+					lineBreaks++;
+				}
+			}
+			return lineBreaks > 1;
+		}
+
+		/**
+		 * A setter for the {@link #paragraphStart} attribute.
+		 *
+		 * @param paragraphStart
+		 *            whether or not the next part starts a new paragraph.
+		 */
+		private void setParagraphStart(boolean paragraphStart) {
+			this.paragraphStart = paragraphStart;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import de.upb.t2t.model.TranscriptionItem;
+import de.upb.t2t.model.TranscriptionPart;
+import de.upb.t2t.model.TranscriptionType;
+
+/**
+ * <p>
+ * Selects the strong form of function words that end a phrase. Such words are pre-selected in
+ * their weak form by default, which is the right choice in the vast majority of cases. At the end
+ * of a phrase, however, prepositions and auxiliaries are stressed and thus pronounced in their
+ * strong form, as in "Where are you <b>from</b>?" or "Yes, I <b>can</b>.".
+ * </p>
+ * <p>
+ * The strong form is looked for among the items of the preferred variety having the same word
+ * class as the selected one. Pronouns and determiners are deliberately left out, as they keep
+ * their weak form at the end of a phrase ("I saw him.").
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ */
+public class StrongFormRule extends AbstractPostProcessingRule {
+
+	/* Static Variables */
+	/** The prepositions, infinitive markers and auxiliaries the rule applies to. */
+	private static final Collection<String> LEMMAS = Arrays.asList("am", "are", "at", "be", "can", "could", "do",
+			"does", "for", "from", "had", "has", "have", "must", "of", "shall", "should", "to", "was", "were");
+
+	/* Static Methods */
+
+	/* Object Variables */
+
+	/* Constructors */
+
+	/* Object Methods */
+	@Override
+	public Collection<String> getLemmas() {
+		return LEMMAS;
+	}
+
+	@Override
+	public TranscriptionPart apply(PostProcessingContext context, int index) {
+
+		TranscriptionPart part = context.getPart(index);
+		TranscriptionItem selected = part.getSelectedItem();
+		if (selected == null || !context.isPhraseFinal(index)
+				|| selected.getTransType().equals(TranscriptionType.STRONG)) {
+			return part;
+		}
+
+		for (TranscriptionItem item : part.getCandidates()) {
+			if (item.getTransType().equals(TranscriptionType.STRONG) && item.getWordClass() == selected.getWordClass()
+					&& item.getVariety().equals(context.getPreferredVariety())) {
+				return part.withSelectedItem(item);
+			}
+		}
+		return part;
+	}
+}
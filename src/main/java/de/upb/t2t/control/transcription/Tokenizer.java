@@ -0,0 +1,294 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+/**
+ * <p>
+ * A hand-written, single-pass tokenizer that breaks an input into whitespace separated segments
+ * and dissects each of them into three spans: any leading non-word characters (e.g. opening
+ * quotation marks or a minus), the word body and any trailing non-word characters (e.g.
+ * punctuation or a currency character). Every character is classified exactly once and all spans
+ * are given as offsets into the original input, so that no regular expression has to be compiled
+ * and no intermediate <code>String</code> has to be built.
+ * </p>
+ * <p>
+ * Just like the <code>[\w&&[^_]]</code> character class used before, only the ASCII letters and
+ * digits count as word characters. Whitespace equals the <code>\s</code> character class. With
+ * <code>"'-12,345.6',"</code> serving as an example, the leading span would hold <code>'-</code>,
+ * the body <code>12,345.6</code> and the trailing span <code>',</code>. The tokenizer works like a
+ * cursor: call {@link #next()} to advance to the next segment and use the getters to retrieve its
+ * spans. Instances are not thread-safe.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see TranscriptionEngine
+ */
+public final class Tokenizer {
+
+	/* Static Variables */
+
+	/* Static Methods */
+	/**
+	 * Checks whether or not the given character is a whitespace character in terms of the
+	 * <code>\s</code> regex character class.
+	 *
+	 * @param c
+	 *            the character to check.
+	 * @return <code>true</code> if the character separates two segments.
+	 */
+	public static boolean isWhitespace(char c) {
+		switch (c) {
+		case ' ':
+		case '\t':
+		case '\n':
+		case '\u000B':
+		case '\f':
+		case '\r':
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * Checks whether or not the given character is a word character, i.e. an ASCII letter or
+	 * digit.
+	 *
+	 * @param c
+	 *            the character to check.
+	 * @return <code>true</code> if the character belongs to a word body.
+	 */
+	public static boolean isWordCharacter(char c) {
+		return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c);
+	}
+
+	/**
+	 * Checks whether or not the given character is an ASCII digit.
+	 *
+	 * @param c
+	 *            the character to check.
+	 * @return <code>true</code> if the character is one of '0' to '9'.
+	 */
+	public static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/* Object Variables */
+	/** The input to tokenize. */
+	private final CharSequence input;
+	/** The offset to stop at, usually the input's length. */
+	private final int length;
+	/** The offset at which the next segment will be searched for. */
+	private int position;
+	/** The number of segments that have been returned so far. */
+	private int segmentCount;
+	/** The offset of the current segment's first character. */
+	private int segmentStart;
+	/** The offset of the current segment's first word character; equals {@link #bodyEnd} if none. */
+	private int bodyStart;
+	/** The offset behind the current segment's last word character. */
+	private int bodyEnd;
+	/** The offset behind the current segment's last character. */
+	private int segmentEnd;
+	/** The number of digits inside the body. */
+	private int digits;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link Tokenizer} class.
+	 *
+	 * @param input
+	 *            the input to tokenize.
+	 */
+	public Tokenizer(CharSequence input) {
+		this(input, 0, input.length());
+	}
+
+	/**
+	 * Constructor for the {@link Tokenizer} class working on the given span of the input only,
+	 * e.g. a single sentence. Neither of the offsets must lie inside a segment. This allows several
+	 * tokenizers to work on different parts of the same input. Note that
+	 * {@link #getSegmentCount()} only counts the segments returned by this instance, whereas
+	 * {@link #isLastSegment()} refers to the end of the span.
+	 *
+	 * @param input
+	 *            the input to tokenize.
+	 * @param start
+	 *            the offset to start at.
+	 * @param end
+	 *            the offset to stop at.
+	 */
+	public Tokenizer(CharSequence input, int start, int end) {
+		this.input = input;
+		length = end;
+		position = skipWhitespace(start);
+	}
+
+	/* Object Methods */
+	/**
+	 * <p>
+	 * Advances to the next segment. The segment is scanned by a small state machine with the
+	 * states <i>leading</i>, <i>body</i> and <i>trailing</i>. Non-word characters following a word
+	 * character are held back as trailing characters. Should another word character follow, they
+	 * are committed to the body instead (as in "well-known" or "12,345").
+	 * </p>
+	 *
+	 * @return <code>true</code> if there was another segment; <code>false</code> if the end of
+	 *         the input has been reached.
+	 */
+	public boolean next() {
+
+		if (position >= length) {
+			return false;
+		}
+
+		// Reset the segment's state.
+		segmentStart = position;
+		bodyStart = -1;
+		bodyEnd = -1;
+		digits = 0;
+		State state = State.LEADING;
+
+		int i = position;
+		while (i < length) {
+
+			char c = input.charAt(i);
+			if (isWhitespace(c)) {
+				break;
+			}
+
+			if (isWordCharacter(c)) {
+
+				if (state == State.LEADING) {
+					bodyStart = i;
+				}
+
+				// Any held back trailing characters were inner ones after all.
+				state = State.BODY;
+				bodyEnd = i + 1;
+				if (isDigit(c)) {
+					digits++;
+				}
+
+			} else if (state != State.LEADING) {
+				state = State.TRAILING;
+			}
+			i++;
+		}
+
+		// A segment without any word character has an empty body at its very end.
+		segmentEnd = i;
+		if (bodyStart < 0) {
+			bodyStart = segmentEnd;
+			bodyEnd = segmentEnd;
+		}
+
+		segmentCount++;
+		position = skipWhitespace(segmentEnd);
+		return true;
+	}
+
+	/**
+	 * Returns the offset of the first non-whitespace character at or behind the given offset.
+	 *
+	 * @param offset
+	 *            the offset to start from.
+	 * @return the offset of the next non-whitespace character or the input's length.
+	 */
+	private int skipWhitespace(int offset) {
+		while (offset < length && isWhitespace(input.charAt(offset))) {
+			offset++;
+		}
+		return offset;
+	}
+
+	/* Getters and Setters */
+	/**
+	 * Indicates whether or not the current segment is the last one of the input.
+	 *
+	 * @return <code>true</code> if there is no further segment.
+	 */
+	public boolean isLastSegment() {
+		return position >= length;
+	}
+
+	/**
+	 * A getter for the number of segments that have been returned so far. Equals the (1-based)
+	 * index of the current segment.
+	 *
+	 * @return the number of segments.
+	 */
+	public int getSegmentCount() {
+		return segmentCount;
+	}
+
+	/**
+	 * A getter for the {@link #segmentStart} attribute.
+	 *
+	 * @return the offset of the current segment's first character.
+	 */
+	public int getSegmentStart() {
+		return segmentStart;
+	}
+
+	/**
+	 * A getter for the {@link #segmentEnd} attribute.
+	 *
+	 * @return the offset behind the current segment's last character.
+	 */
+	public int getSegmentEnd() {
+		return segmentEnd;
+	}
+
+	/**
+	 * A getter for the {@link #bodyStart} attribute. This is the end of the leading span.
+	 *
+	 * @return the offset of the body's first character.
+	 */
+	public int getBodyStart() {
+		return bodyStart;
+	}
+
+	/**
+	 * A getter for the {@link #bodyEnd} attribute. This is the start of the trailing span.
+	 *
+	 * @return the offset behind the body's last character.
+	 */
+	public int getBodyEnd() {
+		return bodyEnd;
+	}
+
+	/**
+	 * Indicates whether or not the current segment holds any word character.
+	 *
+	 * @return <code>true</code> if the body is not empty.
+	 */
+	public boolean hasBody() {
+		return bodyEnd > bodyStart;
+	}
+
+	/**
+	 * Indicates whether or not the current segment's body contains any digit.
+	 *
+	 * @return <code>true</code> if there is at least one digit inside the body.
+	 */
+	public boolean hasDigits() {
+		return digits > 0;
+	}
+
+	/* Sub-Classes */
+	/**
+	 * The states of the tokenizer's state machine.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static enum State {
+		/** No word character has been encountered inside the segment so far. */
+		LEADING,
+		/** The last character has been a word character. */
+		BODY,
+		/** Non-word characters following the body have been encountered. */
+		TRAILING;
+	}
+}
@@ -0,0 +1,1352 @@
+/**
+ *
+ */
+package de.upb.t2t.control.transcription;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Logger;
+
+import de.upb.t2t.control.Transcriber;
+import de.upb.t2t.control.database.AbstractLexicon;
+import de.upb.t2t.control.database.AbstractSQLiteBridge;
+import de.upb.t2t.control.gui.UserFeedbackProvider;
+import de.upb.t2t.control.scheduling.CancellationToken;
+import de.upb.t2t.control.sqlite.SQLiteBridgeDesktop;
+import de.upb.t2t.model.CurrencyCharacter;
+import de.upb.t2t.model.DatabaseEntry;
+import de.upb.t2t.model.PunctuationCharacter;
+import de.upb.t2t.model.TokenType;
+import de.upb.t2t.model.TranscriptionItem;
+import de.upb.t2t.model.TranscriptionPart;
+import de.upb.t2t.model.TranscriptionResult;
+import de.upb.t2t.model.TranscriptionSentence;
+import de.upb.t2t.model.TranscriptionToken;
+import de.upb.t2t.model.Variety;
+
+/**
+ * <p>
+ * The application's headless transcription engine. Its {@link #transcribe(String, Variety)}
+ * method converts a given {@link String} into an immutable {@link TranscriptionResult} without
+ * touching any JavaFx component whatsoever. It may therefore be used from a server, a batch job
+ * or a benchmark just as well as from the GUI, the latter being nothing but one consumer that
+ * renders the result (see {@link Transcriber}).
+ * </p>
+ * <p>
+ * Apart from its logger, the engine only holds the number words resolved from the current lexicon,
+ * which are immutable and replaced as a whole. It may thus safely be shared between threads.
+ * </p>
+ * <p>
+ * The input is transcribed sentence by sentence, each sentence being passed to a
+ * {@link SentenceListener} as soon as it is done. Inputs of at least {@link #PARALLEL_THRESHOLD}
+ * characters, e.g. a pasted chapter, are transcribed on a {@link ForkJoinPool}: sentences do not
+ * depend on each other and are transcribed in groups at the same time. Should a single sentence be
+ * that long, it is split into chunks at segment boundaries instead. Since a segment's delimiters
+ * and currency agreement depend on the preceding token, the chunks are joined by an ordered merge
+ * which analyses the first segments of each chunk anew once the preceding token is known. The
+ * context rules of the {@link PostProcessor} are always applied to whole sentences.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ * @see #transcribe(String, Variety, UserFeedbackProvider)
+ * @see TranscriptionResult
+ */
+public class TranscriptionEngine {
+
+	/* Static Variables */
+	/**
+	 * The minimum length of an input to be transcribed in parallel, roughly a page of text. Below
+	 * that, forking would cost more than it saves.
+	 */
+	public static final int PARALLEL_THRESHOLD = 4096;
+	/** The minimum length of a chunk transcribed by a single task. */
+	private static final int MIN_CHUNK_LENGTH = 1024;
+
+	/* Static Methods */
+	/**
+	 * Evaluates whether the given <code>String</code> equals an expression that would require any
+	 * following word, e.g. a currency character, to be in the singular. Its primary use is to
+	 * prepare the transcription of any special character that needs to be replaced by the
+	 * application prior to transcription. Examples for such expressions are "one", "a", "1", etc.
+	 *
+	 * @param string
+	 *            the <code>String</code> to evaluate.
+	 * @return <code>true</code> if the given <code>String</code> equals a singular expresion;
+	 *         <code>false</code> otherwise.
+	 * @see CurrencyCharacter
+	 */
+	private static boolean isSingularExpression(String string) {
+		switch (string) {
+		case "a":
+		case "one":
+		case "1":
+		case "-1":
+		case "1.00":
+		case "-1.00":
+		case "1.-":
+		case "single":
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * A simple convenience function to check whether the given <code>String</code> ends with a
+	 * minus character. If so then the minus would require to be transcribed, of course.
+	 * </p>
+	 * <p>
+	 * <b>Impotant:</b> Please note that there are roughly 10 UTF-8 characters that look like a
+	 * minus, but in fact are not. These may be various types of dashes or hyphens. Currently, this
+	 * function will only return <code>true</code> for the HTML entities &#45 (hyphen minus) and
+	 * &#8722 (minus sign).
+	 * </p>
+	 *
+	 * @param string
+	 *            the <code>String</code> to evaluate.
+	 * @return <code>true</code> if the <code>String</code> ends with a minus character.
+	 */
+	private static boolean stringEndsWithMinusCharacter(String string) {
+		if (string.isEmpty()) {
+			return false;
+		}
+
+		switch (string.charAt(string.length() - 1)) {
+		case '-':
+		case '−':
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * A convenience function to retrieve the last element of a {@link List} of
+	 * {@link TranscriptionToken}s. <code>null</code> is returned should the list be empty.
+	 *
+	 * @param list
+	 *            the list to retrieve the last element from.
+	 * @return the last element of the list; <code>null</code> if the list was empty.
+	 */
+	private static TranscriptionToken getLastToken(List<TranscriptionToken> list) {
+		return list.isEmpty() ? null : list.get(list.size() - 1);
+	}
+
+	/**
+	 * Returns the notational bar corresponding to the given delimiter mode, i.e. "|" for 1, "||"
+	 * for 2 and an empty <code>String</code> for anything else.
+	 *
+	 * @param delimiterMode
+	 *            the delimiter mode of a {@link PunctuationCharacter}.
+	 * @return the corresponding delimiter text.
+	 */
+	private static String getDelimiterText(int delimiterMode) {
+		switch (delimiterMode) {
+		case 1:
+			return "|";
+		case 2:
+			return "||";
+		default:
+			return "";
+		}
+	}
+
+	/**
+	 * Creates a new token that contains nothing transcriptionwise but the notational slash ("/")
+	 * that signals the beginning and ending of a transcription.
+	 *
+	 * @param offset
+	 *            the offset inside the input at which the delimiter is placed.
+	 * @return a new enclosing delimiter token.
+	 */
+	private static TranscriptionToken newEnclosingDelimiterToken(int offset) {
+		List<TranscriptionPart> parts = new ArrayList<TranscriptionPart>(1);
+		parts.add(TranscriptionPart.newDelimiter("/", true));
+		return new TranscriptionToken(TokenType.ENCLOSING_DELIMITER, offset, offset, "", "", "", parts);
+	}
+
+	/* Object Variables */
+	/** The {@link TranscriptionEngine} instance's {@link Logger} object. */
+	private Logger logger;
+	/** The post processor applied to all transcriptions. */
+	private final PostProcessor postProcessor;
+	/** The pool to transcribe long inputs on; <code>null</code> if they should not be split. */
+	private final ForkJoinPool pool;
+	/** The number words resolved from the most recently used lexicon. */
+	private volatile NumberWords numberWords;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link TranscriptionEngine} class applying the default post-processing
+	 * rules and transcribing long inputs on the common {@link ForkJoinPool}.
+	 *
+	 * @see PostProcessor#getDefault()
+	 */
+	public TranscriptionEngine() {
+		this(PostProcessor.getDefault());
+	}
+
+	/**
+	 * Constructor for the {@link TranscriptionEngine} class transcribing long inputs on the common
+	 * {@link ForkJoinPool}.
+	 *
+	 * @param postProcessor
+	 *            the post processor to apply to all transcriptions.
+	 */
+	public TranscriptionEngine(PostProcessor postProcessor) {
+		this(postProcessor, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Constructor for the {@link TranscriptionEngine} class.
+	 *
+	 * @param postProcessor
+	 *            the post processor to apply to all transcriptions.
+	 * @param pool
+	 *            the pool to transcribe inputs of at least {@link #PARALLEL_THRESHOLD} characters
+	 *            on; <code>null</code> if all inputs should be transcribed sequentially.
+	 */
+	public TranscriptionEngine(PostProcessor postProcessor, ForkJoinPool pool) {
+		logger = Logger.getLogger(getClass().getName());
+		this.postProcessor = postProcessor;
+		this.pool = pool;
+	}
+
+	/* Object Methods */
+	/**
+	 * Convenience method that calls {@link #transcribe(String, Variety, UserFeedbackProvider)}
+	 * without any feedback provider.
+	 *
+	 * @param input
+	 *            the input <code>String</code> to transcribe.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @return the transcription result.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	public TranscriptionResult transcribe(String input, Variety preferredVariety) throws Exception {
+		return transcribe(input, preferredVariety, null);
+	}
+
+	/**
+	 * <p>
+	 * This probably is the most central method in the entire application. Its use is to parse a
+	 * given <code>String</code> and transform it into a phonetic transcription. The procedure
+	 * includes the following steps which are for the sake of readability not written in
+	 * pseudo-code.
+	 * </p>
+	 * <ul>
+	 * <li>Dealing with any potential non-word characters, such as currencies ('$', '€', ...) or
+	 * numeric expressions ('2015', '-1,234,567.89', '3rd', '50%', '12:30', ...), but also
+	 * punctuation characters. The latter includes applying the notational delimiter elements, i.e.
+	 * '/', '|' and '||'.</li>
+	 * <li>Breaking up the <code>String</code> into sentences and paragraphs by means of the
+	 * {@link SentenceSegmenter}. Each sentence is enclosed by notational slashes of its own.</li>
+	 * <li>Breaking up each sentence into segments that can be looked up in the database.</li>
+	 * <li>Collecting the distinct lemmas of all segments of a sentence and resolving them with a
+	 * single call to {@link AbstractSQLiteBridge#queryDatabase(java.util.Collection)}.</li>
+	 * <li>Providing the corresponding transcription pieces.</li>
+	 * <li>Flagging word class conflicts (e.g. "might" as a modal auxiliary vs. "might" as a common
+	 * noun) since these cannot be resolved algorithmically, so that the user can make the choice
+	 * instead.</li>
+	 * <li>Applying the context rules of the {@link PostProcessor}, e.g. adjusting "the" to the
+	 * following word.</li>
+	 * </ul>
+	 *
+	 * @param input
+	 *            the input <code>String</code> to transcribe.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @return the transcription result.
+	 * @throws Exception
+	 *             most likely if the currently used instance {@link AbstractSQLiteBridge} throws
+	 *             one while querying the database, e.g. an <code>SQLException</code> in case of
+	 *             the {@link SQLiteBridgeDesktop}.
+	 * @see CurrencyCharacter
+	 * @see PunctuationCharacter
+	 */
+	public TranscriptionResult transcribe(String input, Variety preferredVariety, UserFeedbackProvider feedback)
+			throws Exception {
+		return transcribe(input, preferredVariety, feedback, null);
+	}
+
+	/**
+	 * Transcribes the given input just like
+	 * {@link #transcribe(String, Variety, UserFeedbackProvider)}, but checks the given token for
+	 * cancellation between each two segments and before each further stage.
+	 *
+	 * @param input
+	 *            the input <code>String</code> to transcribe.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the transcription result.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	public TranscriptionResult transcribe(String input, Variety preferredVariety, UserFeedbackProvider feedback,
+			CancellationToken token) throws CancellationException, Exception {
+		return transcribe(input, preferredVariety, feedback, token, null);
+	}
+
+	/**
+	 * Transcribes the given input just like
+	 * {@link #transcribe(String, Variety, UserFeedbackProvider, CancellationToken)}, but hands
+	 * every sentence to the given listener as soon as it has been transcribed. Thus, a consumer is
+	 * able to display the first sentence of a long input right away.
+	 *
+	 * @param input
+	 *            the input <code>String</code> to transcribe.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @param listener
+	 *            the listener to pass the sentences to in order; may be <code>null</code>.
+	 * @return the transcription result.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	public TranscriptionResult transcribe(String input, Variety preferredVariety, UserFeedbackProvider feedback,
+			CancellationToken token, SentenceListener listener) throws CancellationException, Exception {
+
+		// Write a log message. Note that the input is not modified, as all tokens refer to it by
+		// their offsets.
+		logger.info("\n*********************************************************" + "\nTranscribing: " + input.trim()
+				+ " ..." + "\n*********************************************************");
+
+		List<TranscriptionSentence> sentences = new ArrayList<TranscriptionSentence>();
+		if (pool != null && input.length() >= PARALLEL_THRESHOLD) {
+			transcribeInParallel(input, preferredVariety, feedback, token, listener, sentences);
+		} else {
+			SentenceSegmenter segmenter = new SentenceSegmenter(input);
+			while (segmenter.next()) {
+				SentenceSpan span = new SentenceSpan(segmenter.getSentenceStart(), segmenter.getSentenceEnd(),
+						segmenter.isParagraphStart());
+				emit(transcribeSentence(input, span, sentences.size(), preferredVariety, token), sentences, input,
+						feedback, listener);
+			}
+		}
+		return new TranscriptionResult(input, sentences);
+	}
+
+	/**
+	 * Adds the given sentence to the result, reports the progress and passes the sentence on to
+	 * the listener.
+	 *
+	 * @param sentence
+	 *            the sentence that has been transcribed.
+	 * @param sentences
+	 *            the sentences transcribed so far.
+	 * @param input
+	 *            the input that is being transcribed.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @param listener
+	 *            the listener to pass the sentence to; may be <code>null</code>.
+	 */
+	private void emit(TranscriptionSentence sentence, List<TranscriptionSentence> sentences, String input,
+			UserFeedbackProvider feedback, SentenceListener listener) {
+		sentences.add(sentence);
+		if (feedback != null) {
+			feedback.progressFeedback(((double) sentence.getEnd()) / ((double) input.length()),
+					"Transcribed sentence " + sentences.size() + " ...");
+		}
+		if (listener != null) {
+			listener.onSentenceTranscribed(sentence);
+		}
+	}
+
+	/**
+	 * Transcribes a single sentence. Its tokens are enclosed by notational slashes and, should it
+	 * start a new paragraph, preceded by a paragraph break. Sentences of at least
+	 * {@link #PARALLEL_THRESHOLD} characters are split into chunks (see {@link ChunkTask}).
+	 *
+	 * @param input
+	 *            the input to transcribe.
+	 * @param span
+	 *            the sentence's span inside the input.
+	 * @param index
+	 *            the sentence's (0-based) position inside the result.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the transcribed sentence.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	private TranscriptionSentence transcribeSentence(String input, SentenceSpan span, int index,
+			Variety preferredVariety, CancellationToken token) throws CancellationException, Exception {
+
+		logger.fine("Transcribing sentence " + (index + 1) + ": \"" + input.substring(span.start, span.end)
+				+ "\" ...");
+
+		List<TranscriptionToken> tokens = new ArrayList<TranscriptionToken>();
+		if (span.paragraphStart) {
+			tokens.add(new TranscriptionToken(TokenType.PARAGRAPH_BREAK, span.start, span.start, "", "", "",
+					Collections.<TranscriptionPart> emptyList()));
+		}
+		TranscriptionToken opening = newEnclosingDelimiterToken(span.start);
+		tokens.add(opening);
+		if (pool != null && span.end - span.start >= PARALLEL_THRESHOLD) {
+			tokens.addAll(transcribeChunks(input, span.start, span.end, preferredVariety, token));
+		} else {
+			tokens.addAll(transcribeRange(input, span.start, span.end, span.end, opening, preferredVariety, token));
+		}
+		tokens.add(newEnclosingDelimiterToken(span.end));
+
+		if (token != null) {
+			token.throwIfCancelled();
+		}
+		postProcessor.process(tokens, preferredVariety, null);
+		return new TranscriptionSentence(index, span.start, span.end, span.paragraphStart, tokens);
+	}
+
+	/**
+	 * Analyses all segments starting inside the given span of a sentence and resolves their
+	 * lemmas with a single lookup.
+	 *
+	 * @param input
+	 *            the input to transcribe.
+	 * @param start
+	 *            the offset of the span's first character; must not lie inside a segment.
+	 * @param end
+	 *            the offset behind the span's last character.
+	 * @param limit
+	 *            the offset behind the sentence's last character.
+	 * @param previous
+	 *            the token preceding the span; <code>null</code> if unknown.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the resolved tokens of all segments inside the span.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	private List<TranscriptionToken> transcribeRange(String input, int start, int end, int limit,
+			TranscriptionToken previous, Variety preferredVariety, CancellationToken token)
+			throws CancellationException, Exception {
+
+		// All lemmas are only collected by the batch while analysing the segments, so that the
+		// database has to be queried only once for the whole span.
+		List<TranscriptionToken> tokens = new ArrayList<TranscriptionToken>();
+		LookupBatch batch = new LookupBatch(preferredVariety);
+
+		// We're good to go. Cleft the span into segments and process each of them.
+		Tokenizer tokenizer = new Tokenizer(input, start, limit);
+		NumeralRecognizer recognizer = new NumeralRecognizer(input);
+		while (tokenizer.next() && tokenizer.getSegmentStart() < end) {
+
+			if (token != null) {
+				token.throwIfCancelled();
+			}
+
+			logger.finer("Analysing segment " + tokenizer.getSegmentCount() + ": \""
+					+ input.substring(tokenizer.getSegmentStart(), tokenizer.getSegmentEnd()) + "\" ...");
+			tokens.add(analyseSegment(input, tokenizer, recognizer,
+					tokens.isEmpty() ? previous : getLastToken(tokens), batch));
+		}
+
+		// Resolve all collected lemmas at once and replace the placeholders.
+		if (token != null) {
+			token.throwIfCancelled();
+		}
+		logger.finer("Resolving " + batch.getLemmas().size() + " distinct lemmas ...");
+		Map<String, DatabaseEntry> entries = resolveLemmas(batch.getLemmas());
+		for (int i = 0; i < tokens.size(); i++) {
+			tokens.set(i, batch.resolve(tokens.get(i), entries));
+		}
+		return tokens;
+	}
+
+	/**
+	 * Transcribes the sentences of a long input on the {@link #pool}. The sentences are grouped
+	 * into {@link SentenceTask}s of at least {@link #MIN_CHUNK_LENGTH} characters, apart from the
+	 * very first sentence, which is transcribed on its own so that it can be passed on as soon as
+	 * possible. All tasks are submitted at once and joined in order.
+	 *
+	 * @param input
+	 *            the input to transcribe.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param feedback
+	 *            the provider to report the progress to; may be <code>null</code>.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @param listener
+	 *            the listener to pass the sentences to in order; may be <code>null</code>.
+	 * @param sentences
+	 *            the list to add the transcribed sentences to.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	private void transcribeInParallel(String input, Variety preferredVariety, UserFeedbackProvider feedback,
+			CancellationToken token, SentenceListener listener, List<TranscriptionSentence> sentences)
+			throws CancellationException, Exception {
+
+		// Segmenting the input is cheap compared to transcribing it, so do it right away.
+		List<SentenceTask> tasks = new ArrayList<SentenceTask>();
+		List<SentenceSpan> group = new ArrayList<SentenceSpan>();
+		int count = 0;
+		SentenceSegmenter segmenter = new SentenceSegmenter(input);
+		while (segmenter.next()) {
+			group.add(new SentenceSpan(segmenter.getSentenceStart(), segmenter.getSentenceEnd(),
+					segmenter.isParagraphStart()));
+			count++;
+			if (tasks.isEmpty() || segmenter.getSentenceEnd() - group.get(0).start >= MIN_CHUNK_LENGTH) {
+				tasks.add(new SentenceTask(input, group, count - group.size(), preferredVariety, token));
+				group = new ArrayList<SentenceSpan>();
+			}
+		}
+		if (!group.isEmpty()) {
+			tasks.add(new SentenceTask(input, group, count - group.size(), preferredVariety, token));
+		}
+
+		logger.fine("Transcribing " + count + " sentences in " + tasks.size() + " tasks on " + pool + " ...");
+		for (SentenceTask task : tasks) {
+			pool.execute(task);
+		}
+		try {
+			for (SentenceTask task : tasks) {
+				for (TranscriptionSentence sentence : task.join()) {
+					emit(sentence, sentences, input, feedback, listener);
+				}
+			}
+		} catch (CompletionException e) {
+			throw unwrap(e);
+		} finally {
+
+			// Don't leave any tasks behind in case something went wrong.
+			for (SentenceTask task : tasks) {
+				task.cancel(false);
+			}
+		}
+	}
+
+	/**
+	 * Splits the given sentence into chunks and transcribes them on the {@link #pool}. See
+	 * {@link ChunkTask} for details.
+	 *
+	 * @param input
+	 *            the input to transcribe.
+	 * @param start
+	 *            the offset of the sentence's first character.
+	 * @param end
+	 *            the offset behind the sentence's last character.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @param token
+	 *            the token to check for cancellation; may be <code>null</code>.
+	 * @return the resolved tokens of all segments of the sentence.
+	 * @throws CancellationException
+	 *             if the token has been cancelled.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	private List<TranscriptionToken> transcribeChunks(String input, int start, int end, Variety preferredVariety,
+			CancellationToken token) throws CancellationException, Exception {
+
+		// Place the chunk boundaries at the start of the first segment behind the desired length.
+		int chunkLength = Math.max(MIN_CHUNK_LENGTH, (end - start) / (pool.getParallelism() * 4));
+		List<Integer> boundaries = new ArrayList<Integer>();
+		boundaries.add(start);
+		int offset = start + chunkLength;
+		while (offset < end) {
+			while (offset < end && !Tokenizer.isWhitespace(input.charAt(offset))) {
+				offset++;
+			}
+			while (offset < end && Tokenizer.isWhitespace(input.charAt(offset))) {
+				offset++;
+			}
+			if (offset < end) {
+				boundaries.add(offset);
+			}
+			offset += chunkLength;
+		}
+		boundaries.add(end);
+
+		logger.fine("Transcribing " + (boundaries.size() - 1) + " chunks on " + pool + " ...");
+		try {
+			return pool.invoke(new ChunkTask(input, boundaries, 0, boundaries.size() - 1, preferredVariety, token));
+		} catch (CompletionException e) {
+			throw unwrap(e);
+		}
+	}
+
+	/**
+	 * Unwraps whatever exception a task has thrown.
+	 *
+	 * @param e
+	 *            the exception thrown by the task.
+	 * @return the exception to rethrow.
+	 */
+	private Exception unwrap(CompletionException e) {
+		Throwable cause = e;
+		while (cause instanceof CompletionException && cause.getCause() != null) {
+			cause = cause.getCause();
+		}
+		return cause instanceof Exception ? (Exception) cause : e;
+	}
+
+	/**
+	 * <p>
+	 * Appends the tokens of the right chunk to those of the left chunk. As the first segment of the
+	 * right chunk has been analysed without knowing its predecessor, it is analysed anew with the
+	 * last token of the left chunk. This fixes any delimiter that must be suppressed because the
+	 * left chunk already ends in one as well as the singular/plural agreement of a currency
+	 * character.
+	 * </p>
+	 * <p>
+	 * The only property of a token that the analysis of its successor depends on and that in turn
+	 * depends on the token's own predecessor is whether or not it ends in a delimiter. Should it
+	 * have changed, the next segment is analysed anew as well, and so forth.
+	 * </p>
+	 *
+	 * @param input
+	 *            the input to transcribe.
+	 * @param left
+	 *            the tokens of the left chunk; will be modified.
+	 * @param right
+	 *            the tokens of the right chunk.
+	 * @param rightStart
+	 *            the offset of the right chunk's first character.
+	 * @param limit
+	 *            the offset behind the sentence's last character.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @return the merged list.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	private List<TranscriptionToken> merge(String input, List<TranscriptionToken> left, List<TranscriptionToken> right,
+			int rightStart, int limit, Variety preferredVariety) throws Exception {
+
+		Tokenizer tokenizer = new Tokenizer(input, rightStart, limit);
+		NumeralRecognizer recognizer = new NumeralRecognizer(input);
+		int index = 0;
+		boolean changed = true;
+		while (changed && index < right.size() && tokenizer.next()) {
+			LookupBatch batch = new LookupBatch(preferredVariety);
+			TranscriptionToken analysed = analyseSegment(input, tokenizer, recognizer, getLastToken(left), batch);
+			analysed = batch.resolve(analysed, resolveLemmas(batch.getLemmas()));
+			changed = analysed.hasTrailingDelimiter() != right.get(index).hasTrailingDelimiter();
+			left.add(analysed);
+			index++;
+		}
+		left.addAll(right.subList(index, right.size()));
+		return left;
+	}
+
+	/**
+	 * Resolves the given lemmas. If the lexicon has been loaded, all number words are taken from
+	 * the resident ones (see {@link #getNumberWords(AbstractLexicon)}) and only the remaining
+	 * lemmas are looked up.
+	 *
+	 * @param lemmas
+	 *            the lemmas to resolve.
+	 * @return a map of the given lemmas, exactly as given, to their corresponding entries.
+	 * @throws Exception
+	 *             if the currently used instance of {@link AbstractSQLiteBridge} throws one while
+	 *             querying the database.
+	 */
+	private Map<String, DatabaseEntry> resolveLemmas(Set<String> lemmas) throws Exception {
+
+		AbstractSQLiteBridge bridge = AbstractSQLiteBridge.getInstance();
+		AbstractLexicon lexicon = bridge.getLexicon();
+		if (lexicon == null) {
+			return bridge.queryDatabase(lemmas);
+		}
+
+		Map<String, DatabaseEntry> numbers = getNumberWords(lexicon);
+		Map<String, DatabaseEntry> result = new HashMap<String, DatabaseEntry>();
+		List<String> remaining = new ArrayList<String>(lemmas.size());
+		for (String lemma : lemmas) {
+			DatabaseEntry entry = numbers.get(lemma);
+			if (entry != null) {
+				result.put(lemma, entry);
+			} else {
+				remaining.add(lemma);
+			}
+		}
+		result.putAll(lexicon.lookUp(remaining));
+		return result;
+	}
+
+	/**
+	 * Transcribes the tokenizer's current segment.
+	 *
+	 * @param input
+	 *            the input the tokenizer is working on.
+	 * @param tokenizer
+	 *            the tokenizer holding the spans of the segment to transcribe.
+	 * @param recognizer
+	 *            the recognizer for any numeric expression inside the segment.
+	 * @param previous
+	 *            the token preceding this segment.
+	 * @param batch
+	 *            the batch collecting the lemmas to look up.
+	 * @return the corresponding token, whose word parts are yet to be resolved by the batch.
+	 */
+	private TranscriptionToken analyseSegment(String input, Tokenizer tokenizer, NumeralRecognizer recognizer,
+			TranscriptionToken previous, LookupBatch batch) {
+
+		/*
+		 * Before we can look up any translation for our sentence part, we need to distinguish from
+		 * the actual lemma potential non-word characters such as punctuation or, for example, those
+		 * indicating a currency ($, €, £, ...). The tokenizer has already done so, leaving us with
+		 * three spans: [segmentStart, bodyStart) holds the leading non-word characters, [bodyStart,
+		 * bodyEnd) the lemma and [bodyEnd, segmentEnd) the trailing ones. For instance, "'hello!',"
+		 * would lead to "'", "hello" and "!',", while "well-known" is a body of its own.
+		 */
+		int segmentStart = tokenizer.getSegmentStart();
+		int segmentEnd = tokenizer.getSegmentEnd();
+		int bodyStart = tokenizer.getBodyStart();
+		int bodyEnd = tokenizer.getBodyEnd();
+		boolean lastSegment = tokenizer.isLastSegment();
+		List<TranscriptionPart> parts = new ArrayList<TranscriptionPart>();
+
+		// //////////////////////// //
+		// NON-WORD CHARACTERS ONLY //
+		// //////////////////////// //
+		if (!tokenizer.hasBody()) {
+
+			logger.finer("No word character in this segment.");
+			String segment = input.substring(segmentStart, segmentEnd);
+
+			// Only a single character (e.g. "-")?
+			if (segmentEnd - segmentStart == 1) {
+
+				logger.finer("Only a single character in the input.");
+
+				char character = input.charAt(segmentStart);
+
+				// Are we dealing with a punctuation character?
+				PunctuationCharacter punctChar = PunctuationCharacter.findPunctChar(character);
+				if (punctChar != null) {
+
+					logger.finer("Punctuation character found.");
+
+					// Only add a delimiter if this is not the last segment and if there is no
+					// preceding delimiter from the previous segment/sentence start.
+					if (previous != null && !previous.hasTrailingDelimiter() && !lastSegment) {
+						logger.finer("Adding inner delimiter token ...");
+						parts.add(TranscriptionPart.newDelimiter(getDelimiterText(punctChar.getDelimiterMode()), false));
+					} else {
+						logger.finer("Adding token without transcription ...");
+					}
+					return new TranscriptionToken(TokenType.PUNCTUATION, segmentStart, segmentEnd, "", segment, "",
+							parts);
+				}
+
+				// Are we dealing with a currency character?
+				CurrencyCharacter currencyChar = CurrencyCharacter.findCurrencyChar(character);
+				if (currencyChar != null) {
+
+					logger.finer("Currency character found.");
+
+					// Determine whether we need to look up the singular or plural.
+					if (previous != null && previous.getType() != TokenType.ENCLOSING_DELIMITER) {
+						if (isSingularExpression(previous.getText())) {
+							logger.finer("Singular form required.");
+							parts.add(batch.request(currencyChar.getSingularLemma()));
+						} else {
+							logger.finer("Plural form required.");
+							parts.add(batch.request(currencyChar.getPluralLemma()));
+						}
+
+					} else {
+
+						logger.finer("Unable to decide for singular/plural!");
+
+						/*
+						 * This is the first segment in the input. We have no means of
+						 * distinguishing whether to look up the singular or plural. As a
+						 * workaround, we'll do something unique and simply offer both.
+						 */
+						parts.add(batch.request(currencyChar.getSingularLemma(), currencyChar.getPluralLemma()));
+					}
+					return new TranscriptionToken(TokenType.WORD, segmentStart, segmentEnd, "", segment, "", parts);
+				}
+
+				// None of the above? Nothing special we can do then.
+			}
+
+			// So there are multiple non-word characters (as in "..."). Not much we can do here.
+			logger.finer("Bluntly adding new token with the bare string as the queried item");
+			parts.add(batch.request(segment));
+			return new TranscriptionToken(TokenType.WORD, segmentStart, segmentEnd, "", segment, "", parts);
+		}
+
+		/*
+		 * So far, we have made sure that there actually is a word that we can transcribe. At this
+		 * point, we are finally able to begin with the actual work. The strMiddle holds the lemma,
+		 * while the other 2 strings contain whatever other characters there may be. There are
+		 * several use cases that need attending now. We must make sure that leading punctuation may
+		 * sometimes lead to a delimiter element (e.g. if a direct speech begins). After that, the
+		 * lemma is to be transcribed. However, it might be possible for a user to have for example
+		 * given a numeral in digits which have to be transformed prior to querying the database.
+		 * Lastly, any trailing punctuation must be appropriately dealt with.
+		 */
+		String strLeading = input.substring(segmentStart, bodyStart);
+		String strMiddle = input.substring(bodyStart, bodyEnd);
+		String strTrailing = input.substring(bodyEnd, segmentEnd);
+		PunctuationCharacter punctChar;
+
+		// /////////////////// //
+		// LEADING PUNCTUATION //
+		// /////////////////// //
+		if (bodyStart > segmentStart) {
+
+			punctChar = findHighestPunctChar(input, segmentStart, bodyStart);
+
+			if (punctChar != null) {
+
+				// Quotation marks are a special case.
+				if (punctChar.getCharacter() == '"' && strTrailing.indexOf('"') >= 0) {
+
+					// Do nothing. Just a single word being highlighted as in 'He said a short
+					// "hello"'.
+					logger.finer("Not adding a leading delimiter element as this segment is surrounded by \" \"!");
+
+				} else if (punctChar.getDelimiterMode() > 0) {
+
+					// Make sure there isn't already a delimiter element preceding this one.
+					if (previous != null && !previous.hasTrailingDelimiter()) {
+						logger.finer("Adding new delimiter element as there is non preceding this segment.");
+						parts.add(TranscriptionPart.newDelimiter(punctChar.getDelimiterMode() == 2 ? "||" : "|",
+								false));
+					}
+				}
+			}
+		}
+
+		// /////////////////// //
+		// LEMMA TRANSCRIPTION //
+		// /////////////////// //
+		List<TranscriptionPart> alternativeParts = new ArrayList<TranscriptionPart>();
+
+		// Is there any digit in the input?
+		if (tokenizer.hasDigits()) {
+
+			logger.fine("Found digits inside the input.");
+
+			// Recognize numerals, ordinals, dates, etc. Anything else is looked up as it is.
+			boolean negative = stringEndsWithMinusCharacter(strLeading);
+			NumericExpression expression = recognizer.recognize(bodyStart, bodyEnd, segmentEnd, negative);
+			if (expression == null) {
+				parts.add(batch.request(strMiddle));
+
+			} else {
+
+				logger.finer("Numeric expression identified: " + expression);
+
+				// If there is one, migrate the minus character from the leading to the middle
+				// string for nicer display.
+				if (negative && expression.getKind().isSigned()) {
+					strMiddle = strLeading.charAt(strLeading.length() - 1) + strMiddle;
+					strLeading = strLeading.substring(0, strLeading.length() - 1);
+
+					// Transcribe the minus.
+					parts.add(batch.request("minus"));
+				}
+
+				// Now transcribe the expression. Should the number represent a year, the
+				// expression also holds the "common" reading so that the user is able to switch
+				// between the two.
+				parts.addAll(batch.requestAll(expression.getKeys()));
+				alternativeParts.addAll(batch.requestAll(expression.getAlternativeKeys()));
+
+				// Migrate any trailing character that belongs to the expression (e.g. '%') to
+				// the middle string.
+				if (expression.getEnd() > bodyEnd) {
+					strMiddle += input.substring(bodyEnd, expression.getEnd());
+					strTrailing = input.substring(expression.getEnd(), segmentEnd);
+					bodyEnd = expression.getEnd();
+				}
+			}
+
+		} else {
+			// Just a normal word.
+			parts.add(batch.request(strMiddle));
+		}
+
+		// //////////////////// //
+		// TRAILING PUNCTUATION //
+		// //////////////////// //
+		if (segmentEnd > bodyEnd) {
+
+			// Check for any currency char that might directly follow the middle string.
+			CurrencyCharacter currencyChar = CurrencyCharacter.findCurrencyChar(input.charAt(bodyEnd));
+			if (currencyChar != null) {
+
+				// Transcribe the currency character and migrate it to the middle string.
+				if (isSingularExpression(strMiddle)) {
+					parts.add(batch.request(currencyChar.getSingularLemma()));
+				} else {
+					parts.add(batch.request(currencyChar.getPluralLemma()));
+				}
+				strMiddle += currencyChar.getCharacter();
+				strTrailing = strTrailing.substring(1);
+			}
+
+			punctChar = findHighestPunctChar(input, bodyEnd, segmentEnd);
+
+			if (punctChar != null) {
+
+				// Quotation marks are a special case.
+				if (punctChar.getCharacter() == '"' && strLeading.indexOf('"') >= 0) {
+
+					// Do nothing. Just a single word being highlighted as in 'he said a short
+					// "hello"'.
+					logger.finer("Not adding a trailing delimiter element as this segment is surrounded by \" \"!");
+
+				} else if (punctChar.getDelimiterMode() > 0 && !lastSegment) {
+
+					// Finally add the delimiter element.
+					logger.finer("Adding trailing delimiter ...");
+					parts.add(TranscriptionPart.newDelimiter(punctChar.getDelimiterMode() == 2 ? "||" : "|", false));
+				}
+			}
+		}
+
+		return new TranscriptionToken(TokenType.WORD, segmentStart, segmentEnd, strLeading, strMiddle, strTrailing,
+				parts, alternativeParts);
+	}
+
+	/**
+	 * A convenience function that will run through the given span of the input and, should there
+	 * be anyone inside, return the punctuation character with the highest delimier mode. This is
+	 * useful when deciding which notational bar delimiter to add ('|' vs. '||'). Should there be
+	 * several characters of the same mode, the first one is returned.
+	 *
+	 * @param input
+	 *            the input holding the span.
+	 * @param start
+	 *            the offset of the span's first character.
+	 * @param end
+	 *            the offset behind the span's last character.
+	 * @return the {@link PunctuationCharacter} with the highest delimiter mode inside the given
+	 *         span; <code>null</code> if there isn't any
+	 */
+	private PunctuationCharacter findHighestPunctChar(String input, int start, int end) {
+		PunctuationCharacter result = null;
+		for (int i = start; i < end; i++) {
+			PunctuationCharacter punctChar = PunctuationCharacter.findPunctChar(input.charAt(i));
+			if (punctChar != null && (result == null || punctChar.getDelimiterMode() > result.getDelimiterMode())) {
+				result = punctChar;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number words kept resident for the given lexicon. They are looked up only once
+	 * per lexicon version, as numerals are frequent, but made up of the very same three dozen
+	 * words.
+	 *
+	 * @param lexicon
+	 *            the lexicon to resolve the number words from.
+	 * @return an unmodifiable map of all {@link NumeralVerbalizer#NUMBER_WORDS} to their entries.
+	 */
+	private Map<String, DatabaseEntry> getNumberWords(AbstractLexicon lexicon) {
+		NumberWords current = numberWords;
+		if (current == null || current.lexicon != lexicon) {
+			logger.fine("Resolving number words from " + lexicon + " ...");
+			current = new NumberWords(lexicon);
+			numberWords = current;
+		}
+		return current.entries;
+	}
+
+	/* Getters and Setters */
+
+	/* Sub-Classes */
+	/**
+	 * <p>
+	 * Collects the lemmas to look up while the segments of an input are being analysed. Instead of
+	 * querying the database right away, {@link #request(String...)} hands out a placeholder part
+	 * which is replaced by {@link #resolve(TranscriptionToken, Map)} once all lemmas have been
+	 * resolved in one go. Placeholders are told apart by their identity, so they must not be
+	 * copied before being resolved. A batch is meant to be used for a single input and by a single
+	 * thread only.
+	 * </p>
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class LookupBatch {
+
+		/** The variety to prefer when pre-selecting transcription items. */
+		private final Variety preferredVariety;
+		/** The distinct lemmas requested so far, in the order of their first request. */
+		private final Set<String> lemmas;
+		/** The lemmas each placeholder part stands for. */
+		private final Map<TranscriptionPart, String[]> placeholders;
+
+		/**
+		 * Constructor for the {@link LookupBatch} class.
+		 *
+		 * @param preferredVariety
+		 *            the variety to prefer when pre-selecting transcription items.
+		 */
+		private LookupBatch(Variety preferredVariety) {
+			this.preferredVariety = preferredVariety;
+			lemmas = new LinkedHashSet<String>();
+			placeholders = new IdentityHashMap<TranscriptionPart, String[]>();
+		}
+
+		/**
+		 * Requests the given lemmas to be looked up and returns a placeholder part for them. Should
+		 * several lemmas be given, the resolved part will offer the items of all of them, using
+		 * the first one as its lemma.
+		 *
+		 * @param requested
+		 *            the lemmas to look up; at least one.
+		 * @return the placeholder part.
+		 */
+		private TranscriptionPart request(String... requested) {
+			for (String lemma : requested) {
+				lemmas.add(lemma);
+			}
+			TranscriptionPart placeholder = TranscriptionPart.newWord(requested[0].toLowerCase(),
+					Collections.<TranscriptionItem> emptyList(), preferredVariety);
+			placeholders.put(placeholder, requested);
+			return placeholder;
+		}
+
+		/**
+		 * Requests each of the given lemmas to be looked up on its own.
+		 *
+		 * @param requested
+		 *            the lemmas to look up, e.g. the keys returned by the {@link NumeralVerbalizer}.
+		 * @return a list holding one placeholder part per lemma.
+		 * @see #request(String...)
+		 */
+		private List<TranscriptionPart> requestAll(List<String> requested) {
+			List<TranscriptionPart> result = new ArrayList<TranscriptionPart>(requested.size());
+			for (String lemma : requested) {
+				result.add(request(lemma));
+			}
+			return result;
+		}
+
+		/**
+		 * Replaces all placeholders of the given token by the parts resolved from the given
+		 * entries.
+		 *
+		 * @param token
+		 *            the token to resolve.
+		 * @param entries
+		 *            the entries of all requested lemmas as returned by
+		 *            {@link AbstractSQLiteBridge#queryDatabase(java.util.Collection)}.
+		 * @return the resolved token; the very same instance if it did not hold any placeholder.
+		 */
+		private TranscriptionToken resolve(TranscriptionToken token, Map<String, DatabaseEntry> entries) {
+			if (!containsPlaceholder(token.getParts()) && !containsPlaceholder(token.getAlternativeParts())) {
+				return token;
+			}
+			return token.withParts(resolve(token.getParts(), entries), resolve(token.getAlternativeParts(), entries));
+		}
+
+		/**
+		 * Replaces all placeholders inside the given list by the parts resolved from the given
+		 * entries.
+		 *
+		 * @param parts
+		 *            the parts to resolve.
+		 * @param entries
+		 *            the entries of all requested lemmas.
+		 * @return a new list holding the resolved parts.
+		 */
+		private List<TranscriptionPart> resolve(List<TranscriptionPart> parts, Map<String, DatabaseEntry> entries) {
+			List<TranscriptionPart> result = new ArrayList<TranscriptionPart>(parts.size());
+			for (TranscriptionPart part : parts) {
+				String[] requested = placeholders.get(part);
+				if (requested == null) {
+					result.add(part);
+				} else if (requested.length == 1) {
+					result.add(TranscriptionPart.newWord(entries.get(requested[0]), preferredVariety));
+				} else {
+					List<TranscriptionItem> candidates = new ArrayList<TranscriptionItem>();
+					for (String lemma : requested) {
+						candidates.addAll(TranscriptionPart.newWord(entries.get(lemma), preferredVariety).getCandidates());
+					}
+					result.add(TranscriptionPart.newWord(part.getLemma(), candidates, preferredVariety));
+				}
+			}
+			return result;
+		}
+
+		/**
+		 * Checks whether or not the given list holds any placeholder.
+		 *
+		 * @param parts
+		 *            the parts to check.
+		 * @return <code>true</code> if at least one of the parts still needs to be resolved.
+		 */
+		private boolean containsPlaceholder(List<TranscriptionPart> parts) {
+			for (TranscriptionPart part : parts) {
+				if (placeholders.containsKey(part)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		/**
+		 * A getter for the {@link #lemmas} attribute.
+		 *
+		 * @return the distinct lemmas requested so far.
+		 */
+		private Set<String> getLemmas() {
+			return lemmas;
+		}
+	}
+
+	/**
+	 * The span of a sentence inside the input as determined by the {@link SentenceSegmenter}.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class SentenceSpan {
+
+		/** The offset of the sentence's first character. */
+		private final int start;
+		/** The offset behind the sentence's last character. */
+		private final int end;
+		/** Indicates whether or not the sentence starts a new paragraph. */
+		private final boolean paragraphStart;
+
+		/**
+		 * Constructor for the {@link SentenceSpan} class.
+		 *
+		 * @param start
+		 *            the offset of the sentence's first character.
+		 * @param end
+		 *            the offset behind the sentence's last character.
+		 * @param paragraphStart
+		 *            whether or not the sentence starts a new paragraph.
+		 */
+		private SentenceSpan(int start, int end, boolean paragraphStart) {
+			this.start = start;
+			this.end = end;
+			this.paragraphStart = paragraphStart;
+		}
+	}
+
+	/**
+	 * Transcribes a group of consecutive sentences one after another. As each sentence is enclosed
+	 * by delimiters of its own, sentences do not depend on each other and several groups may be
+	 * transcribed at the same time. Exceptions are rethrown wrapped inside a
+	 * {@link CompletionException}.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private class SentenceTask extends RecursiveTask<List<TranscriptionSentence>> {
+
+		/** The class' serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		/** The input to transcribe. */
+		private final String input;
+		/** The spans of the sentences to transcribe. */
+		private final List<SentenceSpan> spans;
+		/** The (0-based) position of the first sentence inside the result. */
+		private final int firstIndex;
+		/** The variety to prefer when pre-selecting transcription items. */
+		private final Variety preferredVariety;
+		/** The token to check for cancellation; may be <code>null</code>. */
+		private final CancellationToken token;
+
+		/**
+		 * Constructor for the {@link SentenceTask} class.
+		 *
+		 * @param input
+		 *            the input to transcribe.
+		 * @param spans
+		 *            the spans of the sentences to transcribe.
+		 * @param firstIndex
+		 *            the (0-based) position of the first sentence inside the result.
+		 * @param preferredVariety
+		 *            the variety to prefer when pre-selecting transcription items.
+		 * @param token
+		 *            the token to check for cancellation; may be <code>null</code>.
+		 */
+		private SentenceTask(String input, List<SentenceSpan> spans, int firstIndex, Variety preferredVariety,
+				CancellationToken token) {
+			this.input = input;
+			this.spans = spans;
+			this.firstIndex = firstIndex;
+			this.preferredVariety = preferredVariety;
+			this.token = token;
+		}
+
+		@Override
+		protected List<TranscriptionSentence> compute() {
+			try {
+				List<TranscriptionSentence> result = new ArrayList<TranscriptionSentence>(spans.size());
+				for (SentenceSpan span : spans) {
+					result.add(transcribeSentence(input, span, firstIndex + result.size(), preferredVariety, token));
+				}
+				return result;
+
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * Transcribes a range of chunks of a long sentence. Should the range hold more than a single
+	 * chunk, it is split in two halves, the left one being forked and the right one being computed
+	 * right away. The results are then combined in order by
+	 * {@link TranscriptionEngine#merge(String, List, List, int, int, Variety)}. A single chunk is
+	 * transcribed just like a short sentence by
+	 * {@link TranscriptionEngine#transcribeRange(String, int, int, int, TranscriptionToken,
+	 * Variety, CancellationToken)}, with its predecessor being unknown unless it is the very first
+	 * chunk.
+	 * </p>
+	 * <p>
+	 * Exceptions are rethrown wrapped inside a {@link CompletionException}.
+	 * </p>
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private class ChunkTask extends RecursiveTask<List<TranscriptionToken>> {
+
+		/** The class' serial version UID. */
+		private static final long serialVersionUID = 1L;
+
+		/** The input to transcribe. */
+		private final String input;
+		/** The offsets of all chunks followed by the offset behind the sentence. */
+		private final List<Integer> boundaries;
+		/** The index of the range's first chunk. */
+		private final int from;
+		/** The index behind the range's last chunk. */
+		private final int to;
+		/** The variety to prefer when pre-selecting transcription items. */
+		private final Variety preferredVariety;
+		/** The token to check for cancellation; may be <code>null</code>. */
+		private final CancellationToken token;
+
+		/**
+		 * Constructor for the {@link ChunkTask} class.
+		 *
+		 * @param input
+		 *            the input to transcribe.
+		 * @param boundaries
+		 *            the offsets of all chunks followed by the offset behind the sentence.
+		 * @param from
+		 *            the index of the range's first chunk.
+		 * @param to
+		 *            the index behind the range's last chunk.
+		 * @param preferredVariety
+		 *            the variety to prefer when pre-selecting transcription items.
+		 * @param token
+		 *            the token to check for cancellation; may be <code>null</code>.
+		 */
+		private ChunkTask(String input, List<Integer> boundaries, int from, int to, Variety preferredVariety,
+				CancellationToken token) {
+			this.input = input;
+			this.boundaries = boundaries;
+			this.from = from;
+			this.to = to;
+			this.preferredVariety = preferredVariety;
+			this.token = token;
+		}
+
+		@Override
+		protected List<TranscriptionToken> compute() {
+			int limit = boundaries.get(boundaries.size() - 1);
+			try {
+				if (to - from == 1) {
+					return transcribeRange(input, boundaries.get(from), boundaries.get(to), limit,
+							from == 0 ? newEnclosingDelimiterToken(boundaries.get(0)) : null, preferredVariety, token);
+				}
+
+				int middle = (from + to) >>> 1;
+				ChunkTask left = new ChunkTask(input, boundaries, from, middle, preferredVariety, token);
+				ChunkTask right = new ChunkTask(input, boundaries, middle, to, preferredVariety, token);
+				left.fork();
+				List<TranscriptionToken> rightTokens = right.compute();
+				List<TranscriptionToken> leftTokens = left.join();
+				if (token != null) {
+					token.throwIfCancelled();
+				}
+				return merge(input, leftTokens, rightTokens, boundaries.get(middle), limit, preferredVariety);
+
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new CompletionException(e);
+			}
+		}
+	}
+
+	/**
+	 * The number words resolved from a particular lexicon. Since a lexicon never changes, they
+	 * remain valid for as long as the lexicon is the current one and need not be invalidated
+	 * explicitly. The entries are only ever read when creating new parts and may thus be shared.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	private static class NumberWords {
+
+		/** The lexicon the number words have been resolved from. */
+		private final AbstractLexicon lexicon;
+		/** All number words mapped to their entries. */
+		private final Map<String, DatabaseEntry> entries;
+
+		/**
+		 * Constructor for the {@link NumberWords} class.
+		 *
+		 * @param lexicon
+		 *            the lexicon to resolve the number words from.
+		 */
+		private NumberWords(AbstractLexicon lexicon) {
+			this.lexicon = lexicon;
+			entries = Collections.unmodifiableMap(lexicon.lookUp(NumeralVerbalizer.NUMBER_WORDS));
+		}
+	}
+}
@@ -44,6 +44,40 @@ public class DefaultPropertiesSetter {
 		defaults.setProperty("database.server.url", "");
 		defaults.setProperty("database.offline_mode", "0");
 
+		// The number of read connections to the local database (0 for one per processor), each
+		// connection's page cache in KiB and the number of bytes it may map into memory.
+		defaults.setProperty("database.readers", "0");
+		defaults.setProperty("database.cache_size", "8192");
+		defaults.setProperty("database.mmap_size", "67108864");
+
+		// Whether to map the lexicon from a file shared by all instances instead of the heap.
+		defaults.setProperty("database.lexicon.mapped", "0");
+
+		// Whether to transcribe the input while the user is typing.
+		defaults.setProperty("transcription.live_mode", "0");
+
+		// The number of files a batch transcription works on at the same time; 0 for one per
+		// processor.
+		defaults.setProperty("transcription.batch.threads", "0");
+
+		// The HTTP service's port and number of concurrent transcriptions; 0 for one per processor.
+		defaults.setProperty("service.port", "8080");
+		defaults.setProperty("service.threads", "0");
+
+		// The HTTP service's admission control: the number of transcriptions that may wait, the
+		// deadline of a request in milliseconds and the maximum number of characters of a text.
+		defaults.setProperty("service.queue", "64");
+		defaults.setProperty("service.deadline", "5000");
+		defaults.setProperty("service.max_input", "100000");
+
+		// The number of responses the HTTP service caches; 0 to only coalesce identical requests.
+		defaults.setProperty("service.cache.capacity", "1024");
+
+		// The number of threads parsing an imported dictionary (0 for one per processor) and the
+		// number of its lines stored per transaction.
+		defaults.setProperty("import.threads", "0");
+		defaults.setProperty("import.batch_size", "10000");
+
 		// Write the changes to the files.
 		try (FileOutputStream out = new FileOutputStream(new ConfigProvider().getResourceAsFile(filename))) {
 			defaults.store(out, comments);
@@ -9,7 +9,7 @@ import javafx.stage.Stage;
 
 /**
  * The Text 2 Transcription App's main class. Does nothing but initialising the
- * {@link MainController}.
+ * {@link MainController}. It is usually launched by the {@link Text2TranscriptionLauncher}.
  *
  * @author Michel May (michel-may@gmx.de)
  *
@@ -0,0 +1,157 @@
+/**
+ *
+ */
+package de.upb.t2t.main;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogManager;
+import java.util.logging.Logger;
+
+import de.upb.t2t.control.MainController;
+import de.upb.t2t.control.transcription.TranscriptionEngine;
+import de.upb.t2t.model.Variety;
+
+/**
+ * <p>
+ * The Text 2 Transcription App's console entry point. It turns the application into a filter
+ * that can be used inside shell pipelines: each line read from the standard input is transcribed
+ * and its phonetic transcription is written to the standard output as a line of its own, which
+ * is flushed right away. Empty lines and lines that cannot be transcribed yield empty lines, so
+ * that the output always lines up with the input. Both streams are UTF-8 encoded.
+ * </p>
+ * <p>
+ * Since the application is initialised by {@link MainController#initHeadless()}, neither the
+ * JavaFx toolkit nor any window is ever started. Logging is redirected to the standard error
+ * stream and restricted to warnings, so that it never interferes with the output. The following
+ * options are understood:
+ * </p>
+ * <ul>
+ * <li><code>--variety=&lt;name&gt;</code>: the variety to prefer instead of the one stored in
+ * the settings, e.g. <code>--variety=AmE</code>.</li>
+ * <li><code>--verbose</code>: logs everything down to {@link Level#INFO}.</li>
+ * </ul>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see Text2TranscriptionLauncher
+ */
+public class Text2TranscriptionConsole {
+
+	/* Static Variables */
+	/** The exit status in case of invalid options. */
+	private static final int EXIT_USAGE = 2;
+	/** The exit status in case the application cannot be initialised or the streams fail. */
+	private static final int EXIT_FAILURE = 1;
+
+	/* Static Methods */
+	/**
+	 * The class's main method.
+	 *
+	 * @param args
+	 *            the options described by the class' documentation.
+	 */
+	public static void main(String[] args) {
+
+		String varietyName = null;
+		boolean verbose = false;
+		for (String arg : args) {
+			if (arg.startsWith("--variety=")) {
+				varietyName = arg.substring("--variety=".length());
+			} else if (arg.equals("--verbose")) {
+				verbose = true;
+			} else if (!arg.equals(Text2TranscriptionLauncher.CONSOLE_OPTION)) {
+				System.err.println("Unknown option: " + arg + "\nUsage: [--variety=<name>] [--verbose]");
+				System.exit(EXIT_USAGE);
+			}
+		}
+		redirectLogging(verbose ? Level.INFO : Level.WARNING);
+
+		int status = 0;
+		try {
+			MainController.getInstance().initHeadless();
+			Variety variety = varietyName == null ? Variety.getPreferredVariety() : Variety.getVariety(varietyName);
+			filter(new TranscriptionEngine(), variety);
+		} catch (NoSuchElementException e) {
+			System.err.println("Unknown variety: " + varietyName);
+			status = EXIT_USAGE;
+		} catch (Exception e) {
+			Logger.getLogger(Text2TranscriptionConsole.class.getName()).log(Level.SEVERE,
+					"Exception while filtering the standard input!", e);
+			status = EXIT_FAILURE;
+		} finally {
+			MainController.getInstance().closeProgramme();
+		}
+		System.exit(status);
+	}
+
+	/**
+	 * Replaces all handlers of the root logger by one writing to {@link System#err}, as the
+	 * application's {@link de.upb.t2t.control.ConsoleHandler} writes to {@link System#out}.
+	 *
+	 * @param level
+	 *            the minimum level of the records to log.
+	 */
+	static void redirectLogging(Level level) {
+		LogManager.getLogManager().reset();
+		Logger root = Logger.getLogger("");
+		Handler handler = new java.util.logging.ConsoleHandler();
+		handler.setLevel(level);
+		root.addHandler(handler);
+		root.setLevel(level);
+	}
+
+	/**
+	 * Transcribes the standard input line by line until it ends.
+	 *
+	 * @param engine
+	 *            the engine to transcribe with.
+	 * @param variety
+	 *            the variety to prefer when pre-selecting transcription items.
+	 * @throws IOException
+	 *             if reading from the standard input or writing to the standard output fails.
+	 */
+	private static void filter(TranscriptionEngine engine, Variety variety) throws IOException {
+
+		Logger logger = Logger.getLogger(Text2TranscriptionConsole.class.getName());
+		BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		Writer out = new BufferedWriter(
+				new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8));
+
+		String line;
+		while ((line = in.readLine()) != null) {
+			if (!line.trim().isEmpty()) {
+				try {
+					out.write(engine.transcribe(line, variety).getPhoneticString());
+				} catch (Exception e) {
+					logger.log(Level.WARNING, "Unable to transcribe \"" + line + "\"!", e);
+				}
+			}
+			out.write('\n');
+			out.flush();
+		}
+	}
+
+	/* Object Variables */
+
+	/* Constructors */
+	/**
+	 * Private constructor, as there is no need to instantiate this class.
+	 */
+	private Text2TranscriptionConsole() {
+	}
+
+	/* Object Methods */
+
+	/* Getters and Setters */
+}
@@ -0,0 +1,120 @@
+/**
+ *
+ */
+package de.upb.t2t.main;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.upb.t2t.control.MainController;
+import de.upb.t2t.control.database.LexiconExporter;
+import de.upb.t2t.control.database.LexiconExporter.Format;
+
+/**
+ * <p>
+ * The Text 2 Transcription App's export entry point. It initialises the application by means of
+ * {@link MainController#initHeadless(boolean)}, without loading the lexicon, and exports the
+ * whole lexicon by means of a {@link LexiconExporter} to the file given as its only argument, or
+ * to the standard output if that is <code>-</code>. The following options are supported:
+ * </p>
+ * <ul>
+ * <li><code>--format=&lt;format&gt;</code>: <code>tsv</code>, <code>jsonl</code> or
+ * <code>t2tl</code> for the binary format (see {@link Format}). By default, the format is told by
+ * the file's extension, falling back to TSV.</li>
+ * <li><code>--verbose</code>: logs everything down to {@link Level#INFO}.</li>
+ * </ul>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see Text2TranscriptionLauncher
+ */
+public class Text2TranscriptionExport {
+
+	/* Static Variables */
+	/** The file argument standing for the standard output. */
+	private static final String STANDARD_OUTPUT = "-";
+	/** The exit status in case of invalid options. */
+	private static final int EXIT_USAGE = 2;
+	/** The exit status in case the application cannot be initialised or the export fails. */
+	private static final int EXIT_FAILURE = 1;
+
+	/* Static Methods */
+	/**
+	 * The class's main method.
+	 *
+	 * @param args
+	 *            the file to export to and the options described by the class' documentation.
+	 */
+	public static void main(String[] args) {
+
+		String formatName = null, file = null;
+		boolean verbose = false;
+		for (String arg : args) {
+			if (arg.startsWith("--format=")) {
+				formatName = arg.substring("--format=".length());
+			} else if (arg.equals("--verbose")) {
+				verbose = true;
+			} else if ((!arg.startsWith("--") || arg.equals(STANDARD_OUTPUT)) && file == null) {
+				file = arg;
+			} else if (!arg.equals(Text2TranscriptionLauncher.EXPORT_OPTION)) {
+				file = null;
+				break;
+			}
+		}
+		Format format = null;
+		if (file != null) {
+			int dot = file.lastIndexOf('.');
+			try {
+				format = formatName != null ? Format.getFormat(formatName)
+						: dot > 0 ? Format.getFormat(file.substring(dot + 1)) : Format.TSV;
+			} catch (IllegalArgumentException e) {
+				format = formatName != null ? null : Format.TSV;
+			}
+		}
+		if (format == null) {
+			System.err.println("Usage: " + Text2TranscriptionLauncher.EXPORT_OPTION
+					+ " [--format=tsv|jsonl|t2tl] [--verbose] <file>|" + STANDARD_OUTPUT);
+			System.exit(EXIT_USAGE);
+		}
+		Text2TranscriptionConsole.redirectLogging(verbose ? Level.INFO : Level.WARNING);
+
+		int status = 0;
+		try {
+			MainController.getInstance().initHeadless(false);
+			LexiconExporter exporter = new LexiconExporter();
+			long lemmas;
+			if (file.equals(STANDARD_OUTPUT)) {
+				try (FileChannel channel = new FileOutputStream(FileDescriptor.out).getChannel()) {
+					lemmas = exporter.export(channel, format, null);
+				}
+			} else {
+				lemmas = exporter.exportFile(Paths.get(file), format, null);
+			}
+			System.err.println("Exported " + lemmas + " lemmas as " + format + ".");
+		} catch (Exception e) {
+			Logger.getLogger(Text2TranscriptionExport.class.getName()).log(Level.SEVERE,
+					"Exception while exporting to " + file + "!", e);
+			status = EXIT_FAILURE;
+		} finally {
+			MainController.getInstance().closeProgramme();
+		}
+		System.exit(status);
+	}
+
+	/* Object Variables */
+
+	/* Constructors */
+	/**
+	 * Private constructor, as there is no need to instantiate this class.
+	 */
+	private Text2TranscriptionExport() {
+	}
+
+	/* Object Methods */
+
+	/* Getters and Setters */
+}
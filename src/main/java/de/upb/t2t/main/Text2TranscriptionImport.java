@@ -0,0 +1,160 @@
+/**
+ *
+ */
+package de.upb.t2t.main;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.upb.t2t.control.MainController;
+import de.upb.t2t.control.database.DictionaryImporter;
+import de.upb.t2t.control.gui.UserFeedbackProvider;
+import de.upb.t2t.model.FeedbackMode;
+import de.upb.t2t.model.ImportReport;
+import de.upb.t2t.model.ImportReport.RejectedRow;
+
+/**
+ * <p>
+ * The Text 2 Transcription App's import entry point. It initialises the application by means of
+ * {@link MainController#initHeadless()} and imports the pronunciation dictionary given as its
+ * only argument by means of a {@link DictionaryImporter}. The progress and finally the
+ * {@link ImportReport} are written to the standard error stream. Its settings are read from the
+ * <code>import.*</code> properties, unless overridden by the following options:
+ * </p>
+ * <ul>
+ * <li><code>--threads=&lt;count&gt;</code>: the number of threads parsing the file;
+ * <code>0</code> for one per processor.</li>
+ * <li><code>--batch=&lt;lines&gt;</code>: the number of lines stored per transaction.</li>
+ * <li><code>--rejects=&lt;file&gt;</code>: a file to write all rejected rows to, each preceded by
+ * its line number and the reason for its rejection, separated by tabs.</li>
+ * <li><code>--verbose</code>: logs everything down to {@link Level#INFO}.</li>
+ * </ul>
+ * <p>
+ * The exit status is <code>0</code> if every row has been imported or skipped as a duplicate and
+ * <code>3</code> if any row has been rejected.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see Text2TranscriptionLauncher
+ */
+public class Text2TranscriptionImport {
+
+	/* Static Variables */
+	/** The exit status in case any row has been rejected. */
+	private static final int EXIT_REJECTED = 3;
+	/** The exit status in case of invalid options. */
+	private static final int EXIT_USAGE = 2;
+	/** The exit status in case the application cannot be initialised or the import fails. */
+	private static final int EXIT_FAILURE = 1;
+
+	/* Static Methods */
+	/**
+	 * The class's main method.
+	 *
+	 * @param args
+	 *            the dictionary to import and the options described by the class' documentation.
+	 */
+	public static void main(String[] args) {
+
+		String threads = null, batch = null, rejects = null, file = null;
+		boolean verbose = false;
+		for (String arg : args) {
+			if (arg.startsWith("--threads=")) {
+				threads = arg.substring("--threads=".length());
+			} else if (arg.startsWith("--batch=")) {
+				batch = arg.substring("--batch=".length());
+			} else if (arg.startsWith("--rejects=")) {
+				rejects = arg.substring("--rejects=".length());
+			} else if (arg.equals("--verbose")) {
+				verbose = true;
+			} else if (!arg.startsWith("--") && file == null) {
+				file = arg;
+			} else if (!arg.equals(Text2TranscriptionLauncher.IMPORT_OPTION)) {
+				file = null;
+				break;
+			}
+		}
+		if (file == null) {
+			System.err.println("Usage: " + Text2TranscriptionLauncher.IMPORT_OPTION
+					+ " [--threads=<count>] [--batch=<lines>] [--rejects=<file>] [--verbose] <dictionary>");
+			System.exit(EXIT_USAGE);
+		}
+		Text2TranscriptionConsole.redirectLogging(verbose ? Level.INFO : Level.WARNING);
+
+		int status = 0;
+		try {
+			MainController.getInstance().initHeadless();
+			DictionaryImporter importer = new DictionaryImporter(
+					Integer.parseInt(threads != null ? threads : MainController.getProperty("import.threads")),
+					Integer.parseInt(batch != null ? batch : MainController.getProperty("import.batch_size")));
+			ImportReport report = importer.importFile(Paths.get(file), new UserFeedbackProvider() {
+
+				@Override
+				public void generalFeedback(FeedbackMode mode, String feedback) {
+					System.err.println(feedback);
+				}
+
+				@Override
+				public void progressFeedback(double progress, String feedback) {
+					System.err.println(String.format("%5.1f%% ", progress * 100) + feedback);
+				}
+			}, null);
+			System.err.print(report);
+			if (rejects != null) {
+				writeRejectedRows(report, Paths.get(rejects));
+			}
+			if (!report.getRejectedRows().isEmpty()) {
+				status = EXIT_REJECTED;
+			}
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid number: " + e.getMessage());
+			status = EXIT_USAGE;
+		} catch (Exception e) {
+			Logger.getLogger(Text2TranscriptionImport.class.getName()).log(Level.SEVERE,
+					"Exception while importing " + file + "!", e);
+			status = EXIT_FAILURE;
+		} finally {
+			MainController.getInstance().closeProgramme();
+		}
+		System.exit(status);
+	}
+
+	/**
+	 * Writes all rejected rows of the given report to the given file, each preceded by its line
+	 * number and the reason for its rejection, separated by tabs.
+	 *
+	 * @param report
+	 *            the report to write the rejected rows of.
+	 * @param path
+	 *            the file to write to; replaced if it exists.
+	 * @throws IOException
+	 *             if the file cannot be written.
+	 */
+	private static void writeRejectedRows(ImportReport report, Path path) throws IOException {
+		try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			for (RejectedRow row : report.getRejectedRows()) {
+				writer.write(row.getLineNumber() + "\t" + row.getReason() + "\t" + row.getLine() + "\n");
+			}
+		}
+	}
+
+	/* Object Variables */
+
+	/* Constructors */
+	/**
+	 * Private constructor, as there is no need to instantiate this class.
+	 */
+	private Text2TranscriptionImport() {
+	}
+
+	/* Object Methods */
+
+	/* Getters and Setters */
+}
@@ -0,0 +1,83 @@
+/**
+ *
+ */
+package de.upb.t2t.main;
+
+import javafx.application.Application;
+
+/**
+ * <p>
+ * The Text 2 Transcription App's entry point. It starts the {@link Text2TranscriptionConsole},
+ * the {@link Text2TranscriptionService}, the {@link Text2TranscriptionImport} or the
+ * {@link Text2TranscriptionExport} if requested by the respective option and the GUI by means
+ * of {@link Text2Transcription} otherwise.
+ * </p>
+ * <p>
+ * Unlike {@link Text2Transcription}, this class does not extend {@link Application}. Given a
+ * main class that does, the Java launcher starts the JavaFx toolkit before its main method is
+ * even called and, on newer JDKs, refuses to start at all unless the JavaFx runtime is found on
+ * the module path. Neither happens for this class, so that the headless entry points never start
+ * the toolkit.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ */
+public class Text2TranscriptionLauncher {
+
+	/* Static Variables */
+	/** The option to start the console filter instead of the GUI. */
+	public static final String CONSOLE_OPTION = "--console";
+	/** The option to start the HTTP service instead of the GUI. */
+	public static final String SERVICE_OPTION = "--service";
+	/** The option to import a dictionary instead of starting the GUI. */
+	public static final String IMPORT_OPTION = "--import";
+	/** The option to export the lexicon instead of starting the GUI. */
+	public static final String EXPORT_OPTION = "--export";
+
+	/* Static Methods */
+	/**
+	 * The class's main method. Should the {@link #CONSOLE_OPTION}, the {@link #SERVICE_OPTION},
+	 * the {@link #IMPORT_OPTION} or the {@link #EXPORT_OPTION} be given, the
+	 * {@link Text2TranscriptionConsole}, the {@link Text2TranscriptionService}, the
+	 * {@link Text2TranscriptionImport} or the {@link Text2TranscriptionExport} is started instead
+	 * of the GUI.
+	 *
+	 * @param args
+	 *            the command line arguments, passed on to the started entry point.
+	 */
+	public static void main(String[] args) {
+		for (String arg : args) {
+			if (arg.equals(CONSOLE_OPTION)) {
+				Text2TranscriptionConsole.main(args);
+				return;
+			}
+			if (arg.equals(SERVICE_OPTION)) {
+				Text2TranscriptionService.main(args);
+				return;
+			}
+			if (arg.equals(IMPORT_OPTION)) {
+				Text2TranscriptionImport.main(args);
+				return;
+			}
+			if (arg.equals(EXPORT_OPTION)) {
+				Text2TranscriptionExport.main(args);
+				return;
+			}
+		}
+		Application.launch(Text2Transcription.class, args);
+	}
+
+	/* Object Variables */
+
+	/* Constructors */
+	/**
+	 * Private constructor, as there is no need to instantiate this class.
+	 */
+	private Text2TranscriptionLauncher() {
+	}
+
+	/* Object Methods */
+
+	/* Getters and Setters */
+}
@@ -0,0 +1,125 @@
+/**
+ *
+ */
+package de.upb.t2t.main;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import de.upb.t2t.control.MainController;
+import de.upb.t2t.control.service.AdmissionController;
+import de.upb.t2t.control.service.TranscriptionService;
+import de.upb.t2t.control.transcription.TranscriptionEngine;
+
+/**
+ * <p>
+ * The Text 2 Transcription App's service entry point. It initialises the application by means of
+ * {@link MainController#initHeadless()} and starts a {@link TranscriptionService}, which keeps
+ * running until the process is terminated. Its settings are read from the <code>service.*</code>
+ * properties, unless overridden by the following options:
+ * </p>
+ * <ul>
+ * <li><code>--port=&lt;port&gt;</code>: the port to listen on.</li>
+ * <li><code>--threads=&lt;count&gt;</code>: the number of transcriptions running at the same time;
+ * <code>0</code> for one per processor.</li>
+ * <li><code>--queue=&lt;capacity&gt;</code>: the number of transcriptions that may wait for their
+ * turn before further requests are rejected.</li>
+ * <li><code>--deadline=&lt;millis&gt;</code>: the maximum time a request may take, including the
+ * time it waits for its turn.</li>
+ * <li><code>--max-input=&lt;length&gt;</code>: the maximum number of characters of a text.</li>
+ * <li><code>--cache=&lt;capacity&gt;</code>: the number of responses to cache; <code>0</code> to
+ * only coalesce identical requests in progress.</li>
+ * <li><code>--verbose</code>: logs everything down to {@link Level#INFO}.</li>
+ * </ul>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see Text2TranscriptionLauncher
+ */
+public class Text2TranscriptionService {
+
+	/* Static Variables */
+	/** The exit status in case of invalid options. */
+	private static final int EXIT_USAGE = 2;
+	/** The exit status in case the application or the service cannot be started. */
+	private static final int EXIT_FAILURE = 1;
+
+	/* Static Methods */
+	/**
+	 * The class's main method.
+	 *
+	 * @param args
+	 *            the options described by the class' documentation.
+	 */
+	public static void main(String[] args) {
+
+		String port = null, threads = null, queue = null, deadline = null, maxInput = null, cache = null;
+		boolean verbose = false;
+		for (String arg : args) {
+			if (arg.startsWith("--port=")) {
+				port = arg.substring("--port=".length());
+			} else if (arg.startsWith("--threads=")) {
+				threads = arg.substring("--threads=".length());
+			} else if (arg.startsWith("--queue=")) {
+				queue = arg.substring("--queue=".length());
+			} else if (arg.startsWith("--deadline=")) {
+				deadline = arg.substring("--deadline=".length());
+			} else if (arg.startsWith("--max-input=")) {
+				maxInput = arg.substring("--max-input=".length());
+			} else if (arg.startsWith("--cache=")) {
+				cache = arg.substring("--cache=".length());
+			} else if (arg.equals("--verbose")) {
+				verbose = true;
+			} else if (!arg.equals(Text2TranscriptionLauncher.SERVICE_OPTION)) {
+				System.err.println("Unknown option: " + arg + "\nUsage: [--port=<port>] [--threads=<count>]"
+						+ " [--queue=<capacity>] [--deadline=<millis>] [--max-input=<length>] [--cache=<capacity>]"
+						+ " [--verbose]");
+				System.exit(EXIT_USAGE);
+			}
+		}
+		Text2TranscriptionConsole.redirectLogging(verbose ? Level.INFO : Level.WARNING);
+
+		try {
+			MainController.getInstance().initHeadless();
+			AdmissionController admission = new AdmissionController(
+					Integer.parseInt(threads != null ? threads : MainController.getProperty("service.threads")),
+					Integer.parseInt(queue != null ? queue : MainController.getProperty("service.queue")),
+					Long.parseLong(deadline != null ? deadline : MainController.getProperty("service.deadline")),
+					Integer.parseInt(maxInput != null ? maxInput : MainController.getProperty("service.max_input")));
+			TranscriptionService service = new TranscriptionService(new TranscriptionEngine(),
+					Integer.parseInt(port != null ? port : MainController.getProperty("service.port")),
+					Integer.parseInt(cache != null ? cache : MainController.getProperty("service.cache.capacity")),
+					admission);
+			service.start();
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				service.stop(1);
+				MainController.getInstance().closeProgramme();
+			}, "Transcription Service Shutdown"));
+			System.err.println("Text2Transcription service listening on port " + service.getPort() + ".");
+		} catch (NumberFormatException e) {
+			System.err.println("Invalid number: " + e.getMessage());
+			System.exit(EXIT_USAGE);
+		} catch (IllegalArgumentException e) {
+			System.err.println(e.getMessage());
+			System.exit(EXIT_USAGE);
+		} catch (Exception e) {
+			Logger.getLogger(Text2TranscriptionService.class.getName()).log(Level.SEVERE,
+					"Exception while starting the service!", e);
+			MainController.getInstance().closeProgramme();
+			System.exit(EXIT_FAILURE);
+		}
+	}
+
+	/* Object Variables */
+
+	/* Constructors */
+	/**
+	 * Private constructor, as there is no need to instantiate this class.
+	 */
+	private Text2TranscriptionService() {
+	}
+
+	/* Object Methods */
+
+	/* Getters and Setters */
+}
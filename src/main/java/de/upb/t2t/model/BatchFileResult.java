@@ -0,0 +1,135 @@
+/**
+ *
+ */
+package de.upb.t2t.model;
+
+/**
+ * The immutable outcome of transcribing a single file of a batch, as gathered by the
+ * {@link de.upb.t2t.control.transcription.BatchTranscriber} and summed up by the
+ * {@link BatchReport}.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see BatchReport
+ */
+public final class BatchFileResult {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The file's path relative to the batch's input. */
+	private final String path;
+	/** The number of characters that have been transcribed. */
+	private final long characterCount;
+	/** The number of words that have been transcribed. */
+	private final long wordCount;
+	/** The number of words that have not been found in the lexicon. */
+	private final long unknownCount;
+	/** The time it took to transcribe the file in milliseconds. */
+	private final long duration;
+	/** The error that made the transcription fail; <code>null</code> if it succeeded. */
+	private final String error;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link BatchFileResult} class.
+	 *
+	 * @param path
+	 *            the file's path relative to the batch's input.
+	 * @param characterCount
+	 *            the number of characters that have been transcribed.
+	 * @param wordCount
+	 *            the number of words that have been transcribed.
+	 * @param unknownCount
+	 *            the number of words that have not been found in the lexicon.
+	 * @param duration
+	 *            the time it took to transcribe the file in milliseconds.
+	 * @param error
+	 *            the error that made the transcription fail; <code>null</code> if it succeeded.
+	 */
+	public BatchFileResult(String path, long characterCount, long wordCount, long unknownCount, long duration,
+			String error) {
+		this.path = path;
+		this.characterCount = characterCount;
+		this.wordCount = wordCount;
+		this.unknownCount = unknownCount;
+		this.duration = duration;
+		this.error = error;
+	}
+
+	/* Object Methods */
+	/**
+	 * Checks whether or not the file has been transcribed successfully.
+	 *
+	 * @return <code>true</code> if there has been no error.
+	 */
+	public boolean isSuccessful() {
+		return error == null;
+	}
+
+	@Override
+	public String toString() {
+		if (error != null) {
+			return path + ": failed (" + error + ")";
+		}
+		return path + ": " + wordCount + " words (" + unknownCount + " unknown), " + characterCount + " characters, "
+				+ duration + " ms";
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #path} attribute.
+	 *
+	 * @return the file's path relative to the batch's input.
+	 */
+	public String getPath() {
+		return path;
+	}
+
+	/**
+	 * A getter for the {@link #characterCount} attribute.
+	 *
+	 * @return the number of characters that have been transcribed.
+	 */
+	public long getCharacterCount() {
+		return characterCount;
+	}
+
+	/**
+	 * A getter for the {@link #wordCount} attribute.
+	 *
+	 * @return the number of words that have been transcribed.
+	 */
+	public long getWordCount() {
+		return wordCount;
+	}
+
+	/**
+	 * A getter for the {@link #unknownCount} attribute.
+	 *
+	 * @return the number of words that have not been found in the lexicon.
+	 */
+	public long getUnknownCount() {
+		return unknownCount;
+	}
+
+	/**
+	 * A getter for the {@link #duration} attribute.
+	 *
+	 * @return the time it took to transcribe the file in milliseconds.
+	 */
+	public long getDuration() {
+		return duration;
+	}
+
+	/**
+	 * A getter for the {@link #error} attribute.
+	 *
+	 * @return the error that made the transcription fail; <code>null</code> if it succeeded.
+	 */
+	public String getError() {
+		return error;
+	}
+}
@@ -0,0 +1,176 @@
+/**
+ *
+ */
+package de.upb.t2t.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The immutable summary of a batch run of the
+ * {@link de.upb.t2t.control.transcription.BatchTranscriber}. Besides the per-file results, it
+ * provides the run's throughput in words per second, its rate of unknown words and its slowest
+ * files. Files that have been skipped because the checkpoint journal already listed them as done
+ * are counted, but do not contribute to any of the figures.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see BatchFileResult
+ */
+public final class BatchReport {
+
+	/* Static Variables */
+	/** The number of slowest files listed by {@link #toString()}. */
+	public static final int SLOWEST_FILE_COUNT = 5;
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The results of all files that have been processed during the run. */
+	private final List<BatchFileResult> results;
+	/** The number of files that had already been done by a previous run. */
+	private final int skippedCount;
+	/** The time the run took in milliseconds. */
+	private final long duration;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link BatchReport} class.
+	 *
+	 * @param results
+	 *            the results of all files that have been processed during the run.
+	 * @param skippedCount
+	 *            the number of files that had already been done by a previous run.
+	 * @param duration
+	 *            the time the run took in milliseconds.
+	 */
+	public BatchReport(List<BatchFileResult> results, int skippedCount, long duration) {
+		this.results = Collections.unmodifiableList(new ArrayList<BatchFileResult>(results));
+		this.skippedCount = skippedCount;
+		this.duration = duration;
+	}
+
+	/* Object Methods */
+	/**
+	 * Sums up the number of words that have been transcribed successfully.
+	 *
+	 * @return the number of words.
+	 */
+	public long getWordCount() {
+		long result = 0;
+		for (BatchFileResult file : results) {
+			result += file.getWordCount();
+		}
+		return result;
+	}
+
+	/**
+	 * Sums up the number of words that have not been found in the lexicon.
+	 *
+	 * @return the number of unknown words.
+	 */
+	public long getUnknownCount() {
+		long result = 0;
+		for (BatchFileResult file : results) {
+			result += file.getUnknownCount();
+		}
+		return result;
+	}
+
+	/**
+	 * Calculates the run's throughput.
+	 *
+	 * @return the number of words transcribed per second of the run.
+	 */
+	public double getWordsPerSecond() {
+		return duration == 0 ? 0 : getWordCount() * 1000.0 / duration;
+	}
+
+	/**
+	 * Calculates the share of words that have not been found in the lexicon.
+	 *
+	 * @return the rate of unknown words between <code>0</code> and <code>1</code>.
+	 */
+	public double getUnknownRate() {
+		long words = getWordCount();
+		return words == 0 ? 0 : ((double) getUnknownCount()) / words;
+	}
+
+	/**
+	 * Determines the files that took the longest to transcribe.
+	 *
+	 * @param count
+	 *            the maximum number of files to return.
+	 * @return the slowest files, the slowest one first.
+	 */
+	public List<BatchFileResult> getSlowestFiles(int count) {
+		List<BatchFileResult> result = new ArrayList<BatchFileResult>(results);
+		Collections.sort(result, Comparator.comparingLong(BatchFileResult::getDuration).reversed());
+		return result.subList(0, Math.min(count, result.size()));
+	}
+
+	/**
+	 * Collects the results of all files whose transcription has failed.
+	 *
+	 * @return the failed files in the order they have been processed.
+	 */
+	public List<BatchFileResult> getFailures() {
+		List<BatchFileResult> result = new ArrayList<BatchFileResult>();
+		for (BatchFileResult file : results) {
+			if (!file.isSuccessful()) {
+				result.add(file);
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Batch Report\n");
+		builder.append("Files: " + results.size() + " processed, " + getFailures().size() + " failed, " + skippedCount
+				+ " skipped\n");
+		builder.append("Words: " + getWordCount() + " in " + duration + " ms ("
+				+ String.format("%.1f", getWordsPerSecond()) + " words/s)\n");
+		builder.append("Unknown words: " + getUnknownCount() + " ("
+				+ String.format("%.2f", getUnknownRate() * 100) + "%)\n");
+		builder.append("Slowest files:\n");
+		for (BatchFileResult file : getSlowestFiles(SLOWEST_FILE_COUNT)) {
+			builder.append("  " + file + "\n");
+		}
+		for (BatchFileResult file : getFailures()) {
+			builder.append("Failed: " + file + "\n");
+		}
+		return builder.toString();
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #results} attribute.
+	 *
+	 * @return an unmodifiable list of the results of all processed files.
+	 */
+	public List<BatchFileResult> getResults() {
+		return results;
+	}
+
+	/**
+	 * A getter for the {@link #skippedCount} attribute.
+	 *
+	 * @return the number of files that had already been done by a previous run.
+	 */
+	public int getSkippedCount() {
+		return skippedCount;
+	}
+
+	/**
+	 * A getter for the {@link #duration} attribute.
+	 *
+	 * @return the time the run took in milliseconds.
+	 */
+	public long getDuration() {
+		return duration;
+	}
+}
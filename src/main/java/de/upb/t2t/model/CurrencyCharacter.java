@@ -54,12 +54,7 @@ public class CurrencyCharacter {
 	 *         <code>false</code> otherwise.
 	 */
 	public static boolean isCurrencyCharacter(char character) {
-		try {
-			return getCurrencyChar(character) != null;
-		} catch (NoSuchElementException e) {
-			// Simply not a (supported) currencyCharacter.
-		}
-		return false;
+		return findCurrencyChar(character) != null;
 	}
 
 	/**
@@ -83,6 +78,26 @@ public class CurrencyCharacter {
 		return false;
 	}
 
+	/**
+	 * A convenience getter that will return the <code>CurrencyCharacter</code> for the given
+	 * <code>char</code>. Contrary to {@link #getCurrencyChar(char)}, <code>null</code> is returned
+	 * instead of throwing an exception, which makes it suitable for classifying every single
+	 * character of an input.
+	 *
+	 * @param character
+	 *            the character to look up.
+	 * @return the corresponding <code>CurrencyCharacter</code> object; <code>null</code> if there is
+	 *         none.
+	 */
+	public static CurrencyCharacter findCurrencyChar(char character) {
+		for (CurrencyCharacter currencyChar : KNOWN_CURRENCY_CHARACTERS) {
+			if (currencyChar.equals(character)) {
+				return currencyChar;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * A convenience getter that will return <code>CurrencyCharacter</code> for the given
 	 * <code>char</code>.
@@ -93,14 +108,13 @@ public class CurrencyCharacter {
 	 * @throws NoSuchElementException
 	 *             if there is no stored <code>CurrencyCharacter</code> object.
 	 */
-	public static CurrencyCharacter getCurrencyChar(char character) {
-		for (CurrencyCharacter currencyChar : KNOWN_CURRENCY_CHARACTERS) {
-			if (currencyChar.equals(character)) {
-				return currencyChar;
-			}
+	public static CurrencyCharacter getCurrencyChar(char character) throws NoSuchElementException {
+		CurrencyCharacter result = findCurrencyChar(character);
+		if (result == null) {
+			throw new NoSuchElementException(
+					"Could not retrieve currency character object from char \"" + character + "\"!");
 		}
-		throw new NoSuchElementException(
-				"Could not retrieve currency character object from char \"" + character + "\"!");
+		return result;
 	}
 
 	/**
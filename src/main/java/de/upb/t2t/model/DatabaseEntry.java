@@ -24,11 +24,49 @@ import javafx.beans.property.SimpleObjectProperty;
 public class DatabaseEntry implements SelectionListener<TranscriptionItem> {
 
 	/* Static Variables */
-	private static boolean isOfPreferredVariety(TranscriptionItem item) {
-		return item.getVariety().equals(Variety.getPreferredVariety());
-	}
 
 	/* Static Methods */
+	/**
+	 * Decides whether the given item should replace the currently selected one. This is the case
+	 * if there is no selected item yet, if contrary to the selected item the new one is of the
+	 * preferred variety, or if the new item is of the preferred variety and additionally a weak
+	 * form.
+	 *
+	 * @param item
+	 *            the item to evaluate.
+	 * @param currentlySelected
+	 *            the currently selected item; may be <code>null</code>.
+	 * @param preferredVariety
+	 *            the variety to prefer.
+	 * @return <code>true</code> if the given item should be selected instead.
+	 */
+	private static boolean isPreferredOver(TranscriptionItem item, TranscriptionItem currentlySelected,
+			Variety preferredVariety) {
+		boolean itemPreferred = item.getVariety().equals(preferredVariety);
+		return currentlySelected == null || (!currentlySelected.getVariety().equals(preferredVariety) && itemPreferred)
+				|| (itemPreferred && item.getTransType().equals(TranscriptionType.WEAK));
+	}
+
+	/**
+	 * Determines the item that a {@link DatabaseEntry} holding the given items would select by
+	 * default. Contrary to {@link #getSelectedItem()}, the preferred variety is passed explicitly
+	 * so that this function does not depend on the application's properties.
+	 *
+	 * @param items
+	 *            the items in the order they would have been added.
+	 * @param preferredVariety
+	 *            the variety to prefer.
+	 * @return the default item; <code>null</code> if the list is empty.
+	 */
+	public static TranscriptionItem getDefaultItem(List<TranscriptionItem> items, Variety preferredVariety) {
+		TranscriptionItem result = null;
+		for (TranscriptionItem item : items) {
+			if (isPreferredOver(item, result, preferredVariety)) {
+				result = item;
+			}
+		}
+		return result;
+	}
 
 	/* Object Variables */
 	/** The entry's corresponding lemma. */
@@ -73,15 +111,8 @@ public class DatabaseEntry implements SelectionListener<TranscriptionItem> {
 			getTranscriptionsList(item.getWordClass(), item.getVariety()).add(item);
 			item.addItemSelectionListener(this);
 
-			/*
-			 * Use the new item as the selected one in one of the following cases: We don't have any
-			 * selected item yet; contrary to the selected item, the new one is of the preferred
-			 * variety; the new item is of the preferred variety, but additioannly also a weak form.
-			 */
-			TranscriptionItem currentlySelected = selectedItem.get();
-
-			if (currentlySelected == null || (!isOfPreferredVariety(currentlySelected) && isOfPreferredVariety(item))
-					|| (isOfPreferredVariety(item) && item.getTransType().equals(TranscriptionType.WEAK))) {
+			// Use the new item as the selected one if it is more likely than the current one.
+			if (isPreferredOver(item, selectedItem.get(), Variety.getPreferredVariety())) {
 				selectedItem.set(item);
 			}
 
@@ -0,0 +1,200 @@
+/**
+ *
+ */
+package de.upb.t2t.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The immutable summary of a bulk import by the
+ * {@link de.upb.t2t.control.database.DictionaryImporter}. Every row read is either imported,
+ * skipped as a duplicate of an item stored already or rejected, the latter along with the reason
+ * why.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see RejectedRow
+ */
+public final class ImportReport {
+
+	/* Static Variables */
+	/** The number of rejected rows listed by {@link #toString()}. */
+	public static final int LISTED_REJECTION_COUNT = 20;
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The number of rows read, excluding blank lines, comments and the header. */
+	private final long rowCount;
+	/** The number of rows that have been imported. */
+	private final long importedCount;
+	/** The number of valid rows that have been skipped as they were stored already. */
+	private final long duplicateCount;
+	/** The rows that have been rejected in the order they have been read. */
+	private final List<RejectedRow> rejectedRows;
+	/** The time the import took in milliseconds. */
+	private final long duration;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link ImportReport} class.
+	 *
+	 * @param rowCount
+	 *            the number of rows read, excluding blank lines, comments and the header.
+	 * @param importedCount
+	 *            the number of rows that have been imported.
+	 * @param duplicateCount
+	 *            the number of valid rows that have been skipped as they were stored already.
+	 * @param rejectedRows
+	 *            the rows that have been rejected.
+	 * @param duration
+	 *            the time the import took in milliseconds.
+	 */
+	public ImportReport(long rowCount, long importedCount, long duplicateCount, List<RejectedRow> rejectedRows,
+			long duration) {
+		this.rowCount = rowCount;
+		this.importedCount = importedCount;
+		this.duplicateCount = duplicateCount;
+		this.rejectedRows = Collections.unmodifiableList(new ArrayList<RejectedRow>(rejectedRows));
+		this.duration = duration;
+	}
+
+	/* Object Methods */
+	/**
+	 * Calculates the import's throughput.
+	 *
+	 * @return the number of rows read per second of the import.
+	 */
+	public double getRowsPerSecond() {
+		return duration == 0 ? 0 : rowCount * 1000.0 / duration;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("Import Report\n");
+		builder.append("Rows: " + rowCount + " in " + duration + " ms (" + String.format("%.1f", getRowsPerSecond())
+				+ " rows/s)\n");
+		builder.append("Imported: " + importedCount + ", duplicates: " + duplicateCount + ", rejected: "
+				+ rejectedRows.size() + "\n");
+		for (RejectedRow row : rejectedRows.subList(0, Math.min(LISTED_REJECTION_COUNT, rejectedRows.size()))) {
+			builder.append("Rejected: " + row + "\n");
+		}
+		if (rejectedRows.size() > LISTED_REJECTION_COUNT) {
+			builder.append("... and " + (rejectedRows.size() - LISTED_REJECTION_COUNT) + " more rejected rows\n");
+		}
+		return builder.toString();
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #rowCount} attribute.
+	 *
+	 * @return the number of rows read, excluding blank lines, comments and the header.
+	 */
+	public long getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * A getter for the {@link #importedCount} attribute.
+	 *
+	 * @return the number of rows that have been imported.
+	 */
+	public long getImportedCount() {
+		return importedCount;
+	}
+
+	/**
+	 * A getter for the {@link #duplicateCount} attribute.
+	 *
+	 * @return the number of valid rows that have been skipped as they were stored already.
+	 */
+	public long getDuplicateCount() {
+		return duplicateCount;
+	}
+
+	/**
+	 * A getter for the {@link #rejectedRows} attribute.
+	 *
+	 * @return an unmodifiable list of the rejected rows in the order they have been read.
+	 */
+	public List<RejectedRow> getRejectedRows() {
+		return rejectedRows;
+	}
+
+	/**
+	 * A getter for the {@link #duration} attribute.
+	 *
+	 * @return the time the import took in milliseconds.
+	 */
+	public long getDuration() {
+		return duration;
+	}
+
+	/* Sub-Classes */
+	/**
+	 * A row of an import file that has been rejected.
+	 *
+	 * @author Michel May (michel-may@gmx.de)
+	 */
+	public static final class RejectedRow {
+
+		/** The row's line number, starting at <code>1</code>. */
+		private final long lineNumber;
+		/** The reason the row has been rejected. */
+		private final String reason;
+		/** The row as read from the file. */
+		private final String line;
+
+		/**
+		 * Constructor for the {@link RejectedRow} class.
+		 *
+		 * @param lineNumber
+		 *            the row's line number, starting at <code>1</code>.
+		 * @param reason
+		 *            the reason the row has been rejected.
+		 * @param line
+		 *            the row as read from the file.
+		 */
+		public RejectedRow(long lineNumber, String reason, String line) {
+			this.lineNumber = lineNumber;
+			this.reason = reason;
+			this.line = line;
+		}
+
+		@Override
+		public String toString() {
+			return "line " + lineNumber + ": " + reason;
+		}
+
+		/**
+		 * A getter for the {@link #lineNumber} attribute.
+		 *
+		 * @return the row's line number, starting at <code>1</code>.
+		 */
+		public long getLineNumber() {
+			return lineNumber;
+		}
+
+		/**
+		 * A getter for the {@link #reason} attribute.
+		 *
+		 * @return the reason the row has been rejected.
+		 */
+		public String getReason() {
+			return reason;
+		}
+
+		/**
+		 * A getter for the {@link #line} attribute.
+		 *
+		 * @return the row as read from the file.
+		 */
+		public String getLine() {
+			return line;
+		}
+	}
+}
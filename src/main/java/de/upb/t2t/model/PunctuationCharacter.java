@@ -57,12 +57,7 @@ public class PunctuationCharacter {
 	 *         object; <code>false</code> otherwise.
 	 */
 	public static boolean isPunctuationCharacter(char character) {
-		try {
-			return getPunctChar(character) != null;
-		} catch (NoSuchElementException e) {
-			// Simply not a (supported) currencyCharacter.
-		}
-		return false;
+		return findPunctChar(character) != null;
 	}
 
 	/**
@@ -89,6 +84,26 @@ public class PunctuationCharacter {
 		return false;
 	}
 
+	/**
+	 * A convenience getter that will return the <code>PunctuationCharacter</code> for the given
+	 * <code>char</code>. Contrary to {@link #getPunctChar(char)}, <code>null</code> is returned
+	 * instead of throwing an exception, which makes it suitable for classifying every single
+	 * character of an input.
+	 *
+	 * @param character
+	 *            the character to look up.
+	 * @return the corresponding <code>PunctuationCharacter</code> object; <code>null</code> if there is
+	 *         none.
+	 */
+	public static PunctuationCharacter findPunctChar(char character) {
+		for (PunctuationCharacter punctChar : KNOWN_PUNCTUATION_CHARACTERS) {
+			if (punctChar.equals(character)) {
+				return punctChar;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * A convenience getter that will return <code>PunctuationCharacter</code> for the given
 	 * <code>char</code>.
@@ -100,13 +115,12 @@ public class PunctuationCharacter {
 	 *             if there is no stored <code>PunctuationCharacter</code> object.
 	 */
 	public static PunctuationCharacter getPunctChar(char character) throws NoSuchElementException {
-		for (PunctuationCharacter punctChar : KNOWN_PUNCTUATION_CHARACTERS) {
-			if (punctChar.equals(character)) {
-				return punctChar;
-			}
+		PunctuationCharacter result = findPunctChar(character);
+		if (result == null) {
+			throw new NoSuchElementException(
+					"Could not retrieve punctuation character object from char \"" + character + "\"!");
 		}
-		throw new NoSuchElementException(
-				"Could not retrieve punctuation character object from char \"" + character + "\"!");
+		return result;
 	}
 
 	/**
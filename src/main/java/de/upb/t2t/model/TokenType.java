@@ -0,0 +1,22 @@
+/**
+ *
+ */
+package de.upb.t2t.model;
+
+/**
+ * An enumeration of the different kinds of {@link TranscriptionToken}s a transcription result may
+ * consist of.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ */
+public enum TokenType {
+
+	/** The notational slash ('/') marking the beginning or ending of a transcription. */
+	ENCLOSING_DELIMITER,
+	/** A segment consisting of non-word characters only, e.g. a free-standing '-' or "...". */
+	PUNCTUATION,
+	/** A segment containing an actual lemma, e.g. a word or a numeral. */
+	WORD,
+	/** The beginning of a new paragraph, which does not hold any transcription. */
+	PARAGRAPH_BREAK;
+}
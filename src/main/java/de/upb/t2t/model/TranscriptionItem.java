@@ -96,16 +96,32 @@ public class TranscriptionItem {
 		listeners = new ArrayList<SelectionListener<TranscriptionItem>>();
 	}
 
+	/**
+	 * Copy constructor for the {@link TranscriptionItem} class. The copy holds the same data as the
+	 * given item, but none of its listeners. This allows for sharing cached items without sharing
+	 * the selection state of their occurrences.
+	 *
+	 * @param item
+	 *            the item to copy.
+	 */
+	public TranscriptionItem(TranscriptionItem item) {
+		this(item.id, item.lemma, item.phoneticString, item.transType, item.wordClass, item.variety);
+	}
+
 	/* Object Methods */
 	/**
 	 * This method notifies all registered listeners, that this item has been selected. This might
-	 * be the case if the user chose it for a transcription in case they had several options.
+	 * be the case if the user chose it for a transcription in case they had several options. The
+	 * listeners are notified on the calling thread, but outside of this item's monitor, so that a
+	 * listener may safely lock its own state in turn.
 	 */
-	public synchronized void select() {
-		for (SelectionListener<TranscriptionItem> listener : listeners) {
-			new Thread(() -> {
-				listener.onItemSelected(TranscriptionItem.this);
-			}).start();
+	public void select() {
+		List<SelectionListener<TranscriptionItem>> snapshot;
+		synchronized (this) {
+			snapshot = new ArrayList<SelectionListener<TranscriptionItem>>(listeners);
+		}
+		for (SelectionListener<TranscriptionItem> listener : snapshot) {
+			listener.onItemSelected(this);
 		}
 	}
 
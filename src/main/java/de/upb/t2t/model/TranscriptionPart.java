@@ -0,0 +1,325 @@
+/**
+ *
+ */
+package de.upb.t2t.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * The smallest unit of a headless transcription result. A <code>TranscriptionPart</code> either
+ * represents a notational delimiter ('/', '|' or '||') or the transcription of a single lemma. In
+ * the latter case, it holds all {@link TranscriptionItem}s that could be found for said lemma (its
+ * candidates), the item that has been pre-selected as the most likely one and a flag indicating
+ * whether or not the user should have a closer look at it.
+ * </p>
+ * <p>
+ * Instances of this class are immutable. Since the candidates' selection state is only of
+ * importance to the GUI, a fresh {@link DatabaseEntry} can be obtained for every occurrence by
+ * calling {@link #toDatabaseEntry()}.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see TranscriptionToken
+ * @see TranscriptionResult
+ */
+public final class TranscriptionPart {
+
+	/* Static Variables */
+
+	/* Static Methods */
+	/**
+	 * Creates a new delimiter part.
+	 *
+	 * @param delimiter
+	 *            the delimiter's text, i.e. "/", "|" or "||".
+	 * @param enclosing
+	 *            whether or not this delimiter marks the beginning or ending of a transcription.
+	 * @return the new <code>TranscriptionPart</code>.
+	 */
+	public static TranscriptionPart newDelimiter(String delimiter, boolean enclosing) {
+		return new TranscriptionPart(null, delimiter, enclosing, Collections.<TranscriptionItem> emptyList(), null,
+				false);
+	}
+
+	/**
+	 * Creates a new word part from the given database entry. The pre-selected item is determined
+	 * by {@link DatabaseEntry#getDefaultItem(List, Variety)}.
+	 *
+	 * @param entry
+	 *            the database entry holding the lemma's transcription items.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting an item.
+	 * @return the new <code>TranscriptionPart</code>.
+	 */
+	public static TranscriptionPart newWord(DatabaseEntry entry, Variety preferredVariety) {
+		List<TranscriptionItem> candidates = new ArrayList<TranscriptionItem>();
+		for (Map<Variety, List<TranscriptionItem>> varietyMap : entry.getMatchedItems().values()) {
+			for (List<TranscriptionItem> items : varietyMap.values()) {
+				candidates.addAll(items);
+			}
+		}
+		return newWord(entry.getLemma(), candidates, preferredVariety);
+	}
+
+	/**
+	 * Creates a new word part from the given candidates. The pre-selected item is determined by
+	 * {@link DatabaseEntry#getDefaultItem(List, Variety)}.
+	 *
+	 * @param lemma
+	 *            the lemma the candidates have been looked up for.
+	 * @param candidates
+	 *            all transcription items available for the lemma.
+	 * @param preferredVariety
+	 *            the variety to prefer when pre-selecting an item.
+	 * @return the new <code>TranscriptionPart</code>.
+	 */
+	public static TranscriptionPart newWord(String lemma, List<TranscriptionItem> candidates,
+			Variety preferredVariety) {
+		TranscriptionPart part = new TranscriptionPart(lemma, null, false,
+				Collections.unmodifiableList(new ArrayList<TranscriptionItem>(candidates)),
+				DatabaseEntry.getDefaultItem(candidates, preferredVariety), false);
+		return part.isInWordClassConflict() ? part.withConflict(true) : part;
+	}
+
+	/* Object Variables */
+	/** The looked up lemma; <code>null</code> for delimiters. */
+	private final String lemma;
+	/** The delimiter's text; <code>null</code> for word parts. */
+	private final String delimiter;
+	/** Indicates whether or not this is an enclosing delimiter ('/'). */
+	private final boolean enclosing;
+	/** An unmodifiable list of all transcription items found for the {@link #lemma}. */
+	private final List<TranscriptionItem> candidates;
+	/** The pre-selected item; <code>null</code> if there are no candidates. */
+	private final TranscriptionItem selectedItem;
+	/** Indicates whether or not the user should have a closer look at this part. */
+	private final boolean conflict;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link TranscriptionPart} class. Use the static factory methods instead.
+	 *
+	 * @param lemma
+	 *            the looked up lemma.
+	 * @param delimiter
+	 *            the delimiter's text.
+	 * @param enclosing
+	 *            whether or not this is an enclosing delimiter.
+	 * @param candidates
+	 *            an unmodifiable list of candidates.
+	 * @param selectedItem
+	 *            the pre-selected item.
+	 * @param conflict
+	 *            the conflict flag.
+	 */
+	private TranscriptionPart(String lemma, String delimiter, boolean enclosing, List<TranscriptionItem> candidates,
+			TranscriptionItem selectedItem, boolean conflict) {
+		this.lemma = lemma;
+		this.delimiter = delimiter;
+		this.enclosing = enclosing;
+		this.candidates = candidates;
+		this.selectedItem = selectedItem;
+		this.conflict = conflict;
+	}
+
+	/* Object Methods */
+	/**
+	 * Returns a copy of this part with the given item pre-selected.
+	 *
+	 * @param item
+	 *            the item to select. Must be one of the {@link #candidates}.
+	 * @return the new <code>TranscriptionPart</code>.
+	 * @throws IllegalArgumentException
+	 *             if the given item is not among the candidates.
+	 */
+	public TranscriptionPart withSelectedItem(TranscriptionItem item) throws IllegalArgumentException {
+		if (!candidates.contains(item)) {
+			throw new IllegalArgumentException("The item to select is not a candidate of \"" + lemma + "\"!");
+		}
+		return new TranscriptionPart(lemma, delimiter, enclosing, candidates, item, conflict);
+	}
+
+	/**
+	 * Returns a copy of this part with the given conflict flag.
+	 *
+	 * @param conflict
+	 *            the conflict flag to set.
+	 * @return the new <code>TranscriptionPart</code>.
+	 */
+	public TranscriptionPart withConflict(boolean conflict) {
+		return new TranscriptionPart(lemma, delimiter, enclosing, candidates, selectedItem, conflict);
+	}
+
+	/**
+	 * Creates a new {@link DatabaseEntry} holding this part's candidates and selects the
+	 * {@link #selectedItem}. Each call returns a new instance holding copies of the candidates, so
+	 * that selections made by the user are never shared between two occurrences of the same lemma,
+	 * even if their parts have been resolved from the very same lookup.
+	 *
+	 * @return a new <code>DatabaseEntry</code>.
+	 */
+	public DatabaseEntry toDatabaseEntry() {
+		DatabaseEntry entry = new DatabaseEntry(lemma);
+		TranscriptionItem selectedCopy = null;
+		for (TranscriptionItem item : candidates) {
+			TranscriptionItem copy = new TranscriptionItem(item);
+			entry.addTranscriptionItem(copy);
+			if (item == selectedItem) {
+				selectedCopy = copy;
+			}
+		}
+		if (selectedCopy != null) {
+			entry.onItemSelected(selectedCopy);
+		}
+		return entry;
+	}
+
+	/**
+	 * Checks whether or not the given part would be displayed exactly like this one, i.e. whether
+	 * both are the same delimiter or both hold the same lemma, the same number of candidates, an
+	 * equal pre-selected item and the same conflict flag. Items are compared by their SQL id and
+	 * phonetic <code>String</code>, so that two lookups of the same lemma are equivalent even if
+	 * they did not return the very same instances.
+	 *
+	 * @param other
+	 *            the part to compare this one to; may be <code>null</code>.
+	 * @return <code>true</code> if both parts are equivalent.
+	 */
+	public boolean isEquivalentTo(TranscriptionPart other) {
+		if (other == this) {
+			return true;
+		}
+		if (other == null || enclosing != other.enclosing || conflict != other.conflict
+				|| candidates.size() != other.candidates.size()) {
+			return false;
+		}
+		if (isDelimiter()) {
+			return delimiter.equals(other.delimiter);
+		}
+		if (!lemma.equals(other.lemma) || other.isDelimiter()) {
+			return false;
+		}
+		if (selectedItem == null || other.selectedItem == null) {
+			return selectedItem == other.selectedItem;
+		}
+		return selectedItem.getId() == other.selectedItem.getId()
+				&& selectedItem.getPhoneticString().equals(other.selectedItem.getPhoneticString());
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A convenience getter to tell delimiters and word parts apart.
+	 *
+	 * @return <code>true</code> if this part is a delimiter; <code>false</code> otherwise.
+	 */
+	public boolean isDelimiter() {
+		return delimiter != null;
+	}
+
+	/**
+	 * A convenience getter to check whether or not any transcription could be found for the
+	 * lemma.
+	 *
+	 * @return <code>true</code> if this is a word part without any candidates.
+	 */
+	public boolean isUnknown() {
+		return !isDelimiter() && candidates.isEmpty();
+	}
+
+	/**
+	 * Checks whether or not the candidates belong to more than one {@link WordClass}. In that case,
+	 * the user must determine which one should be used.
+	 *
+	 * @return <code>true</code> if the candidates span multiple word classes.
+	 */
+	public boolean isInWordClassConflict() {
+		WordClass first = null;
+		for (TranscriptionItem item : candidates) {
+			if (first == null) {
+				first = item.getWordClass();
+			} else if (first != item.getWordClass()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * A getter for the {@link #lemma} attribute.
+	 *
+	 * @return the lemma; <code>null</code> for delimiters.
+	 */
+	public String getLemma() {
+		return lemma;
+	}
+
+	/**
+	 * A getter for the {@link #delimiter} attribute.
+	 *
+	 * @return the delimiter's text; <code>null</code> for word parts.
+	 */
+	public String getDelimiter() {
+		return delimiter;
+	}
+
+	/**
+	 * A getter for the {@link #enclosing} attribute.
+	 *
+	 * @return <code>true</code> if this is an enclosing delimiter.
+	 */
+	public boolean isEnclosing() {
+		return enclosing;
+	}
+
+	/**
+	 * A getter for the {@link #candidates} attribute.
+	 *
+	 * @return an unmodifiable list of all candidates.
+	 */
+	public List<TranscriptionItem> getCandidates() {
+		return candidates;
+	}
+
+	/**
+	 * A getter for the {@link #selectedItem} attribute.
+	 *
+	 * @return the pre-selected item; <code>null</code> if there is none.
+	 */
+	public TranscriptionItem getSelectedItem() {
+		return selectedItem;
+	}
+
+	/**
+	 * A getter for the {@link #conflict} attribute.
+	 *
+	 * @return <code>true</code> if the user should have a closer look at this part.
+	 */
+	public boolean hasConflict() {
+		return conflict;
+	}
+
+	/**
+	 * Returns the text this part would display inside the GUI, i.e. the delimiter, the selected
+	 * item's phonetic <code>String</code> or "Unknown".
+	 *
+	 * @return the part's display text.
+	 */
+	public String getDisplayString() {
+		if (isDelimiter()) {
+			return delimiter;
+		}
+		return selectedItem == null ? "Unknown" : selectedItem.getPhoneticString();
+	}
+
+	@Override
+	public String toString() {
+		return isDelimiter() ? "Delimiter (\"" + delimiter + "\")"
+				: "Word (\"" + lemma + "\" -> /" + getDisplayString() + "/, " + candidates.size() + " candidates"
+						+ (conflict ? ", conflict" : "") + ")";
+	}
+}
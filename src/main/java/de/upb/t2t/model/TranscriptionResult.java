@@ -0,0 +1,116 @@
+/**
+ *
+ */
+package de.upb.t2t.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The immutable outcome of transcribing a piece of text. It consists of the input and its
+ * {@link TranscriptionSentence}s, each of which holds an ordered list of
+ * {@link TranscriptionToken}s, including the enclosing delimiters. Every token
+ * refers to its position inside the input by offsets. Being entirely independent of JavaFx, a
+ * result may be rendered by the GUI just as well as it may be written to a file or sent over the
+ * network.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see TranscriptionSentence
+ * @see TranscriptionToken
+ * @see TranscriptionPart
+ */
+public final class TranscriptionResult {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The input <code>String</code> that has been transcribed. */
+	private final String input;
+	/** The result's sentences in the order of the input. */
+	private final List<TranscriptionSentence> sentences;
+	/** The tokens of all sentences in the order of the input. */
+	private final List<TranscriptionToken> tokens;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link TranscriptionResult} class.
+	 *
+	 * @param input
+	 *            the input <code>String</code> that has been transcribed.
+	 * @param sentences
+	 *            the result's sentences in the order of the input.
+	 */
+	public TranscriptionResult(String input, List<TranscriptionSentence> sentences) {
+		this.input = input;
+		this.sentences = Collections.unmodifiableList(new ArrayList<TranscriptionSentence>(sentences));
+		List<TranscriptionToken> allTokens = new ArrayList<TranscriptionToken>();
+		for (TranscriptionSentence sentence : sentences) {
+			allTokens.addAll(sentence.getTokens());
+		}
+		tokens = Collections.unmodifiableList(allTokens);
+	}
+
+	/* Object Methods */
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #input} attribute.
+	 *
+	 * @return the transcribed input.
+	 */
+	public String getInput() {
+		return input;
+	}
+
+	/**
+	 * A getter for the {@link #sentences} attribute.
+	 *
+	 * @return an unmodifiable list of all sentences.
+	 */
+	public List<TranscriptionSentence> getSentences() {
+		return sentences;
+	}
+
+	/**
+	 * A getter for the {@link #tokens} attribute.
+	 *
+	 * @return an unmodifiable list of the tokens of all sentences.
+	 */
+	public List<TranscriptionToken> getTokens() {
+		return tokens;
+	}
+
+	/**
+	 * Concatenates the display strings of all parts, separated by blanks, just as the GUI would
+	 * copy them to the clipboard. Paragraphs are separated by a line break instead.
+	 *
+	 * @return the phonetic transcription as a single <code>String</code>.
+	 */
+	public String getPhoneticString() {
+		StringBuilder builder = new StringBuilder();
+		boolean lineStart = true;
+		for (TranscriptionToken token : tokens) {
+			if (token.getType() == TokenType.PARAGRAPH_BREAK) {
+				builder.append('\n');
+				lineStart = true;
+			}
+			for (TranscriptionPart part : token.getParts()) {
+				if (!lineStart) {
+					builder.append(' ');
+				}
+				builder.append(part.getDisplayString());
+				lineStart = false;
+			}
+		}
+		return builder.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "Transcription Result (\"" + input + "\"): " + getPhoneticString();
+	}
+}
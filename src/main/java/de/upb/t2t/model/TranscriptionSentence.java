@@ -0,0 +1,117 @@
+/**
+ *
+ */
+package de.upb.t2t.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable sentence of a {@link TranscriptionResult}. Its tokens are enclosed by notational
+ * slashes ('/') of their own and, should the sentence start a new paragraph, preceded by a
+ * {@link TokenType#PARAGRAPH_BREAK} token. Sentences are handed to a
+ * {@link de.upb.t2t.control.transcription.SentenceListener} as soon as they have been transcribed,
+ * so that a consumer need not wait for the whole input.
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see TranscriptionResult
+ * @see TranscriptionToken
+ */
+public final class TranscriptionSentence {
+
+	/* Static Variables */
+
+	/* Static Methods */
+
+	/* Object Variables */
+	/** The sentence's (0-based) position inside the result. */
+	private final int index;
+	/** The offset of the sentence's first character inside the transcribed input. */
+	private final int start;
+	/** The offset behind the sentence's last character inside the transcribed input. */
+	private final int end;
+	/** Indicates whether or not the sentence starts a new paragraph. */
+	private final boolean paragraphStart;
+	/** The sentence's tokens in the order of the input. */
+	private final List<TranscriptionToken> tokens;
+
+	/* Constructors */
+	/**
+	 * Constructor for the {@link TranscriptionSentence} class.
+	 *
+	 * @param index
+	 *            the sentence's (0-based) position inside the result.
+	 * @param start
+	 *            the offset of the sentence's first character inside the transcribed input.
+	 * @param end
+	 *            the offset behind the sentence's last character inside the transcribed input.
+	 * @param paragraphStart
+	 *            whether or not the sentence starts a new paragraph.
+	 * @param tokens
+	 *            the sentence's tokens in the order of the input.
+	 */
+	public TranscriptionSentence(int index, int start, int end, boolean paragraphStart,
+			List<TranscriptionToken> tokens) {
+		this.index = index;
+		this.start = start;
+		this.end = end;
+		this.paragraphStart = paragraphStart;
+		this.tokens = Collections.unmodifiableList(new ArrayList<TranscriptionToken>(tokens));
+	}
+
+	/* Object Methods */
+
+	/* Getters and Setters */
+	/**
+	 * A getter for the {@link #index} attribute.
+	 *
+	 * @return the sentence's (0-based) position inside the result.
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	/**
+	 * A getter for the {@link #start} attribute.
+	 *
+	 * @return the offset of the sentence's first character.
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * A getter for the {@link #end} attribute.
+	 *
+	 * @return the offset behind the sentence's last character.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * A getter for the {@link #paragraphStart} attribute.
+	 *
+	 * @return <code>true</code> if the sentence starts a new paragraph.
+	 */
+	public boolean isParagraphStart() {
+		return paragraphStart;
+	}
+
+	/**
+	 * A getter for the {@link #tokens} attribute.
+	 *
+	 * @return an unmodifiable list of the sentence's tokens.
+	 */
+	public List<TranscriptionToken> getTokens() {
+		return tokens;
+	}
+
+	@Override
+	public String toString() {
+		return "Sentence " + index + " (" + start + "-" + end + (paragraphStart ? ", paragraph" : "") + "): "
+				+ tokens.size() + " tokens";
+	}
+}
@@ -0,0 +1,273 @@
+/**
+ *
+ */
+package de.upb.t2t.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>
+ * A <code>TranscriptionToken</code> is the headless counterpart of a single transcription segment
+ * as displayed by the GUI. It consists of the lemma as typed in by the user, any leading and
+ * trailing non-word characters and a list of {@link TranscriptionPart}s constituting the lemma's
+ * transcription. With "200" serving as an example, the token's parts would hold /tuː hʌndred/.
+ * </p>
+ * <p>
+ * Numerals that could represent a year additionally carry an alternative transcription which
+ * treats them as a common numeral, e.g. "1800" may be read as /eɪtiːn hʌndred/ or as /wʌn θaʊznd
+ * eɪt hʌndred/. Instances of this class are immutable.
+ * </p>
+ *
+ * @author Michel May (michel-may@gmx.de)
+ *
+ * @see TranscriptionResult
+ */
+public final class TranscriptionToken {
+
+	/* Static Variables */
+
+	/* Static Methods */
+	/**
+	 * Checks whether or not the given lists hold pairwise equivalent parts.
+	 *
+	 * @param first
+	 *            the first list.
+	 * @param second
+	 *            the second list.
+	 * @return <code>true</code> if both lists are equivalent.
+	 */
+	private static boolean areEquivalent(List<TranscriptionPart> first, List<TranscriptionPart> second) {
+		if (first.size() != second.size()) {
+			return false;
+		}
+		for (int i = 0; i < first.size(); i++) {
+			if (!first.get(i).isEquivalentTo(second.get(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/* Object Variables */
+	/** The token's type. */
+	private final TokenType type;
+	/** The offset of the token's first character inside the transcribed input. */
+	private final int start;
+	/** The offset behind the token's last character inside the transcribed input. */
+	private final int end;
+	/** Any non-word characters preceding the lemma. */
+	private final String leading;
+	/** The lemma as typed in by the user. */
+	private final String text;
+	/** Any non-word characters following the lemma. */
+	private final String trailing;
+	/** The parts constituting the lemma's transcription. */
+	private final List<TranscriptionPart> parts;
+	/**
+	 * An alternative transcription, e.g. the common reading of a numeral that has been transcribed
+	 * as a year. Empty if there is none.
+	 */
+	private final List<TranscriptionPart> alternativeParts;
+
+	/* Constructors */
+	/**
+	 * Convenience constructor for the {@link TranscriptionToken} class for tokens without an
+	 * alternative transcription.
+	 *
+	 * @param type
+	 *            the token's type.
+	 * @param start
+	 *            the offset of the token's first character inside the transcribed input.
+	 * @param end
+	 *            the offset behind the token's last character inside the transcribed input.
+	 * @param leading
+	 *            any non-word characters preceding the lemma.
+	 * @param text
+	 *            the lemma as typed in by the user.
+	 * @param trailing
+	 *            any non-word characters following the lemma.
+	 * @param parts
+	 *            the parts constituting the lemma's transcription.
+	 */
+	public TranscriptionToken(TokenType type, int start, int end, String leading, String text, String trailing,
+			List<TranscriptionPart> parts) {
+		this(type, start, end, leading, text, trailing, parts, Collections.<TranscriptionPart> emptyList());
+	}
+
+	/**
+	 * Constructor for the {@link TranscriptionToken} class.
+	 *
+	 * @param type
+	 *            the token's type.
+	 * @param start
+	 *            the offset of the token's first character inside the transcribed input.
+	 * @param end
+	 *            the offset behind the token's last character inside the transcribed input.
+	 * @param leading
+	 *            any non-word characters preceding the lemma.
+	 * @param text
+	 *            the lemma as typed in by the user.
+	 * @param trailing
+	 *            any non-word characters following the lemma.
+	 * @param parts
+	 *            the parts constituting the lemma's transcription.
+	 * @param alternativeParts
+	 *            an alternative transcription; may be empty.
+	 */
+	public TranscriptionToken(TokenType type, int start, int end, String leading, String text, String trailing,
+			List<TranscriptionPart> parts, List<TranscriptionPart> alternativeParts) {
+		this.type = type;
+		this.start = start;
+		this.end = end;
+		this.leading = leading;
+		this.text = text;
+		this.trailing = trailing;
+		this.parts = Collections.unmodifiableList(new ArrayList<TranscriptionPart>(parts));
+		this.alternativeParts = Collections.unmodifiableList(new ArrayList<TranscriptionPart>(alternativeParts));
+	}
+
+	/* Object Methods */
+	/**
+	 * Returns a copy of this token whose parts have been replaced by the given ones.
+	 *
+	 * @param newParts
+	 *            the parts to set.
+	 * @return the new <code>TranscriptionToken</code>.
+	 */
+	public TranscriptionToken withParts(List<TranscriptionPart> newParts) {
+		return new TranscriptionToken(type, start, end, leading, text, trailing, newParts, alternativeParts);
+	}
+
+	/**
+	 * Returns a copy of this token whose parts and alternative parts have been replaced by the
+	 * given ones.
+	 *
+	 * @param newParts
+	 *            the parts to set.
+	 * @param newAlternativeParts
+	 *            the alternative parts to set; may be empty.
+	 * @return the new <code>TranscriptionToken</code>.
+	 */
+	public TranscriptionToken withParts(List<TranscriptionPart> newParts, List<TranscriptionPart> newAlternativeParts) {
+		return new TranscriptionToken(type, start, end, leading, text, trailing, newParts, newAlternativeParts);
+	}
+
+	/**
+	 * Checks whether or not the given token would be displayed exactly like this one. Contrary to
+	 * its offsets, the token's type, its strings and its (alternative) parts must be equal in terms
+	 * of {@link TranscriptionPart#isEquivalentTo(TranscriptionPart)}. Thus, a word that merely
+	 * moved because the user edited the input before it is still equivalent.
+	 *
+	 * @param other
+	 *            the token to compare this one to; may be <code>null</code>.
+	 * @return <code>true</code> if both tokens are equivalent.
+	 */
+	public boolean isEquivalentTo(TranscriptionToken other) {
+		if (other == this) {
+			return true;
+		}
+		return other != null && type == other.type && leading.equals(other.leading) && text.equals(other.text)
+				&& trailing.equals(other.trailing) && areEquivalent(parts, other.parts)
+				&& areEquivalent(alternativeParts, other.alternativeParts);
+	}
+
+	/* Getters and Setters */
+	/**
+	 * A convenience getter indicating whether or not the last part of this token is a delimiter.
+	 *
+	 * @return <code>true</code> if the last part is a delimiter; <code>false</code> otherwise.
+	 */
+	public boolean hasTrailingDelimiter() {
+		return !parts.isEmpty() && parts.get(parts.size() - 1).isDelimiter();
+	}
+
+	/**
+	 * A convenience getter indicating whether or not this token offers an alternative
+	 * transcription.
+	 *
+	 * @return <code>true</code> if there are {@link #alternativeParts}.
+	 */
+	public boolean hasAlternative() {
+		return !alternativeParts.isEmpty();
+	}
+
+	/**
+	 * A getter for the {@link #type} attribute.
+	 *
+	 * @return the token's type.
+	 */
+	public TokenType getType() {
+		return type;
+	}
+
+	/**
+	 * A getter for the {@link #start} attribute.
+	 *
+	 * @return the offset of the token's first character inside the transcribed input.
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * A getter for the {@link #end} attribute.
+	 *
+	 * @return the offset behind the token's last character inside the transcribed input.
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * A getter for the {@link #leading} attribute.
+	 *
+	 * @return the leading <code>String</code>.
+	 */
+	public String getLeading() {
+		return leading;
+	}
+
+	/**
+	 * A getter for the {@link #text} attribute.
+	 *
+	 * @return the lemma as typed in by the user.
+	 */
+	public String getText() {
+		return text;
+	}
+
+	/**
+	 * A getter for the {@link #trailing} attribute.
+	 *
+	 * @return the trailing <code>String</code>.
+	 */
+	public String getTrailing() {
+		return trailing;
+	}
+
+	/**
+	 * A getter for the {@link #parts} attribute.
+	 *
+	 * @return an unmodifiable list of the token's parts.
+	 */
+	public List<TranscriptionPart> getParts() {
+		return parts;
+	}
+
+	/**
+	 * A getter for the {@link #alternativeParts} attribute.
+	 *
+	 * @return an unmodifiable list of the token's alternative parts.
+	 */
+	public List<TranscriptionPart> getAlternativeParts() {
+		return alternativeParts;
+	}
+
+	@Override
+	public String toString() {
+		return "Token (" + type + ", " + start + "-" + end + ", \"" + leading + "|" + text + "|" + trailing + "\"): "
+				+ parts;
+	}
+}